@@ -0,0 +1,254 @@
+package com.cinema.bookings.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * In-process copy of the analytically interesting booking columns, stored off
+ * heap as struct-of-arrays.
+ *
+ * Rows live in fixed-size segments of direct buffers, one per column: movie id,
+ * screening time (epoch seconds of the local date-time), price and a one-byte
+ * status code. A row costs 25 bytes and nothing on the garbage-collected heap,
+ * and a scan reads each column sequentially. Segments are also the unit of
+ * parallelism: {@link #aggregate} splits the row range over a fork-join pool
+ * and merges the per-task {@link GroupTotals}.
+ *
+ * Writes are serialized on the store; scans run without locking and see every
+ * row appended before the scan started. A row updated during a scan may be seen
+ * in either state. Deleted bookings stay in place with status {@link #DELETED}.
+ */
+public class BookingColumnStore {
+
+    public static final byte PENDING = 0;
+    public static final byte CONFIRMED = 1;
+    public static final byte CANCELLED = 2;
+    public static final byte OTHER = 3;
+    public static final byte DELETED = 4;
+    public static final byte COMPLETED = 5;
+    public static final byte NO_SHOW = 6;
+
+    static final int SEGMENT_BITS = 16;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int ID_PAGE_BITS = 16;
+    private static final int ID_PAGE_SIZE = 1 << ID_PAGE_BITS;
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int size;
+    private IntBuffer[] rowsById = new IntBuffer[0];
+
+    public static byte statusCode(String status) {
+        if (status == null) {
+            return OTHER;
+        }
+        return switch (status) {
+            case "PENDING" -> PENDING;
+            case "CONFIRMED" -> CONFIRMED;
+            case "CANCELLED" -> CANCELLED;
+            case "COMPLETED" -> COMPLETED;
+            case "NO_SHOW" -> NO_SHOW;
+            default -> OTHER;
+        };
+    }
+
+    public static String statusName(byte code) {
+        return switch (code) {
+            case PENDING -> "PENDING";
+            case CONFIRMED -> "CONFIRMED";
+            case CANCELLED -> "CANCELLED";
+            case DELETED -> "DELETED";
+            case COMPLETED -> "COMPLETED";
+            case NO_SHOW -> "NO_SHOW";
+            default -> "OTHER";
+        };
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return direct memory held by the column segments, in bytes
+     */
+    public long offHeapBytes() {
+        return (long) segments.length * SEGMENT_SIZE * (3 * Long.BYTES + 1);
+    }
+
+    /**
+     * Adds a booking unless a row for its id already exists. Used by the bulk
+     * load, which must not overwrite rows that change events have made newer.
+     *
+     * @return false if the booking was already present
+     */
+    public synchronized boolean insertIfAbsent(long id, long movieId, long screeningEpoch, double price, byte status) {
+        if (rowOf(id) >= 0) {
+            return false;
+        }
+        append(id, movieId, screeningEpoch, price, status);
+        return true;
+    }
+
+    /**
+     * Inserts a booking or overwrites its existing row.
+     */
+    public synchronized void upsert(long id, long movieId, long screeningEpoch, double price, byte status) {
+        int row = rowOf(id);
+        if (row < 0) {
+            append(id, movieId, screeningEpoch, price, status);
+            return;
+        }
+        Segment segment = segments[row >>> SEGMENT_BITS];
+        int offset = row & SEGMENT_MASK;
+        segment.movieIds.put(offset, movieId);
+        segment.screenings.put(offset, screeningEpoch);
+        segment.prices.put(offset, price);
+        segment.statuses.put(offset, status);
+    }
+
+    /**
+     * Marks a booking deleted; unknown ids get a deleted row so a later bulk
+     * load does not bring them back.
+     */
+    public synchronized void delete(long id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            append(id, 0, 0, 0, DELETED);
+        } else {
+            segments[row >>> SEGMENT_BITS].statuses.put(row & SEGMENT_MASK, DELETED);
+        }
+    }
+
+    /**
+     * Counts matching rows and sums their prices per group, scanning segments in parallel.
+     */
+    public GroupTotals aggregate(ScanFilter filter, GroupBy groupBy, ForkJoinPool pool) {
+        int rows = size;
+        Segment[] snapshot = segments;
+        if (rows == 0) {
+            return new GroupTotals();
+        }
+        return pool.invoke(new ScanTask(snapshot, filter, groupBy, 0, rows));
+    }
+
+    private void append(long id, long movieId, long screeningEpoch, double price, byte status) {
+        int row = size;
+        int segmentIndex = row >>> SEGMENT_BITS;
+        Segment[] current = segments;
+        if (segmentIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[segmentIndex] = new Segment();
+            segments = current;
+        }
+        Segment segment = current[segmentIndex];
+        int offset = row & SEGMENT_MASK;
+        segment.movieIds.put(offset, movieId);
+        segment.screenings.put(offset, screeningEpoch);
+        segment.prices.put(offset, price);
+        segment.statuses.put(offset, status);
+        indexRow(id, row);
+        // volatile write publishes the row to scans
+        size = row + 1;
+    }
+
+    private int rowOf(long id) {
+        if (id < 0) {
+            return -1;
+        }
+        long page = id >>> ID_PAGE_BITS;
+        if (page >= rowsById.length || rowsById[(int) page] == null) {
+            return -1;
+        }
+        return rowsById[(int) page].get((int) (id & (ID_PAGE_SIZE - 1))) - 1;
+    }
+
+    private void indexRow(long id, int row) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Booking ids must not be negative");
+        }
+        int page = Math.toIntExact(id >>> ID_PAGE_BITS);
+        if (page >= rowsById.length) {
+            rowsById = Arrays.copyOf(rowsById, Math.max(page + 1, rowsById.length * 2));
+        }
+        if (rowsById[page] == null) {
+            rowsById[page] = ByteBuffer.allocateDirect(ID_PAGE_SIZE * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        rowsById[page].put((int) (id & (ID_PAGE_SIZE - 1)), row + 1);
+    }
+
+    private static final class Segment {
+        private final LongBuffer movieIds = allocate(Long.BYTES).asLongBuffer();
+        private final LongBuffer screenings = allocate(Long.BYTES).asLongBuffer();
+        private final DoubleBuffer prices = allocate(Double.BYTES).asDoubleBuffer();
+        private final ByteBuffer statuses = allocate(1);
+
+        private static ByteBuffer allocate(int width) {
+            return ByteBuffer.allocateDirect(SEGMENT_SIZE * width).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<GroupTotals> {
+
+        private final Segment[] segments;
+        private final ScanFilter filter;
+        private final GroupBy groupBy;
+        private final int from;
+        private final int to;
+
+        private ScanTask(Segment[] segments, ScanFilter filter, GroupBy groupBy, int from, int to) {
+            this.segments = segments;
+            this.filter = filter;
+            this.groupBy = groupBy;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GroupTotals compute() {
+            if (to - from > SEGMENT_SIZE) {
+                // split on a segment boundary so each leaf reads one segment
+                int middle = ((from + (to - from) / 2) >>> SEGMENT_BITS) << SEGMENT_BITS;
+                if (middle <= from) {
+                    middle = from + SEGMENT_SIZE;
+                }
+                ScanTask right = new ScanTask(segments, filter, groupBy, middle, to);
+                right.fork();
+                GroupTotals left = new ScanTask(segments, filter, groupBy, from, middle).compute();
+                return left.merge(right.join());
+            }
+            return scan();
+        }
+
+        private GroupTotals scan() {
+            GroupTotals totals = new GroupTotals();
+            int row = from;
+            while (row < to) {
+                Segment segment = segments[row >>> SEGMENT_BITS];
+                int offset = row & SEGMENT_MASK;
+                int end = Math.min(SEGMENT_SIZE, offset + (to - row));
+                LongBuffer movieIds = segment.movieIds;
+                LongBuffer screenings = segment.screenings;
+                DoubleBuffer prices = segment.prices;
+                ByteBuffer statuses = segment.statuses;
+                for (int i = offset; i < end; i++) {
+                    long movieId = movieIds.get(i);
+                    long screening = screenings.get(i);
+                    byte status = statuses.get(i);
+                    if (filter.matches(movieId, screening, status)) {
+                        totals.add(groupBy.key(movieId, screening, status), prices.get(i));
+                    }
+                }
+                row += end - offset;
+            }
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.cinema.bookings.analytics;
+
+import com.cinema.bookings.exception.InvalidAnalyticsQueryException;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Grouping keys for analytics scans, computed from the primitive columns.
+ * Screening times are stored as epoch seconds of the local date-time, so the
+ * calendar arithmetic below needs no time zone.
+ */
+public enum GroupBy {
+
+    HOUR_OF_DAY,
+    DAY_OF_WEEK,
+    MOVIE,
+    STATUS;
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * @throws InvalidAnalyticsQueryException if the name matches no grouping, ignoring case
+     */
+    public static GroupBy of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAnalyticsQueryException("Cannot group bookings by " + name + "; use one of "
+                    + Arrays.toString(values()));
+        }
+    }
+
+    long key(long movieId, long screeningEpoch, byte status) {
+        return switch (this) {
+            case HOUR_OF_DAY -> Math.floorMod(Math.floorDiv(screeningEpoch, SECONDS_PER_HOUR), 24);
+            // 1970-01-01 was a Thursday: day 0 maps to index 3, Monday being 0
+            case DAY_OF_WEEK -> Math.floorMod(Math.floorDiv(screeningEpoch, SECONDS_PER_DAY) + 3, 7);
+            case MOVIE -> movieId;
+            case STATUS -> status;
+        };
+    }
+
+    public String label(long key) {
+        return switch (this) {
+            case HOUR_OF_DAY, MOVIE -> Long.toString(key);
+            case DAY_OF_WEEK -> DayOfWeek.of((int) key + 1).name();
+            case STATUS -> BookingColumnStore.statusName((byte) key);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.cinema.bookings.analytics;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Booking count and revenue per group key, in primitive open-addressing
+ * arrays so a scan does not box per row. Not thread-safe; each scan task
+ * fills its own instance and the results are merged.
+ */
+public final class GroupTotals {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] counts;
+    private double[] revenue;
+    private int size;
+    private long rowsMatched;
+
+    GroupTotals() {
+        allocate(32);
+    }
+
+    void add(long key, double price) {
+        put(key, 1, price);
+        rowsMatched++;
+    }
+
+    GroupTotals merge(GroupTotals other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != EMPTY) {
+                put(other.keys[slot], other.counts[slot], other.revenue[slot]);
+            }
+        }
+        rowsMatched += other.rowsMatched;
+        return this;
+    }
+
+    public long getRowsMatched() {
+        return rowsMatched;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every group; the order is unspecified.
+     */
+    public void forEach(Consumer<Group> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                action.accept(new Group(keys[slot], counts[slot], revenue[slot]));
+            }
+        }
+    }
+
+    private void put(long key, long count, double sum) {
+        int mask = keys.length - 1;
+        int slot = ScanFilter.slot(key, mask);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        counts[slot] += count;
+        revenue[slot] += sum;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        double[] oldRevenue = revenue;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                put(oldKeys[slot], oldCounts[slot], oldRevenue[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[capacity];
+        revenue = new double[capacity];
+    }
+
+    public record Group(long key, long bookings, double revenue) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.cinema.bookings.analytics;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Row predicate for analytics scans. All conditions are evaluated against the
+ * primitive columns; a null movie set matches every movie.
+ */
+public final class ScanFilter {
+
+    private final long fromEpoch;
+    private final long toEpoch;
+    private final int statusMask;
+    private final long[] movieTable;
+
+    private ScanFilter(long fromEpoch, long toEpoch, int statusMask, long[] movieTable) {
+        this.fromEpoch = fromEpoch;
+        this.toEpoch = toEpoch;
+        this.statusMask = statusMask;
+        this.movieTable = movieTable;
+    }
+
+    /**
+     * @param fromEpoch  inclusive lower bound of the screening time, in epoch seconds
+     * @param toEpoch    exclusive upper bound of the screening time, in epoch seconds
+     * @param statuses   status codes to include, see {@link BookingColumnStore#statusCode(String)}
+     * @param movieIds   movies to include, or null for all
+     */
+    public static ScanFilter of(long fromEpoch, long toEpoch, Collection<Byte> statuses, Collection<Long> movieIds) {
+        int mask = 0;
+        for (byte status : statuses) {
+            mask |= 1 << status;
+        }
+        return new ScanFilter(fromEpoch, toEpoch, mask, movieIds == null ? null : movieTable(movieIds));
+    }
+
+    boolean matches(long movieId, long screeningEpoch, byte status) {
+        return screeningEpoch >= fromEpoch && screeningEpoch < toEpoch
+                && (statusMask & (1 << status)) != 0
+                && (movieTable == null || containsMovie(movieId));
+    }
+
+    /**
+     * Open-addressing set of movie ids, sized to a power of two at most half full.
+     * Empty slots hold {@link Long#MIN_VALUE}.
+     */
+    private static long[] movieTable(Collection<Long> movieIds) {
+        int capacity = Integer.highestOneBit(Math.max(4, movieIds.size() * 4 - 1));
+        long[] table = new long[capacity];
+        Arrays.fill(table, Long.MIN_VALUE);
+        for (long movieId : movieIds) {
+            int slot = slot(movieId, capacity - 1);
+            while (table[slot] != Long.MIN_VALUE && table[slot] != movieId) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = movieId;
+        }
+        return table;
+    }
+
+    private boolean containsMovie(long movieId) {
+        int mask = movieTable.length - 1;
+        for (int slot = slot(movieId, mask); ; slot = (slot + 1) & mask) {
+            long entry = movieTable[slot];
+            if (entry == movieId) {
+                return true;
+            }
+            if (entry == Long.MIN_VALUE) {
+                return false;
+            }
+        }
+    }
+
+    static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cinema.bookings.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicates for scanning archived bookings. Every field is optional;
+ * null fields do not restrict the result.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveQuery {
+
+    /**
+     * Inclusive lower bound of the screening time
+     */
+    private LocalDateTime from;
+
+    /**
+     * Exclusive upper bound of the screening time
+     */
+    private LocalDateTime to;
+
+    private Long movieId;
+
+    private Long userId;
+
+    private String status;
+}
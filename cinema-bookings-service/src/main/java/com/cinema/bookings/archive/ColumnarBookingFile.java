@@ -0,0 +1,475 @@
+package com.cinema.bookings.archive;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed columnar file format for archived bookings.
+ *
+ * Layout: a fixed-size header (magic, version, row count, zone map with the
+ * min/max screening time, movie id and user id, and a directory with the offset
+ * and lengths of every column) followed by one deflate-compressed block per
+ * column. String columns are dictionary encoded. Rows are stored ordered by
+ * screening time.
+ *
+ * Scans memory-map the file and push predicates down: the zone map can skip
+ * the whole file, a status missing from the dictionary skips it as well, and
+ * only the predicate columns are decompressed until at least one row matches.
+ */
+public final class ColumnarBookingFile {
+
+    private static final int MAGIC = 0x43424131;
+    private static final int VERSION = 1;
+
+    private static final int ID = 0;
+    private static final int USER_ID = 1;
+    private static final int MOVIE_ID = 2;
+    private static final int SCREENING_TIME = 3;
+    private static final int SEAT_NUMBER = 4;
+    private static final int PRICE = 5;
+    private static final int CREATED_AT = 6;
+    private static final int UPDATED_AT = 7;
+    private static final int MOVIE_TITLE = 8;
+    private static final int USER_EMAIL = 9;
+    private static final int SEAT_ROW = 10;
+    private static final int STATUS = 11;
+    private static final int COLUMN_COUNT = 12;
+
+    private static final int ZONE_MAP_OFFSET = 12;
+    private static final int DIRECTORY_OFFSET = ZONE_MAP_OFFSET + 6 * Long.BYTES;
+    private static final int DIRECTORY_ENTRY_SIZE = Long.BYTES + 2 * Integer.BYTES;
+    private static final int HEADER_SIZE = DIRECTORY_OFFSET + COLUMN_COUNT * DIRECTORY_ENTRY_SIZE;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_CODE = -1;
+
+    private ColumnarBookingFile() {
+    }
+
+    /**
+     * Writes the given bookings to a new archive file, atomically replacing any existing file.
+     *
+     * @param path the target file
+     * @param rows the bookings to store
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<BookingResponseDTO> rows) throws IOException {
+        List<BookingResponseDTO> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(BookingResponseDTO::getScreeningTime)
+                .thenComparing(BookingResponseDTO::getId));
+
+        byte[][] raw = new byte[COLUMN_COUNT][];
+        raw[ID] = encodeLongs(sorted, BookingResponseDTO::getId);
+        raw[USER_ID] = encodeLongs(sorted, BookingResponseDTO::getUserId);
+        raw[MOVIE_ID] = encodeLongs(sorted, BookingResponseDTO::getMovieId);
+        raw[SCREENING_TIME] = encodeLongs(sorted, row -> toMicros(row.getScreeningTime()));
+        raw[SEAT_NUMBER] = encodeInts(sorted);
+        raw[PRICE] = encodeDoubles(sorted);
+        raw[CREATED_AT] = encodeLongs(sorted, row -> toMicros(row.getCreatedAt()));
+        raw[UPDATED_AT] = encodeLongs(sorted, row -> toMicros(row.getUpdatedAt()));
+        raw[MOVIE_TITLE] = encodeDictionary(sorted, BookingResponseDTO::getMovieTitle);
+        raw[USER_EMAIL] = encodeDictionary(sorted, BookingResponseDTO::getUserEmail);
+        raw[SEAT_ROW] = encodeDictionary(sorted, BookingResponseDTO::getSeatRow);
+        raw[STATUS] = encodeDictionary(sorted, BookingResponseDTO::getStatus);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(sorted.size());
+        putZoneMap(header, sorted);
+
+        byte[][] compressed = new byte[COLUMN_COUNT][];
+        long offset = HEADER_SIZE;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            compressed[column] = deflate(raw[column]);
+            header.putLong(offset).putInt(compressed[column].length).putInt(raw[column].length);
+            offset += compressed[column].length;
+        }
+        header.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (byte[] block : compressed) {
+                writeFully(channel, ByteBuffer.wrap(block));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Scans an archive file and returns the bookings matching the query.
+     *
+     * @param path  the archive file
+     * @param query the scan predicates
+     * @return the matching bookings ordered by screening time
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static List<BookingResponseDTO> scan(Path path, ArchiveQuery query) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Reader(buffer).scan(query);
+        }
+    }
+
+    /**
+     * Reads every booking stored in an archive file.
+     *
+     * @param path the archive file
+     * @return all stored bookings
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static List<BookingResponseDTO> readAll(Path path) throws IOException {
+        return scan(path, new ArchiveQuery());
+    }
+
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private final int rowCount;
+        private final Object[] columns = new Object[COLUMN_COUNT];
+
+        private Reader(ByteBuffer buffer) throws IOException {
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a booking archive file");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported booking archive version: " + buffer.getInt(4));
+            }
+            this.buffer = buffer;
+            this.rowCount = buffer.getInt(8);
+        }
+
+        private List<BookingResponseDTO> scan(ArchiveQuery query) throws IOException {
+            if (rowCount == 0 || !zoneMapMatches(query)) {
+                return Collections.emptyList();
+            }
+
+            BitSet selected = new BitSet(rowCount);
+            selected.set(0, rowCount);
+
+            if (query.getFrom() != null || query.getTo() != null) {
+                long from = query.getFrom() != null ? toMicros(query.getFrom()) : Long.MIN_VALUE;
+                long to = query.getTo() != null ? toMicros(query.getTo()) : Long.MAX_VALUE;
+                long[] screening = longs(SCREENING_TIME);
+                for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                    if (screening[row] < from || screening[row] >= to) {
+                        selected.clear(row);
+                    }
+                }
+            }
+            if (query.getMovieId() != null) {
+                retainEqual(selected, longs(MOVIE_ID), query.getMovieId());
+            }
+            if (query.getUserId() != null) {
+                retainEqual(selected, longs(USER_ID), query.getUserId());
+            }
+            if (query.getStatus() != null) {
+                Dictionary status = dictionary(STATUS);
+                int code = status.indexOf(query.getStatus());
+                if (code == NULL_CODE) {
+                    return Collections.emptyList();
+                }
+                for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                    if (status.codes[row] != code) {
+                        selected.clear(row);
+                    }
+                }
+            }
+
+            if (selected.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return materialize(selected);
+        }
+
+        private boolean zoneMapMatches(ArchiveQuery query) {
+            long minScreening = buffer.getLong(ZONE_MAP_OFFSET);
+            long maxScreening = buffer.getLong(ZONE_MAP_OFFSET + 8);
+            long minMovie = buffer.getLong(ZONE_MAP_OFFSET + 16);
+            long maxMovie = buffer.getLong(ZONE_MAP_OFFSET + 24);
+            long minUser = buffer.getLong(ZONE_MAP_OFFSET + 32);
+            long maxUser = buffer.getLong(ZONE_MAP_OFFSET + 40);
+
+            if (query.getFrom() != null && maxScreening < toMicros(query.getFrom())) {
+                return false;
+            }
+            if (query.getTo() != null && minScreening >= toMicros(query.getTo())) {
+                return false;
+            }
+            if (query.getMovieId() != null && (query.getMovieId() < minMovie || query.getMovieId() > maxMovie)) {
+                return false;
+            }
+            return query.getUserId() == null || (query.getUserId() >= minUser && query.getUserId() <= maxUser);
+        }
+
+        private List<BookingResponseDTO> materialize(BitSet selected) throws IOException {
+            long[] ids = longs(ID);
+            long[] userIds = longs(USER_ID);
+            long[] movieIds = longs(MOVIE_ID);
+            long[] screening = longs(SCREENING_TIME);
+            int[] seatNumbers = ints(SEAT_NUMBER);
+            double[] prices = doubles(PRICE);
+            long[] createdAt = longs(CREATED_AT);
+            long[] updatedAt = longs(UPDATED_AT);
+            Dictionary titles = dictionary(MOVIE_TITLE);
+            Dictionary emails = dictionary(USER_EMAIL);
+            Dictionary seatRows = dictionary(SEAT_ROW);
+            Dictionary statuses = dictionary(STATUS);
+
+            List<BookingResponseDTO> result = new ArrayList<>(selected.cardinality());
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                BookingResponseDTO booking = new BookingResponseDTO();
+                booking.setId(ids[row]);
+                booking.setUserId(userIds[row]);
+                booking.setMovieId(movieIds[row]);
+                booking.setMovieTitle(titles.valueAt(row));
+                booking.setUserEmail(emails.valueAt(row));
+                booking.setScreeningTime(fromMicros(screening[row]));
+                booking.setSeatNumber(seatNumbers[row] == NULL_INT ? null : seatNumbers[row]);
+                booking.setSeatRow(seatRows.valueAt(row));
+                booking.setPrice(Double.isNaN(prices[row]) ? null : prices[row]);
+                booking.setStatus(statuses.valueAt(row));
+                booking.setCreatedAt(fromMicros(createdAt[row]));
+                booking.setUpdatedAt(fromMicros(updatedAt[row]));
+                result.add(booking);
+            }
+            return result;
+        }
+
+        private long[] longs(int column) throws IOException {
+            if (columns[column] == null) {
+                ByteBuffer raw = column(column);
+                long[] values = new long[rowCount];
+                raw.asLongBuffer().get(values);
+                columns[column] = values;
+            }
+            return (long[]) columns[column];
+        }
+
+        private int[] ints(int column) throws IOException {
+            if (columns[column] == null) {
+                int[] values = new int[rowCount];
+                column(column).asIntBuffer().get(values);
+                columns[column] = values;
+            }
+            return (int[]) columns[column];
+        }
+
+        private double[] doubles(int column) throws IOException {
+            if (columns[column] == null) {
+                double[] values = new double[rowCount];
+                column(column).asDoubleBuffer().get(values);
+                columns[column] = values;
+            }
+            return (double[]) columns[column];
+        }
+
+        private Dictionary dictionary(int column) throws IOException {
+            if (columns[column] == null) {
+                ByteBuffer raw = column(column);
+                String[] values = new String[raw.getInt()];
+                for (int i = 0; i < values.length; i++) {
+                    byte[] bytes = new byte[raw.getInt()];
+                    raw.get(bytes);
+                    values[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                int[] codes = new int[rowCount];
+                raw.asIntBuffer().get(codes);
+                columns[column] = new Dictionary(values, codes);
+            }
+            return (Dictionary) columns[column];
+        }
+
+        private ByteBuffer column(int column) throws IOException {
+            int entry = DIRECTORY_OFFSET + column * DIRECTORY_ENTRY_SIZE;
+            int offset = (int) buffer.getLong(entry);
+            int compressedLength = buffer.getInt(entry + Long.BYTES);
+            int rawLength = buffer.getInt(entry + Long.BYTES + Integer.BYTES);
+            return inflate(buffer.slice(offset, compressedLength), rawLength);
+        }
+    }
+
+    private static final class Dictionary {
+
+        private final String[] values;
+        private final int[] codes;
+
+        private Dictionary(String[] values, int[] codes) {
+            this.values = values;
+            this.codes = codes;
+        }
+
+        private int indexOf(String value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(value)) {
+                    return i;
+                }
+            }
+            return NULL_CODE;
+        }
+
+        private String valueAt(int row) {
+            return codes[row] == NULL_CODE ? null : values[codes[row]];
+        }
+    }
+
+    private static void retainEqual(BitSet selected, long[] values, long expected) {
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            if (values[row] != expected) {
+                selected.clear(row);
+            }
+        }
+    }
+
+    private static void putZoneMap(ByteBuffer header, List<BookingResponseDTO> rows) {
+        long minScreening = Long.MAX_VALUE, maxScreening = Long.MIN_VALUE;
+        long minMovie = Long.MAX_VALUE, maxMovie = Long.MIN_VALUE;
+        long minUser = Long.MAX_VALUE, maxUser = Long.MIN_VALUE;
+        for (BookingResponseDTO row : rows) {
+            long screening = toMicros(row.getScreeningTime());
+            minScreening = Math.min(minScreening, screening);
+            maxScreening = Math.max(maxScreening, screening);
+            minMovie = Math.min(minMovie, row.getMovieId());
+            maxMovie = Math.max(maxMovie, row.getMovieId());
+            minUser = Math.min(minUser, row.getUserId());
+            maxUser = Math.max(maxUser, row.getUserId());
+        }
+        header.putLong(minScreening).putLong(maxScreening)
+                .putLong(minMovie).putLong(maxMovie)
+                .putLong(minUser).putLong(maxUser);
+    }
+
+    private static byte[] encodeLongs(List<BookingResponseDTO> rows, Function<BookingResponseDTO, Long> getter) {
+        ByteBuffer out = ByteBuffer.allocate(rows.size() * Long.BYTES);
+        for (BookingResponseDTO row : rows) {
+            Long value = getter.apply(row);
+            out.putLong(value != null ? value : NULL_LONG);
+        }
+        return out.array();
+    }
+
+    private static byte[] encodeInts(List<BookingResponseDTO> rows) {
+        ByteBuffer out = ByteBuffer.allocate(rows.size() * Integer.BYTES);
+        for (BookingResponseDTO row : rows) {
+            out.putInt(row.getSeatNumber() != null ? row.getSeatNumber() : NULL_INT);
+        }
+        return out.array();
+    }
+
+    private static byte[] encodeDoubles(List<BookingResponseDTO> rows) {
+        ByteBuffer out = ByteBuffer.allocate(rows.size() * Double.BYTES);
+        for (BookingResponseDTO row : rows) {
+            out.putDouble(row.getPrice() != null ? row.getPrice() : Double.NaN);
+        }
+        return out.array();
+    }
+
+    private static byte[] encodeDictionary(List<BookingResponseDTO> rows, Function<BookingResponseDTO, String> getter) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] codes = new int[rows.size()];
+        for (int i = 0; i < codes.length; i++) {
+            String value = getter.apply(rows.get(i));
+            codes[i] = value == null ? NULL_CODE : dictionary.computeIfAbsent(value, key -> dictionary.size());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer scratch = ByteBuffer.allocate(Integer.BYTES);
+        out.writeBytes(scratch.putInt(0, dictionary.size()).array());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeBytes(scratch.putInt(0, bytes.length).array());
+            out.writeBytes(bytes);
+        }
+        ByteBuffer codeBytes = ByteBuffer.allocate(codes.length * Integer.BYTES);
+        codeBytes.asIntBuffer().put(codes);
+        out.writeBytes(codeBytes.array());
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Corrupt booking archive column");
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt booking archive column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static Long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return null;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
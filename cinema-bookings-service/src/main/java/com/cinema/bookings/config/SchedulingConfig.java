@@ -0,0 +1,74 @@
+package com.cinema.bookings.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables Spring's scheduled task execution for background housekeeping
+ * jobs of the bookings service.
+ *
+ * Short jobs share {@code taskScheduler} ({@code spring.task.scheduling.pool.size}
+ * threads). Jobs that can run for minutes, sleep or wait on other services get a
+ * thread of their own through {@code @Scheduled(scheduler = ...)}, so they never
+ * hold up the short ones.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String ARCHIVE_SCHEDULER = "archiveScheduler";
+    public static final String SYNC_SCHEDULER = "syncScheduler";
+    public static final String RECONCILE_SCHEDULER = "reconcileScheduler";
+    public static final String CANCELLATION_SCHEDULER = "cancellationScheduler";
+    public static final String LIFECYCLE_SCHEDULER = "lifecycleScheduler";
+    public static final String ANALYTICS_SCHEDULER = "analyticsScheduler";
+
+    /**
+     * The shared scheduler, declared here because Spring Boot stops providing it once
+     * the dedicated schedulers below exist.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(ARCHIVE_SCHEDULER)
+    public ThreadPoolTaskScheduler archiveScheduler() {
+        return dedicated("booking-archive-");
+    }
+
+    @Bean(SYNC_SCHEDULER)
+    public ThreadPoolTaskScheduler syncScheduler() {
+        return dedicated("booking-sync-");
+    }
+
+    @Bean(RECONCILE_SCHEDULER)
+    public ThreadPoolTaskScheduler reconcileScheduler() {
+        return dedicated("booking-reconcile-");
+    }
+
+    @Bean(CANCELLATION_SCHEDULER)
+    public ThreadPoolTaskScheduler cancellationScheduler() {
+        return dedicated("screening-cancel-resume-");
+    }
+
+    @Bean(LIFECYCLE_SCHEDULER)
+    public ThreadPoolTaskScheduler lifecycleScheduler() {
+        return dedicated("booking-lifecycle-");
+    }
+
+    @Bean(ANALYTICS_SCHEDULER)
+    public ThreadPoolTaskScheduler analyticsScheduler() {
+        return dedicated("analytics-catch-up-");
+    }
+
+    private static ThreadPoolTaskScheduler dedicated(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
@@ -0,0 +1,40 @@
+package com.cinema.bookings.config;
+
+import com.cinema.bookings.filter.ShardRoutingFilter;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.service.ShardRoutingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Registers the shard routing filter when {@code booking.sharding.enabled} is
+ * set. It runs ahead of the other filters so a request owned by another node
+ * is passed on before any local work is done for it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShardRoutingFilter> shardRoutingFilter(
+            ShardRoutingService shardRoutingService,
+            BookingRepository bookingRepository,
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            @Value("${booking.sharding.secret:}") String secret,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ShardRoutingFilter> registration = new FilterRegistrationBean<>(
+                new ShardRoutingFilter(shardRoutingService, bookingRepository, restTemplate, objectMapper, secret,
+                        meterRegistry));
+        registration.addUrlPatterns("/api/bookings/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.analytics.GroupBy;
+import com.cinema.bookings.dto.OccupancyReportDTO;
+import com.cinema.bookings.service.BookingAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dashboard queries answered from the in-memory analytics store.
+ */
+@RestController
+@RequestMapping("/api/bookings/analytics")
+@RequiredArgsConstructor
+public class BookingAnalyticsController {
+
+    private final BookingAnalyticsService bookingAnalyticsService;
+
+    @GetMapping("/occupancy")
+    public ResponseEntity<OccupancyReportDTO> occupancy(
+            @RequestParam(defaultValue = "HOUR_OF_DAY") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<Long> movieIds,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) List<String> status) {
+        OccupancyReportDTO report = bookingAnalyticsService.occupancy(
+                GroupBy.of(groupBy), from, to, movieIds, genre, status);
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.archive.ArchiveQuery;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.service.BookingArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reporting endpoints over the cold archive of historical bookings.
+ */
+@RestController
+@RequestMapping("/api/bookings/archive")
+@RequiredArgsConstructor
+public class BookingArchiveController {
+
+    private final BookingArchiveService bookingArchiveService;
+
+    @GetMapping
+    public ResponseEntity<List<BookingResponseDTO>> queryArchive(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status) {
+        ArchiveQuery query = new ArchiveQuery(from, to, movieId, userId, status);
+        return ResponseEntity.ok(bookingArchiveService.queryArchive(query));
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Integer>> runArchive() {
+        int archived = bookingArchiveService.archiveOldBookings();
+        return ResponseEntity.ok(Map.of("archived", archived));
+    }
+}
@@ -0,0 +1,50 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingBatchResultDTO;
+import com.cinema.bookings.service.BookingBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Lookup of many bookings by id in one request. The POST variants take the ids
+ * as a JSON array body, for sets too large for a query string; with
+ * {@code stream=true} the result is written as newline-delimited JSON.
+ */
+@RestController
+@RequestMapping("/api/bookings/batch")
+@RequiredArgsConstructor
+public class BookingBatchController {
+
+    private final BookingBatchService bookingBatchService;
+
+    @GetMapping
+    public ResponseEntity<BookingBatchResultDTO> getBookings(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(bookingBatchService.getBookings(ids));
+    }
+
+    @PostMapping
+    public ResponseEntity<BookingBatchResultDTO> postBookings(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(bookingBatchService.getBookings(ids));
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamBookings(@RequestParam List<Long> ids) {
+        return stream(ids);
+    }
+
+    @PostMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> postStreamBookings(@RequestBody List<Long> ids) {
+        return stream(ids);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(List<Long> ids) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingBatchService.streamBookings(ids));
+    }
+}
@@ -0,0 +1,49 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingChangeFeedDTO;
+import com.cinema.bookings.service.BookingChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ordered feed of booking inserts, updates and deletes for services that keep their own copy.
+ * Long polls are answered asynchronously, so a waiting request does not hold a servlet thread.
+ */
+@RestController
+@RequestMapping("/api/bookings/changes")
+@RequiredArgsConstructor
+public class BookingChangeFeedController {
+
+    /** Lets the service answer a long poll itself before the servlet container gives up on it. */
+    private static final long ASYNC_TIMEOUT_MARGIN_MS = 10000;
+
+    private final BookingChangeFeedService bookingChangeFeedService;
+
+    @GetMapping
+    public DeferredResult<ResponseEntity<BookingChangeFeedDTO>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        CompletableFuture<BookingChangeFeedDTO> feed = bookingChangeFeedService.getChanges(since, limit, waitMs);
+        DeferredResult<ResponseEntity<BookingChangeFeedDTO>> result =
+                new DeferredResult<>(bookingChangeFeedService.getMaxWaitMs() + ASYNC_TIMEOUT_MARGIN_MS);
+        result.onCompletion(() -> feed.cancel(false));
+        feed.whenComplete((changes, error) -> {
+            if (error != null) {
+                result.setErrorResult(error);
+            } else {
+                result.setResult(ResponseEntity.ok(changes));
+            }
+        });
+        return result;
+    }
+
+    @GetMapping("/head")
+    public ResponseEntity<BookingChangeFeedDTO> getHead() {
+        return ResponseEntity.ok(bookingChangeFeedService.getHead());
+    }
+}
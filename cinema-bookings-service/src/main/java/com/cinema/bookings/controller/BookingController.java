@@ -2,7 +2,10 @@ package com.cinema.bookings.controller;
 
 import com.cinema.bookings.dto.BookingRequestDTO;
 import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
 import com.cinema.bookings.service.BookingService;
+import com.cinema.bookings.service.ScalperDetectionService;
+import com.cinema.bookings.service.WaitingRoomService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -18,6 +21,8 @@ import java.util.Map;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final WaitingRoomService waitingRoomService;
+    private final ScalperDetectionService scalperDetectionService;
 
     @PostMapping
     public ResponseEntity<BookingResponseDTO> createBooking(@Valid @RequestBody BookingRequestDTO requestDTO) {
@@ -51,12 +56,25 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/counts-by-movie")
+    public ResponseEntity<Map<Long, Long>> getBookingCountsByMovie() {
+        return ResponseEntity.ok(bookingService.getBookingCountsByMovie());
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<BookingResponseDTO>> getBookingsByUserId(@PathVariable Long userId) {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByUserId(userId);
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/user/{userId}/upcoming")
+    public ResponseEntity<List<UpcomingTicketDTO>> getUpcomingTickets(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<UpcomingTicketDTO> tickets = bookingService.getUpcomingTickets(userId, limit);
+        return ResponseEntity.ok(tickets);
+    }
+
     @GetMapping("/filter")
     public ResponseEntity<List<BookingResponseDTO>> filterBookingsByStatus(@RequestParam String status) {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByStatus(status);
@@ -73,9 +91,22 @@ public class BookingController {
 
     @PostMapping("/create-with-validation")
     public ResponseEntity<BookingResponseDTO> createBookingWithValidation(
-            @Valid @RequestBody BookingRequestDTO requestDTO) {
-        BookingResponseDTO response = bookingService.createBookingWithValidation(requestDTO);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+            @Valid @RequestBody BookingRequestDTO requestDTO,
+            @RequestHeader(value = WaitingRoomService.ADMISSION_HEADER, required = false) String admissionToken) {
+        scalperDetectionService.recordAttempt(requestDTO);
+        waitingRoomService.consumeAdmission(admissionToken);
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            BookingResponseDTO response = bookingService.createBookingWithValidation(requestDTO);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            // only timeouts and connection or lock failures mean the pipeline is saturated
+            overloaded = WaitingRoomService.isCongestion(e);
+            throw e;
+        } finally {
+            waitingRoomService.recordCommitLatency(System.nanoTime() - start, overloaded);
+        }
     }
 
     @PutMapping("/{id}/confirm")
@@ -0,0 +1,39 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingSearchCriteria;
+import com.cinema.bookings.dto.BookingSearchResultDTO;
+import com.cinema.bookings.service.BookingSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Support-staff search over bookings by any combination of filters.
+ */
+@RestController
+@RequestMapping("/api/bookings/search")
+@RequiredArgsConstructor
+public class BookingSearchController {
+
+    private final BookingSearchService bookingSearchService;
+
+    @GetMapping
+    public ResponseEntity<BookingSearchResultDTO> search(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String seatRow,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        BookingSearchCriteria criteria = new BookingSearchCriteria(
+                movieId, email, from, to, status, seatRow, minPrice, maxPrice);
+        return ResponseEntity.ok(bookingSearchService.search(criteria, cursor, size));
+    }
+}
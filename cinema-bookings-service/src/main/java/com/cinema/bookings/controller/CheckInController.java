@@ -0,0 +1,42 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.CheckInRequestDTO;
+import com.cinema.bookings.dto.CheckInResultDTO;
+import com.cinema.bookings.service.CheckInService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Ticket validation for entrance scanners.
+ */
+@RestController
+@RequestMapping("/api/bookings/check-in")
+@RequiredArgsConstructor
+public class CheckInController {
+
+    private final CheckInService checkInService;
+
+    @PostMapping
+    public ResponseEntity<CheckInResultDTO> checkIn(@Valid @RequestBody CheckInRequestDTO request) {
+        CheckInResultDTO result = checkInService.checkIn(request);
+        HttpStatus status = switch (result.getResult()) {
+            case CheckInResultDTO.ADMITTED -> HttpStatus.OK;
+            case CheckInResultDTO.DUPLICATE -> HttpStatus.CONFLICT;
+            default -> HttpStatus.NOT_FOUND;
+        };
+        return new ResponseEntity<>(result, status);
+    }
+
+    /**
+     * Uploads scans a scanner recorded while offline. Always 200; see each result.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<CheckInResultDTO>> checkInBatch(@RequestBody List<CheckInRequestDTO> requests) {
+        return ResponseEntity.ok(checkInService.checkInAll(requests));
+    }
+}
@@ -0,0 +1,36 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.DenormalizedFieldChangeDTO;
+import com.cinema.bookings.service.DenormalizationSyncService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Receives change notifications from the movies and users services for values
+ * that bookings keep denormalized copies of. Changes are applied asynchronously.
+ */
+@RestController
+@RequestMapping("/api/bookings/sync")
+@RequiredArgsConstructor
+public class DenormalizationSyncController {
+
+    private final DenormalizationSyncService denormalizationSyncService;
+
+    @PostMapping("/movies/{movieId}")
+    public ResponseEntity<Void> movieTitleChanged(
+            @PathVariable Long movieId,
+            @Valid @RequestBody DenormalizedFieldChangeDTO change) {
+        denormalizationSyncService.enqueueMovieTitleChange(movieId, change);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/users/{userId}")
+    public ResponseEntity<Void> userEmailChanged(
+            @PathVariable Long userId,
+            @Valid @RequestBody DenormalizedFieldChangeDTO change) {
+        denormalizationSyncService.enqueueUserEmailChange(userId, change);
+        return ResponseEntity.accepted().build();
+    }
+}
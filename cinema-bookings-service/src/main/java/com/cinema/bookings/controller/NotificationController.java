@@ -0,0 +1,31 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.DeadLetterDTO;
+import com.cinema.bookings.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inspection and replay of confirmation emails that could not be sent.
+ */
+@RestController
+@RequestMapping("/api/bookings/notifications")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<DeadLetterDTO>> getDeadLetters() {
+        return ResponseEntity.ok(notificationService.getDeadLetters());
+    }
+
+    @PostMapping("/dead-letters/requeue")
+    public ResponseEntity<Map<String, Integer>> requeueDeadLetters() {
+        return ResponseEntity.ok(Map.of("requeued", notificationService.requeueDeadLetters()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.FlaggedAccountDTO;
+import com.cinema.bookings.service.ScalperDetectionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Review of accounts flagged by the scalper detector.
+ */
+@RestController
+@RequestMapping("/api/bookings/scalpers")
+@RequiredArgsConstructor
+public class ScalperDetectionController {
+
+    private final ScalperDetectionService scalperDetectionService;
+
+    @GetMapping
+    public ResponseEntity<List<FlaggedAccountDTO>> getFlaggedAccounts() {
+        return ResponseEntity.ok(scalperDetectionService.getFlaggedAccounts());
+    }
+
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> clearFlag(@PathVariable Long userId) {
+        scalperDetectionService.clearFlag(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
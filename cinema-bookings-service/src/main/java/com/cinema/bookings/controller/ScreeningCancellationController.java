@@ -0,0 +1,33 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.ScreeningCancellationJobDTO;
+import com.cinema.bookings.service.ScreeningCancellationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bulk operations on all bookings of a single screening.
+ */
+@RestController
+@RequestMapping("/api/bookings/screenings")
+@RequiredArgsConstructor
+public class ScreeningCancellationController {
+
+    private final ScreeningCancellationService screeningCancellationService;
+
+    @PostMapping("/{movieId}/{screeningTime}/cancel")
+    public ResponseEntity<ScreeningCancellationJobDTO> cancelScreening(
+            @PathVariable Long movieId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime screeningTime) {
+        return ResponseEntity.accepted().body(screeningCancellationService.cancelScreening(movieId, screeningTime));
+    }
+
+    @GetMapping("/cancellations/{jobId}")
+    public ResponseEntity<ScreeningCancellationJobDTO> getCancellationJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(screeningCancellationService.getJob(jobId));
+    }
+}
@@ -0,0 +1,40 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.GroupBookingRequestDTO;
+import com.cinema.bookings.dto.SeatBlockDTO;
+import com.cinema.bookings.service.SeatAllocationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Best-available seat selection for group bookings.
+ */
+@RestController
+@RequestMapping("/api/bookings/seats/best-available")
+@RequiredArgsConstructor
+public class SeatAllocationController {
+
+    private final SeatAllocationService seatAllocationService;
+
+    @GetMapping
+    public ResponseEntity<SeatBlockDTO> findBestAvailable(
+            @RequestParam Long movieId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime screeningTime,
+            @RequestParam(defaultValue = "1") int seats) {
+        return ResponseEntity.ok(seatAllocationService.findBestAvailable(movieId, screeningTime, seats));
+    }
+
+    @PostMapping
+    public ResponseEntity<List<BookingResponseDTO>> bookBestAvailable(
+            @Valid @RequestBody GroupBookingRequestDTO request) {
+        return new ResponseEntity<>(seatAllocationService.bookBestAvailable(request), HttpStatus.CREATED);
+    }
+}
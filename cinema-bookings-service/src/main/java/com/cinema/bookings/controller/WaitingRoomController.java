@@ -0,0 +1,42 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.CommitLatencyReportDTO;
+import com.cinema.bookings.dto.WaitingRoomTicketDTO;
+import com.cinema.bookings.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Endpoints of the booking waiting room. Joining and polling are answered
+ * from memory so clients can poll cheaply while an on-sale event is running.
+ */
+@RestController
+@RequestMapping("/api/bookings/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    @PostMapping
+    public ResponseEntity<WaitingRoomTicketDTO> joinWaitingRoom() {
+        WaitingRoomTicketDTO ticket = waitingRoomService.join();
+        return new ResponseEntity<>(ticket, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<WaitingRoomTicketDTO> pollTicket(@PathVariable String ticketId) {
+        WaitingRoomTicketDTO ticket = waitingRoomService.poll(ticketId);
+        return ResponseEntity.ok(ticket);
+    }
+
+    /**
+     * Commit latency samples from another node, signed with the shared secret.
+     */
+    @PostMapping("/commit-latency")
+    public ResponseEntity<Void> reportCommitLatency(@RequestBody CommitLatencyReportDTO report) {
+        waitingRoomService.applyReport(report);
+        return ResponseEntity.accepted().build();
+    }
+}
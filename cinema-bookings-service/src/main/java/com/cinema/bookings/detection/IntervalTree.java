@@ -0,0 +1,198 @@
+package com.cinema.bookings.detection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of half-open time intervals {@code [start, end)} that answers "which
+ * intervals overlap this range" in O(log n + k).
+ *
+ * An AVL tree ordered by start (then id), where every node also records the
+ * largest end in its subtree. A search skips every subtree whose largest end is
+ * at or before the query start, and everything right of a node that starts at
+ * or after the query end. Intervals are also indexed by id so they can be
+ * removed without knowing their position. Not thread-safe.
+ */
+public class IntervalTree {
+
+    private Node root;
+    private final Map<Long, Interval> byId = new HashMap<>();
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Adds an interval, replacing any interval with the same id.
+     */
+    public void add(Interval interval) {
+        if (interval.end() <= interval.start()) {
+            throw new IllegalArgumentException("Interval must end after it starts");
+        }
+        remove(interval.id());
+        root = insert(root, interval);
+        byId.put(interval.id(), interval);
+    }
+
+    /**
+     * @return false if no interval had the id
+     */
+    public boolean remove(long id) {
+        Interval existing = byId.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        root = delete(root, existing);
+        return true;
+    }
+
+    /**
+     * @return the intervals overlapping {@code [from, to)}, in start order
+     */
+    public List<Interval> overlapping(long from, long to) {
+        List<Interval> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private static void collect(Node node, long from, long to, List<Interval> result) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.interval.start() >= to) {
+            return;
+        }
+        if (node.interval.overlaps(from, to)) {
+            result.add(node.interval);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static Node insert(Node node, Interval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, Interval interval) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(interval, node.interval);
+        if (comparison < 0) {
+            node.left = delete(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.interval = successor.interval;
+            node.right = delete(node.right, successor.interval);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.interval.end();
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static int compare(Interval a, Interval b) {
+        int byStart = Long.compare(a.start(), b.start());
+        return byStart != 0 ? byStart : Long.compare(a.id(), b.id());
+    }
+
+    int height() {
+        return height(root);
+    }
+
+    /**
+     * @param id      the booking id
+     * @param movieId the movie, so bookings of the same screening can be told apart from overlaps
+     * @param start   inclusive start, in epoch seconds
+     * @param end     exclusive end, in epoch seconds
+     */
+    public record Interval(long id, long movieId, long start, long end) {
+
+        public boolean overlaps(long from, long to) {
+            return start < to && from < end;
+        }
+    }
+
+    private static final class Node {
+        private Interval interval;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private long maxEnd;
+
+        private Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cinema.bookings.detection;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate per-key event counts over a sliding time window in fixed memory.
+ *
+ * The window is split into {@code buckets} slices, each a count-min sketch of
+ * {@code depth} rows by {@code width} counters. An event increments one counter
+ * per row of the current slice; an estimate is the minimum over rows, summed over
+ * the slices still inside the window. Estimates never undercount, and overcount
+ * only through hash collisions. A slice that falls out of the window is replaced
+ * by a fresh, zeroed one the next time its position becomes current.
+ *
+ * Updates and estimates are lock-free: the replacement is a compare-and-set of
+ * the slice reference, so no counter is ever cleared while being incremented.
+ */
+public class SlidingWindowSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final long sliceMillis;
+    private final int size;
+    private final AtomicReferenceArray<Slice> slices;
+    private final LongSupplier clock;
+
+    public SlidingWindowSketch(long windowMillis, int buckets, int depth, int width) {
+        this(windowMillis, buckets, depth, width, System::currentTimeMillis);
+    }
+
+    SlidingWindowSketch(long windowMillis, int buckets, int depth, int width, LongSupplier clock) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        if (width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two");
+        }
+        if (buckets < 1 || windowMillis < buckets) {
+            throw new IllegalArgumentException("window must hold at least one millisecond per bucket");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.sliceMillis = windowMillis / buckets;
+        this.clock = clock;
+        this.size = depth * width;
+        this.slices = new AtomicReferenceArray<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            slices.set(i, new Slice(Long.MIN_VALUE / 2, size));
+        }
+    }
+
+    /**
+     * Counts one event for the key and returns the key's estimated count in the
+     * window, including this event.
+     */
+    public int incrementAndEstimate(long key) {
+        long epoch = clock.getAsLong() / sliceMillis;
+        increment(key, epoch);
+        return estimate(key, epoch);
+    }
+
+    /**
+     * Counts one event for the key.
+     */
+    public void increment(long key) {
+        increment(key, clock.getAsLong() / sliceMillis);
+    }
+
+    private void increment(long key, long epoch) {
+        Slice current = current(epoch);
+        int width = mask + 1;
+        for (int row = 0; row < depth; row++) {
+            current.counts.incrementAndGet(row * width + index(key, row));
+        }
+    }
+
+    public int estimate(long key) {
+        return estimate(key, clock.getAsLong() / sliceMillis);
+    }
+
+    private int estimate(long key, long epoch) {
+        int width = mask + 1;
+        int total = 0;
+        for (int i = 0; i < slices.length(); i++) {
+            Slice slice = slices.get(i);
+            if (epoch - slice.epoch >= slices.length()) {
+                continue;
+            }
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, slice.counts.get(row * width + index(key, row)));
+            }
+            total += min;
+        }
+        return total;
+    }
+
+    private Slice current(long epoch) {
+        int position = (int) (epoch % slices.length());
+        Slice slice = slices.get(position);
+        // a slice newer than the caller's epoch only means its clock read lagged; count there
+        while (slice.epoch < epoch) {
+            Slice fresh = new Slice(epoch, size);
+            if (slices.compareAndSet(position, slice, fresh)) {
+                return fresh;
+            }
+            slice = slices.get(position);
+        }
+        return slice;
+    }
+
+    private int index(long key, int row) {
+        long h = key ^ SEEDS[row];
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static final class Slice {
+        private final long epoch;
+        private final AtomicIntegerArray counts;
+
+        private Slice(long epoch, int size) {
+            this.epoch = epoch;
+            this.counts = new AtomicIntegerArray(size);
+        }
+    }
+}
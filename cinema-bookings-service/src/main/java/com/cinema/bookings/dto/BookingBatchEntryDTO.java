@@ -0,0 +1,24 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a streamed batch lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchEntryDTO {
+
+    /**
+     * The requested id
+     */
+    private Long id;
+
+    /**
+     * The booking, or null if no booking has this id
+     */
+    private BookingResponseDTO booking;
+}
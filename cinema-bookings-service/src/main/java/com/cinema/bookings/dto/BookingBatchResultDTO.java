@@ -0,0 +1,23 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResultDTO {
+
+    /**
+     * Bookings found, in the order their ids were requested
+     */
+    private List<BookingResponseDTO> bookings;
+
+    /**
+     * Requested ids with no booking, in request order
+     */
+    private List<Long> missingIds;
+}
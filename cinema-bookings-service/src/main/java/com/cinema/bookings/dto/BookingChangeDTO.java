@@ -0,0 +1,37 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the booking change feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingChangeDTO {
+
+    /**
+     * Position in the feed; changes are numbered without gaps in commit order
+     */
+    private long seq;
+
+    private Long bookingId;
+
+    /**
+     * CREATED, UPDATED or DELETED
+     */
+    private String type;
+
+    private LocalDateTime changedAt;
+
+    /**
+     * Current state of the booking, not a copy taken at change time. Null for
+     * DELETED changes (tombstones), and for older changes of a booking that has
+     * since been deleted, whose DELETED change follows later in the feed.
+     */
+    private BookingResponseDTO booking;
+}
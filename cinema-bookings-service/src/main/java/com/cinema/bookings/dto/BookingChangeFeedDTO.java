@@ -0,0 +1,28 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingChangeFeedDTO {
+
+    /**
+     * Changes after the requested cursor, in commit order
+     */
+    private List<BookingChangeDTO> changes;
+
+    /**
+     * Pass as {@code since} on the next request; unchanged if there were no changes
+     */
+    private long nextCursor;
+
+    /**
+     * True if more changes are already available after {@code nextCursor}
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,26 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The booking columns mirrored by the in-memory analytics store.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingFactDTO {
+
+    private Long id;
+
+    private Long movieId;
+
+    private LocalDateTime screeningTime;
+
+    private Double price;
+
+    private String status;
+}
@@ -32,6 +32,7 @@ public class BookingMapper {
         responseDTO.setSeatRow(booking.getSeatRow());
         responseDTO.setPrice(booking.getPrice());
         responseDTO.setStatus(booking.getStatus());
+        responseDTO.setCheckedInAt(booking.getCheckedInAt());
         responseDTO.setCreatedAt(booking.getCreatedAt());
         responseDTO.setUpdatedAt(booking.getUpdatedAt());
         return responseDTO;
@@ -31,6 +31,8 @@ public class BookingResponseDTO {
 
     private String status;
 
+    private LocalDateTime checkedInAt;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,41 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the booking search; null fields are not filtered on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSearchCriteria {
+
+    private Long movieId;
+
+    /**
+     * Case-insensitive prefix of the user's email
+     */
+    private String userEmailPrefix;
+
+    /**
+     * Inclusive lower bound of the screening time
+     */
+    private LocalDateTime from;
+
+    /**
+     * Exclusive upper bound of the screening time
+     */
+    private LocalDateTime to;
+
+    private String status;
+
+    private String seatRow;
+
+    private Double minPrice;
+
+    private Double maxPrice;
+}
@@ -0,0 +1,28 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSearchResultDTO {
+
+    /**
+     * Matching bookings in screening time order, then id
+     */
+    private List<BookingResponseDTO> items;
+
+    /**
+     * Pass as {@code cursor} to get the next page; null on the last page
+     */
+    private String nextCursor;
+
+    /**
+     * Planner estimate of the total number of matches, not an exact count
+     */
+    private long estimatedTotal;
+}
@@ -0,0 +1,31 @@
+package com.cinema.bookings.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInRequestDTO {
+
+    @NotNull(message = "Booking ID is required")
+    private Long bookingId;
+
+    /**
+     * Movie of the screening the scanner is admitting to
+     */
+    @NotNull(message = "Movie ID is required")
+    private Long movieId;
+
+    @NotNull(message = "Screening time is required")
+    private LocalDateTime screeningTime;
+
+    /**
+     * When the ticket was scanned; set by scanners uploading offline scans, defaults to now
+     */
+    private LocalDateTime scannedAt;
+}
@@ -0,0 +1,29 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResultDTO {
+
+    public static final String ADMITTED = "ADMITTED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+
+    private Long bookingId;
+
+    /**
+     * ADMITTED, DUPLICATE (already checked in) or INVALID (no confirmed booking for this screening)
+     */
+    private String result;
+
+    /**
+     * Time of the first successful scan, null for invalid tickets
+     */
+    private LocalDateTime checkedInAt;
+}
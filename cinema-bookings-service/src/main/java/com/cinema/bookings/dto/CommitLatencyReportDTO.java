@@ -0,0 +1,35 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Booking commit latency samples a node sends to the waiting room coordinator,
+ * which controls the admission rate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommitLatencyReportDTO {
+
+    /**
+     * Bookings committed within the target latency since the last report
+     */
+    private long fastSamples;
+
+    /**
+     * Bookings that were slower than the target or failed because of congestion
+     */
+    private long congestedSamples;
+
+    /**
+     * When the report was sent, in epoch milliseconds
+     */
+    private long sentAtMillis;
+
+    /**
+     * HMAC of the report with the shared waiting room secret
+     */
+    private String signature;
+}
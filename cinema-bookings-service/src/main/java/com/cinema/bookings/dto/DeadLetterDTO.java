@@ -0,0 +1,30 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterDTO {
+
+    private Long bookingId;
+
+    private String recipient;
+
+    private String subject;
+
+    private String body;
+
+    private int attempts;
+
+    /**
+     * Error of the last send attempt
+     */
+    private String lastError;
+
+    private LocalDateTime deadLetteredAt;
+}
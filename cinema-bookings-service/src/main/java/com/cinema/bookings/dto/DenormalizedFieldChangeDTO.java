@@ -0,0 +1,29 @@
+package com.cinema.bookings.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change notification sent by an owning service (movies or users) when a value
+ * that bookings store a denormalized copy of has changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DenormalizedFieldChangeDTO {
+
+    /**
+     * New value of the source field (movie title or user email)
+     */
+    @NotBlank(message = "Value is required")
+    private String value;
+
+    /**
+     * When the change happened in the owning service
+     */
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,29 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlaggedAccountDTO {
+
+    private Long userId;
+
+    /**
+     * The threshold most recently exceeded
+     */
+    private String reason;
+
+    /**
+     * Estimated booking attempts in the window when last flagged; may overcount slightly
+     */
+    private int estimatedAttempts;
+
+    private LocalDateTime firstFlaggedAt;
+
+    private LocalDateTime lastFlaggedAt;
+}
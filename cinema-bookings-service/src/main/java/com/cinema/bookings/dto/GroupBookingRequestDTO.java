@@ -0,0 +1,42 @@
+package com.cinema.bookings.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingRequestDTO {
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotNull(message = "Movie ID is required")
+    private Long movieId;
+
+    private String movieTitle;
+
+    private String userEmail;
+
+    @NotNull(message = "Screening time is required")
+    private LocalDateTime screeningTime;
+
+    /**
+     * Number of adjacent seats to book
+     */
+    @NotNull(message = "Number of seats is required")
+    @Min(value = 1, message = "At least one seat is required")
+    @Max(value = 10, message = "At most 10 seats can be booked together")
+    private Integer seats;
+
+    /**
+     * Price per seat
+     */
+    private Double price;
+}
@@ -0,0 +1,20 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyBucketDTO {
+
+    /**
+     * Group label: hour 0-23, day name, movie id or status
+     */
+    private String key;
+
+    private long bookings;
+
+    private double revenue;
+}
@@ -0,0 +1,31 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyReportDTO {
+
+    private String groupBy;
+
+    /**
+     * Rows held by the analytics store when the scan started
+     */
+    private long rowsScanned;
+
+    private long rowsMatched;
+
+    private double elapsedMillis;
+
+    /**
+     * False while the store is still being loaded at startup; totals are then partial
+     */
+    private boolean complete;
+
+    private List<OccupancyBucketDTO> buckets;
+}
@@ -0,0 +1,38 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScreeningCancellationJobDTO {
+
+    private Long jobId;
+
+    private Long movieId;
+
+    private LocalDateTime screeningTime;
+
+    private String status;
+
+    private long totalBookings;
+
+    private long cancelledBookings;
+
+    /**
+     * Highest booking id known to be processed; the job resumes after it
+     */
+    private long checkpointId;
+
+    private double bookingsPerSecond;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String errorMessage;
+}
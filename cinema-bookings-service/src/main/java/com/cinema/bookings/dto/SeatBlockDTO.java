@@ -0,0 +1,17 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBlockDTO {
+
+    private String seatRow;
+
+    private Integer firstSeat;
+
+    private Integer lastSeat;
+}
@@ -0,0 +1,30 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact view of an upcoming confirmed ticket for the mobile home screen.
+ * Contains only columns stored in the covering index on
+ * {@code (user_id, status, screening_time)}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpcomingTicketDTO {
+
+    private Long bookingId;
+
+    private Long movieId;
+
+    private String movieTitle;
+
+    private LocalDateTime screeningTime;
+
+    private String seatRow;
+
+    private Integer seatNumber;
+}
@@ -0,0 +1,40 @@
+package com.cinema.bookings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object describing a client's place in the booking waiting room.
+ * The admission token is only populated once the ticket has been admitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomTicketDTO {
+
+    /**
+     * Opaque identifier of the waiting room ticket
+     */
+    private String ticketId;
+
+    /**
+     * Number of clients still ahead of this ticket, 0 once admitted
+     */
+    private long position;
+
+    /**
+     * Whether the ticket may create a booking
+     */
+    private boolean admitted;
+
+    /**
+     * Signed token to send in the X-Admission-Token header when booking
+     */
+    private String admissionToken;
+
+    /**
+     * Suggested delay before the next poll, in milliseconds
+     */
+    private long retryAfterMillis;
+}
@@ -42,4 +42,7 @@ public class Booking extends BaseEntity {
 
     @Column(length = 20)
     private String status = "PENDING";
+
+    @Column(name = "checked_in_at")
+    private LocalDateTime checkedInAt;
 }
@@ -0,0 +1,41 @@
+package com.cinema.bookings.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One insert, update or delete of a booking, written by the
+ * {@code bookings_record_change} trigger in the same transaction as the change
+ * itself (see schema.sql). {@code changeSeq} stays null until the change has
+ * committed and been sequenced; sequenced changes are numbered 1, 2, 3, ... in
+ * the order they became visible.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_changes")
+public class BookingChange {
+
+    public static final String INSERT = "INSERT";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(length = 10, nullable = false)
+    private String operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+}
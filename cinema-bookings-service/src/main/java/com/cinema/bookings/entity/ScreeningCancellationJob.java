@@ -0,0 +1,52 @@
+package com.cinema.bookings.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk cancellation of all bookings for one screening.
+ * {@code lastProcessedId} is the checkpoint: every affected booking with a
+ * lower or equal id has been cancelled, so a restarted job resumes after it.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@Entity
+@Table(name = "screening_cancellation_jobs")
+public class ScreeningCancellationJob extends BaseEntity {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Column(name = "screening_time", nullable = false)
+    private LocalDateTime screeningTime;
+
+    @Column(length = 20, nullable = false)
+    private String status = RUNNING;
+
+    @Column(name = "total_bookings")
+    private long totalBookings;
+
+    @Column(name = "cancelled_bookings")
+    private long cancelledBookings;
+
+    @Column(name = "last_processed_id")
+    private long lastProcessedId;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+}
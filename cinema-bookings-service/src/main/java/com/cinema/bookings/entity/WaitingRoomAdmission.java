@@ -0,0 +1,26 @@
+package com.cinema.bookings.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A waiting room ticket whose admission token has been consumed. Shared by all
+ * instances, so a token is accepted once however many replicas receive it.
+ * Rows are deleted once the token has expired, since it is rejected from then on.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "waiting_room_admissions")
+public class WaitingRoomAdmission {
+
+    @Id
+    @Column(name = "ticket_id", length = 64)
+    private String ticketId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,40 @@
+package com.cinema.bookings.event;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published after a booking has been written to the database.
+ * Listeners use it to keep in-memory caches and indexes in step with the table.
+ *
+ * {@code previous} is null for created bookings, {@code current} is null for deleted ones.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+
+    private final BookingResponseDTO previous;
+
+    private final BookingResponseDTO current;
+
+    public static BookingChangedEvent created(BookingResponseDTO current) {
+        return new BookingChangedEvent(ChangeType.CREATED, null, current);
+    }
+
+    public static BookingChangedEvent updated(BookingResponseDTO previous, BookingResponseDTO current) {
+        return new BookingChangedEvent(ChangeType.UPDATED, previous, current);
+    }
+
+    public static BookingChangedEvent deleted(BookingResponseDTO previous) {
+        return new BookingChangedEvent(ChangeType.DELETED, previous, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.cinema.bookings.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published after a chunk of bookings received a movie's new
+ * title. The rows are rewritten in bulk without a {@link BookingChangedEvent}
+ * each, so caches holding the title drop the movie's entries on this event.
+ */
+@Getter
+@AllArgsConstructor
+public class MovieTitleSyncedEvent {
+
+    private final Long movieId;
+}
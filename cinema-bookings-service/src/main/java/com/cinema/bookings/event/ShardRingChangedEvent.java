@@ -0,0 +1,26 @@
+package com.cinema.bookings.event;
+
+import com.cinema.bookings.sharding.ConsistentHashRing;
+import com.cinema.bookings.sharding.ShardNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Application event published when the shard membership file changed. Listeners
+ * holding per-screening state drop the screenings this node no longer owns.
+ */
+@Getter
+@AllArgsConstructor
+public class ShardRingChangedEvent {
+
+    private final ConsistentHashRing ring;
+
+    private final String selfId;
+
+    public boolean owns(Long movieId, LocalDateTime screeningTime) {
+        ShardNode owner = ring.ownerOf(movieId, screeningTime);
+        return owner == null || owner.id().equals(selfId);
+    }
+}
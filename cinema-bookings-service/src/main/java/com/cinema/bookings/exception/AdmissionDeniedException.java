@@ -0,0 +1,8 @@
+package com.cinema.bookings.exception;
+
+public class AdmissionDeniedException extends RuntimeException {
+
+    public AdmissionDeniedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.cinema.bookings.exception;
+
+public class BatchLimitExceededException extends RuntimeException {
+
+    public BatchLimitExceededException(String message) {
+        super(message);
+    }
+
+    public BatchLimitExceededException(int requested, int limit) {
+        super("Requested " + requested + " ids, at most " + limit + " are allowed per request");
+    }
+}
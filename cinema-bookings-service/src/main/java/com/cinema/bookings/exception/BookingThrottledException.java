@@ -0,0 +1,8 @@
+package com.cinema.bookings.exception;
+
+public class BookingThrottledException extends RuntimeException {
+
+    public BookingThrottledException(String message) {
+        super(message);
+    }
+}
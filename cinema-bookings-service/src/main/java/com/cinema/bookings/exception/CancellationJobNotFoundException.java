@@ -0,0 +1,8 @@
+package com.cinema.bookings.exception;
+
+public class CancellationJobNotFoundException extends RuntimeException {
+
+    public CancellationJobNotFoundException(Long id) {
+        super("Screening cancellation job not found with id: " + id);
+    }
+}
@@ -0,0 +1,13 @@
+package com.cinema.bookings.exception;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+
+    public ChangeFeedExpiredException(long since, long oldest) {
+        super("Changes after " + since + " are no longer retained, the oldest available is " + oldest
+                + "; reload all bookings and continue from the current head");
+    }
+}
@@ -0,0 +1,8 @@
+package com.cinema.bookings.exception;
+
+public class CheckInUnavailableException extends RuntimeException {
+
+    public CheckInUnavailableException() {
+        super("Check-in could not be recorded, scan the ticket again");
+    }
+}
@@ -0,0 +1,8 @@
+package com.cinema.bookings.exception;
+
+public class InvalidAnalyticsQueryException extends RuntimeException {
+
+    public InvalidAnalyticsQueryException(String message) {
+        super(message);
+    }
+}
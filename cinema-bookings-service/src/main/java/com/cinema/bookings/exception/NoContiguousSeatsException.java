@@ -0,0 +1,8 @@
+package com.cinema.bookings.exception;
+
+public class NoContiguousSeatsException extends RuntimeException {
+
+    public NoContiguousSeatsException(int seats) {
+        super("No " + seats + " adjacent seats are available for this screening");
+    }
+}
@@ -0,0 +1,14 @@
+package com.cinema.bookings.exception;
+
+import java.util.List;
+
+public class OverlappingBookingException extends RuntimeException {
+
+    public OverlappingBookingException(String message) {
+        super(message);
+    }
+
+    public OverlappingBookingException(Long userId, List<Long> bookingIds) {
+        super("User " + userId + " already has bookings " + bookingIds + " for screenings overlapping this one");
+    }
+}
@@ -0,0 +1,12 @@
+package com.cinema.bookings.exception;
+
+public class SeatAlreadyBookedException extends RuntimeException {
+
+    public SeatAlreadyBookedException(String message) {
+        super(message);
+    }
+
+    public SeatAlreadyBookedException(String seatRow, Integer seatNumber) {
+        super("Seat " + seatRow + seatNumber + " is already booked for this screening");
+    }
+}
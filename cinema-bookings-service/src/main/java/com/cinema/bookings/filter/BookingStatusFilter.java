@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
 
 import java.io.IOException;
 import java.util.List;
@@ -29,6 +30,15 @@ public class BookingStatusFilter extends OncePerRequestFilter {
         this.objectMapper = objectMapper;
     }
 
+    /**
+     * Async requests are answered on a later dispatch, whose body lands in the
+     * wrapper installed by the first one; that dispatch writes it out.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -36,18 +46,27 @@ public class BookingStatusFilter extends OncePerRequestFilter {
 
         String requestUri = request.getRequestURI();
 
-        if (!requestUri.startsWith(BOOKINGS_API_PREFIX)) {
+        // streamed responses must reach the client as they are written, not be buffered here
+        if (!requestUri.startsWith(BOOKINGS_API_PREFIX) || "true".equals(request.getParameter("stream"))) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        ContentCachingResponseWrapper responseWrapper =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (responseWrapper == null) {
+            responseWrapper = new ContentCachingResponseWrapper(response);
+        }
 
         try {
             filterChain.doFilter(request, responseWrapper);
-            addBookingStatusHeader(responseWrapper);
+            if (!isAsyncStarted(request)) {
+                addBookingStatusHeader(responseWrapper);
+            }
         } finally {
-            responseWrapper.copyBodyToResponse();
+            if (!isAsyncStarted(request)) {
+                responseWrapper.copyBodyToResponse();
+            }
         }
     }
 
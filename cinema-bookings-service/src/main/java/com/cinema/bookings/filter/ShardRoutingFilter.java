@@ -0,0 +1,410 @@
+package com.cinema.bookings.filter;
+
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.service.ShardRoutingService;
+import com.cinema.bookings.sharding.ShardNode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends screening-scoped requests to the node that owns the screening.
+ *
+ * The screening is taken from {@code movieId} and {@code screeningTime} query
+ * parameters, from the screening cancellation path, from the booking itself
+ * for writes by booking id ({@code PUT /{id}}, {@code PUT /{id}/confirm},
+ * {@code DELETE /{id}}), or from the top-level fields of a JSON request body;
+ * a JSON array, such as a check-in batch, is routed only if every element
+ * names the same screening. Waiting room requests go to the coordinator node,
+ * which holds the queue. Requests for a screening owned by another node are
+ * proxied there, or answered with a {@code 307} redirect in redirect mode;
+ * everything else is handled locally.
+ *
+ * Forwarded requests carry {@value #FORWARDED_HEADER}, signed with the shared
+ * {@code booking.sharding.secret} over the sending node, a timestamp, the
+ * method and the path, and are never forwarded again, so nodes that briefly
+ * disagree on membership cannot bounce a request between them. A header that
+ * does not verify, or is older than {@value #FORWARD_MAX_AGE_SECONDS} seconds,
+ * is ignored, so clients cannot use it to bypass routing.
+ */
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_HEADER = "X-Shard-Forwarded";
+    static final long FORWARD_MAX_AGE_SECONDS = 300;
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRoutingFilter.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String BOOKINGS_API_PREFIX = "/api/bookings";
+    private static final String WAITING_ROOM_PREFIX = "/api/bookings/waiting-room";
+    private static final Pattern SCREENING_PATH = Pattern.compile("^/api/bookings/screenings/(\\d+)/([^/]+)/cancel$");
+    private static final Pattern BOOKING_WRITE_PATH = Pattern.compile("^/api/bookings/(\\d+)(/confirm)?$");
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authorization", "proxy-authenticate", "host", "content-length");
+
+    private final ShardRoutingService shardRoutingService;
+    private final BookingRepository bookingRepository;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final byte[] secret;
+    private final Counter forwardedCounter;
+    private final Counter redirectedCounter;
+    private final Counter failedCounter;
+
+    public ShardRoutingFilter(ShardRoutingService shardRoutingService,
+                              BookingRepository bookingRepository,
+                              RestTemplate restTemplate,
+                              ObjectMapper objectMapper,
+                              String secret,
+                              MeterRegistry meterRegistry) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("booking.sharding.secret must be set when sharding is enabled");
+        }
+        this.shardRoutingService = shardRoutingService;
+        this.bookingRepository = bookingRepository;
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.forwardedCounter = Counter.builder("bookings.sharding.forwarded")
+                .description("Requests proxied to the node owning the screening")
+                .register(meterRegistry);
+        this.redirectedCounter = Counter.builder("bookings.sharding.redirected")
+                .description("Requests redirected to the node owning the screening")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("bookings.sharding.forward_failed")
+                .description("Requests that could not be proxied to the owning node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !shardRoutingService.isEnabled()
+                || !request.getRequestURI().startsWith(BOOKINGS_API_PREFIX)
+                || isForwarded(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        byte[] body = null;
+        ShardNode owner;
+        if (request.getRequestURI().startsWith(WAITING_ROOM_PREFIX)) {
+            owner = shardRoutingService.remoteCoordinator();
+        } else {
+            Screening screening = fromPath(request);
+            if (screening == null) {
+                screening = fromBookingId(request);
+            }
+            if (screening == null) {
+                screening = fromParameters(request);
+            }
+            if (screening == null && hasJsonBody(request)) {
+                body = request.getInputStream().readAllBytes();
+                screening = fromBody(body);
+            }
+            owner = screening != null
+                    ? shardRoutingService.remoteOwner(screening.movieId(), screening.screeningTime())
+                    : null;
+        }
+        if (owner == null) {
+            filterChain.doFilter(body != null ? new CachedBodyRequest(request, body) : request, response);
+            return;
+        }
+
+        URI target = URI.create(owner.url() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : ""));
+        if (shardRoutingService.isRedirectMode()) {
+            redirectedCounter.increment();
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target.toString());
+            return;
+        }
+        forward(request, body != null ? body : request.getInputStream().readAllBytes(), target, owner, response);
+    }
+
+    private void forward(HttpServletRequest request, byte[] body, URI target, ShardNode owner,
+                         HttpServletResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, Collections.list(request.getHeaders(name)));
+            }
+        }
+        headers.set(FORWARDED_HEADER, forwardedHeader(owner.id(), System.currentTimeMillis() / 1000,
+                request.getMethod(), request.getRequestURI()));
+
+        ResponseEntity<byte[]> result;
+        try {
+            result = restTemplate.exchange(target, HttpMethod.valueOf(request.getMethod()),
+                    new HttpEntity<>(body.length > 0 ? body : null, headers), byte[].class);
+        } catch (HttpStatusCodeException e) {
+            result = ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
+        } catch (RestClientException e) {
+            failedCounter.increment();
+            logger.warn("Could not forward {} {} to shard {}: {}", request.getMethod(), target, owner.id(),
+                    e.getMessage());
+            writeError(response, "Owning node " + owner.id() + " is unreachable");
+            return;
+        }
+
+        forwardedCounter.increment();
+        response.setStatus(result.getStatusCode().value());
+        result.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        if (result.getBody() != null) {
+            response.getOutputStream().write(result.getBody());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("status", HttpStatus.BAD_GATEWAY.value());
+        error.put("message", message);
+        error.put("timestamp", LocalDateTime.now().toString());
+        response.setStatus(HttpStatus.BAD_GATEWAY.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(error));
+    }
+
+    /**
+     * @return the signed {@value #FORWARDED_HEADER} value for a request forwarded to {@code nodeId}
+     */
+    String forwardedHeader(String nodeId, long epochSeconds, String method, String uri) {
+        String signed = nodeId + ";" + epochSeconds;
+        return signed + ";" + sign(signed + ";" + method + ";" + uri);
+    }
+
+    private boolean isForwarded(HttpServletRequest request) {
+        String header = request.getHeader(FORWARDED_HEADER);
+        if (header == null) {
+            return false;
+        }
+        int separator = header.lastIndexOf(';');
+        int timeSeparator = separator > 0 ? header.lastIndexOf(';', separator - 1) : -1;
+        if (timeSeparator < 0) {
+            return false;
+        }
+        try {
+            long epochSeconds = Long.parseLong(header.substring(timeSeparator + 1, separator));
+            if (Math.abs(System.currentTimeMillis() / 1000 - epochSeconds) > FORWARD_MAX_AGE_SECONDS) {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        String expected = sign(header.substring(0, separator) + ";" + request.getMethod() + ";"
+                + request.getRequestURI());
+        boolean valid = MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                header.substring(separator + 1).getBytes(StandardCharsets.UTF_8));
+        if (!valid) {
+            logger.debug("Ignoring unverified {} header on {} {}", FORWARDED_HEADER, request.getMethod(),
+                    request.getRequestURI());
+        }
+        return valid;
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign forwarded request", e);
+        }
+    }
+
+    private static Screening fromPath(HttpServletRequest request) {
+        Matcher matcher = SCREENING_PATH.matcher(request.getRequestURI());
+        return matcher.matches()
+                ? screening(matcher.group(1), URLDecoder.decode(matcher.group(2), StandardCharsets.UTF_8))
+                : null;
+    }
+
+    /**
+     * The current screening of the booking a by-id write targets, or null if the
+     * request is not one or the booking does not exist.
+     */
+    private Screening fromBookingId(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"PUT".equals(method) && !"DELETE".equals(method)) {
+            return null;
+        }
+        Matcher matcher = BOOKING_WRITE_PATH.matcher(request.getRequestURI());
+        if (!matcher.matches() || ("DELETE".equals(method) && matcher.group(2) != null)) {
+            return null;
+        }
+        return bookingRepository.findById(Long.valueOf(matcher.group(1)))
+                .map(booking -> booking.getMovieId() != null && booking.getScreeningTime() != null
+                        ? new Screening(booking.getMovieId(), booking.getScreeningTime())
+                        : null)
+                .orElse(null);
+    }
+
+    private static Screening fromParameters(HttpServletRequest request) {
+        return screening(request.getParameter("movieId"), request.getParameter("screeningTime"));
+    }
+
+    private Screening fromBody(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json == null || !json.isArray()) {
+                return fromJson(json);
+            }
+            Screening common = null;
+            for (JsonNode item : json) {
+                Screening screening = fromJson(item);
+                if (screening == null || (common != null && !common.equals(screening))) {
+                    return null;
+                }
+                common = screening;
+            }
+            return common;
+        } catch (IOException e) {
+            // malformed bodies are left to the controller to reject
+            return null;
+        }
+    }
+
+    private static Screening fromJson(JsonNode json) {
+        if (json == null || !json.isObject() || !json.hasNonNull("movieId") || !json.hasNonNull("screeningTime")) {
+            return null;
+        }
+        return screening(json.get("movieId").asText(), json.get("screeningTime").asText());
+    }
+
+    private static Screening screening(String movieId, String screeningTime) {
+        if (movieId == null || screeningTime == null) {
+            return null;
+        }
+        try {
+            return new Screening(Long.valueOf(movieId), LocalDateTime.parse(screeningTime));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasJsonBody(HttpServletRequest request) {
+        String method = request.getMethod();
+        String contentType = request.getContentType();
+        return ("POST".equals(method) || "PUT".equals(method))
+                && contentType != null && contentType.contains("json");
+    }
+
+    private record Screening(Long movieId, LocalDateTime screeningTime) {
+    }
+
+    /**
+     * Replays a body that was already read to find the screening.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // the whole body is already in memory
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
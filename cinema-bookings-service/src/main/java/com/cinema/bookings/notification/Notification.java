@@ -0,0 +1,38 @@
+package com.cinema.bookings.notification;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A plain-text email waiting to be sent. Attempts and the last error are
+ * updated by the dispatcher; a notification is handled by one thread at a time.
+ */
+@Getter
+public class Notification {
+
+    private final Long bookingId;
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    private final LocalDateTime createdAt;
+    private int attempts;
+    private String lastError;
+
+    public Notification(Long bookingId, String recipient, String subject, String body) {
+        this.bookingId = bookingId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public void recordFailure(String error) {
+        attempts++;
+        lastError = error;
+    }
+
+    public void resetAttempts() {
+        attempts = 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.cinema.bookings.notification;
+
+import java.util.List;
+
+public interface NotificationSender {
+
+    /**
+     * Sends a batch of notifications. Failures are recorded on the notification
+     * with {@link Notification#recordFailure(String)} rather than thrown.
+     *
+     * @param batch the notifications to send
+     * @return the notifications that could not be sent
+     */
+    List<Notification> send(List<Notification> batch);
+}
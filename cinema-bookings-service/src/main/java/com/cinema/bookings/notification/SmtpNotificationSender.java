@@ -0,0 +1,150 @@
+package com.cinema.bookings.notification;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sends notifications over SMTP, keeping up to {@code pool-size} connections
+ * open between batches. A batch borrows one connection and sends every message
+ * on it, so the TCP and TLS handshakes and the login happen once per connection
+ * rather than once per email. Connections the server has dropped are detected
+ * with a NOOP when borrowed and reopened.
+ */
+@Component
+public class SmtpNotificationSender implements NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpNotificationSender.class);
+
+    private final Session session;
+    private final String username;
+    private final String password;
+    private final InternetAddress from;
+    private final BlockingQueue<Transport> idle;
+
+    public SmtpNotificationSender(@Value("${booking.notifications.smtp.host:localhost}") String host,
+                                  @Value("${booking.notifications.smtp.port:1025}") int port,
+                                  @Value("${booking.notifications.smtp.username:}") String username,
+                                  @Value("${booking.notifications.smtp.password:}") String password,
+                                  @Value("${booking.notifications.smtp.starttls:false}") boolean startTls,
+                                  @Value("${booking.notifications.smtp.timeout-ms:5000}") int timeoutMs,
+                                  @Value("${booking.notifications.smtp.pool-size:2}") int poolSize,
+                                  @Value("${booking.notifications.from:tickets@cinema.local}") String from) {
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", host);
+        properties.put("mail.smtp.port", String.valueOf(port));
+        properties.put("mail.smtp.auth", String.valueOf(!username.isBlank()));
+        properties.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(timeoutMs));
+        properties.put("mail.smtp.timeout", String.valueOf(timeoutMs));
+        properties.put("mail.smtp.writetimeout", String.valueOf(timeoutMs));
+        this.session = Session.getInstance(properties);
+        this.username = username.isBlank() ? null : username;
+        this.password = username.isBlank() ? null : password;
+        try {
+            this.from = new InternetAddress(from, true);
+        } catch (MessagingException e) {
+            throw new IllegalArgumentException("Invalid sender address: " + from, e);
+        }
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    @Override
+    public List<Notification> send(List<Notification> batch) {
+        List<Notification> failed = new ArrayList<>();
+        Transport transport;
+        try {
+            transport = borrow();
+        } catch (MessagingException e) {
+            logger.warn("Could not connect to the mail server: {}", e.getMessage());
+            batch.forEach(notification -> notification.recordFailure("Connection failed: " + e.getMessage()));
+            return new ArrayList<>(batch);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i);
+            try {
+                MimeMessage message = toMessage(notification);
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                notification.recordFailure(e.getMessage());
+                failed.add(notification);
+            } catch (MessagingException e) {
+                notification.recordFailure(e.getMessage());
+                failed.add(notification);
+                if (!transport.isConnected()) {
+                    logger.warn("Mail server connection lost after {} of {} messages: {}", i, batch.size(), e.getMessage());
+                    for (Notification rest : batch.subList(i + 1, batch.size())) {
+                        rest.recordFailure("Connection lost: " + e.getMessage());
+                        failed.add(rest);
+                    }
+                    close(transport);
+                    return failed;
+                }
+            }
+        }
+        release(transport);
+        return failed;
+    }
+
+    @PreDestroy
+    public void closeConnections() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            close(transport);
+        }
+    }
+
+    private Transport borrow() throws MessagingException {
+        Transport transport = idle.poll();
+        while (transport != null && !transport.isConnected()) {
+            close(transport);
+            transport = idle.poll();
+        }
+        if (transport == null) {
+            transport = session.getTransport("smtp");
+            transport.connect(username, password);
+        }
+        return transport;
+    }
+
+    private void release(Transport transport) {
+        if (!idle.offer(transport)) {
+            close(transport);
+        }
+    }
+
+    private MimeMessage toMessage(Notification notification) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(from);
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(notification.getRecipient(), true));
+        message.setSubject(notification.getSubject(), StandardCharsets.UTF_8.name());
+        message.setText(notification.getBody(), StandardCharsets.UTF_8.name());
+        message.saveChanges();
+        return message;
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing mail server connection: {}", e.getMessage());
+        }
+    }
+}
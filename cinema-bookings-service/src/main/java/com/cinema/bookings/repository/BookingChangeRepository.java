@@ -0,0 +1,62 @@
+package com.cinema.bookings.repository;
+
+import com.cinema.bookings.entity.BookingChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingChangeRepository extends JpaRepository<BookingChange, Long> {
+
+    List<BookingChange> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long since, Pageable pageable);
+
+    @Query("SELECT MIN(c.changeSeq) FROM BookingChange c")
+    Long findMinChangeSeq();
+
+    @Query("SELECT MAX(c.changeSeq) FROM BookingChange c")
+    Long findMaxChangeSeq();
+
+    @Query("SELECT MIN(c.changedAt) FROM BookingChange c")
+    LocalDateTime findOldestChangedAt();
+
+    @Query("SELECT COUNT(c) FROM BookingChange c WHERE c.operation = 'DELETE' AND c.changedAt >= :since")
+    long countDeletesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Transaction-scoped lock that keeps a single sequencer running across all instances.
+     * Must be called inside a transaction; the lock is released when it ends.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockSequencer(@Param("key") long key);
+
+    /**
+     * Numbers the oldest committed, not yet sequenced changes after the highest
+     * number given so far. Only committed rows are visible here, so a change whose
+     * transaction is still open is numbered by a later run, after everything that
+     * committed before it. Must run under {@link #tryLockSequencer}.
+     */
+    @Modifying
+    @Query(value = "UPDATE booking_changes c SET change_seq = pending.seq " +
+            "FROM (SELECT id, (SELECT COALESCE(MAX(change_seq), 0) FROM booking_changes) " +
+            "             + ROW_NUMBER() OVER (ORDER BY id) AS seq " +
+            "      FROM (SELECT id FROM booking_changes WHERE change_seq IS NULL ORDER BY id LIMIT :limit) oldest) pending " +
+            "WHERE c.id = pending.id", nativeQuery = true)
+    int assignChangeSeq(@Param("limit") int limit);
+
+    /**
+     * Deletes sequenced changes older than the cutoff, always keeping the newest
+     * one so numbering continues from it.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM booking_changes WHERE changed_at < :cutoff " +
+            "AND change_seq < (SELECT MAX(change_seq) FROM booking_changes)", nativeQuery = true)
+    int deleteSequencedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
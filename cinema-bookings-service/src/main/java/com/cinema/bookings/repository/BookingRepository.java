@@ -1,17 +1,273 @@
 package com.cinema.bookings.repository;
 
+import com.cinema.bookings.dto.BookingFactDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
 import com.cinema.bookings.entity.Booking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
 
     List<Booking> findByUserId(Long userId);
 
+    /**
+     * Bookings with the given ids, in no particular order. The ids are bound as one
+     * array parameter, so every batch size shares the same statement and plan.
+     */
+    @Query(value = "SELECT * FROM bookings WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Booking> findByIdArray(@Param("ids") Long[] ids);
+
     List<Booking> findByStatus(String status);
 
     List<Booking> findByUserIdAndStatus(Long userId, String status);
+
+    Optional<Booking> findFirstByScreeningTimeBeforeOrderByScreeningTimeAsc(LocalDateTime cutoff);
+
+    /**
+     * Keyset page of the bookings of screenings before {@code cutoff}, in
+     * {@code (screeningTime, id)} order, starting after the given position.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.screeningTime < :cutoff " +
+            "AND (b.screeningTime > :afterTime OR (b.screeningTime = :afterTime AND b.id > :afterId)) " +
+            "ORDER BY b.screeningTime ASC, b.id ASC")
+    List<Booking> findArchiveChunk(@Param("cutoff") LocalDateTime cutoff,
+                                   @Param("afterTime") LocalDateTime afterTime,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    List<Booking> findByMovieIdAndScreeningTimeAndStatusNot(Long movieId, LocalDateTime screeningTime, String status);
+
+    List<Booking> findByMovieIdAndScreeningTimeAndStatus(Long movieId, LocalDateTime screeningTime, String status);
+
+    List<Booking> findByStatusAndScreeningTimeGreaterThanEqualAndScreeningTimeLessThan(
+            String status, LocalDateTime from, LocalDateTime to);
+
+    List<Booking> findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(
+            Long userId, Collection<String> statuses, LocalDateTime from);
+
+    List<Booking> findByStatusInAndScreeningTimeGreaterThanEqualAndScreeningTimeLessThan(
+            Collection<String> statuses, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Selects only columns held by the covering index
+     * {@code idx_bookings_user_status_screening}, so PostgreSQL can answer
+     * with an index-only scan in screening order.
+     */
+    @Query("SELECT new com.cinema.bookings.dto.UpcomingTicketDTO(" +
+            "b.id, b.movieId, b.movieTitle, b.screeningTime, b.seatRow, b.seatNumber) " +
+            "FROM Booking b " +
+            "WHERE b.userId = :userId AND b.status = :status AND b.screeningTime >= :from " +
+            "ORDER BY b.screeningTime ASC")
+    List<UpcomingTicketDTO> findUpcomingTickets(@Param("userId") Long userId,
+                                                @Param("status") String status,
+                                                @Param("from") LocalDateTime from,
+                                                Pageable pageable);
+
+    /**
+     * Distinct {@code [movieId, movieTitle]} pairs of bookings screened at or after {@code from},
+     * which the title reconcile compares with movies-service.
+     */
+    @Query("SELECT DISTINCT b.movieId, b.movieTitle FROM Booking b WHERE b.screeningTime >= :from")
+    List<Object[]> findMovieTitlesScreenedSince(@Param("from") LocalDateTime from);
+
+    /**
+     * {@code [movieId, count]} of the bookings that are not cancelled, per movie.
+     */
+    @Query("SELECT b.movieId, COUNT(b) FROM Booking b WHERE b.status <> 'CANCELLED' GROUP BY b.movieId")
+    List<Object[]> countActiveByMovie();
+
+    /**
+     * Refreshes the denormalized movie title on at most {@code limit} stale bookings.
+     *
+     * @return the number of updated rows; less than {@code limit} once the movie is in sync
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE bookings SET movie_title = :title, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id IN (SELECT id FROM bookings WHERE movie_id = :movieId " +
+            "AND movie_title IS DISTINCT FROM :title LIMIT :limit)", nativeQuery = true)
+    int updateMovieTitleChunk(@Param("movieId") Long movieId,
+                              @Param("title") String title,
+                              @Param("limit") int limit);
+
+    /**
+     * Refreshes the denormalized user email on at most {@code limit} stale bookings.
+     *
+     * @return the number of updated rows; less than {@code limit} once the user is in sync
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE bookings SET user_email = :email, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id IN (SELECT id FROM bookings WHERE user_id = :userId " +
+            "AND user_email IS DISTINCT FROM :email LIMIT :limit)", nativeQuery = true)
+    int updateUserEmailChunk(@Param("userId") Long userId,
+                             @Param("email") String email,
+                             @Param("limit") int limit);
+
+    /**
+     * Next keyset page of bookings of a screening that are not cancelled yet, in id order.
+     */
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.movieId = :movieId AND b.screeningTime = :screeningTime " +
+            "AND b.status <> 'CANCELLED' AND b.id > :afterId " +
+            "ORDER BY b.id ASC")
+    List<Booking> findCancellationCandidates(@Param("movieId") Long movieId,
+                                             @Param("screeningTime") LocalDateTime screeningTime,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    long countByMovieIdAndScreeningTimeAndStatusNot(Long movieId, LocalDateTime screeningTime, String status);
+
+    /**
+     * Cancels a batch of bookings in a single statement. Already cancelled rows are left untouched,
+     * so replaying a chunk after a restart is harmless.
+     *
+     * @return the ids of the bookings that changed status
+     */
+    @Transactional
+    @Query(value = "UPDATE bookings SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id IN (:ids) AND status <> 'CANCELLED' RETURNING id", nativeQuery = true)
+    List<Long> cancelByIds(@Param("ids") List<Long> ids);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE tablename = 'bookings' AND indexname = :name)",
+            nativeQuery = true)
+    boolean indexExists(@Param("name") String name);
+
+    /**
+     * Seats held by more than one active booking, as
+     * {@code [movieId, screeningTime, seatRow, seatNumber, "id,id,..."]}.
+     */
+    @Query(value = "SELECT movie_id, screening_time, seat_row, seat_number, " +
+            "string_agg(CAST(id AS text), ',' ORDER BY id) FROM bookings " +
+            "WHERE status <> 'CANCELLED' AND seat_row IS NOT NULL AND seat_number IS NOT NULL " +
+            "GROUP BY movie_id, screening_time, seat_row, seat_number HAVING count(*) > 1", nativeQuery = true)
+    List<Object[]> findDuplicateActiveSeats();
+
+    /**
+     * Takes a transaction-scoped PostgreSQL advisory lock. Only meaningful inside a
+     * transaction; the lock is released on commit or rollback.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) AS screening_lock", nativeQuery = true)
+    Integer lockScreening(@Param("key") long key);
+
+    /**
+     * Takes a transaction-scoped advisory lock on a user. Uses the two-key form, whose
+     * locks never coincide with the single-key screening locks.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(1, :key)) AS user_lock", nativeQuery = true)
+    Integer lockUser(@Param("key") int key);
+
+    /**
+     * @param excludeId the booking being updated, or 0 for a new booking
+     * @return true if another active booking holds the seat
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.movieId = :movieId AND b.screeningTime = :screeningTime " +
+            "AND b.seatRow = :seatRow AND b.seatNumber = :seatNumber " +
+            "AND b.status <> 'CANCELLED' AND b.id <> :excludeId")
+    boolean isSeatTaken(@Param("movieId") Long movieId,
+                        @Param("screeningTime") LocalDateTime screeningTime,
+                        @Param("seatRow") String seatRow,
+                        @Param("seatNumber") Integer seatNumber,
+                        @Param("excludeId") long excludeId);
+
+    /**
+     * Records check-ins that happened at the same time in one statement. Bookings that
+     * are already checked in keep their original time.
+     *
+     * @return the number of bookings checked in
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE bookings SET checked_in_at = :checkedInAt " +
+            "WHERE id IN (:ids) AND checked_in_at IS NULL", nativeQuery = true)
+    int markCheckedIn(@Param("ids") List<Long> ids, @Param("checkedInAt") LocalDateTime checkedInAt);
+
+    /**
+     * Keyset page of the columns mirrored by the analytics store, in id order,
+     * without loading booking entities.
+     */
+    @Query("SELECT new com.cinema.bookings.dto.BookingFactDTO(" +
+            "b.id, b.movieId, b.screeningTime, b.price, b.status) " +
+            "FROM Booking b WHERE b.id > :afterId ORDER BY b.id ASC")
+    List<BookingFactDTO> findFactsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page, in id order, of the analytics columns of bookings modified since
+     * {@code since}. {@code updated_at} has no index, so every call scans the table.
+     */
+    @Query("SELECT new com.cinema.bookings.dto.BookingFactDTO(" +
+            "b.id, b.movieId, b.screeningTime, b.price, b.status) " +
+            "FROM Booking b WHERE b.updatedAt >= :since AND b.id > :afterId ORDER BY b.id ASC")
+    List<BookingFactDTO> findFactsUpdatedSince(@Param("since") LocalDateTime since,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Booking b")
+    long findMaxId();
+
+    /**
+     * Bookings of screenings from {@code from} on that were created after
+     * {@code afterId} or modified since {@code since}, for seat map snapshot replay.
+     * Found through the screening time; {@code updated_at} has no index, which
+     * would make every update of a booking non-HOT.
+     */
+    @Query("SELECT b FROM Booking b " +
+            "WHERE (b.id > :afterId OR b.updatedAt >= :since) AND b.screeningTime >= :from " +
+            "ORDER BY b.id ASC")
+    List<Booking> findChangedSince(@Param("afterId") Long afterId,
+                                   @Param("since") LocalDateTime since,
+                                   @Param("from") LocalDateTime from);
+
+    /**
+     * {@code [movieId, screeningTime, count]} of the seated, not cancelled bookings of each
+     * screening from {@code from} on, which snapshot restore compares with the restored seat maps.
+     */
+    @Query("SELECT b.movieId, b.screeningTime, COUNT(b) FROM Booking b " +
+            "WHERE b.status <> 'CANCELLED' AND b.seatNumber IS NOT NULL AND b.screeningTime >= :from " +
+            "GROUP BY b.movieId, b.screeningTime")
+    List<Object[]> countSeatedByScreeningFrom(@Param("from") LocalDateTime from);
+
+    /**
+     * Claims up to {@code limit} still-active bookings of screenings before the cutoff,
+     * oldest first. Rows locked by another transaction are skipped rather than waited
+     * for, so concurrent lifecycle processors each claim a disjoint batch. Must run
+     * inside a transaction, which holds the row locks until it ends.
+     */
+    @Query(value = "SELECT * FROM bookings " +
+            "WHERE status IN ('PENDING', 'CONFIRMED') AND screening_time < :cutoff " +
+            "ORDER BY screening_time, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Booking> claimPastBookings(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Moves claimed bookings to their terminal state: COMPLETED if the ticket was
+     * checked in, NO_SHOW otherwise. Bookings no longer active are left untouched.
+     *
+     * @return the number of bookings closed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE bookings SET status = CASE WHEN checked_in_at IS NOT NULL " +
+            "THEN 'COMPLETED' ELSE 'NO_SHOW' END, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id IN (:ids) AND status IN ('PENDING', 'CONFIRMED')", nativeQuery = true)
+    int closeByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * @return the earliest screening time before the cutoff that still has active bookings, or null
+     */
+    @Query("SELECT MIN(b.screeningTime) FROM Booking b " +
+            "WHERE b.status IN ('PENDING', 'CONFIRMED') AND b.screeningTime < :cutoff")
+    LocalDateTime findOldestActiveScreeningBefore(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,144 @@
+package com.cinema.bookings.repository;
+
+import com.cinema.bookings.dto.BookingSearchCriteria;
+import com.cinema.bookings.entity.Booking;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dynamic predicates for the booking search. Every predicate compares a bare
+ * column (or {@code lower(user_email)}, which has an expression index) with a
+ * parameter, so each one can use an index; see schema.sql. The filters are
+ * listed once, as {@link Condition}s, and rendered both as JPA predicates and
+ * as the SQL WHERE clause the search's row estimate is planned for.
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> matching(BookingSearchCriteria criteria) {
+        List<Condition> conditions = conditions(criteria);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(conditions.size());
+            for (Condition condition : conditions) {
+                predicates.add(condition.toPredicate(root, cb));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * The same filters as {@link #matching}, as SQL over the {@code bookings} table.
+     *
+     * @param parameters receives the value of each named parameter in the clause
+     * @return the WHERE clause, without the keyword; {@code TRUE} if nothing is filtered
+     */
+    public static String whereClause(BookingSearchCriteria criteria, Map<String, Object> parameters) {
+        StringBuilder sql = new StringBuilder("TRUE");
+        for (Condition condition : conditions(criteria)) {
+            sql.append(" AND ").append(condition.toSql());
+            parameters.put(condition.name(), condition.value());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Keyset predicate: rows after the given position in (screening time, id) order.
+     * The redundant {@code screeningTime >= t} conjunct gives the planner an index
+     * bound; the OR alone cannot be used as one.
+     */
+    public static Specification<Booking> after(LocalDateTime screeningTime, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("screeningTime"), screeningTime),
+                cb.or(
+                        cb.greaterThan(root.get("screeningTime"), screeningTime),
+                        cb.and(cb.equal(root.get("screeningTime"), screeningTime),
+                                cb.greaterThan(root.get("id"), id))));
+    }
+
+    private static List<Condition> conditions(BookingSearchCriteria criteria) {
+        List<Condition> conditions = new ArrayList<>();
+        if (criteria.getMovieId() != null) {
+            conditions.add(new Condition("movieId", "movieId", "movie_id", Operator.EQUAL, criteria.getMovieId()));
+        }
+        if (criteria.getUserEmailPrefix() != null && !criteria.getUserEmailPrefix().isBlank()) {
+            conditions.add(new Condition("email", "userEmail", "user_email", Operator.LOWER_PREFIX,
+                    likePrefix(criteria.getUserEmailPrefix())));
+        }
+        if (criteria.getFrom() != null) {
+            conditions.add(new Condition("from", "screeningTime", "screening_time", Operator.AT_LEAST,
+                    criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            conditions.add(new Condition("to", "screeningTime", "screening_time", Operator.BELOW, criteria.getTo()));
+        }
+        if (criteria.getStatus() != null && !criteria.getStatus().isBlank()) {
+            conditions.add(new Condition("status", "status", "status", Operator.EQUAL,
+                    criteria.getStatus().toUpperCase()));
+        }
+        if (criteria.getSeatRow() != null && !criteria.getSeatRow().isBlank()) {
+            conditions.add(new Condition("seatRow", "seatRow", "seat_row", Operator.EQUAL,
+                    criteria.getSeatRow().toUpperCase()));
+        }
+        if (criteria.getMinPrice() != null) {
+            conditions.add(new Condition("minPrice", "price", "price", Operator.AT_LEAST, criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            conditions.add(new Condition("maxPrice", "price", "price", Operator.AT_MOST, criteria.getMaxPrice()));
+        }
+        return conditions;
+    }
+
+    /**
+     * @return the LIKE pattern matching strings that start with the prefix, lower-cased,
+     * with {@code \}, {@code %} and {@code _} escaped
+     */
+    public static String likePrefix(String prefix) {
+        return prefix.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    private enum Operator {
+        EQUAL, AT_LEAST, AT_MOST, BELOW, LOWER_PREFIX
+    }
+
+    /**
+     * One filter: a column compared with a value bound as parameter {@code name}.
+     */
+    private record Condition(String name, String property, String column, Operator operator, Object value) {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate toPredicate(Root<Booking> root, CriteriaBuilder cb) {
+            Expression path = root.get(property);
+            Comparable comparable = (Comparable) value;
+            return switch (operator) {
+                case EQUAL -> cb.equal(path, value);
+                case AT_LEAST -> cb.greaterThanOrEqualTo(path, comparable);
+                case AT_MOST -> cb.lessThanOrEqualTo(path, comparable);
+                case BELOW -> cb.lessThan(path, comparable);
+                case LOWER_PREFIX -> cb.like(cb.lower(path), (String) value, '\\');
+            };
+        }
+
+        String toSql() {
+            return switch (operator) {
+                case EQUAL -> column + " = :" + name;
+                case AT_LEAST -> column + " >= :" + name;
+                case AT_MOST -> column + " <= :" + name;
+                case BELOW -> column + " < :" + name;
+                case LOWER_PREFIX -> "lower(" + column + ") LIKE :" + name + " ESCAPE '\\'";
+            };
+        }
+    }
+}
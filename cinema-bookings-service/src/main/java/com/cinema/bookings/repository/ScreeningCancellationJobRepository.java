@@ -0,0 +1,52 @@
+package com.cinema.bookings.repository;
+
+import com.cinema.bookings.entity.ScreeningCancellationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScreeningCancellationJobRepository extends JpaRepository<ScreeningCancellationJob, Long> {
+
+    List<ScreeningCancellationJob> findByStatus(String status);
+
+    Optional<ScreeningCancellationJob> findFirstByMovieIdAndScreeningTimeAndStatusNotOrderByIdDesc(
+            Long movieId, LocalDateTime screeningTime, String status);
+
+    /**
+     * Takes over a running job whose instance stopped saving checkpoints. {@code updatedAt}
+     * is refreshed on every checkpoint, so it serves as the lease of the instance running it.
+     *
+     * @return 1 if this call claimed the job, 0 if another instance still holds it
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScreeningCancellationJob j SET j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.updatedAt < :staleBefore")
+    int claimStale(@Param("id") Long id,
+                   @Param("now") LocalDateTime now,
+                   @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Restarts a failed job, or a running one whose lease has lapsed, from its checkpoint.
+     * The status and lease are checked in the same statement, so of several instances
+     * restarting or resuming the job at once only one gets it.
+     *
+     * @return 1 if this call claimed the job, 0 if it is running elsewhere or already finished
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScreeningCancellationJob j SET j.status = 'RUNNING', j.startedAt = :now, " +
+            "j.finishedAt = NULL, j.errorMessage = NULL, j.updatedAt = :now " +
+            "WHERE j.id = :id AND (j.status = 'FAILED' OR (j.status = 'RUNNING' AND j.updatedAt < :staleBefore))")
+    int claimForRestart(@Param("id") Long id,
+                        @Param("now") LocalDateTime now,
+                        @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,31 @@
+package com.cinema.bookings.repository;
+
+import com.cinema.bookings.entity.WaitingRoomAdmission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface WaitingRoomAdmissionRepository extends JpaRepository<WaitingRoomAdmission, String> {
+
+    /**
+     * Records the ticket's admission as consumed.
+     *
+     * @return 1 if this call consumed it, 0 if it had already been consumed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO waiting_room_admissions (ticket_id, expires_at) VALUES (:ticketId, :expiresAt) " +
+            "ON CONFLICT (ticket_id) DO NOTHING", nativeQuery = true)
+    int claim(@Param("ticketId") String ticketId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WaitingRoomAdmission a WHERE a.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,28 @@
+package com.cinema.bookings.seating;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A run of adjacent seats in one row.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SeatBlock {
+
+    /**
+     * Zero-based row index
+     */
+    private final int row;
+
+    /**
+     * One-based number of the left-most seat
+     */
+    private final int firstSeat;
+
+    private final int count;
+}
@@ -0,0 +1,227 @@
+package com.cinema.bookings.seating;
+
+import java.nio.LongBuffer;
+
+/**
+ * Seat occupancy of one screening, one bit per seat.
+ *
+ * Each row is stored as {@code ceil(seatsPerRow / 64)} consecutive words, bit
+ * {@code i} of a row being seat {@code i + 1}. A block search turns the free
+ * seats of a row into a mask of positions where {@code n} free seats start,
+ * using O(log n) shift-and steps over whole words, and then only visits the
+ * surviving candidates. A 500-seat hall is a few dozen words.
+ *
+ * Instances are not thread-safe; callers synchronize on the map.
+ */
+public class SeatMap {
+
+    private final int rows;
+    private final int seatsPerRow;
+    private final int wordsPerRow;
+    private final long[] occupied;
+    private final long lastWordMask;
+
+    public SeatMap(int rows, int seatsPerRow) {
+        if (rows <= 0 || seatsPerRow <= 0) {
+            throw new IllegalArgumentException("A hall needs at least one row and one seat per row");
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.wordsPerRow = (seatsPerRow + Long.SIZE - 1) / Long.SIZE;
+        this.occupied = new long[rows * wordsPerRow];
+        int tail = seatsPerRow % Long.SIZE;
+        this.lastWordMask = tail == 0 ? -1L : (1L << tail) - 1;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * @param row  zero-based row index
+     * @param seat one-based seat number
+     * @return false if the position is outside the hall
+     */
+    public boolean contains(int row, int seat) {
+        return row >= 0 && row < rows && seat >= 1 && seat <= seatsPerRow;
+    }
+
+    public boolean isFree(int row, int seat) {
+        int bit = seat - 1;
+        return (occupied[row * wordsPerRow + (bit >>> 6)] & (1L << bit)) == 0;
+    }
+
+    public void occupy(int row, int seat) {
+        int bit = seat - 1;
+        occupied[row * wordsPerRow + (bit >>> 6)] |= 1L << bit;
+    }
+
+    public void release(int row, int seat) {
+        int bit = seat - 1;
+        occupied[row * wordsPerRow + (bit >>> 6)] &= ~(1L << bit);
+    }
+
+    /**
+     * @return an independent copy of this map
+     */
+    public SeatMap copy() {
+        SeatMap copy = new SeatMap(rows, seatsPerRow);
+        System.arraycopy(occupied, 0, copy.occupied, 0, occupied.length);
+        return copy;
+    }
+
+    /**
+     * @return the number of 64-bit words {@link #writeTo} writes
+     */
+    public int wordCount() {
+        return occupied.length;
+    }
+
+    /**
+     * Writes the occupancy words at the buffer's position.
+     */
+    public void writeTo(LongBuffer target) {
+        target.put(occupied);
+    }
+
+    /**
+     * Replaces the occupancy with {@link #wordCount()} words read from the buffer's position.
+     */
+    public void readFrom(LongBuffer source) {
+        source.get(occupied);
+    }
+
+    public int countOccupied() {
+        int count = 0;
+        for (long word : occupied) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the best block of {@code count} adjacent free seats in one row.
+     * Blocks are ranked by the distance of their row from {@code preferredRow},
+     * weighted by {@code rowWeight}, plus the distance of the block's centre from
+     * the centre of the row. Ties go to the front-most, left-most block.
+     *
+     * @param count        the number of seats, at least 1
+     * @param preferredRow zero-based index of the ideal row
+     * @param rowWeight    cost of one row away from the preferred row, in seats
+     * @return the best block, or null if no row has enough adjacent free seats
+     */
+    public SeatBlock findBestBlock(int count, int preferredRow, double rowWeight) {
+        if (count < 1 || count > seatsPerRow) {
+            return null;
+        }
+
+        long[] free = new long[wordsPerRow];
+        long[] shifted = new long[wordsPerRow];
+        double rowCentre = (seatsPerRow - 1) / 2.0;
+        double halfBlock = (count - 1) / 2.0;
+
+        SeatBlock best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int row = 0; row < rows; row++) {
+            double rowCost = Math.abs(row - preferredRow) * rowWeight;
+            if (rowCost >= bestScore) {
+                continue;
+            }
+            if (!blockStarts(row, count, free, shifted)) {
+                continue;
+            }
+
+            for (int w = 0; w < wordsPerRow; w++) {
+                long candidates = free[w];
+                while (candidates != 0) {
+                    int start = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                    candidates &= candidates - 1;
+                    double score = rowCost + Math.abs(start + halfBlock - rowCentre);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        best = new SeatBlock(row, start + 1, count);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Leaves in {@code free} a mask with bit {@code i} set iff seats {@code i+1 .. i+count}
+     * of the row are all free.
+     *
+     * @return false if the row has no such block
+     */
+    private boolean blockStarts(int row, int count, long[] free, long[] shifted) {
+        int base = row * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            free[w] = ~occupied[base + w];
+        }
+        free[wordsPerRow - 1] &= lastWordMask;
+        long any = 0;
+        for (long word : free) {
+            any |= word;
+        }
+
+        // Run-length doubling: after each step, bit i means "len free seats start at i"
+        int len = 1;
+        while (len < count && any != 0) {
+            int step = Math.min(Math.min(len, count - len), Long.SIZE - 1);
+            shiftRight(free, step, shifted);
+            any = 0;
+            for (int w = 0; w < wordsPerRow; w++) {
+                free[w] &= shifted[w];
+                any |= free[w];
+            }
+            len += step;
+        }
+        return any != 0;
+    }
+
+    private void shiftRight(long[] source, int step, long[] target) {
+        for (int w = 0; w < wordsPerRow; w++) {
+            long carry = w + 1 < wordsPerRow ? source[w + 1] << (Long.SIZE - step) : 0L;
+            target[w] = (source[w] >>> step) | carry;
+        }
+    }
+
+    /**
+     * @param row zero-based row index
+     * @return the row label: A..Z, then AA, AB, ...
+     */
+    public static String rowLabel(int row) {
+        StringBuilder label = new StringBuilder();
+        for (int n = row + 1; n > 0; n = (n - 1) / 26) {
+            label.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return label.toString();
+    }
+
+    /**
+     * @param label a row label as produced by {@link #rowLabel(int)}, case-insensitive
+     * @return the zero-based row index, or -1 if the label is not a row label
+     */
+    public static int rowIndex(String label) {
+        if (label == null || label.isBlank()) {
+            return -1;
+        }
+        int n = 0;
+        for (char c : label.trim().toUpperCase().toCharArray()) {
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            n = n * 26 + (c - 'A' + 1);
+        }
+        return n - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatMap[" + rows + "x" + seatsPerRow + ", occupied=" + countOccupied() + "]";
+    }
+}
@@ -0,0 +1,175 @@
+package com.cinema.bookings.seating;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Checkpoint of the seat maps of many screenings in one memory-mapped file.
+ *
+ * Layout: a 48-byte header (magic, version, hall rows and seats per row, the
+ * highest booking id covered, the time the snapshot was taken, the number of
+ * screenings and a CRC32C of every other byte of the file, header included),
+ * then per screening
+ * its movie id, screening time in epoch seconds and the raw occupancy words.
+ * Files are written to a temporary file and atomically moved into place, so a
+ * reader sees either the old or the new snapshot.
+ */
+public final class SeatMapSnapshot {
+
+    private static final int MAGIC = 0x534D5331;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 48;
+    private static final int CHECKSUM_OFFSET = 36;
+
+    private final long highWaterMark;
+    private final LocalDateTime takenAt;
+    private final List<Entry> entries;
+
+    private SeatMapSnapshot(long highWaterMark, LocalDateTime takenAt, List<Entry> entries) {
+        this.highWaterMark = highWaterMark;
+        this.takenAt = takenAt;
+        this.entries = entries;
+    }
+
+    /**
+     * @return the highest booking id reflected in the snapshot
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Writes a snapshot, atomically replacing any existing file.
+     *
+     * @param entries seat maps to store, all of the given hall layout
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, int rows, int seatsPerRow, long highWaterMark, LocalDateTime takenAt,
+                             List<Entry> entries) throws IOException {
+        int words = new SeatMap(rows, seatsPerRow).wordCount();
+        long entrySize = 2L * Long.BYTES + (long) words * Long.BYTES;
+        long size = HEADER_SIZE + entrySize * entries.size();
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+                buffer.position(HEADER_SIZE);
+                for (Entry entry : entries) {
+                    if (entry.seatMap().getRows() != rows || entry.seatMap().getSeatsPerRow() != seatsPerRow) {
+                        throw new IllegalArgumentException("Seat map layout does not match the snapshot layout");
+                    }
+                    buffer.putLong(entry.movieId());
+                    buffer.putLong(entry.screeningTime().toEpochSecond(ZoneOffset.UTC));
+                    LongBuffer target = buffer.asLongBuffer();
+                    entry.seatMap().writeTo(target);
+                    buffer.position(buffer.position() + words * Long.BYTES);
+                }
+
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, rows);
+                buffer.putInt(12, seatsPerRow);
+                buffer.putLong(16, highWaterMark);
+                buffer.putLong(24, takenAt.toEpochSecond(ZoneOffset.UTC));
+                buffer.putInt(32, entries.size());
+                buffer.putLong(CHECKSUM_OFFSET, checksum(buffer, size));
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps and verifies a snapshot.
+     *
+     * @return the snapshot, or null if the file does not exist
+     * @throws IOException if the file is corrupt, was written for another hall layout, or cannot be read
+     */
+    public static SeatMapSnapshot read(Path path, int rows, int seatsPerRow) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Seat map snapshot is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a seat map snapshot, or an unsupported version");
+            }
+            if (buffer.getInt(8) != rows || buffer.getInt(12) != seatsPerRow) {
+                throw new IOException("Seat map snapshot was taken for a " + buffer.getInt(8) + "x"
+                        + buffer.getInt(12) + " hall");
+            }
+            int count = buffer.getInt(32);
+            int words = new SeatMap(rows, seatsPerRow).wordCount();
+            long entrySize = 2L * Long.BYTES + (long) words * Long.BYTES;
+            if (size != HEADER_SIZE + entrySize * count) {
+                throw new IOException("Seat map snapshot is truncated");
+            }
+            if (buffer.getLong(CHECKSUM_OFFSET) != checksum(buffer, size)) {
+                throw new IOException("Seat map snapshot checksum mismatch");
+            }
+
+            List<Entry> entries = new ArrayList<>(count);
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < count; i++) {
+                long movieId = buffer.getLong();
+                LocalDateTime screeningTime = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+                SeatMap seatMap = new SeatMap(rows, seatsPerRow);
+                seatMap.readFrom(buffer.asLongBuffer());
+                buffer.position(buffer.position() + words * Long.BYTES);
+                entries.add(new Entry(movieId, screeningTime, seatMap));
+            }
+            return new SeatMapSnapshot(buffer.getLong(16),
+                    LocalDateTime.ofEpochSecond(buffer.getLong(24), 0, ZoneOffset.UTC),
+                    Collections.unmodifiableList(entries));
+        }
+    }
+
+    /**
+     * CRC32C of the whole file except the checksum field, so a damaged high-water
+     * mark or snapshot time is caught as well as damaged seat maps.
+     */
+    private static long checksum(ByteBuffer buffer, long size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, CHECKSUM_OFFSET));
+        crc.update(buffer.slice(CHECKSUM_OFFSET + Long.BYTES, (int) (size - CHECKSUM_OFFSET - Long.BYTES)));
+        return crc.getValue();
+    }
+
+    public record Entry(long movieId, LocalDateTime screeningTime, SeatMap seatMap) {
+    }
+}
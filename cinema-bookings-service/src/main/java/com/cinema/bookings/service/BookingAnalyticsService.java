@@ -0,0 +1,287 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.analytics.BookingColumnStore;
+import com.cinema.bookings.analytics.GroupBy;
+import com.cinema.bookings.analytics.GroupTotals;
+import com.cinema.bookings.analytics.ScanFilter;
+import com.cinema.bookings.config.SchedulingConfig;
+import com.cinema.bookings.dto.BookingFactDTO;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.dto.OccupancyBucketDTO;
+import com.cinema.bookings.dto.OccupancyReportDTO;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Occupancy analytics over every booking without going through JPA.
+ *
+ * Bookings are mirrored into a {@link BookingColumnStore}: bulk loaded once at
+ * startup in keyset pages of plain column tuples, then kept current from
+ * {@link BookingChangedEvent}s. Reports are parallel scans of the store's
+ * off-heap columns.
+ *
+ * Change events are only published by this instance, so a periodic catch-up
+ * reads what other instances wrote: bookings above the highest id seen so far,
+ * then bookings whose {@code updatedAt} is at or after a watermark taken when the
+ * previous pass started, less a margin for clock skew between instances. Deleted
+ * rows leave no trace to read, so bookings deleted by another instance stay in
+ * the store until the next restart.
+ */
+@Service
+public class BookingAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingAnalyticsService.class);
+    /** Sold seats: active bookings and those closed after their screening by the lifecycle job. */
+    private static final List<String> DEFAULT_STATUSES = List.of("PENDING", "CONFIRMED", "COMPLETED", "NO_SHOW");
+
+    private final BookingRepository bookingRepository;
+    private final RestTemplate restTemplate;
+    private final String moviesServiceUrl;
+    private final boolean enabled;
+    private final int loadPageSize;
+    private final BookingColumnStore store = new BookingColumnStore();
+    private final long catchUpMarginSeconds;
+    private final ForkJoinPool scanPool;
+    private final Timer queryTimer;
+    private volatile boolean loaded;
+    private long highestId;
+    private LocalDateTime watermark;
+
+    public BookingAnalyticsService(BookingRepository bookingRepository,
+                                   RestTemplate restTemplate,
+                                   @Value("${service.movies.url}") String moviesServiceUrl,
+                                   @Value("${booking.analytics.enabled:true}") boolean enabled,
+                                   @Value("${booking.analytics.load-page-size:10000}") int loadPageSize,
+                                   @Value("${booking.analytics.parallelism:0}") int parallelism,
+                                   @Value("${booking.analytics.catch-up-margin-seconds:60}") long catchUpMarginSeconds,
+                                   MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.restTemplate = restTemplate;
+        this.moviesServiceUrl = moviesServiceUrl;
+        this.enabled = enabled;
+        this.loadPageSize = loadPageSize;
+        this.catchUpMarginSeconds = catchUpMarginSeconds;
+        this.scanPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        Gauge.builder("bookings.analytics.rows", store, BookingColumnStore::size)
+                .description("Bookings mirrored in the analytics store")
+                .register(meterRegistry);
+        Gauge.builder("bookings.analytics.off_heap_bytes", store, BookingColumnStore::offHeapBytes)
+                .description("Direct memory held by the analytics columns")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("bookings.analytics.query")
+                .description("Time to scan the analytics store for one report")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads existing bookings in the background so startup is not delayed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoad() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "analytics-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Copies every booking into the store, skipping bookings that change events
+     * have already added.
+     */
+    synchronized void load() {
+        long start = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now().minusSeconds(catchUpMarginSeconds);
+        long afterId = 0;
+        int inserted = 0;
+        try {
+            List<BookingFactDTO> page;
+            do {
+                page = bookingRepository.findFactsAfter(afterId, PageRequest.of(0, loadPageSize));
+                for (BookingFactDTO fact : page) {
+                    if (store.insertIfAbsent(fact.getId(), fact.getMovieId(), epoch(fact.getScreeningTime()),
+                            fact.getPrice() != null ? fact.getPrice() : 0.0,
+                            BookingColumnStore.statusCode(fact.getStatus()))) {
+                        inserted++;
+                    }
+                    afterId = fact.getId();
+                }
+            } while (page.size() == loadPageSize);
+            highestId = afterId;
+            watermark = since;
+            loaded = true;
+            logger.info("Loaded {} bookings into the analytics store in {} ms", inserted,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.error("Analytics store load stopped after booking {}: {}", afterId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies bookings created or modified elsewhere since the previous pass. Rows
+     * read here may be overwritten by an older copy if a local change event lands
+     * during the pass; the next pass reads them again, as they are past the watermark.
+     */
+    @Scheduled(initialDelayString = "${booking.analytics.catch-up-interval-ms:300000}",
+            fixedDelayString = "${booking.analytics.catch-up-interval-ms:300000}",
+            scheduler = SchedulingConfig.ANALYTICS_SCHEDULER)
+    public synchronized void catchUp() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now().minusSeconds(catchUpMarginSeconds);
+        int copied = 0;
+        try {
+            List<BookingFactDTO> page;
+            do {
+                page = bookingRepository.findFactsAfter(highestId, PageRequest.of(0, loadPageSize));
+                copied += upsert(page);
+                if (!page.isEmpty()) {
+                    highestId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == loadPageSize);
+
+            long afterId = 0;
+            do {
+                page = bookingRepository.findFactsUpdatedSince(watermark, afterId, PageRequest.of(0, loadPageSize));
+                copied += upsert(page);
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == loadPageSize);
+            watermark = since;
+            logger.debug("Analytics catch-up copied {} bookings in {} ms", copied,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.error("Analytics catch-up failed, retrying from {}: {}", watermark, e.getMessage(), e);
+        }
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        BookingResponseDTO current = event.getCurrent();
+        if (current != null) {
+            store.upsert(current.getId(), current.getMovieId(), epoch(current.getScreeningTime()),
+                    current.getPrice() != null ? current.getPrice() : 0.0,
+                    BookingColumnStore.statusCode(current.getStatus()));
+        } else if (event.getPrevious() != null) {
+            store.delete(event.getPrevious().getId());
+        }
+    }
+
+    /**
+     * Booking counts and revenue per group.
+     *
+     * @param groupBy  the grouping key
+     * @param from     inclusive lower bound of the screening time, or null
+     * @param to       exclusive upper bound of the screening time, or null
+     * @param movieIds movies to include, or null for all
+     * @param genre    genre to include, resolved to movie ids through movies-service, or null
+     * @param statuses statuses to include; pending, confirmed, completed and no-show if null or empty
+     * @return one bucket per group, in key order
+     */
+    public OccupancyReportDTO occupancy(GroupBy groupBy, LocalDateTime from, LocalDateTime to,
+                                       Collection<Long> movieIds, String genre, Collection<String> statuses) {
+        Set<Long> movies = movieIds == null || movieIds.isEmpty() ? null : new HashSet<>(movieIds);
+        if (genre != null && !genre.isBlank()) {
+            Set<Long> genreMovies = moviesInGenre(genre);
+            if (movies == null) {
+                movies = genreMovies;
+            } else {
+                movies.retainAll(genreMovies);
+            }
+        }
+
+        List<Byte> statusCodes = (statuses == null || statuses.isEmpty() ? DEFAULT_STATUSES : statuses).stream()
+                .map(status -> BookingColumnStore.statusCode(status.toUpperCase()))
+                .toList();
+        ScanFilter filter = ScanFilter.of(
+                from != null ? epoch(from) : Long.MIN_VALUE,
+                to != null ? epoch(to) : Long.MAX_VALUE,
+                statusCodes, movies);
+
+        int rowsScanned = store.size();
+        long start = System.nanoTime();
+        GroupTotals totals = store.aggregate(filter, groupBy, scanPool);
+        long elapsed = System.nanoTime() - start;
+        queryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        List<GroupTotals.Group> groups = new ArrayList<>(totals.size());
+        totals.forEach(groups::add);
+        groups.sort(Comparator.comparingLong(GroupTotals.Group::key));
+        List<OccupancyBucketDTO> buckets = groups.stream()
+                .map(group -> new OccupancyBucketDTO(groupBy.label(group.key()), group.bookings(), group.revenue()))
+                .toList();
+        return new OccupancyReportDTO(groupBy.name(), rowsScanned, totals.getRowsMatched(),
+                elapsed / 1_000_000.0, loaded, buckets);
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    int storedRows() {
+        return store.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdownNow();
+    }
+
+    private int upsert(List<BookingFactDTO> facts) {
+        for (BookingFactDTO fact : facts) {
+            store.upsert(fact.getId(), fact.getMovieId(), epoch(fact.getScreeningTime()),
+                    fact.getPrice() != null ? fact.getPrice() : 0.0,
+                    BookingColumnStore.statusCode(fact.getStatus()));
+        }
+        return facts.size();
+    }
+
+    private Set<Long> moviesInGenre(String genre) {
+        MovieResponseDTO[] movies = restTemplate.getForObject(
+                moviesServiceUrl + "/api/movies/filter?genre={genre}", MovieResponseDTO[].class, genre);
+        Set<Long> ids = new HashSet<>();
+        if (movies != null) {
+            for (MovieResponseDTO movie : movies) {
+                ids.add(movie.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static long epoch(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : 0;
+    }
+}
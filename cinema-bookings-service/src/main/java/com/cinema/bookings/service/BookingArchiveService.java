@@ -0,0 +1,213 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.archive.ArchiveQuery;
+import com.cinema.bookings.archive.ColumnarBookingFile;
+import com.cinema.bookings.config.SchedulingConfig;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves bookings whose screening is older than the configured horizon out of the
+ * {@code bookings} table into {@link ColumnarBookingFile} partitions on local disk,
+ * and answers historical queries by scanning those partitions.
+ *
+ * Bookings are read in keyset chunks of {@code booking.archive.chunk-size} rows in
+ * screening time order, so memory use does not grow with the size of a month. Each
+ * chunk is written as one file per screening month, named after its first booking
+ * id, before its rows are deleted; a {@link BookingChangedEvent} is then published
+ * for every deleted row, so the in-memory seat maps, check-in sets, overlap trees
+ * and analytics drop it as they would a booking deleted through the API. Files are
+ * merged and queries deduplicated by id, so a job interrupted between writing and
+ * deleting can simply be re-run.
+ */
+@Service
+public class BookingArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchiveService.class);
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final String FILE_PREFIX = "bookings-";
+    private static final String FILE_SUFFIX = ".cba";
+    private static final int MONTH_LENGTH = 7;
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path directory;
+    private final boolean enabled;
+    private final long horizonDays;
+    private final int chunkSize;
+
+    public BookingArchiveService(BookingRepository bookingRepository,
+                                 BookingMapper bookingMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${booking.archive.directory:./archive}") String directory,
+                                 @Value("${booking.archive.enabled:false}") boolean enabled,
+                                 @Value("${booking.archive.horizon-days:365}") long horizonDays,
+                                 @Value("${booking.archive.chunk-size:1000}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.eventPublisher = eventPublisher;
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${booking.archive.cron:0 30 3 * * *}", scheduler = SchedulingConfig.ARCHIVE_SCHEDULER)
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveOldBookings();
+        }
+    }
+
+    /**
+     * Archives every booking whose screening time is before the horizon, one chunk at a time.
+     *
+     * @return the number of archived bookings
+     */
+    public synchronized int archiveOldBookings() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(horizonDays).atStartOfDay();
+        Optional<Booking> oldest = bookingRepository.findFirstByScreeningTimeBeforeOrderByScreeningTimeAsc(cutoff);
+        if (oldest.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime afterTime = oldest.get().getScreeningTime();
+        long afterId = 0;
+        int archived = 0;
+        try {
+            Files.createDirectories(directory);
+            List<Booking> chunk;
+            while (!(chunk = bookingRepository.findArchiveChunk(cutoff, afterTime, afterId,
+                    PageRequest.of(0, chunkSize))).isEmpty()) {
+                Map<YearMonth, List<Booking>> months = chunk.stream().collect(Collectors.groupingBy(
+                        booking -> YearMonth.from(booking.getScreeningTime()), TreeMap::new, Collectors.toList()));
+                for (Map.Entry<YearMonth, List<Booking>> month : months.entrySet()) {
+                    writePartition(month.getKey(), month.getValue());
+                }
+                delete(chunk);
+                archived += chunk.size();
+
+                Booking last = chunk.get(chunk.size() - 1);
+                afterTime = last.getScreeningTime();
+                afterId = last.getId();
+            }
+            logger.info("Archived {} bookings with screenings before {}", archived, cutoff);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive bookings after " + archived + " rows", e);
+        }
+        return archived;
+    }
+
+    /**
+     * Scans the archive partitions that can contain matching bookings.
+     *
+     * @param query the scan predicates
+     * @return the matching archived bookings ordered by screening time
+     */
+    public List<BookingResponseDTO> queryArchive(ArchiveQuery query) {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> partitions = files
+                    .filter(path -> partitionMonth(path).filter(month -> overlaps(month, query)).isPresent())
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            Map<Long, BookingResponseDTO> rows = new LinkedHashMap<>();
+            for (Path partition : partitions) {
+                for (BookingResponseDTO row : ColumnarBookingFile.scan(partition, query)) {
+                    rows.put(row.getId(), row);
+                }
+            }
+            List<BookingResponseDTO> result = new ArrayList<>(rows.values());
+            result.sort(Comparator.comparing(BookingResponseDTO::getScreeningTime));
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read booking archive", e);
+        }
+    }
+
+    private void writePartition(YearMonth month, List<Booking> bookings) throws IOException {
+        Path partition = directory.resolve(FILE_PREFIX + month.format(PARTITION_FORMAT) + "-"
+                + bookings.get(0).getId() + FILE_SUFFIX);
+
+        Map<Long, BookingResponseDTO> rows = new LinkedHashMap<>();
+        if (Files.exists(partition)) {
+            for (BookingResponseDTO row : ColumnarBookingFile.readAll(partition)) {
+                rows.put(row.getId(), row);
+            }
+        }
+        for (Booking booking : bookings) {
+            rows.put(booking.getId(), bookingMapper.toResponseDTO(booking));
+        }
+        ColumnarBookingFile.write(partition, new ArrayList<>(rows.values()));
+    }
+
+    private void delete(List<Booking> bookings) {
+        bookingRepository.deleteAllByIdInBatch(bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+        for (Booking booking : bookings) {
+            eventPublisher.publishEvent(BookingChangedEvent.deleted(bookingMapper.toResponseDTO(booking)));
+        }
+    }
+
+    /**
+     * The month of a {@code bookings-yyyy-MM-<first id>.cba} chunk file, or of a
+     * {@code bookings-yyyy-MM.cba} file written before archiving was chunked.
+     */
+    private Optional<YearMonth> partitionMonth(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return Optional.empty();
+        }
+        String partition = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+        if (partition.length() < MONTH_LENGTH
+                || partition.length() > MONTH_LENGTH && !partition.substring(MONTH_LENGTH).matches("-\\d+")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partition.substring(0, MONTH_LENGTH), PARTITION_FORMAT));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean overlaps(YearMonth month, ArchiveQuery query) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        if (query.getFrom() != null && !end.isAfter(query.getFrom())) {
+            return false;
+        }
+        return query.getTo() == null || start.isBefore(query.getTo());
+    }
+}
@@ -0,0 +1,128 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingBatchEntryDTO;
+import com.cinema.bookings.dto.BookingBatchResultDTO;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.BatchLimitExceededException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up many bookings by id with one query instead of one request each.
+ *
+ * Duplicate ids are answered once. Results follow the order of the requested
+ * ids and ids without a booking are reported rather than failing the request.
+ * Streamed lookups query {@code booking.batch.stream-chunk-size} ids at a time
+ * and write each chunk before fetching the next, so memory stays bounded
+ * however many ids are requested.
+ */
+@Service
+public class BookingBatchService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+    private final int maxIds;
+    private final int streamMaxIds;
+    private final int streamChunkSize;
+
+    public BookingBatchService(BookingRepository bookingRepository,
+                               BookingMapper bookingMapper,
+                               ObjectMapper objectMapper,
+                               @Value("${booking.batch.max-ids:1000}") int maxIds,
+                               @Value("${booking.batch.stream-max-ids:50000}") int streamMaxIds,
+                               @Value("${booking.batch.stream-chunk-size:500}") int streamChunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.objectMapper = objectMapper;
+        this.maxIds = maxIds;
+        this.streamMaxIds = streamMaxIds;
+        this.streamChunkSize = streamChunkSize;
+    }
+
+    /**
+     * @throws BatchLimitExceededException if more than {@code booking.batch.max-ids} distinct ids are requested
+     */
+    public BookingBatchResultDTO getBookings(List<Long> ids) {
+        List<Long> distinct = distinct(ids, maxIds);
+        Map<Long, Booking> found = fetch(distinct);
+
+        List<BookingResponseDTO> bookings = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinct) {
+            Booking booking = found.get(id);
+            if (booking != null) {
+                bookings.add(bookingMapper.toResponseDTO(booking));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BookingBatchResultDTO(bookings, missingIds);
+    }
+
+    /**
+     * Streams one {@link BookingBatchEntryDTO} per distinct id as newline-delimited JSON, in request order.
+     * The size is checked up front, so an oversized request fails before the response is started.
+     *
+     * @throws BatchLimitExceededException if more than {@code booking.batch.stream-max-ids} distinct ids are requested
+     */
+    public StreamingResponseBody streamBookings(List<Long> ids) {
+        List<Long> distinct = distinct(ids, streamMaxIds);
+        return out -> write(distinct, out);
+    }
+
+    void write(List<Long> ids, OutputStream out) throws IOException {
+        for (int from = 0; from < ids.size(); from += streamChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + streamChunkSize, ids.size()));
+            Map<Long, Booking> found = fetch(chunk);
+            for (Long id : chunk) {
+                Booking booking = found.get(id);
+                BookingResponseDTO response = booking != null ? bookingMapper.toResponseDTO(booking) : null;
+                out.write(objectMapper.writeValueAsBytes(new BookingBatchEntryDTO(id, response)));
+                out.write(NEWLINE);
+            }
+            out.flush();
+        }
+    }
+
+    private Map<Long, Booking> fetch(List<Long> ids) {
+        Map<Long, Booking> found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        for (Booking booking : bookingRepository.findByIdArray(ids.toArray(new Long[0]))) {
+            found.put(booking.getId(), booking);
+        }
+        return found;
+    }
+
+    private static List<Long> distinct(List<Long> ids, int limit) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    distinct.add(id);
+                }
+            }
+        }
+        if (distinct.size() > limit) {
+            throw new BatchLimitExceededException(distinct.size(), limit);
+        }
+        return new ArrayList<>(distinct);
+    }
+}
@@ -0,0 +1,285 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingChangeDTO;
+import com.cinema.bookings.dto.BookingChangeFeedDTO;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.entity.BookingChange;
+import com.cinema.bookings.exception.ChangeFeedExpiredException;
+import com.cinema.bookings.exception.InvalidCursorException;
+import com.cinema.bookings.repository.BookingChangeRepository;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves inserts, updates and deletes of bookings as an ordered feed, so other
+ * services can keep their own copy current without reloading every booking.
+ *
+ * A database trigger records every change in {@code booking_changes} in the
+ * same transaction as the change, whichever code path wrote it. Changes get
+ * their feed number only once committed: a single sequencer, elected per run
+ * with an advisory lock, numbers the committed but unnumbered changes after the
+ * highest number so far. A transaction that commits late is therefore numbered
+ * after everything that committed before it, and a consumer that has read up
+ * to {@code n} never misses a change numbered below {@code n}. Numbers have no
+ * gaps, so a cursor older than the retained changes is detected and answered
+ * with {@code 410 Gone}.
+ *
+ * The sequencer runs every {@code booking.changes.sequence-interval-ms} on its own
+ * thread, so it keeps its pace whatever the shared scheduler is busy with.
+ *
+ * Requests that find nothing new can wait up to {@code booking.changes.max-wait-ms}
+ * for changes to arrive (long polling). A waiting request holds no thread: it is
+ * parked as a pending future and re-checked by a single waiter thread every
+ * {@code booking.changes.poll-interval-ms} and as soon as this instance sequences
+ * new changes.
+ */
+@Service
+public class BookingChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingChangeFeedService.class);
+    /** Advisory lock key of the sequencer ("bkchange" in ASCII). */
+    private static final long SEQUENCER_LOCK_KEY = 0x626b6368616e6765L;
+    private static final Map<String, String> CHANGE_TYPES = Map.of(
+            BookingChange.INSERT, "CREATED",
+            BookingChange.UPDATE, "UPDATED",
+            BookingChange.DELETE, "DELETED");
+
+    private final BookingChangeRepository bookingChangeRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLimit;
+    private final long maxWaitMs;
+    private final long pollIntervalMs;
+    private final int sequenceBatchSize;
+    private final long retentionHours;
+    private final long sequenceIntervalMs;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService sequencerPool;
+    private final ScheduledExecutorService waiterPool;
+    private final Counter sequencedCounter;
+
+    public BookingChangeFeedService(BookingChangeRepository bookingChangeRepository,
+                                    BookingRepository bookingRepository,
+                                    BookingMapper bookingMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${booking.changes.max-limit:1000}") int maxLimit,
+                                    @Value("${booking.changes.max-wait-ms:30000}") long maxWaitMs,
+                                    @Value("${booking.changes.poll-interval-ms:1000}") long pollIntervalMs,
+                                    @Value("${booking.changes.sequence-interval-ms:200}") long sequenceIntervalMs,
+                                    @Value("${booking.changes.sequence-batch-size:5000}") int sequenceBatchSize,
+                                    @Value("${booking.changes.retention-hours:168}") long retentionHours,
+                                    MeterRegistry meterRegistry) {
+        this.bookingChangeRepository = bookingChangeRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLimit = maxLimit;
+        this.maxWaitMs = maxWaitMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.sequenceBatchSize = sequenceBatchSize;
+        this.retentionHours = retentionHours;
+        this.sequenceIntervalMs = sequenceIntervalMs;
+        this.sequencerPool = Executors.newSingleThreadScheduledExecutor(daemon("booking-change-sequencer"));
+        this.waiterPool = Executors.newSingleThreadScheduledExecutor(daemon("booking-change-waiters"));
+
+        this.sequencedCounter = Counter.builder("bookings.changes.sequenced")
+                .description("Booking changes numbered into the change feed by this instance")
+                .register(meterRegistry);
+        Gauge.builder("bookings.changes.waiting", waiters, Queue::size)
+                .description("Change feed requests currently waiting for new changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param since  last change number already seen; null to start at the oldest retained change
+     * @param limit  maximum number of changes, capped at {@code booking.changes.max-limit}
+     * @param waitMs how long to wait for changes if there are none yet, capped at {@code booking.changes.max-wait-ms}
+     * @return the feed, completed at once if there are changes or no wait was asked for, otherwise
+     *         once changes arrive or the wait is over; cancel it when the client goes away
+     * @throws InvalidCursorException      if {@code since} is negative
+     * @throws ChangeFeedExpiredException  if changes right after {@code since} are no longer retained
+     */
+    public CompletableFuture<BookingChangeFeedDTO> getChanges(Long since, int limit, long waitMs) {
+        if (since != null && since < 0) {
+            throw new InvalidCursorException(String.valueOf(since));
+        }
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        Long oldest = bookingChangeRepository.findMinChangeSeq();
+        long from;
+        if (since == null) {
+            from = oldest != null ? oldest - 1 : 0;
+        } else if (oldest != null && since < oldest - 1) {
+            throw new ChangeFeedExpiredException(since, oldest);
+        } else {
+            from = since;
+        }
+
+        long wait = Math.max(0, Math.min(waitMs, maxWaitMs));
+        List<BookingChange> changes = bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(
+                from, PageRequest.of(0, size + 1));
+        if (!changes.isEmpty() || wait == 0) {
+            return CompletableFuture.completedFuture(toFeed(from, changes, size));
+        }
+
+        Waiter waiter = new Waiter(from, size, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiterPool.schedule(() -> waiter.feed().complete(toFeed(from, List.of(), size)), wait, TimeUnit.MILLISECONDS);
+        waiter.feed().whenComplete((feed, error) -> waiters.remove(waiter));
+        return waiter.feed();
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    /**
+     * @return an empty feed whose cursor is the newest change number, to start following the feed from now on
+     */
+    public BookingChangeFeedDTO getHead() {
+        Long newest = bookingChangeRepository.findMaxChangeSeq();
+        return new BookingChangeFeedDTO(List.of(), newest != null ? newest : 0, false);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sequencerPool.scheduleWithFixedDelay(this::sequence, 0, sequenceIntervalMs, TimeUnit.MILLISECONDS);
+        waiterPool.scheduleWithFixedDelay(this::checkWaiters, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sequencerPool.shutdownNow();
+        waiterPool.shutdownNow();
+    }
+
+    void sequence() {
+        try {
+            sequencePending();
+        } catch (RuntimeException e) {
+            logger.error("Could not sequence booking changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes changes older than {@code booking.changes.retention-hours}.
+     */
+    @Scheduled(fixedDelayString = "${booking.changes.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = bookingChangeRepository.deleteSequencedBefore(LocalDateTime.now().minusHours(retentionHours));
+            if (deleted > 0) {
+                logger.info("Purged {} booking changes older than {} hours", deleted, retentionHours);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not purge booking changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Numbers one batch of committed changes, unless another instance is doing so right now.
+     *
+     * @return the number of changes numbered
+     */
+    int sequencePending() {
+        Integer assigned = transactionTemplate.execute(status ->
+                bookingChangeRepository.tryLockSequencer(SEQUENCER_LOCK_KEY)
+                        ? bookingChangeRepository.assignChangeSeq(sequenceBatchSize)
+                        : 0);
+        int count = assigned != null ? assigned : 0;
+        if (count > 0) {
+            sequencedCounter.increment(count);
+            if (!waiters.isEmpty()) {
+                waiterPool.execute(this::checkWaiters);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Answers the waiting requests that have changes by now. Runs on the waiter thread only.
+     */
+    void checkWaiters() {
+        for (Waiter waiter : waiters) {
+            if (waiter.feed().isDone()) {
+                continue;
+            }
+            try {
+                List<BookingChange> changes = bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(
+                        waiter.from(), PageRequest.of(0, waiter.size() + 1));
+                if (!changes.isEmpty()) {
+                    waiter.feed().complete(toFeed(waiter.from(), changes, waiter.size()));
+                }
+            } catch (RuntimeException e) {
+                waiter.feed().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private BookingChangeFeedDTO toFeed(long from, List<BookingChange> changes, int size) {
+        boolean hasMore = changes.size() > size;
+        List<BookingChange> page = hasMore ? changes.subList(0, size) : changes;
+
+        Long[] ids = page.stream()
+                .filter(change -> !BookingChange.DELETE.equals(change.getOperation()))
+                .map(BookingChange::getBookingId)
+                .distinct()
+                .toArray(Long[]::new);
+        Map<Long, Booking> bookings = new HashMap<>();
+        if (ids.length > 0) {
+            for (Booking booking : bookingRepository.findByIdArray(ids)) {
+                bookings.put(booking.getId(), booking);
+            }
+        }
+
+        List<BookingChangeDTO> result = new ArrayList<>(page.size());
+        for (BookingChange change : page) {
+            Booking booking = BookingChange.DELETE.equals(change.getOperation())
+                    ? null
+                    : bookings.get(change.getBookingId());
+            result.add(new BookingChangeDTO(change.getChangeSeq(), change.getBookingId(),
+                    CHANGE_TYPES.getOrDefault(change.getOperation(), change.getOperation()), change.getChangedAt(),
+                    booking != null ? bookingMapper.toResponseDTO(booking) : null));
+        }
+        long nextCursor = page.isEmpty() ? from : page.get(page.size() - 1).getChangeSeq();
+        return new BookingChangeFeedDTO(result, nextCursor, hasMore);
+    }
+
+    private record Waiter(long from, int size, CompletableFuture<BookingChangeFeedDTO> feed) {
+    }
+}
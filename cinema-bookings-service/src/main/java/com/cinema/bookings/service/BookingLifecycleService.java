@@ -0,0 +1,162 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.config.SchedulingConfig;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closes bookings once their screening is over: checked-in bookings become
+ * COMPLETED, the other pending or confirmed ones NO_SHOW.
+ *
+ * Each batch claims the oldest active bookings of screenings that started more
+ * than {@code booking.lifecycle.grace-minutes} ago with
+ * {@code FOR UPDATE SKIP LOCKED} and closes them with one UPDATE in the same
+ * transaction. Rows claimed by another instance are skipped instead of waited
+ * for, so any number of instances can run the processor concurrently without
+ * coordination and without closing a booking twice. The grace period leaves
+ * room for the screening itself and for buffered check-ins to be flushed.
+ */
+@Service
+public class BookingLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLifecycleService.class);
+    private static final String COMPLETED_STATUS = "COMPLETED";
+    private static final String NO_SHOW_STATUS = "NO_SHOW";
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long graceMinutes;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter completedCounter;
+    private final Counter noShowCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingLifecycleService(BookingRepository bookingRepository,
+                                   BookingMapper bookingMapper,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${booking.lifecycle.enabled:true}") boolean enabled,
+                                   @Value("${booking.lifecycle.grace-minutes:240}") long graceMinutes,
+                                   @Value("${booking.lifecycle.batch-size:500}") int batchSize,
+                                   @Value("${booking.lifecycle.max-batches-per-run:20}") int maxBatchesPerRun,
+                                   MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.graceMinutes = graceMinutes;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.completedCounter = Counter.builder("bookings.lifecycle.completed")
+                .description("Bookings closed as COMPLETED after their screening")
+                .register(meterRegistry);
+        this.noShowCounter = Counter.builder("bookings.lifecycle.no_show")
+                .description("Bookings closed as NO_SHOW after their screening")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("bookings.lifecycle.batch")
+                .description("Time to claim and close one batch of past bookings")
+                .register(meterRegistry);
+        Gauge.builder("bookings.lifecycle.lag_seconds", lagSeconds, AtomicLong::get)
+                .description("How far the oldest unclosed past screening is behind the processing cutoff")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Closes batches until fewer than a full batch is claimed or the per-run
+     * limit is reached, then refreshes the lag gauge.
+     *
+     * @return the number of bookings closed by this instance
+     */
+    @Scheduled(fixedDelayString = "${booking.lifecycle.interval-ms:60000}", scheduler = SchedulingConfig.LIFECYCLE_SCHEDULER)
+    public int run() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+        int closed = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int claimed = closeBatch(cutoff);
+                closed += claimed;
+                if (claimed < batchSize) {
+                    break;
+                }
+            }
+            refreshLag(cutoff);
+        } catch (RuntimeException e) {
+            logger.error("Booking lifecycle run stopped after closing {} bookings: {}", closed, e.getMessage());
+        }
+        if (closed > 0) {
+            logger.info("Closed {} bookings of screenings before {}, lag {} s", closed, cutoff, lagSeconds.get());
+        }
+        return closed;
+    }
+
+    /**
+     * Claims and closes one batch, then publishes the status changes.
+     *
+     * @return the number of bookings claimed
+     */
+    int closeBatch(LocalDateTime cutoff) {
+        List<Booking> claimed = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<Booking> bookings = bookingRepository.claimPastBookings(cutoff, batchSize);
+            if (!bookings.isEmpty()) {
+                bookingRepository.closeByIds(bookings.stream().map(Booking::getId).toList());
+            }
+            return bookings;
+        }));
+        if (claimed == null) {
+            return 0;
+        }
+
+        for (Booking booking : claimed) {
+            BookingResponseDTO previous = bookingMapper.toResponseDTO(booking);
+            BookingResponseDTO current = bookingMapper.toResponseDTO(booking);
+            if (booking.getCheckedInAt() != null) {
+                current.setStatus(COMPLETED_STATUS);
+                completedCounter.increment();
+            } else {
+                current.setStatus(NO_SHOW_STATUS);
+                noShowCounter.increment();
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.updated(previous, current));
+        }
+        return claimed.size();
+    }
+
+    long lagSeconds() {
+        return lagSeconds.get();
+    }
+
+    private void refreshLag(LocalDateTime cutoff) {
+        LocalDateTime oldest = bookingRepository.findOldestActiveScreeningBefore(cutoff);
+        lagSeconds.set(oldest != null ? Duration.between(oldest, cutoff).getSeconds() : 0);
+    }
+}
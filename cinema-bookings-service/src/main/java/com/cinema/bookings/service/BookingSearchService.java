@@ -0,0 +1,133 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.BookingSearchCriteria;
+import com.cinema.bookings.dto.BookingSearchResultDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.InvalidCursorException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.repository.BookingSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-criteria booking search for support staff.
+ *
+ * Results are ordered by (screening time, id) and paged with an opaque cursor
+ * holding the last row's position, so every page is an index range scan of
+ * {@code size + 1} rows however deep the caller pages. Instead of an exact
+ * {@code count(*)}, the total is the row estimate PostgreSQL's planner makes
+ * for the same WHERE clause, which costs a plan but no scan.
+ */
+@Service
+public class BookingSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSearchService.class);
+    private static final Sort SEARCH_ORDER = Sort.by("screeningTime", "id");
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final EntityManager entityManager;
+    private final int maxPageSize;
+
+    public BookingSearchService(BookingRepository bookingRepository,
+                                BookingMapper bookingMapper,
+                                EntityManager entityManager,
+                                @Value("${booking.search.max-page-size:100}") int maxPageSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.entityManager = entityManager;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * @param criteria the filters
+     * @param cursor   {@code nextCursor} of the previous page, or null for the first page
+     * @param size     page size, capped at {@code booking.search.max-page-size}
+     * @throws InvalidCursorException if the cursor was not produced by this service
+     */
+    public BookingSearchResultDTO search(BookingSearchCriteria criteria, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        Specification<Booking> specification = BookingSpecifications.matching(criteria);
+        if (cursor != null && !cursor.isBlank()) {
+            Position after = decodeCursor(cursor);
+            specification = specification.and(BookingSpecifications.after(after.screeningTime(), after.id()));
+        }
+
+        List<Booking> rows = bookingRepository.findBy(specification,
+                query -> query.sortBy(SEARCH_ORDER).limit(limit + 1).all());
+        boolean hasMore = rows.size() > limit;
+        List<Booking> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<BookingResponseDTO> items = page.stream()
+                .map(bookingMapper::toResponseDTO)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new BookingSearchResultDTO(items, nextCursor, estimateCount(criteria));
+    }
+
+    /**
+     * Asks the planner how many rows the search would return, for the WHERE
+     * clause of {@link BookingSpecifications#whereClause}.
+     *
+     * @return the estimate, or -1 if it could not be obtained
+     */
+    long estimateCount(BookingSearchCriteria criteria) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "EXPLAIN SELECT 1 FROM bookings WHERE " + BookingSpecifications.whereClause(criteria, parameters);
+
+        try {
+            Query query = entityManager.createNativeQuery(sql);
+            parameters.forEach(query::setParameter);
+            List<?> plan = query.getResultList();
+            if (!plan.isEmpty()) {
+                Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan.get(0)));
+                if (matcher.find()) {
+                    return Long.parseLong(matcher.group(1));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not estimate booking search count: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    static String encodeCursor(Booking booking) {
+        String position = booking.getScreeningTime() + CURSOR_SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(CURSOR_SEPARATOR);
+            return new Position(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    record Position(LocalDateTime screeningTime, Long id) {
+    }
+}
@@ -2,6 +2,7 @@ package com.cinema.bookings.service;
 
 import com.cinema.bookings.dto.BookingRequestDTO;
 import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
 
 import java.util.List;
 import java.util.Map;
@@ -92,6 +93,13 @@ public interface BookingService {
      */
     List<BookingResponseDTO> getAllBookings();
 
+    /**
+     * Counts the bookings that are not cancelled, per movie.
+     *
+     * @return booking count by movie identifier; movies without bookings are absent
+     */
+    Map<Long, Long> getBookingCountsByMovie();
+
     /**
      * Retrieves all bookings for a specific user.
      *
@@ -101,10 +109,19 @@ public interface BookingService {
      */
     List<BookingResponseDTO> getBookingsByUserId(Long userId);
 
+    /**
+     * Retrieves a user's upcoming confirmed tickets ordered by screening time.
+     *
+     * @param userId the user identifier
+     * @param limit the maximum number of tickets to return
+     * @return list of upcoming tickets
+     */
+    List<UpcomingTicketDTO> getUpcomingTickets(Long userId, int limit);
+
     /**
      * Retrieves all bookings with a specific status.
      *
-     * @param status the booking status (PENDING, CONFIRMED, CANCELLED)
+     * @param status the booking status (PENDING, CONFIRMED, CANCELLED, COMPLETED, NO_SHOW)
      * @return list of bookings with the specified status
      * @author Ioana-Loredana Stan
      */
@@ -4,12 +4,15 @@ import com.cinema.bookings.dto.BookingMapper;
 import com.cinema.bookings.dto.BookingRequestDTO;
 import com.cinema.bookings.dto.BookingResponseDTO;
 import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
 import com.cinema.bookings.dto.UserResponseDTO;
 import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
 import com.cinema.bookings.exception.BookingNotFoundException;
 import com.cinema.bookings.repository.BookingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -26,6 +29,11 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UpcomingTicketCache upcomingTicketCache;
+    private final SeatReservationService seatReservationService;
+    private final ScreeningOverlapService screeningOverlapService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Value("${service.movies.url}")
     private String moviesServiceUrl;
@@ -43,8 +51,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingResponseDTO createBooking(BookingRequestDTO requestDTO) {
         Booking booking = bookingMapper.toEntity(requestDTO);
-        Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toResponseDTO(savedBooking);
+        screeningOverlapService.check(booking);
+        Booking savedBooking = seatReservationService.reserve(booking);
+        BookingResponseDTO response = bookingMapper.toResponseDTO(savedBooking);
+        eventPublisher.publishEvent(BookingChangedEvent.created(response));
+        return response;
     }
 
     /**
@@ -75,9 +86,13 @@ public class BookingServiceImpl implements BookingService {
     public BookingResponseDTO updateBooking(Long id, BookingRequestDTO requestDTO) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException(id));
+        BookingResponseDTO previous = bookingMapper.toResponseDTO(booking);
         bookingMapper.updateEntityFromDTO(requestDTO, booking);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return bookingMapper.toResponseDTO(updatedBooking);
+        screeningOverlapService.check(booking);
+        Booking updatedBooking = seatReservationService.reserve(booking);
+        BookingResponseDTO response = bookingMapper.toResponseDTO(updatedBooking);
+        eventPublisher.publishEvent(BookingChangedEvent.updated(previous, response));
+        return response;
     }
 
     /**
@@ -92,6 +107,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException(id));
         bookingRepository.delete(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.deleted(bookingMapper.toResponseDTO(booking)));
     }
 
     /**
@@ -107,6 +123,21 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Counts the bookings that are not cancelled, per movie, in a single
+     * aggregate query.
+     *
+     * @return booking count by movie identifier
+     */
+    @Override
+    public Map<Long, Long> getBookingCountsByMovie() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : bookingRepository.countActiveByMovie()) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     /**
      * Retrieves all bookings for a specific user.
      *
@@ -124,7 +155,7 @@ public class BookingServiceImpl implements BookingService {
     /**
      * Retrieves all bookings with a specific status.
      *
-     * @param status the booking status (PENDING, CONFIRMED, CANCELLED)
+     * @param status the booking status (PENDING, CONFIRMED, CANCELLED, COMPLETED, NO_SHOW)
      * @return list of bookings with the specified status
      * @author Ioana-Loredana Stan
      */
@@ -164,6 +195,19 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a user's upcoming confirmed tickets ordered by screening time.
+     * Served from a per-user cache that is invalidated on every booking write.
+     *
+     * @param userId the user identifier
+     * @param limit the maximum number of tickets to return
+     * @return list of upcoming tickets
+     */
+    @Override
+    public List<UpcomingTicketDTO> getUpcomingTickets(Long userId, int limit) {
+        return upcomingTicketCache.getUpcomingTickets(userId, limit);
+    }
+
     /**
      * Creates a new booking with validation from external services.
      * Validates movie and user existence by calling movies-service and users-service.
@@ -197,9 +241,12 @@ public class BookingServiceImpl implements BookingService {
         booking.setMovieTitle(movie.getTitle());
         booking.setUserEmail(user.getEmail());
         booking.setStatus("PENDING");
+        screeningOverlapService.check(booking);
 
-        Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toResponseDTO(savedBooking);
+        Booking savedBooking = seatReservationService.reserve(booking);
+        BookingResponseDTO response = bookingMapper.toResponseDTO(savedBooking);
+        eventPublisher.publishEvent(BookingChangedEvent.created(response));
+        return response;
     }
 
     /**
@@ -215,6 +262,7 @@ public class BookingServiceImpl implements BookingService {
     public BookingResponseDTO confirmBooking(Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException(id));
+        BookingResponseDTO previous = bookingMapper.toResponseDTO(booking);
 
         UserResponseDTO user = restTemplate.getForObject(
                 usersServiceUrl + "/users/" + booking.getUserId(),
@@ -226,12 +274,15 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus("CONFIRMED");
-        Booking confirmedBooking = bookingRepository.save(booking);
-        return bookingMapper.toResponseDTO(confirmedBooking);
+        Booking confirmedBooking = seatReservationService.reserve(booking);
+        BookingResponseDTO response = bookingMapper.toResponseDTO(confirmedBooking);
+        eventPublisher.publishEvent(BookingChangedEvent.updated(previous, response));
+        return response;
     }
 
     /**
      * Retrieves a booking with enriched movie and user details from external services.
+     * Movie and user summaries are served from a short-lived cache.
      *
      * @param id the booking identifier
      * @return the booking response with complete movie and user information
@@ -243,15 +294,8 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException(id));
 
-        MovieResponseDTO movie = restTemplate.getForObject(
-                moviesServiceUrl + "/api/movies/" + booking.getMovieId(),
-                MovieResponseDTO.class
-        );
-
-        UserResponseDTO user = restTemplate.getForObject(
-                usersServiceUrl + "/users/" + booking.getUserId(),
-                UserResponseDTO.class
-        );
+        MovieResponseDTO movie = referenceDataCache.getMovie(booking.getMovieId());
+        UserResponseDTO user = referenceDataCache.getUser(booking.getUserId());
 
         Map<String, Object> enrichedBooking = new HashMap<>();
         enrichedBooking.put("booking", bookingMapper.toResponseDTO(booking));
@@ -0,0 +1,48 @@
+package com.cinema.bookings.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hit and miss counts of one in-memory cache, published as
+ * {@code bookings.cache.gets{cache,result}} and {@code bookings.cache.hit_ratio{cache}}.
+ */
+final class CacheStats {
+
+    private final Counter hits;
+    private final Counter misses;
+
+    CacheStats(String cache, MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("bookings.cache.gets")
+                .tag("cache", cache)
+                .tag("result", "hit")
+                .description("Cache lookups answered from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("bookings.cache.gets")
+                .tag("cache", cache)
+                .tag("result", "miss")
+                .description("Cache lookups that had to load the value")
+                .register(meterRegistry);
+        Gauge.builder("bookings.cache.hit_ratio", this, CacheStats::hitRatio)
+                .tag("cache", cache)
+                .description("Share of lookups answered from memory since startup")
+                .register(meterRegistry);
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    /**
+     * @return hits divided by all lookups, or 0 before the first lookup
+     */
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0;
+    }
+}
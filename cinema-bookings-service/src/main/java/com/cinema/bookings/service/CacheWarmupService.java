@@ -0,0 +1,182 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the in-memory caches before the instance reports itself ready, so the
+ * first requests after a deploy do not all go to PostgreSQL and the other
+ * services at once.
+ *
+ * Runs while the {@link ApplicationReadyEvent} is being handled: Spring Boot
+ * only switches the readiness state to {@code ACCEPTING_TRAFFIC} after every
+ * listener of that event has returned, so {@code /actuator/health/readiness}
+ * stays down until the warm-up is over. It loads the pending and confirmed
+ * bookings of screenings in the next {@code booking.warmup.horizon-hours},
+ * then preloads the upcoming tickets and user summary of every booked user and
+ * the summary of every booked movie on {@code booking.warmup.parallelism}
+ * threads. Whatever is not done within {@code booking.warmup.budget-ms} is
+ * abandoned and the instance becomes ready anyway; failed lookups only leave
+ * their entry cold.
+ */
+@Service
+public class CacheWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+    private static final List<String> ACTIVE_STATUSES = List.of("PENDING", "CONFIRMED");
+
+    private final BookingRepository bookingRepository;
+    private final UpcomingTicketCache upcomingTicketCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final boolean enabled;
+    private final long horizonHours;
+    private final long budgetMs;
+    private final int parallelism;
+    private final Timer durationTimer;
+    private final AtomicInteger warmed = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    public CacheWarmupService(BookingRepository bookingRepository,
+                              UpcomingTicketCache upcomingTicketCache,
+                              ReferenceDataCache referenceDataCache,
+                              @Value("${booking.warmup.enabled:true}") boolean enabled,
+                              @Value("${booking.warmup.horizon-hours:6}") long horizonHours,
+                              @Value("${booking.warmup.budget-ms:30000}") long budgetMs,
+                              @Value("${booking.warmup.parallelism:8}") int parallelism,
+                              MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.upcomingTicketCache = upcomingTicketCache;
+        this.referenceDataCache = referenceDataCache;
+        this.enabled = enabled;
+        this.horizonHours = horizonHours;
+        this.budgetMs = budgetMs;
+        this.parallelism = parallelism;
+
+        this.durationTimer = Timer.builder("bookings.warmup.duration")
+                .description("Time spent warming caches before accepting traffic")
+                .register(meterRegistry);
+        Gauge.builder("bookings.warmup.entries", warmed, AtomicInteger::get)
+                .description("Users and movies preloaded by the last warm-up")
+                .register(meterRegistry);
+        Gauge.builder("bookings.warmup.completed", completed, AtomicInteger::get)
+                .description("1 if the last warm-up finished within its budget, 0 otherwise")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * @return the number of users and movies preloaded
+     */
+    int warmUp() {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> movieIds = new LinkedHashSet<>();
+        try {
+            for (Booking booking : bookingRepository.findByStatusInAndScreeningTimeGreaterThanEqualAndScreeningTimeLessThan(
+                    ACTIVE_STATUSES, now, now.plusHours(horizonHours))) {
+                if (booking.getUserId() != null) {
+                    userIds.add(booking.getUserId());
+                }
+                if (booking.getMovieId() != null) {
+                    movieIds.add(booking.getMovieId());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Cache warm-up skipped, upcoming bookings could not be loaded: {}", e.getMessage());
+            return finish(started, 0, false);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(userIds.size() + movieIds.size());
+        for (Long movieId : movieIds) {
+            tasks.add(() -> {
+                referenceDataCache.preloadMovie(movieId);
+                return null;
+            });
+        }
+        for (Long userId : userIds) {
+            tasks.add(() -> {
+                upcomingTicketCache.preload(userId);
+                referenceDataCache.preloadUser(userId);
+                return null;
+            });
+        }
+
+        int done = 0;
+        int failed = 0;
+        int abandoned = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long remainingNanos = Math.max(0, deadline - System.nanoTime());
+            for (Future<Void> future : executor.invokeAll(tasks, remainingNanos, TimeUnit.NANOSECONDS)) {
+                try {
+                    future.get();
+                    done++;
+                } catch (CancellationException e) {
+                    abandoned++;
+                } catch (ExecutionException e) {
+                    failed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandoned = tasks.size() - done - failed;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failed > 0 || abandoned > 0) {
+            logger.warn("Cache warm-up left {} lookups cold: {} failed, {} not finished within {} ms",
+                    failed + abandoned, failed, abandoned, budgetMs);
+        }
+        logger.info("Cache warm-up preloaded {} movies and users of screenings in the next {} hours in {} ms",
+                done, horizonHours, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return finish(started, done, abandoned == 0);
+    }
+
+    boolean isCompleted() {
+        return completed.get() == 1;
+    }
+
+    private int finish(long started, int done, boolean withinBudget) {
+        durationTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        warmed.set(done);
+        completed.set(withinBudget ? 1 : 0);
+        return done;
+    }
+}
@@ -0,0 +1,377 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.CheckInRequestDTO;
+import com.cinema.bookings.dto.CheckInResultDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.event.ShardRingChangedEvent;
+import com.cinema.bookings.exception.CheckInUnavailableException;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Validates tickets at the entrance without touching the database per scan.
+ *
+ * For every screening about to start, the ids of its confirmed bookings are
+ * preloaded into an in-memory set, together with the bookings already checked
+ * in. A scan is a set lookup plus a {@code putIfAbsent} on the screening's
+ * check-in map, which admits a ticket exactly once even when two scanners read
+ * it at the same moment. A ticket missing from a loaded screening is looked up
+ * once in the database before being rejected, so a confirmation this instance
+ * did not hear about still admits.
+ *
+ * Admissions are group-committed: a scan is acknowledged only once its
+ * {@code checked_in_at} is written, so a crash cannot lose an admitted ticket
+ * that the lifecycle job would later mark as a no-show. Scans arriving together
+ * queue up; whichever scan takes the write lock writes everything queued, one
+ * {@code UPDATE ... WHERE id IN (...)} per distinct check-in second, and the
+ * others wait for it. A failed write undoes the admission and the scan fails.
+ *
+ * Duplicates are rejected by the instance holding the screening. With sharding
+ * on, every scan of a screening is routed to its owner, so one instance decides.
+ * Without it, two instances scanning the same ticket can both admit it; the
+ * write only sets {@code checked_in_at} while it is null, so the stored time
+ * stays that of the first scan.
+ */
+@Service
+public class CheckInService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInService.class);
+    private static final String CONFIRMED_STATUS = "CONFIRMED";
+
+    private final BookingRepository bookingRepository;
+    private final long preloadMinutes;
+    private final long retainMinutes;
+    private final int batchSize;
+    private final Map<ScreeningKey, ScreeningGate> gates = new ConcurrentHashMap<>();
+    private final Queue<PendingCheckIn> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<String, Counter> scanCounters = new LinkedHashMap<>();
+
+    public CheckInService(BookingRepository bookingRepository,
+                          @Value("${booking.check-in.preload-minutes:60}") long preloadMinutes,
+                          @Value("${booking.check-in.retain-minutes:180}") long retainMinutes,
+                          @Value("${booking.check-in.batch-size:500}") int batchSize,
+                          MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.preloadMinutes = preloadMinutes;
+        this.retainMinutes = retainMinutes;
+        this.batchSize = batchSize;
+
+        for (String result : List.of(CheckInResultDTO.ADMITTED, CheckInResultDTO.DUPLICATE, CheckInResultDTO.INVALID)) {
+            scanCounters.put(result, Counter.builder("bookings.check_in.scans")
+                    .description("Ticket scans by result")
+                    .tag("result", result.toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("bookings.check_in.pending_writes", pendingCount, AtomicInteger::get)
+                .description("Check-ins not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("bookings.check_in.screenings", gates, Map::size)
+                .description("Screenings held in memory for check-in")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks a ticket in. Screenings that were not preloaded are loaded on first scan
+     * if they start within the preload window or started within the retention period.
+     * Returns once an admission is written.
+     *
+     * @param request the scanned booking and the screening being admitted to; null is invalid
+     * @return the outcome of the scan
+     * @throws CheckInUnavailableException if the admission could not be written
+     */
+    public CheckInResultDTO checkIn(CheckInRequestDTO request) {
+        List<PendingCheckIn> admitted = new ArrayList<>();
+        CheckInResultDTO result = scan(request, admitted);
+        awaitWritten(admitted);
+        scanCounters.get(result.getResult()).increment();
+        return result;
+    }
+
+    /**
+     * Applies scans collected by a scanner while it was offline, in the order given,
+     * and returns once all admissions are written. Incomplete or null scans are
+     * reported as invalid rather than failing the upload.
+     *
+     * @param requests the offline scans
+     * @return one result per scan
+     * @throws CheckInUnavailableException if an admission could not be written; the
+     *         upload can be retried, scans already written then come back as duplicates
+     */
+    public List<CheckInResultDTO> checkInAll(List<CheckInRequestDTO> requests) {
+        List<PendingCheckIn> admitted = new ArrayList<>();
+        List<CheckInResultDTO> results = requests.stream()
+                .map(request -> scan(request, admitted))
+                .collect(Collectors.toList());
+        awaitWritten(admitted);
+        results.forEach(result -> scanCounters.get(result.getResult()).increment());
+        return results;
+    }
+
+    private CheckInResultDTO scan(CheckInRequestDTO request, List<PendingCheckIn> admitted) {
+        Long bookingId = request != null ? request.getBookingId() : null;
+        ScreeningGate gate = request != null ? gateFor(request.getMovieId(), request.getScreeningTime()) : null;
+
+        if (gate == null || bookingId == null || !isConfirmed(gate, bookingId, request)) {
+            return new CheckInResultDTO(bookingId, CheckInResultDTO.INVALID, null);
+        }
+        LocalDateTime scannedAt = (request.getScannedAt() != null ? request.getScannedAt() : LocalDateTime.now())
+                .truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime firstScan = gate.checkedIn.putIfAbsent(bookingId, scannedAt);
+        if (firstScan != null) {
+            return new CheckInResultDTO(bookingId, CheckInResultDTO.DUPLICATE, firstScan);
+        }
+        PendingCheckIn pending = new PendingCheckIn(gate, bookingId, scannedAt);
+        pendingWrites.add(pending);
+        pendingCount.incrementAndGet();
+        admitted.add(pending);
+        return new CheckInResultDTO(bookingId, CheckInResultDTO.ADMITTED, scannedAt);
+    }
+
+    /**
+     * Falls back to the database for a ticket the gate does not know, which happens
+     * when its confirmation reached another instance. A confirmed match joins the gate.
+     */
+    private boolean isConfirmed(ScreeningGate gate, Long bookingId, CheckInRequestDTO request) {
+        if (gate.confirmed.contains(bookingId)) {
+            return true;
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || !CONFIRMED_STATUS.equals(booking.getStatus())
+                || !request.getMovieId().equals(booking.getMovieId())
+                || !request.getScreeningTime().equals(booking.getScreeningTime())) {
+            return false;
+        }
+        if (booking.getCheckedInAt() != null) {
+            gate.checkedIn.putIfAbsent(bookingId, booking.getCheckedInAt());
+        }
+        gate.confirmed.add(bookingId);
+        return true;
+    }
+
+    /**
+     * Waits until the given admissions are written, writing the queue itself
+     * whenever no other scan is.
+     */
+    private void awaitWritten(List<PendingCheckIn> admitted) {
+        boolean failed = false;
+        for (PendingCheckIn pending : admitted) {
+            while (!pending.written().isDone()) {
+                if (writeLock.tryLock()) {
+                    try {
+                        flush();
+                    } finally {
+                        writeLock.unlock();
+                    }
+                } else {
+                    awaitQuietly(pending.written());
+                }
+            }
+            failed |= pending.written().isCompletedExceptionally();
+        }
+        if (failed) {
+            throw new CheckInUnavailableException();
+        }
+    }
+
+    private static void awaitQuietly(CompletableFuture<Void> written) {
+        try {
+            written.get(10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckInUnavailableException();
+        } catch (ExecutionException | TimeoutException e) {
+            // checked by the caller
+        }
+    }
+
+    /**
+     * Loads screenings starting within the preload window and drops screenings
+     * that started longer than the retention period ago.
+     */
+    @Scheduled(fixedDelayString = "${booking.check-in.preload-interval-ms:60000}")
+    public void preloadUpcomingScreenings() {
+        LocalDateTime now = LocalDateTime.now();
+        gates.keySet().removeIf(key -> key.screeningTime().isBefore(now.minusMinutes(retainMinutes)));
+
+        Map<ScreeningKey, List<Booking>> upcoming = bookingRepository
+                .findByStatusAndScreeningTimeGreaterThanEqualAndScreeningTimeLessThan(
+                        CONFIRMED_STATUS, now, now.plusMinutes(preloadMinutes))
+                .stream()
+                .collect(Collectors.groupingBy(booking ->
+                        new ScreeningKey(booking.getMovieId(), booking.getScreeningTime())));
+
+        upcoming.forEach((key, bookings) -> {
+            if (gates.putIfAbsent(key, gate(bookings)) == null) {
+                logger.debug("Preloaded {} confirmed bookings for movie {} at {}",
+                        bookings.size(), key.movieId(), key.screeningTime());
+            }
+        });
+    }
+
+    /**
+     * Writes queued check-ins, one statement per distinct check-in second, until
+     * the queue is empty. Must be called holding the write lock.
+     */
+    private void flush() {
+        while (flushBatch()) {
+            // keep draining full batches
+        }
+    }
+
+    /**
+     * @return true if a full batch was taken and more may be queued
+     */
+    private boolean flushBatch() {
+        List<PendingCheckIn> batch = new ArrayList<>();
+        PendingCheckIn next;
+        while (batch.size() < batchSize && (next = pendingWrites.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        pendingCount.addAndGet(-batch.size());
+
+        Map<LocalDateTime, List<PendingCheckIn>> bySecond = batch.stream()
+                .collect(Collectors.groupingBy(PendingCheckIn::checkedInAt, LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<LocalDateTime, List<PendingCheckIn>> entry : bySecond.entrySet()) {
+            List<Long> ids = entry.getValue().stream().map(PendingCheckIn::bookingId).toList();
+            try {
+                bookingRepository.markCheckedIn(ids, entry.getKey());
+                entry.getValue().forEach(pending -> pending.written().complete(null));
+            } catch (RuntimeException e) {
+                logger.error("Failed to record {} check-ins, rejecting the scans: {}", ids.size(), e.getMessage());
+                for (PendingCheckIn pending : entry.getValue()) {
+                    pending.gate().checkedIn.remove(pending.bookingId(), pending.checkedInAt());
+                    pending.written().completeExceptionally(e);
+                }
+            }
+        }
+        return batch.size() == batchSize;
+    }
+
+    /**
+     * Keeps preloaded screenings in step with confirmations, cancellations and moves.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponseDTO previous = event.getPrevious();
+        if (previous != null && CONFIRMED_STATUS.equals(previous.getStatus())) {
+            ScreeningGate gate = gates.get(new ScreeningKey(previous.getMovieId(), previous.getScreeningTime()));
+            if (gate != null) {
+                gate.confirmed.remove(previous.getId());
+            }
+        }
+        BookingResponseDTO current = event.getCurrent();
+        if (current != null && CONFIRMED_STATUS.equals(current.getStatus())) {
+            ScreeningGate gate = gates.get(new ScreeningKey(current.getMovieId(), current.getScreeningTime()));
+            if (gate != null) {
+                gate.confirmed.add(current.getId());
+            }
+        }
+    }
+
+    int pendingWrites() {
+        return pendingCount.get();
+    }
+
+    int loadedScreenings() {
+        return gates.size();
+    }
+
+    /**
+     * Drops screenings this instance no longer owns. If ownership comes back, the
+     * screening is reloaded from the database on its next scan.
+     */
+    @EventListener
+    public void onShardRingChanged(ShardRingChangedEvent event) {
+        gates.keySet().removeIf(key -> !event.owns(key.movieId(), key.screeningTime()));
+    }
+
+    /**
+     * Returns the screening's gate, loading it on first use. Screenings outside the
+     * check-in window and screenings without confirmed bookings are never held, so
+     * scans naming unknown or far-off screenings cannot grow the map.
+     */
+    private ScreeningGate gateFor(Long movieId, LocalDateTime screeningTime) {
+        if (movieId == null || screeningTime == null) {
+            return null;
+        }
+        ScreeningKey key = new ScreeningKey(movieId, screeningTime);
+        ScreeningGate gate = gates.get(key);
+        if (gate != null) {
+            return gate;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (screeningTime.isBefore(now.minusMinutes(retainMinutes))
+                || screeningTime.isAfter(now.plusMinutes(preloadMinutes))) {
+            return null;
+        }
+        List<Booking> confirmed = bookingRepository.findByMovieIdAndScreeningTimeAndStatus(
+                movieId, screeningTime, CONFIRMED_STATUS);
+        if (confirmed.isEmpty()) {
+            return null;
+        }
+        ScreeningGate loaded = gate(confirmed);
+        ScreeningGate existing = gates.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static ScreeningGate gate(List<Booking> confirmedBookings) {
+        ScreeningGate gate = new ScreeningGate();
+        for (Booking booking : confirmedBookings) {
+            gate.confirmed.add(booking.getId());
+            if (booking.getCheckedInAt() != null) {
+                gate.checkedIn.put(booking.getId(), booking.getCheckedInAt());
+            }
+        }
+        return gate;
+    }
+
+    private record ScreeningKey(Long movieId, LocalDateTime screeningTime) {
+    }
+
+    private record PendingCheckIn(ScreeningGate gate, Long bookingId, LocalDateTime checkedInAt,
+                                  CompletableFuture<Void> written) {
+
+        private PendingCheckIn(ScreeningGate gate, Long bookingId, LocalDateTime checkedInAt) {
+            this(gate, bookingId, checkedInAt, new CompletableFuture<>());
+        }
+    }
+
+    private static final class ScreeningGate {
+        private final Set<Long> confirmed = ConcurrentHashMap.newKeySet();
+        private final Map<Long, LocalDateTime> checkedIn = new ConcurrentHashMap<>();
+    }
+}
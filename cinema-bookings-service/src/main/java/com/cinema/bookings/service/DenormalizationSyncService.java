@@ -0,0 +1,241 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.config.SchedulingConfig;
+import com.cinema.bookings.dto.DenormalizedFieldChangeDTO;
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.event.MovieTitleSyncedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the denormalized {@code movieTitle} and {@code userEmail} copies on
+ * bookings in sync with their owning services.
+ *
+ * Change notifications are queued in memory, coalesced per movie/user so only
+ * the newest value is applied, and drained in the background with chunked
+ * {@code UPDATE} statements. The drain is throttled to a maximum number of rows
+ * per second so a popular movie's rename does not compete with booking traffic.
+ * Each committed chunk of a title change publishes a {@link MovieTitleSyncedEvent},
+ * since the bulk updates bypass {@code BookingChangedEvent}.
+ *
+ * Notifications are not durable: movies-service may give up sending one, and
+ * queued changes are lost when this instance stops. Movie titles are therefore
+ * also reconciled periodically against movies-service for recent and upcoming
+ * bookings, which queues any title that drifted.
+ */
+@Service
+public class DenormalizationSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DenormalizationSyncService.class);
+
+    private final BookingRepository bookingRepository;
+    private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String moviesServiceUrl;
+    private final int reconcileLookbackDays;
+    private final int chunkSize;
+    private final double maxRowsPerSecond;
+    private final Map<Long, PendingChange> movieTitles = new ConcurrentHashMap<>();
+    private final Map<Long, PendingChange> userEmails = new ConcurrentHashMap<>();
+    private final Counter rowsUpdated;
+
+    public DenormalizationSyncService(BookingRepository bookingRepository,
+                                      RestTemplate restTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${service.movies.url}") String moviesServiceUrl,
+                                      @Value("${booking.sync.reconcile-lookback-days:30}") int reconcileLookbackDays,
+                                      @Value("${booking.sync.chunk-size:500}") int chunkSize,
+                                      @Value("${booking.sync.max-rows-per-second:2000}") double maxRowsPerSecond,
+                                      MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.restTemplate = restTemplate;
+        this.eventPublisher = eventPublisher;
+        this.moviesServiceUrl = moviesServiceUrl;
+        this.reconcileLookbackDays = reconcileLookbackDays;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+
+        this.rowsUpdated = Counter.builder("bookings.denormalization.rows_updated")
+                .description("Bookings whose denormalized fields were refreshed")
+                .register(meterRegistry);
+        Gauge.builder("bookings.denormalization.pending", this, DenormalizationSyncService::getPendingCount)
+                .description("Source changes waiting to be applied to bookings")
+                .register(meterRegistry);
+        Gauge.builder("bookings.denormalization.lag.seconds", this, DenormalizationSyncService::getLagSeconds)
+                .description("Age of the oldest change not yet applied to bookings")
+                .register(meterRegistry);
+    }
+
+    public void enqueueMovieTitleChange(Long movieId, DenormalizedFieldChangeDTO change) {
+        enqueue(movieTitles, movieId, change);
+    }
+
+    public void enqueueUserEmailChange(Long userId, DenormalizedFieldChangeDTO change) {
+        enqueue(userEmails, userId, change);
+    }
+
+    public int getPendingCount() {
+        return movieTitles.size() + userEmails.size();
+    }
+
+    /**
+     * @return seconds since the oldest pending change happened, 0 when fully in sync
+     */
+    public double getLagSeconds() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = null;
+        for (Map<Long, PendingChange> pending : List.of(movieTitles, userEmails)) {
+            for (PendingChange change : pending.values()) {
+                if (oldest == null || change.changedAt.isBefore(oldest)) {
+                    oldest = change.changedAt;
+                }
+            }
+        }
+        return oldest == null ? 0.0 : Math.max(0, Duration.between(oldest, now).toMillis() / 1000.0);
+    }
+
+    /**
+     * Applies all pending changes. Runs on a fixed delay, so a slow drain never overlaps itself.
+     */
+    @Scheduled(fixedDelayString = "${booking.sync.interval-ms:1000}", scheduler = SchedulingConfig.SYNC_SCHEDULER)
+    public void drain() {
+        drain(movieTitles, bookingRepository::updateMovieTitleChunk, "movie",
+                movieId -> eventPublisher.publishEvent(new MovieTitleSyncedEvent(movieId)));
+        drain(userEmails, bookingRepository::updateUserEmailChunk, "user", userId -> { });
+    }
+
+    /**
+     * Compares the titles copied onto bookings screened in the last
+     * {@code reconcile-lookback-days} days or later with movies-service, and queues
+     * the current title of every movie that differs. Movies that cannot be fetched
+     * are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${booking.sync.reconcile-interval-ms:900000}",
+            initialDelayString = "${booking.sync.reconcile-initial-delay-ms:60000}",
+            scheduler = SchedulingConfig.RECONCILE_SCHEDULER)
+    public void reconcileMovieTitles() {
+        Map<Long, Set<String>> copied = new HashMap<>();
+        LocalDateTime from = LocalDateTime.now().minusDays(reconcileLookbackDays);
+        for (Object[] row : bookingRepository.findMovieTitlesScreenedSince(from)) {
+            copied.computeIfAbsent((Long) row[0], movieId -> new HashSet<>()).add((String) row[1]);
+        }
+
+        int queued = 0;
+        for (Map.Entry<Long, Set<String>> entry : copied.entrySet()) {
+            Long movieId = entry.getKey();
+            // stamped before the fetch, so a notification sent after the fetch read an older title still wins
+            LocalDateTime fetchedAt = LocalDateTime.now();
+            MovieResponseDTO movie;
+            try {
+                movie = restTemplate.getForObject(moviesServiceUrl + "/api/movies/" + movieId, MovieResponseDTO.class);
+            } catch (RestClientException e) {
+                logger.warn("Cannot reconcile title of movie {}: {}", movieId, e.getMessage());
+                continue;
+            }
+            if (movie != null && movie.getTitle() != null && !Set.of(movie.getTitle()).equals(entry.getValue())) {
+                enqueue(movieTitles, movieId, new DenormalizedFieldChangeDTO(movie.getTitle(), fetchedAt));
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            logger.info("Title reconcile queued {} of {} movies whose bookings were out of sync", queued, copied.size());
+        }
+    }
+
+    private void enqueue(Map<Long, PendingChange> pending, Long key, DenormalizedFieldChangeDTO change) {
+        LocalDateTime changedAt = change.getChangedAt() != null ? change.getChangedAt() : LocalDateTime.now();
+        PendingChange incoming = new PendingChange(change.getValue(), changedAt);
+        pending.merge(key, incoming, (current, next) -> next.changedAt.isBefore(current.changedAt) ? current : next);
+    }
+
+    /**
+     * @param chunkWritten called with the key after each chunk that changed rows has committed
+     */
+    private void drain(Map<Long, PendingChange> pending, ChunkUpdate update, String owner,
+                       Consumer<Long> chunkWritten) {
+        for (Map.Entry<Long, PendingChange> entry : pending.entrySet()) {
+            Long key = entry.getKey();
+            PendingChange change = entry.getValue();
+            try {
+                int total = 0;
+                int updated;
+                do {
+                    long start = System.nanoTime();
+                    updated = update.apply(key, change.value, chunkSize);
+                    total += updated;
+                    rowsUpdated.increment(updated);
+                    if (updated > 0) {
+                        chunkWritten.accept(key);
+                    }
+                    if (!throttle(updated, start)) {
+                        return;
+                    }
+                } while (updated >= chunkSize);
+
+                // A newer change that arrived meanwhile stays queued for the next run
+                pending.remove(key, change);
+                logger.debug("Refreshed {} bookings for {} {}", total, owner, key);
+            } catch (RuntimeException e) {
+                logger.error("Failed to sync denormalized data for {} {}: {}", owner, key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sleeps long enough to keep the drain under the configured rows per second.
+     *
+     * @return false if the thread was interrupted
+     */
+    private boolean throttle(int rows, long startNanos) {
+        if (rows == 0 || maxRowsPerSecond <= 0) {
+            return true;
+        }
+        long budgetNanos = (long) (rows / maxRowsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        long remainingNanos = budgetNanos - (System.nanoTime() - startNanos);
+        if (remainingNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface ChunkUpdate {
+        int apply(Long key, String value, int limit);
+    }
+
+    private static final class PendingChange {
+        private final String value;
+        private final LocalDateTime changedAt;
+
+        private PendingChange(String value, LocalDateTime changedAt) {
+            this.value = value;
+            this.changedAt = changedAt;
+        }
+    }
+}
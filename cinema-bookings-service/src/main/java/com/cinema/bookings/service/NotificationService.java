@@ -0,0 +1,309 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.DeadLetterDTO;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.notification.Notification;
+import com.cinema.bookings.notification.NotificationSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends booking confirmation emails off the request thread.
+ *
+ * A confirmation only puts a message on a bounded in-memory queue, so its
+ * latency does not depend on the mail server. Worker threads take up to
+ * {@code batch-size} messages at a time and hand them to the
+ * {@link NotificationSender}, which sends a batch over one pooled connection.
+ * Failed messages are retried with exponential backoff; after
+ * {@code max-attempts} they are moved to a bounded dead-letter list, from
+ * where they can be inspected and requeued.
+ */
+@Service
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    private static final String CONFIRMED_STATUS = "CONFIRMED";
+    private static final long POLL_MILLIS = 500;
+    private static final DateTimeFormatter SCREENING_FORMAT = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy, HH:mm");
+
+    private final NotificationSender sender;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int deadLetterCapacity;
+    private final BlockingQueue<Notification> queue;
+    private final DelayQueue<Retry> retries = new DelayQueue<>();
+    private final Deque<DeadLetterDTO> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger deadLetterCount = new AtomicInteger();
+    private final ExecutorService workerPool;
+    private volatile boolean running = true;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer batchTimer;
+
+    public NotificationService(NotificationSender sender,
+                               @Value("${booking.notifications.enabled:true}") boolean enabled,
+                               @Value("${booking.notifications.queue-capacity:10000}") int queueCapacity,
+                               @Value("${booking.notifications.batch-size:50}") int batchSize,
+                               @Value("${booking.notifications.workers:2}") int workers,
+                               @Value("${booking.notifications.max-attempts:5}") int maxAttempts,
+                               @Value("${booking.notifications.retry-backoff-ms:2000}") long retryBackoffMillis,
+                               @Value("${booking.notifications.dead-letter-capacity:1000}") int deadLetterCapacity,
+                               MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("bookings.notifications.queue_depth", queue, BlockingQueue::size)
+                .description("Notifications waiting for their first send attempt")
+                .register(meterRegistry);
+        Gauge.builder("bookings.notifications.retry_depth", retries, DelayQueue::size)
+                .description("Notifications waiting to be retried")
+                .register(meterRegistry);
+        Gauge.builder("bookings.notifications.dead_letters", deadLetterCount, AtomicInteger::get)
+                .description("Notifications that gave up and are held for inspection")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("bookings.notifications.sent")
+                .description("Notifications delivered to the mail server")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("bookings.notifications.failed")
+                .description("Failed send attempts")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("bookings.notifications.dead_lettered")
+                .description("Notifications moved to the dead-letter list")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("bookings.notifications.batch")
+                .description("Time to send one batch of notifications")
+                .register(meterRegistry);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            for (int i = 0; i < workers; i++) {
+                workerPool.submit(this::runWorker);
+            }
+        }
+    }
+
+    /**
+     * Queues a confirmation email when a booking becomes confirmed.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponseDTO current = event.getCurrent();
+        BookingResponseDTO previous = event.getPrevious();
+        if (!enabled || current == null || !CONFIRMED_STATUS.equals(current.getStatus())
+                || (previous != null && CONFIRMED_STATUS.equals(previous.getStatus()))) {
+            return;
+        }
+        if (current.getUserEmail() == null || current.getUserEmail().isBlank()) {
+            logger.debug("Booking {} confirmed without an email address, no notification sent", current.getId());
+            return;
+        }
+        enqueue(confirmation(current));
+    }
+
+    /**
+     * Queues a notification without blocking. If the queue is full the
+     * notification goes straight to the dead-letter list.
+     *
+     * @return false if the queue was full
+     */
+    public boolean enqueue(Notification notification) {
+        if (queue.offer(notification)) {
+            return true;
+        }
+        notification.recordFailure("Notification queue full");
+        deadLetter(notification);
+        return false;
+    }
+
+    /**
+     * @return dead letters, oldest first
+     */
+    public List<DeadLetterDTO> getDeadLetters() {
+        return new ArrayList<>(deadLetters);
+    }
+
+    /**
+     * Moves every dead letter back onto the queue with a fresh attempt count.
+     *
+     * @return the number of notifications requeued
+     */
+    public int requeueDeadLetters() {
+        int requeued = 0;
+        DeadLetterDTO deadLetter;
+        while ((deadLetter = deadLetters.pollFirst()) != null) {
+            deadLetterCount.decrementAndGet();
+            if (!queue.offer(new Notification(deadLetter.getBookingId(), deadLetter.getRecipient(),
+                    deadLetter.getSubject(), deadLetter.getBody()))) {
+                deadLetters.addFirst(deadLetter);
+                deadLetterCount.incrementAndGet();
+                break;
+            }
+            requeued++;
+        }
+        return requeued;
+    }
+
+    /**
+     * Sends one batch: due retries first, then queued notifications, waiting up
+     * to {@code waitMillis} for the first one if there is nothing to do.
+     *
+     * @return the number of notifications attempted
+     */
+    int dispatchBatch(long waitMillis) throws InterruptedException {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        List<Retry> due = new ArrayList<>();
+        retries.drainTo(due, batchSize);
+        due.forEach(retry -> batch.add(retry.notification()));
+
+        if (batch.size() < batchSize) {
+            if (batch.isEmpty()) {
+                Notification first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    return 0;
+                }
+                batch.add(first);
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+
+        long start = System.nanoTime();
+        List<Notification> failed;
+        try {
+            failed = sender.send(batch);
+        } catch (RuntimeException e) {
+            logger.error("Notification sender failed on a batch of {}: {}", batch.size(), e.getMessage());
+            batch.forEach(notification -> notification.recordFailure(e.getMessage()));
+            failed = batch;
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        sentCounter.increment(batch.size() - failed.size());
+        failedCounter.increment(failed.size());
+        for (Notification notification : failed) {
+            if (notification.getAttempts() >= maxAttempts) {
+                deadLetter(notification);
+            } else {
+                long delay = retryBackoffMillis << Math.min(notification.getAttempts() - 1, 16);
+                retries.add(new Retry(notification, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay)));
+            }
+        }
+        return batch.size();
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    int retryDepth() {
+        return retries.size();
+    }
+
+    /**
+     * Stops the workers after they have had a few seconds to drain the queue.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(5, TimeUnit.SECONDS)) {
+            workerPool.shutdownNow();
+        }
+        int unsent = queue.size() + retries.size();
+        if (unsent > 0) {
+            logger.error("Dropping {} unsent notifications on shutdown", unsent);
+        }
+    }
+
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                dispatchBatch(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Notification dispatcher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deadLetter(Notification notification) {
+        deadLetteredCounter.increment();
+        logger.warn("Giving up on notification for booking {} after {} attempts: {}",
+                notification.getBookingId(), notification.getAttempts(), notification.getLastError());
+        deadLetters.addLast(new DeadLetterDTO(notification.getBookingId(), notification.getRecipient(),
+                notification.getSubject(), notification.getBody(), notification.getAttempts(),
+                notification.getLastError(), LocalDateTime.now()));
+        if (deadLetterCount.incrementAndGet() > deadLetterCapacity && deadLetters.pollFirst() != null) {
+            deadLetterCount.decrementAndGet();
+        }
+    }
+
+    private static Notification confirmation(BookingResponseDTO booking) {
+        String movie = booking.getMovieTitle() != null ? booking.getMovieTitle() : "your movie";
+        StringBuilder body = new StringBuilder()
+                .append("Your booking #").append(booking.getId()).append(" is confirmed.\n\n")
+                .append("Movie: ").append(movie).append('\n');
+        if (booking.getScreeningTime() != null) {
+            body.append("Screening: ").append(booking.getScreeningTime().format(SCREENING_FORMAT)).append('\n');
+        }
+        if (booking.getSeatRow() != null && booking.getSeatNumber() != null) {
+            body.append("Seat: row ").append(booking.getSeatRow()).append(", seat ").append(booking.getSeatNumber()).append('\n');
+        }
+        body.append("\nShow this booking number at the entrance.\n");
+        return new Notification(booking.getId(), booking.getUserEmail(),
+                "Booking confirmed: " + movie, body.toString());
+    }
+
+    private record Retry(Notification notification, long dueAtNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtNanos, ((Retry) other).dueAtNanos);
+        }
+    }
+}
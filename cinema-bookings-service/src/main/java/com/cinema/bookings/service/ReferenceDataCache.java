@@ -0,0 +1,146 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.dto.UserResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of movie and user summaries fetched from movies-service
+ * and users-service for enriched booking views.
+ *
+ * Entries expire after {@code booking.reference.cache-ttl-seconds}, so renamed
+ * movies or changed emails show up within that time. Lookups that find nothing
+ * are not cached, and failures of the other services are passed on to the
+ * caller. Booking validation and confirmation keep calling the services
+ * directly, since they must see current data.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final RestTemplate restTemplate;
+    private final String moviesServiceUrl;
+    private final String usersServiceUrl;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, Entry<MovieResponseDTO>> movies = new ConcurrentHashMap<>();
+    private final Map<Long, Entry<UserResponseDTO>> users = new ConcurrentHashMap<>();
+    private final CacheStats movieStats;
+    private final CacheStats userStats;
+
+    public ReferenceDataCache(RestTemplate restTemplate,
+                              @Value("${service.movies.url}") String moviesServiceUrl,
+                              @Value("${service.users.url}") String usersServiceUrl,
+                              @Value("${booking.reference.cache-ttl-seconds:300}") long ttlSeconds,
+                              @Value("${booking.reference.cache-max-entries:50000}") int maxEntries,
+                              MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.moviesServiceUrl = moviesServiceUrl;
+        this.usersServiceUrl = usersServiceUrl;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.movieStats = new CacheStats("movies", meterRegistry);
+        this.userStats = new CacheStats("users", meterRegistry);
+    }
+
+    /**
+     * @return the movie, or null if movies-service does not know it
+     */
+    public MovieResponseDTO getMovie(Long movieId) {
+        Entry<MovieResponseDTO> entry = movies.get(movieId);
+        if (entry != null && !entry.isExpired()) {
+            movieStats.hit();
+            return entry.value;
+        }
+        movieStats.miss();
+        return loadMovie(movieId);
+    }
+
+    /**
+     * @return the user, or null if users-service does not know them
+     */
+    public UserResponseDTO getUser(Long userId) {
+        Entry<UserResponseDTO> entry = users.get(userId);
+        if (entry != null && !entry.isExpired()) {
+            userStats.hit();
+            return entry.value;
+        }
+        userStats.miss();
+        return loadUser(userId);
+    }
+
+    /**
+     * Fetches the movie unless a fresh entry is already cached, without counting a lookup.
+     */
+    public void preloadMovie(Long movieId) {
+        Entry<MovieResponseDTO> entry = movies.get(movieId);
+        if (entry == null || entry.isExpired()) {
+            loadMovie(movieId);
+        }
+    }
+
+    /**
+     * Fetches the user unless a fresh entry is already cached, without counting a lookup.
+     */
+    public void preloadUser(Long userId) {
+        Entry<UserResponseDTO> entry = users.get(userId);
+        if (entry == null || entry.isExpired()) {
+            loadUser(userId);
+        }
+    }
+
+    public int size() {
+        return movies.size() + users.size();
+    }
+
+    double movieHitRatio() {
+        return movieStats.hitRatio();
+    }
+
+    private MovieResponseDTO loadMovie(Long movieId) {
+        MovieResponseDTO movie = restTemplate.getForObject(
+                moviesServiceUrl + "/api/movies/" + movieId, MovieResponseDTO.class);
+        put(movies, movieId, movie);
+        return movie;
+    }
+
+    private UserResponseDTO loadUser(Long userId) {
+        UserResponseDTO user = restTemplate.getForObject(
+                usersServiceUrl + "/users/" + userId, UserResponseDTO.class);
+        put(users, userId, user);
+        return user;
+    }
+
+    private <T> void put(Map<Long, Entry<T>> entries, Long id, T value) {
+        if (value == null) {
+            entries.remove(id);
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(Entry::isExpired);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(id, new Entry<>(value));
+    }
+
+    private final class Entry<T> {
+        private final T value;
+        private final long loadedAtNanos = System.nanoTime();
+
+        private Entry(T value) {
+            this.value = value;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - loadedAtNanos > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.detection.SlidingWindowSketch;
+import com.cinema.bookings.dto.BookingRequestDTO;
+import com.cinema.bookings.dto.FlaggedAccountDTO;
+import com.cinema.bookings.exception.BookingThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Inline scalper detection for booking creation.
+ *
+ * Attempts are counted in three {@link SlidingWindowSketch}es: per user,
+ * per user and screening, and per screening. An attempt that would push a user
+ * over the per-user or per-user-and-screening threshold flags the user; in
+ * {@code throttle} mode the attempt is also rejected and not counted, so retries
+ * while throttled do not prolong the block. A screening crossing its own
+ * threshold is only reported, since a popular premiere is not abuse by itself.
+ * The cost per attempt is a few dozen atomic counter operations.
+ */
+@Service
+public class ScalperDetectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScalperDetectionService.class);
+    private static final String MODE_THROTTLE = "throttle";
+
+    private final boolean enabled;
+    private final boolean throttle;
+    private final int userLimit;
+    private final int userScreeningLimit;
+    private final int screeningLimit;
+    private final int maxFlagged;
+    private final SlidingWindowSketch perUser;
+    private final SlidingWindowSketch perUserScreening;
+    private final SlidingWindowSketch perScreening;
+    private final Map<Long, FlaggedAccountDTO> flagged = new ConcurrentHashMap<>();
+    // Entries in flagged, reserved before insertion so concurrent flags cannot exceed maxFlagged
+    private final AtomicInteger flaggedCount = new AtomicInteger();
+    private final Counter flaggedCounter;
+    private final Counter throttledCounter;
+    private final Counter hotScreeningCounter;
+
+    public ScalperDetectionService(@Value("${booking.scalper.enabled:true}") boolean enabled,
+                                   @Value("${booking.scalper.mode:flag}") String mode,
+                                   @Value("${booking.scalper.window-seconds:600}") long windowSeconds,
+                                   @Value("${booking.scalper.user-limit:20}") int userLimit,
+                                   @Value("${booking.scalper.user-screening-limit:8}") int userScreeningLimit,
+                                   @Value("${booking.scalper.screening-limit:300}") int screeningLimit,
+                                   @Value("${booking.scalper.sketch-width:4096}") int sketchWidth,
+                                   @Value("${booking.scalper.max-flagged:10000}") int maxFlagged,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.throttle = MODE_THROTTLE.equalsIgnoreCase(mode);
+        this.userLimit = userLimit;
+        this.userScreeningLimit = userScreeningLimit;
+        this.screeningLimit = screeningLimit;
+        this.maxFlagged = maxFlagged;
+
+        long windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.perUser = new SlidingWindowSketch(windowMillis, 10, 4, sketchWidth);
+        this.perUserScreening = new SlidingWindowSketch(windowMillis, 10, 4, sketchWidth);
+        this.perScreening = new SlidingWindowSketch(windowMillis, 10, 4, sketchWidth);
+
+        this.flaggedCounter = Counter.builder("bookings.scalper.flagged")
+                .description("Booking attempts over a scalper threshold")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("bookings.scalper.throttled")
+                .description("Booking attempts rejected by the scalper detector")
+                .register(meterRegistry);
+        this.hotScreeningCounter = Counter.builder("bookings.scalper.hot_screening")
+                .description("Booking attempts on screenings over the burst threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the thresholds to a booking attempt and counts it unless it is rejected.
+     *
+     * @param request the booking being created
+     * @throws BookingThrottledException in throttle mode, if the attempt would put the user over a threshold
+     */
+    public void recordAttempt(BookingRequestDTO request) {
+        if (!enabled || request.getUserId() == null) {
+            return;
+        }
+
+        long userKey = request.getUserId();
+        boolean hasScreening = request.getMovieId() != null && request.getScreeningTime() != null;
+        long screeningKey = hasScreening
+                ? SeatReservationService.screeningLockKey(request.getMovieId(), request.getScreeningTime())
+                : 0L;
+        long userScreeningKey = screeningKey * 31 + userKey;
+
+        // counts including this attempt, checked before it is counted
+        int userCount = perUser.estimate(userKey) + 1;
+        int userScreeningCount = hasScreening ? perUserScreening.estimate(userScreeningKey) + 1 : 0;
+
+        String reason = null;
+        int count = 0;
+        if (userScreeningCount > userScreeningLimit) {
+            reason = "More than " + userScreeningLimit + " booking attempts for one screening";
+            count = userScreeningCount;
+        } else if (userCount > userLimit) {
+            reason = "More than " + userLimit + " booking attempts";
+            count = userCount;
+        }
+        if (reason != null) {
+            flag(request.getUserId(), reason, count);
+            if (throttle) {
+                throttledCounter.increment();
+                throw new BookingThrottledException("Too many booking attempts, please try again later");
+            }
+        }
+
+        perUser.increment(userKey);
+        if (hasScreening) {
+            perUserScreening.increment(userScreeningKey);
+            if (perScreening.incrementAndEstimate(screeningKey) == screeningLimit + 1) {
+                hotScreeningCounter.increment();
+                logger.warn("Screening of movie {} at {} exceeded {} booking attempts in the window",
+                        request.getMovieId(), request.getScreeningTime(), screeningLimit);
+            }
+        }
+    }
+
+    /**
+     * @return flagged accounts, most recent first
+     */
+    public List<FlaggedAccountDTO> getFlaggedAccounts() {
+        return flagged.values().stream()
+                .sorted(Comparator.comparing(FlaggedAccountDTO::getLastFlaggedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public void clearFlag(Long userId) {
+        if (flagged.remove(userId) != null) {
+            flaggedCount.decrementAndGet();
+        }
+    }
+
+    private void flag(Long userId, String reason, int count) {
+        flaggedCounter.increment();
+        LocalDateTime now = LocalDateTime.now();
+        flagged.compute(userId, (id, previous) -> {
+            if (previous != null) {
+                return new FlaggedAccountDTO(id, reason, count, previous.getFirstFlaggedAt(), now);
+            }
+            if (flaggedCount.incrementAndGet() > maxFlagged) {
+                flaggedCount.decrementAndGet();
+                return null;
+            }
+            logger.warn("Flagged user {} as a possible scalper: {}", id, reason);
+            return new FlaggedAccountDTO(id, reason, count, now, now);
+        });
+    }
+}
@@ -0,0 +1,272 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.config.SchedulingConfig;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.ScreeningCancellationJobDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.entity.ScreeningCancellationJob;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.exception.CancellationJobNotFoundException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.repository.ScreeningCancellationJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cancels every booking of a cancelled screening as a background job.
+ *
+ * The job walks the screening's bookings in id order, one page per round. Each
+ * page is split into fixed-size chunks that are cancelled in parallel on a
+ * bounded worker pool, one {@code UPDATE ... WHERE id IN (...)} per chunk. Once
+ * all chunks of a page have committed, the highest id of the page is stored as
+ * the job's checkpoint, so a job interrupted by a failure or a restart resumes
+ * from there instead of starting over.
+ *
+ * Every checkpoint refreshes the job's {@code updatedAt}, which acts as the lease
+ * of the instance running it. A running job is only resumed by an instance that
+ * claims it after its lease has lapsed, so two instances never run it together.
+ */
+@Service
+public class ScreeningCancellationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreeningCancellationService.class);
+    private static final String CANCELLED_STATUS = "CANCELLED";
+
+    private final BookingRepository bookingRepository;
+    private final ScreeningCancellationJobRepository jobRepository;
+    private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int workers;
+    private final Duration lease;
+    private final ExecutorService coordinatorPool;
+    private final ExecutorService workerPool;
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+    private final Counter cancelledCounter;
+    private final Timer chunkTimer;
+
+    public ScreeningCancellationService(BookingRepository bookingRepository,
+                                        ScreeningCancellationJobRepository jobRepository,
+                                        BookingMapper bookingMapper,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${booking.screening-cancel.chunk-size:200}") int chunkSize,
+                                        @Value("${booking.screening-cancel.workers:4}") int workers,
+                                        @Value("${booking.screening-cancel.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                        @Value("${booking.screening-cancel.lease-seconds:60}") long leaseSeconds,
+                                        MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.jobRepository = jobRepository;
+        this.bookingMapper = bookingMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.coordinatorPool = Executors.newFixedThreadPool(maxConcurrentJobs, threadFactory("screening-cancel-job-"));
+        this.workerPool = Executors.newFixedThreadPool(workers, threadFactory("screening-cancel-worker-"));
+
+        this.cancelledCounter = Counter.builder("bookings.screening_cancel.cancelled")
+                .description("Bookings cancelled by screening cancellation jobs")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("bookings.screening_cancel.chunk")
+                .description("Time to cancel one chunk of bookings")
+                .register(meterRegistry);
+        Gauge.builder("bookings.screening_cancel.active_jobs", activeJobs, Set::size)
+                .description("Screening cancellation jobs currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts cancelling all bookings of a screening. If an unfinished job for the
+     * same screening exists it is resumed from its checkpoint instead, unless another
+     * instance is still running it. Like {@link #resumeInterruptedJobs()}, an existing
+     * job is claimed with a conditional update before it is resumed.
+     *
+     * @param movieId       the movie identifier
+     * @param screeningTime the screening start time
+     * @return the job state at submission time
+     */
+    public ScreeningCancellationJobDTO cancelScreening(Long movieId, LocalDateTime screeningTime) {
+        ScreeningCancellationJob job = jobRepository
+                .findFirstByMovieIdAndScreeningTimeAndStatusNotOrderByIdDesc(
+                        movieId, screeningTime, ScreeningCancellationJob.COMPLETED)
+                .orElseGet(() -> {
+                    ScreeningCancellationJob created = new ScreeningCancellationJob();
+                    created.setMovieId(movieId);
+                    created.setScreeningTime(screeningTime);
+                    created.setTotalBookings(bookingRepository
+                            .countByMovieIdAndScreeningTimeAndStatusNot(movieId, screeningTime, CANCELLED_STATUS));
+                    return created;
+                });
+
+        LocalDateTime now = LocalDateTime.now();
+        if (job.getId() == null) {
+            job.setStartedAt(now);
+            job = jobRepository.save(job);
+            submit(job.getId());
+        } else if (!activeJobs.contains(job.getId())
+                && jobRepository.claimForRestart(job.getId(), now, now.minus(lease)) == 1) {
+            job.setStatus(ScreeningCancellationJob.RUNNING);
+            job.setStartedAt(now);
+            job.setFinishedAt(null);
+            job.setErrorMessage(null);
+            job.setUpdatedAt(now);
+            submit(job.getId());
+        }
+        return toDTO(job);
+    }
+
+    public ScreeningCancellationJobDTO getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .map(this::toDTO)
+                .orElseThrow(() -> new CancellationJobNotFoundException(jobId));
+    }
+
+    /**
+     * Resumes running jobs whose instance stopped, at startup and then periodically.
+     * Each job is claimed with a conditional update first, so of several instances
+     * only one resumes it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${booking.screening-cancel.resume-interval-ms:60000}",
+            fixedDelayString = "${booking.screening-cancel.resume-interval-ms:60000}",
+            scheduler = SchedulingConfig.CANCELLATION_SCHEDULER)
+    public void resumeInterruptedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (ScreeningCancellationJob job : jobRepository.findByStatus(ScreeningCancellationJob.RUNNING)) {
+            if (activeJobs.contains(job.getId()) || jobRepository.claimStale(job.getId(), now, now.minus(lease)) == 0) {
+                continue;
+            }
+            logger.info("Resuming screening cancellation job {} after booking id {}",
+                    job.getId(), job.getLastProcessedId());
+            submit(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinatorPool.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    private void submit(Long jobId) {
+        if (activeJobs.add(jobId)) {
+            coordinatorPool.execute(() -> {
+                try {
+                    runJob(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Processes a job until no uncancelled bookings remain after its checkpoint.
+     */
+    void runJob(Long jobId) {
+        ScreeningCancellationJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new CancellationJobNotFoundException(jobId));
+        try {
+            List<Booking> page;
+            while (!(page = nextPage(job)).isEmpty()) {
+                List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+                for (int from = 0; from < page.size(); from += chunkSize) {
+                    List<Booking> chunk = page.subList(from, Math.min(from + chunkSize, page.size()));
+                    chunks.add(CompletableFuture.supplyAsync(() -> cancelChunk(chunk), workerPool));
+                }
+
+                int cancelled = 0;
+                for (CompletableFuture<Integer> chunk : chunks) {
+                    cancelled += chunk.join();
+                }
+
+                job.setCancelledBookings(job.getCancelledBookings() + cancelled);
+                job.setLastProcessedId(page.get(page.size() - 1).getId());
+                job = jobRepository.save(job);
+            }
+
+            job.setStatus(ScreeningCancellationJob.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            logger.info("Screening cancellation job {} cancelled {} bookings for movie {} at {}",
+                    jobId, job.getCancelledBookings(), job.getMovieId(), job.getScreeningTime());
+        } catch (RuntimeException e) {
+            logger.error("Screening cancellation job {} failed after booking id {}: {}",
+                    jobId, job.getLastProcessedId(), e.getMessage());
+            job.setStatus(ScreeningCancellationJob.FAILED);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setErrorMessage(e.getMessage());
+            jobRepository.save(job);
+        }
+    }
+
+    private List<Booking> nextPage(ScreeningCancellationJob job) {
+        return bookingRepository.findCancellationCandidates(job.getMovieId(), job.getScreeningTime(),
+                job.getLastProcessedId(), PageRequest.of(0, chunkSize * workers));
+    }
+
+    private int cancelChunk(List<Booking> chunk) {
+        return chunkTimer.record(() -> {
+            List<Long> ids = chunk.stream().map(Booking::getId).toList();
+            Set<Long> cancelled = Set.copyOf(bookingRepository.cancelByIds(ids));
+            cancelledCounter.increment(cancelled.size());
+
+            // rows cancelled meanwhile by someone else were announced by whoever cancelled them
+            for (Booking booking : chunk) {
+                if (cancelled.contains(booking.getId())) {
+                    BookingResponseDTO previous = bookingMapper.toResponseDTO(booking);
+                    booking.setStatus(CANCELLED_STATUS);
+                    eventPublisher.publishEvent(
+                            BookingChangedEvent.updated(previous, bookingMapper.toResponseDTO(booking)));
+                }
+            }
+            return cancelled.size();
+        });
+    }
+
+    private ScreeningCancellationJobDTO toDTO(ScreeningCancellationJob job) {
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+        double rate = 0.0;
+        if (job.getStartedAt() != null) {
+            long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            rate = job.getCancelledBookings() * 1000.0 / millis;
+        }
+        return new ScreeningCancellationJobDTO(job.getId(), job.getMovieId(), job.getScreeningTime(),
+                job.getStatus(), job.getTotalBookings(), job.getCancelledBookings(), job.getLastProcessedId(),
+                rate, job.getStartedAt(), job.getFinishedAt(), job.getErrorMessage());
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,335 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.detection.IntervalTree;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.exception.OverlappingBookingException;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Detects a user booking two screenings that overlap in time.
+ *
+ * The decision is made by {@link #checkLocked}, inside the transaction that saves
+ * the booking: it takes a per-user advisory lock, so concurrent bookings of one
+ * user are checked one after another on every instance, and compares the booking
+ * with the user's active bookings in the database. Bookings span the screening
+ * time plus the movie's duration.
+ *
+ * {@link #check} is a fast path run before that transaction. Each active user gets
+ * an {@link IntervalTree} of their pending and confirmed bookings, kept from this
+ * instance's events only, so it can miss bookings made elsewhere; an overlap it
+ * finds is re-read from the database before a booking is refused early. The
+ * tree is loaded on the user's first check with one query over their recent and
+ * upcoming bookings, kept current from {@link BookingChangedEvent}s and dropped
+ * after {@code booking.overlap.idle-minutes} without a check. The tree is
+ * registered before the query runs; changes published while it loads are
+ * buffered and applied after the loaded bookings, so a booking committed during
+ * the load is not lost. Concurrent checks for the same user wait for the load. Several seats of
+ * the same screening are not an overlap. In {@code warn} mode overlaps are only
+ * logged and counted; in {@code reject} mode the booking is refused.
+ *
+ * Movie durations are fetched from movies-service once per movie; if that
+ * fails, {@code booking.overlap.default-duration-minutes} is assumed and the
+ * fetch is retried after {@code booking.overlap.duration-retry-seconds}.
+ */
+@Service
+public class ScreeningOverlapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreeningOverlapService.class);
+    private static final String MODE_REJECT = "reject";
+    private static final List<String> ACTIVE_STATUSES = List.of("PENDING", "CONFIRMED");
+    /** Screenings that started this long ago may still be running when a new booking is checked. */
+    private static final long LOOKBACK_HOURS = 24;
+
+    private final BookingRepository bookingRepository;
+    private final RestTemplate restTemplate;
+    private final String moviesServiceUrl;
+    private final boolean enabled;
+    private final boolean reject;
+    private final long defaultDurationSeconds;
+    private final long idleNanos;
+    private final long durationRetryNanos;
+    private final Map<Long, UserIntervals> users = new ConcurrentHashMap<>();
+    private final Map<Long, CachedDuration> durations = new ConcurrentHashMap<>();
+    private final Counter detectedCounter;
+    private final Counter rejectedCounter;
+
+    public ScreeningOverlapService(BookingRepository bookingRepository,
+                                   RestTemplate restTemplate,
+                                   @Value("${service.movies.url}") String moviesServiceUrl,
+                                   @Value("${booking.overlap.enabled:true}") boolean enabled,
+                                   @Value("${booking.overlap.mode:warn}") String mode,
+                                   @Value("${booking.overlap.default-duration-minutes:150}") long defaultDurationMinutes,
+                                   @Value("${booking.overlap.idle-minutes:30}") long idleMinutes,
+                                   @Value("${booking.overlap.duration-retry-seconds:60}") long durationRetrySeconds,
+                                   MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.restTemplate = restTemplate;
+        this.moviesServiceUrl = moviesServiceUrl;
+        this.enabled = enabled;
+        this.reject = MODE_REJECT.equalsIgnoreCase(mode);
+        this.defaultDurationSeconds = TimeUnit.MINUTES.toSeconds(defaultDurationMinutes);
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        this.durationRetryNanos = TimeUnit.SECONDS.toNanos(durationRetrySeconds);
+
+        this.detectedCounter = Counter.builder("bookings.overlap.detected")
+                .description("Bookings overlapping another screening booked by the same user")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("bookings.overlap.rejected")
+                .description("Bookings refused for overlapping another screening")
+                .register(meterRegistry);
+        Gauge.builder("bookings.overlap.cached_users", users, Map::size)
+                .description("Users whose booking intervals are held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks a booking about to be written against the bookings this instance knows
+     * of, so an overlap can be refused before any lock is taken. Not authoritative:
+     * {@link #checkLocked} decides when the booking is saved.
+     *
+     * @param booking the booking; its id is null for a new booking
+     * @return ids of the overlapping bookings known here, empty if there are none
+     * @throws OverlappingBookingException in reject mode, if an overlap is confirmed in the database
+     */
+    public List<Long> check(Booking booking) {
+        if (!applies(booking)) {
+            return List.of();
+        }
+        long start = epoch(booking.getScreeningTime());
+        long end = start + durationSeconds(booking.getMovieId());
+        UserIntervals intervals = intervalsOf(booking.getUserId());
+
+        List<Long> overlapping;
+        synchronized (intervals) {
+            intervals.lastUsedNanos = System.nanoTime();
+            overlapping = intervals.tree.overlapping(start, end).stream()
+                    .filter(interval -> booking.getId() == null || interval.id() != booking.getId())
+                    .filter(interval -> interval.movieId() != booking.getMovieId() || interval.start() != start)
+                    .map(IntervalTree.Interval::id)
+                    .toList();
+        }
+        if (!overlapping.isEmpty() && reject) {
+            // the tree may hold a booking since cancelled or moved on another instance
+            report(booking, overlapping(booking, bookingRepository.findAllById(overlapping)));
+        }
+        return overlapping;
+    }
+
+    /**
+     * Checks bookings being saved against their users' active bookings in the
+     * database. Must run inside the saving transaction, before any other advisory
+     * lock is taken: the per-user locks it takes are held until commit.
+     *
+     * @param bookings the bookings being saved
+     * @throws OverlappingBookingException in reject mode, if there is an overlap
+     */
+    public void checkLocked(List<Booking> bookings) {
+        List<Booking> checked = bookings.stream().filter(this::applies).toList();
+        // Always lock in key order, so two transactions booking for several users cannot deadlock
+        checked.stream()
+                .mapToInt(booking -> Long.hashCode(booking.getUserId()))
+                .distinct()
+                .sorted()
+                .forEach(bookingRepository::lockUser);
+        for (Booking booking : checked) {
+            List<Booking> active = bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(
+                    booking.getUserId(), ACTIVE_STATUSES, booking.getScreeningTime().minusHours(LOOKBACK_HOURS));
+            report(booking, overlapping(booking, active));
+        }
+    }
+
+    private void report(Booking booking, List<Long> overlapping) {
+        if (overlapping.isEmpty()) {
+            return;
+        }
+        detectedCounter.increment();
+        if (reject) {
+            rejectedCounter.increment();
+            throw new OverlappingBookingException(booking.getUserId(), overlapping);
+        }
+        logger.warn("User {} is booking movie {} at {} overlapping bookings {}",
+                booking.getUserId(), booking.getMovieId(), booking.getScreeningTime(), overlapping);
+    }
+
+    /**
+     * @return ids of the candidates that are active bookings of the same user overlapping the booking
+     */
+    private List<Long> overlapping(Booking booking, List<Booking> candidates) {
+        long start = epoch(booking.getScreeningTime());
+        long end = start + durationSeconds(booking.getMovieId());
+        return candidates.stream()
+                .filter(other -> booking.getUserId().equals(other.getUserId()))
+                .filter(other -> booking.getId() == null || !booking.getId().equals(other.getId()))
+                .map(other -> interval(other.getId(), other.getMovieId(), other.getScreeningTime(), other.getStatus()))
+                .filter(interval -> interval != null && interval.overlaps(start, end))
+                .filter(interval -> interval.movieId() != booking.getMovieId() || interval.start() != start)
+                .map(IntervalTree.Interval::id)
+                .toList();
+    }
+
+    private boolean applies(Booking booking) {
+        return enabled && booking.getUserId() != null && booking.getMovieId() != null
+                && booking.getScreeningTime() != null && ACTIVE_STATUSES.contains(booking.getStatus());
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        BookingResponseDTO previous = event.getPrevious();
+        if (previous != null && previous.getUserId() != null && previous.getId() != null) {
+            UserIntervals intervals = users.get(previous.getUserId());
+            if (intervals != null) {
+                long id = previous.getId();
+                intervals.apply(tree -> tree.remove(id));
+            }
+        }
+        BookingResponseDTO current = event.getCurrent();
+        if (current != null && current.getUserId() != null && users.containsKey(current.getUserId())) {
+            IntervalTree.Interval interval = interval(current.getId(), current.getMovieId(),
+                    current.getScreeningTime(), current.getStatus());
+            UserIntervals intervals = users.get(current.getUserId());
+            if (interval != null && intervals != null) {
+                intervals.apply(tree -> tree.add(interval));
+            }
+        }
+    }
+
+    /**
+     * Drops the intervals of users who have not booked for a while.
+     */
+    @Scheduled(fixedDelayString = "${booking.overlap.evict-interval-ms:300000}")
+    public void evictIdleUsers() {
+        long now = System.nanoTime();
+        users.values().removeIf(intervals -> now - intervals.lastUsedNanos > idleNanos);
+    }
+
+    int cachedUsers() {
+        return users.size();
+    }
+
+    private UserIntervals intervalsOf(Long userId) {
+        while (true) {
+            UserIntervals intervals = users.get(userId);
+            if (intervals == null) {
+                UserIntervals installed = new UserIntervals();
+                intervals = users.putIfAbsent(userId, installed);
+                if (intervals == null) {
+                    load(userId, installed);
+                    return installed;
+                }
+            }
+            try {
+                intervals.loaded.join();
+                return intervals;
+            } catch (CompletionException e) {
+                // the loading thread failed and unregistered the tree; load again
+            }
+        }
+    }
+
+    private void load(Long userId, UserIntervals intervals) {
+        List<IntervalTree.Interval> loaded = new ArrayList<>();
+        try {
+            List<Booking> bookings = bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(
+                    userId, ACTIVE_STATUSES, LocalDateTime.now().minusHours(LOOKBACK_HOURS));
+            for (Booking booking : bookings) {
+                IntervalTree.Interval interval = interval(booking.getId(), booking.getMovieId(),
+                        booking.getScreeningTime(), booking.getStatus());
+                if (interval != null) {
+                    loaded.add(interval);
+                }
+            }
+        } catch (RuntimeException e) {
+            users.remove(userId, intervals);
+            intervals.loaded.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (intervals) {
+            loaded.forEach(intervals.tree::add);
+            intervals.pending.forEach(change -> change.accept(intervals.tree));
+            intervals.pending = null;
+        }
+        intervals.loaded.complete(null);
+    }
+
+    private IntervalTree.Interval interval(Long id, Long movieId, LocalDateTime screeningTime, String status) {
+        if (id == null || movieId == null || screeningTime == null || !ACTIVE_STATUSES.contains(status)) {
+            return null;
+        }
+        long start = epoch(screeningTime);
+        return new IntervalTree.Interval(id, movieId, start, start + durationSeconds(movieId));
+    }
+
+    private long durationSeconds(Long movieId) {
+        CachedDuration cached = durations.get(movieId);
+        if (cached != null && (!cached.fallback() || System.nanoTime() - cached.cachedAtNanos() < durationRetryNanos)) {
+            return cached.seconds();
+        }
+        try {
+            MovieResponseDTO movie = restTemplate.getForObject(
+                    moviesServiceUrl + "/api/movies/" + movieId, MovieResponseDTO.class);
+            long seconds = movie != null && movie.getDuration() != null && movie.getDuration() > 0
+                    ? TimeUnit.MINUTES.toSeconds(movie.getDuration())
+                    : defaultDurationSeconds;
+            durations.put(movieId, new CachedDuration(seconds, false, System.nanoTime()));
+            return seconds;
+        } catch (RestClientException e) {
+            logger.warn("Could not fetch the duration of movie {}, assuming the default: {}", movieId, e.getMessage());
+            durations.put(movieId, new CachedDuration(defaultDurationSeconds, true, System.nanoTime()));
+            return defaultDurationSeconds;
+        }
+    }
+
+    private static long epoch(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class UserIntervals {
+        private final IntervalTree tree = new IntervalTree();
+        private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        /** Changes published while the tree loads; null once loaded. Guarded by this. */
+        private List<Consumer<IntervalTree>> pending = new ArrayList<>();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private synchronized void apply(Consumer<IntervalTree> change) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                change.accept(tree);
+            }
+        }
+    }
+
+    /**
+     * @param fallback whether this is the default after a failed fetch, to be retried
+     */
+    private record CachedDuration(long seconds, boolean fallback, long cachedAtNanos) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingRequestDTO;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.GroupBookingRequestDTO;
+import com.cinema.bookings.dto.SeatBlockDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.event.ShardRingChangedEvent;
+import com.cinema.bookings.exception.NoContiguousSeatsException;
+import com.cinema.bookings.exception.SeatAlreadyBookedException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.seating.SeatBlock;
+import com.cinema.bookings.seating.SeatMap;
+import com.cinema.bookings.seating.SeatMapSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Finds and books the best block of adjacent seats for a group.
+ *
+ * Occupancy of each screening is kept in a {@link SeatMap}, loaded from the
+ * database on first use and then maintained from {@link BookingChangedEvent}s.
+ * A search and the in-memory reservation of its result happen under the
+ * screening's lock, so concurrent groups on this instance never get the same
+ * seats; the bookings themselves are then claimed in one transaction through
+ * {@link SeatReservationService}, which also guards against other instances.
+ * If that fails the seats are released again, and if another instance got
+ * there first the screening's map is dropped so it is reloaded on next use.
+ */
+@Service
+public class SeatAllocationService {
+
+    private static final String CANCELLED_STATUS = "CANCELLED";
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final SeatReservationService seatReservationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int rows;
+    private final int seatsPerRow;
+    private final int preferredRow;
+    private final double rowWeight;
+    private final Map<ScreeningKey, SeatMap> seatMaps = new ConcurrentHashMap<>();
+    private final Timer searchTimer;
+
+    public SeatAllocationService(BookingRepository bookingRepository,
+                                 BookingMapper bookingMapper,
+                                 SeatReservationService seatReservationService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${booking.seating.rows:20}") int rows,
+                                 @Value("${booking.seating.seats-per-row:25}") int seatsPerRow,
+                                 @Value("${booking.seating.preferred-row-ratio:0.6}") double preferredRowRatio,
+                                 @Value("${booking.seating.row-weight:1.5}") double rowWeight,
+                                 MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.seatReservationService = seatReservationService;
+        this.eventPublisher = eventPublisher;
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.preferredRow = (int) Math.round((rows - 1) * preferredRowRatio);
+        this.rowWeight = rowWeight;
+
+        this.searchTimer = Timer.builder("bookings.seating.search")
+                .description("Time to find the best block of adjacent seats")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Suggests the best block of adjacent free seats without booking it.
+     *
+     * @throws NoContiguousSeatsException if no row has enough adjacent free seats
+     */
+    public SeatBlockDTO findBestAvailable(Long movieId, LocalDateTime screeningTime, int seats) {
+        SeatMap seatMap = seatMap(new ScreeningKey(movieId, screeningTime));
+        SeatBlock block;
+        synchronized (seatMap) {
+            block = search(seatMap, seats);
+        }
+        return toDTO(block);
+    }
+
+    /**
+     * Books the best block of adjacent free seats for a group, all or nothing.
+     *
+     * @param request the group booking request
+     * @return one booking per seat, left to right
+     * @throws NoContiguousSeatsException if no row has enough adjacent free seats
+     */
+    public List<BookingResponseDTO> bookBestAvailable(GroupBookingRequestDTO request) {
+        ScreeningKey key = new ScreeningKey(request.getMovieId(), request.getScreeningTime());
+        SeatMap seatMap = seatMap(key);
+
+        SeatBlock block;
+        synchronized (seatMap) {
+            block = search(seatMap, request.getSeats());
+            forEachSeat(block, seat -> seatMap.occupy(block.getRow(), seat));
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        String seatRow = SeatMap.rowLabel(block.getRow());
+        forEachSeat(block, seat -> bookings.add(bookingMapper.toEntity(new BookingRequestDTO(
+                request.getUserId(), request.getMovieId(), request.getMovieTitle(), request.getUserEmail(),
+                request.getScreeningTime(), seat, seatRow, request.getPrice(), null))));
+
+        List<Booking> saved;
+        try {
+            saved = seatReservationService.reserveAll(bookings);
+        } catch (SeatAlreadyBookedException e) {
+            seatMaps.remove(key, seatMap);
+            throw e;
+        } catch (RuntimeException e) {
+            synchronized (seatMap) {
+                forEachSeat(block, seat -> seatMap.release(block.getRow(), seat));
+            }
+            throw e;
+        }
+
+        List<BookingResponseDTO> responses = saved.stream()
+                .map(bookingMapper::toResponseDTO)
+                .collect(Collectors.toList());
+        responses.forEach(response -> eventPublisher.publishEvent(BookingChangedEvent.created(response)));
+        return responses;
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponseDTO previous = event.getPrevious();
+        if (previous != null && isActive(previous)) {
+            apply(previous, false);
+        }
+        BookingResponseDTO current = event.getCurrent();
+        if (current != null && isActive(current)) {
+            apply(current, true);
+        }
+    }
+
+    /**
+     * Drops the seat maps of screenings that have already started.
+     */
+    @Scheduled(fixedDelayString = "${booking.seating.evict-interval-ms:600000}")
+    public void evictPastScreenings() {
+        LocalDateTime now = LocalDateTime.now();
+        seatMaps.keySet().removeIf(key -> key.screeningTime().isBefore(now));
+    }
+
+    /**
+     * Drops the seat maps of screenings another node owns after a shard membership change.
+     */
+    @EventListener
+    public void onShardRingChanged(ShardRingChangedEvent event) {
+        seatMaps.keySet().removeIf(key -> !event.owns(key.movieId(), key.screeningTime()));
+    }
+
+    int cachedScreenings() {
+        return seatMaps.size();
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int seatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * @return a consistent copy of every cached seat map, for checkpointing
+     */
+    List<SeatMapSnapshot.Entry> copySeatMaps() {
+        List<SeatMapSnapshot.Entry> entries = new ArrayList<>(seatMaps.size());
+        seatMaps.forEach((key, seatMap) -> {
+            SeatMap copy;
+            synchronized (seatMap) {
+                copy = seatMap.copy();
+            }
+            entries.add(new SeatMapSnapshot.Entry(key.movieId(), key.screeningTime(), copy));
+        });
+        return entries;
+    }
+
+    /**
+     * Caches a seat map restored from a snapshot, unless the screening is already loaded.
+     */
+    void restoreSeatMap(SeatMapSnapshot.Entry entry) {
+        seatMaps.putIfAbsent(new ScreeningKey(entry.movieId(), entry.screeningTime()), entry.seatMap());
+    }
+
+    /**
+     * Reloads a cached screening from the database; does nothing if it is not cached.
+     */
+    void reloadSeatMap(Long movieId, LocalDateTime screeningTime) {
+        seatMaps.computeIfPresent(new ScreeningKey(movieId, screeningTime), (key, stale) -> load(key));
+    }
+
+    private SeatBlock search(SeatMap seatMap, int seats) {
+        long start = System.nanoTime();
+        SeatBlock block = seatMap.findBestBlock(seats, preferredRow, rowWeight);
+        searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (block == null) {
+            throw new NoContiguousSeatsException(seats);
+        }
+        return block;
+    }
+
+    private SeatMap seatMap(ScreeningKey key) {
+        return seatMaps.computeIfAbsent(key, this::load);
+    }
+
+    private SeatMap load(ScreeningKey key) {
+        SeatMap seatMap = new SeatMap(rows, seatsPerRow);
+        for (Booking booking : bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(
+                key.movieId(), key.screeningTime(), CANCELLED_STATUS)) {
+            int row = SeatMap.rowIndex(booking.getSeatRow());
+            if (booking.getSeatNumber() != null && seatMap.contains(row, booking.getSeatNumber())) {
+                seatMap.occupy(row, booking.getSeatNumber());
+            }
+        }
+        return seatMap;
+    }
+
+    private void apply(BookingResponseDTO booking, boolean occupy) {
+        SeatMap seatMap = seatMaps.get(new ScreeningKey(booking.getMovieId(), booking.getScreeningTime()));
+        if (seatMap == null) {
+            return;
+        }
+        int row = SeatMap.rowIndex(booking.getSeatRow());
+        Integer seat = booking.getSeatNumber();
+        if (seat == null || !seatMap.contains(row, seat)) {
+            return;
+        }
+        synchronized (seatMap) {
+            if (occupy) {
+                seatMap.occupy(row, seat);
+            } else {
+                seatMap.release(row, seat);
+            }
+        }
+    }
+
+    private static boolean isActive(BookingResponseDTO booking) {
+        return !CANCELLED_STATUS.equals(booking.getStatus());
+    }
+
+    private static void forEachSeat(SeatBlock block, IntConsumer action) {
+        for (int seat = block.getFirstSeat(); seat < block.getFirstSeat() + block.getCount(); seat++) {
+            action.accept(seat);
+        }
+    }
+
+    private static SeatBlockDTO toDTO(SeatBlock block) {
+        return new SeatBlockDTO(SeatMap.rowLabel(block.getRow()), block.getFirstSeat(),
+                block.getFirstSeat() + block.getCount() - 1);
+    }
+
+    private record ScreeningKey(Long movieId, LocalDateTime screeningTime) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingChangeRepository;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.seating.SeatMapSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkpoints the seat maps of {@link SeatAllocationService} to a
+ * {@link SeatMapSnapshot} file and restores them on startup.
+ *
+ * A snapshot records the highest booking id at the time it was taken. On
+ * startup the still-upcoming screenings this node owns under the current shard
+ * membership are restored from the file, and only
+ * bookings changed since then are read: bookings newer than the mark are
+ * applied to their seat map, and a screening with an older booking modified
+ * after the snapshot is reloaded from the database. Deleted bookings leave no
+ * row to read, so if the {@code booking_changes} feed holds a delete since the
+ * snapshot, or no longer reaches back that far, each restored screening whose
+ * seated booking count differs from its seat map is reloaded as well. Restoring
+ * runs before the application reports itself ready. A missing or corrupt
+ * snapshot is logged and skipped; seat maps are then loaded lazily, as without
+ * snapshots.
+ *
+ * A booking moved to another screening after the snapshot stays marked on its
+ * old seat until that screening is reloaded; seat claims are still checked
+ * against the database.
+ */
+@Service
+public class SeatMapSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapSnapshotService.class);
+
+    private final SeatAllocationService seatAllocationService;
+    private final BookingRepository bookingRepository;
+    private final BookingChangeRepository bookingChangeRepository;
+    private final BookingMapper bookingMapper;
+    private final ShardRoutingService shardRoutingService;
+    private final boolean enabled;
+    private final Path path;
+    private final long replayMarginSeconds;
+    private final Timer writeTimer;
+    private final AtomicLong highWaterMark = new AtomicLong();
+
+    public SeatMapSnapshotService(SeatAllocationService seatAllocationService,
+                                  BookingRepository bookingRepository,
+                                  BookingChangeRepository bookingChangeRepository,
+                                  BookingMapper bookingMapper,
+                                  ShardRoutingService shardRoutingService,
+                                  @Value("${booking.seating.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${booking.seating.snapshot.path:./snapshots/seat-maps.bin}") String path,
+                                  @Value("${booking.seating.snapshot.replay-margin-seconds:60}") long replayMarginSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.seatAllocationService = seatAllocationService;
+        this.bookingRepository = bookingRepository;
+        this.bookingChangeRepository = bookingChangeRepository;
+        this.bookingMapper = bookingMapper;
+        this.shardRoutingService = shardRoutingService;
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.replayMarginSeconds = replayMarginSeconds;
+
+        this.writeTimer = Timer.builder("bookings.seating.snapshot.write")
+                .description("Time to write the seat map snapshot")
+                .register(meterRegistry);
+        Gauge.builder("bookings.seating.snapshot.high_water_mark", highWaterMark, AtomicLong::get)
+                .description("Highest booking id covered by the last snapshot written or restored")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores seat maps from the snapshot and replays newer bookings.
+     *
+     * @return the number of screenings restored
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public int restore() {
+        if (!enabled) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        SeatMapSnapshot snapshot;
+        try {
+            snapshot = SeatMapSnapshot.read(path, seatAllocationService.rows(), seatAllocationService.seatsPerRow());
+        } catch (IOException e) {
+            logger.warn("Ignoring seat map snapshot {}: {}", path, e.getMessage());
+            return 0;
+        }
+        if (snapshot == null) {
+            logger.info("No seat map snapshot at {}, seat maps will be loaded on demand", path);
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int restored = 0;
+        int foreign = 0;
+        for (SeatMapSnapshot.Entry entry : snapshot.getEntries()) {
+            if (entry.screeningTime().isBefore(now)) {
+                continue;
+            }
+            // the snapshot may predate a membership change; another node now serves these screenings
+            if (!shardRoutingService.owns(entry.movieId(), entry.screeningTime())) {
+                foreign++;
+                continue;
+            }
+            seatAllocationService.restoreSeatMap(entry);
+            restored++;
+        }
+
+        LocalDateTime since = snapshot.getTakenAt().minusSeconds(replayMarginSeconds);
+        List<Booking> changed = bookingRepository.findChangedSince(snapshot.getHighWaterMark(), since, now);
+        int reloaded = 0;
+        for (Booking booking : changed) {
+            if (booking.getId() > snapshot.getHighWaterMark()) {
+                seatAllocationService.onBookingChanged(
+                        BookingChangedEvent.created(bookingMapper.toResponseDTO(booking)));
+            } else {
+                seatAllocationService.reloadSeatMap(booking.getMovieId(), booking.getScreeningTime());
+                reloaded++;
+            }
+        }
+        if (mayHaveDeletedSince(since)) {
+            reloaded += reloadMismatchedScreenings(now);
+        }
+        highWaterMark.set(snapshot.getHighWaterMark());
+        logger.info("Restored {} seat maps from snapshot (mark {}), skipped {} owned by other nodes, "
+                        + "replayed {} changed bookings, reloaded {} seat maps, in {} ms",
+                restored, snapshot.getHighWaterMark(), foreign, changed.size(), reloaded,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return restored;
+    }
+
+    /**
+     * @return false only if the change feed covers {@code since} and holds no delete after it
+     */
+    private boolean mayHaveDeletedSince(LocalDateTime since) {
+        LocalDateTime oldest = bookingChangeRepository.findOldestChangedAt();
+        if (oldest == null) {
+            return false;
+        }
+        return oldest.isAfter(since) || bookingChangeRepository.countDeletesSince(since) > 0;
+    }
+
+    /**
+     * Reloads each cached upcoming screening whose occupied seat count differs
+     * from its seated bookings in the database.
+     */
+    private int reloadMismatchedScreenings(LocalDateTime now) {
+        Map<Screening, Long> counts = new HashMap<>();
+        for (Object[] row : bookingRepository.countSeatedByScreeningFrom(now)) {
+            counts.put(new Screening((Long) row[0], (LocalDateTime) row[1]), (Long) row[2]);
+        }
+        int reloaded = 0;
+        for (SeatMapSnapshot.Entry entry : seatAllocationService.copySeatMaps()) {
+            if (entry.screeningTime().isBefore(now)) {
+                continue;
+            }
+            long seated = counts.getOrDefault(new Screening(entry.movieId(), entry.screeningTime()), 0L);
+            if (entry.seatMap().countOccupied() != seated) {
+                seatAllocationService.reloadSeatMap(entry.movieId(), entry.screeningTime());
+                reloaded++;
+            }
+        }
+        return reloaded;
+    }
+
+    /**
+     * Writes the cached seat maps to the snapshot file. The high-water mark is
+     * read before the maps are copied, so a booking committed in between is
+     * replayed again rather than missed.
+     */
+    @Scheduled(fixedDelayString = "${booking.seating.snapshot.interval-ms:60000}")
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime takenAt = LocalDateTime.now();
+        long mark = bookingRepository.findMaxId();
+        List<SeatMapSnapshot.Entry> entries = seatAllocationService.copySeatMaps();
+        try {
+            SeatMapSnapshot.write(path, seatAllocationService.rows(), seatAllocationService.seatsPerRow(),
+                    mark, takenAt, entries);
+            highWaterMark.set(mark);
+            logger.debug("Wrote seat map snapshot of {} screenings up to booking {}", entries.size(), mark);
+        } catch (IOException e) {
+            logger.error("Failed to write seat map snapshot {}: {}", path, e.getMessage());
+        }
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            logger.warn("Skipping seat map snapshot on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private record Screening(long movieId, LocalDateTime screeningTime) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.SeatAlreadyBookedException;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves bookings that claim a seat so that no two active bookings ever hold the
+ * same seat of a screening, even across several service instances.
+ *
+ * Within the saving transaction, a PostgreSQL advisory lock keyed by a hash of
+ * each affected screening is taken first ({@code pg_advisory_xact_lock}), which
+ * serializes claims per screening while different screenings proceed in
+ * parallel. Seats are then checked before anything is inserted, so a lost race
+ * costs one indexed lookup rather than a failed insert. The partial unique
+ * index {@code uq_bookings_active_seat} remains the final guarantee. Before the
+ * screening locks, {@link ScreeningOverlapService#checkLocked} locks the users
+ * and checks their other bookings, so that check is decided in the same
+ * transaction as the write. schema.sql
+ * skips the index while existing bookings violate it; the seats involved are then
+ * logged at startup so they can be resolved.
+ */
+@Service
+public class SeatReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatReservationService.class);
+    private static final String CANCELLED_STATUS = "CANCELLED";
+    private static final String ACTIVE_SEAT_INDEX = "uq_bookings_active_seat";
+
+    private final BookingRepository bookingRepository;
+    private final ScreeningOverlapService screeningOverlapService;
+    private final Timer lockTimer;
+
+    public SeatReservationService(BookingRepository bookingRepository,
+                                  ScreeningOverlapService screeningOverlapService,
+                                  MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.screeningOverlapService = screeningOverlapService;
+        this.lockTimer = Timer.builder("bookings.seat_lock.wait")
+                .description("Time spent waiting for screening seat locks")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reports the seats that keep {@code uq_bookings_active_seat} from being created.
+     * Seat claims are still serialized by the advisory locks meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkActiveSeatIndex() {
+        if (bookingRepository.indexExists(ACTIVE_SEAT_INDEX)) {
+            return;
+        }
+        List<Object[]> duplicates = bookingRepository.findDuplicateActiveSeats();
+        logger.error("Unique index {} is missing; {} seats are held by several active bookings. "
+                + "Cancel all but one booking per seat and restart to create it.", ACTIVE_SEAT_INDEX, duplicates.size());
+        for (Object[] seat : duplicates) {
+            logger.error("Seat {}{} of movie {} at {} is held by bookings {}", seat[2], seat[3], seat[0], seat[1], seat[4]);
+        }
+    }
+
+    /**
+     * Saves one booking, claiming its seat if it has one.
+     *
+     * @throws SeatAlreadyBookedException if another active booking holds the seat
+     * @throws com.cinema.bookings.exception.OverlappingBookingException if it overlaps another
+     *         booking of the user and overlaps are rejected
+     */
+    @Transactional
+    public Booking reserve(Booking booking) {
+        return reserveAll(List.of(booking)).get(0);
+    }
+
+    /**
+     * Saves several bookings in one transaction; either all seats are claimed or none.
+     *
+     * @throws SeatAlreadyBookedException if any seat is held by another active booking
+     * @throws com.cinema.bookings.exception.OverlappingBookingException if any booking overlaps
+     *         another booking of its user and overlaps are rejected
+     */
+    @Transactional
+    public List<Booking> reserveAll(List<Booking> bookings) {
+        screeningOverlapService.checkLocked(bookings);
+
+        List<Booking> claims = bookings.stream()
+                .filter(SeatReservationService::claimsSeat)
+                .toList();
+
+        if (!claims.isEmpty()) {
+            // Always lock in key order, so two multi-screening claims cannot deadlock
+            long start = System.nanoTime();
+            claims.stream()
+                    .mapToLong(booking -> screeningLockKey(booking.getMovieId(), booking.getScreeningTime()))
+                    .distinct()
+                    .sorted()
+                    .forEach(bookingRepository::lockScreening);
+            lockTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            Set<String> requested = new HashSet<>();
+            for (Booking booking : claims) {
+                String seat = booking.getMovieId() + "|" + booking.getScreeningTime() + "|"
+                        + booking.getSeatRow() + "|" + booking.getSeatNumber();
+                if (!requested.add(seat) || bookingRepository.isSeatTaken(booking.getMovieId(),
+                        booking.getScreeningTime(), booking.getSeatRow(), booking.getSeatNumber(),
+                        booking.getId() != null ? booking.getId() : 0L)) {
+                    throw new SeatAlreadyBookedException(booking.getSeatRow(), booking.getSeatNumber());
+                }
+            }
+        }
+
+        try {
+            return bookingRepository.saveAllAndFlush(bookings);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause != null && cause.contains(ACTIVE_SEAT_INDEX)) {
+                throw new SeatAlreadyBookedException("One of the requested seats is already booked for this screening");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Maps a screening to a 64-bit advisory lock key. Collisions only make two
+     * screenings share a lock, never break correctness.
+     */
+    static long screeningLockKey(Long movieId, LocalDateTime screeningTime) {
+        long key = movieId * 0x9E3779B97F4A7C15L ^ screeningTime.toEpochSecond(ZoneOffset.UTC);
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static boolean claimsSeat(Booking booking) {
+        return booking.getSeatRow() != null && booking.getSeatNumber() != null
+                && !CANCELLED_STATUS.equals(booking.getStatus());
+    }
+}
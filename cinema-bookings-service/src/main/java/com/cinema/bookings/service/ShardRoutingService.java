@@ -0,0 +1,183 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.event.ShardRingChangedEvent;
+import com.cinema.bookings.sharding.ConsistentHashRing;
+import com.cinema.bookings.sharding.ShardNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Decides which bookings-service node owns a screening when sharding is on.
+ *
+ * Members are listed in a static properties file, one {@code nodeId=baseUrl}
+ * per line, identical on every node. The file is re-read when it changes, and
+ * the new {@link ConsistentHashRing} is announced with a
+ * {@link ShardRingChangedEvent} so per-screening state that moved elsewhere is
+ * dropped. A membership file that cannot be read keeps the previous ring. With
+ * sharding off, or before any membership is known, this node owns everything.
+ */
+@Service
+public class ShardRoutingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRoutingService.class);
+    private static final String MODE_REDIRECT = "redirect";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String selfId;
+    private final Path membershipPath;
+    private final boolean redirect;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+    private volatile FileTime loadedModified;
+
+    public ShardRoutingService(ApplicationEventPublisher eventPublisher,
+                               @Value("${booking.sharding.enabled:false}") boolean enabled,
+                               @Value("${booking.sharding.node-id:}") String selfId,
+                               @Value("${booking.sharding.membership-file:./shards.properties}") String membershipFile,
+                               @Value("${booking.sharding.mode:forward}") String mode,
+                               @Value("${booking.sharding.virtual-nodes:128}") int virtualNodes,
+                               MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.selfId = selfId;
+        this.membershipPath = Paths.get(membershipFile);
+        this.redirect = MODE_REDIRECT.equalsIgnoreCase(mode);
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(List.of(), virtualNodes);
+
+        Gauge.builder("bookings.sharding.nodes", this, service -> service.ring.getNodes().size())
+                .description("Nodes in the current shard membership")
+                .register(meterRegistry);
+        if (enabled) {
+            if (selfId.isBlank()) {
+                throw new IllegalStateException("booking.sharding.node-id must be set when sharding is enabled");
+            }
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if requests for non-owned screenings are redirected rather than forwarded
+     */
+    public boolean isRedirectMode() {
+        return redirect;
+    }
+
+    /**
+     * @return the node owning the screening if it is another node, or null if this node owns it
+     */
+    public ShardNode remoteOwner(Long movieId, LocalDateTime screeningTime) {
+        if (!enabled || movieId == null || screeningTime == null) {
+            return null;
+        }
+        ShardNode owner = ring.ownerOf(movieId, screeningTime);
+        return owner == null || owner.id().equals(selfId) ? null : owner;
+    }
+
+    /**
+     * The coordinator holds cluster-wide state that is not partitioned by screening,
+     * such as the waiting room queue. It is the first member in node id order, so
+     * every node with the same membership agrees on it.
+     *
+     * @return the coordinator if it is another node, or null if this node is the coordinator
+     */
+    public ShardNode remoteCoordinator() {
+        List<ShardNode> nodes = ring.getNodes();
+        if (!enabled || nodes.isEmpty()) {
+            return null;
+        }
+        ShardNode coordinator = nodes.get(0);
+        return coordinator.id().equals(selfId) ? null : coordinator;
+    }
+
+    public boolean owns(Long movieId, LocalDateTime screeningTime) {
+        return remoteOwner(movieId, screeningTime) == null;
+    }
+
+    public List<ShardNode> getNodes() {
+        return ring.getNodes();
+    }
+
+    /**
+     * Re-reads the membership file if it was modified since it was last loaded.
+     */
+    @Scheduled(fixedDelayString = "${booking.sharding.reload-interval-ms:10000}")
+    public void reloadMembership() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(membershipPath);
+            if (modified.equals(loadedModified)) {
+                return;
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot read shard membership file {}: {}", membershipPath, e.getMessage());
+            return;
+        }
+        if (load()) {
+            eventPublisher.publishEvent(new ShardRingChangedEvent(ring, selfId));
+        }
+    }
+
+    private boolean load() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(membershipPath);
+            List<ShardNode> nodes = readMembership(membershipPath);
+            if (nodes.isEmpty()) {
+                logger.warn("Shard membership file {} lists no nodes, keeping the current membership", membershipPath);
+                return false;
+            }
+            if (nodes.stream().noneMatch(node -> node.id().equals(selfId))) {
+                logger.warn("This node ({}) is not in the shard membership; it will own no screenings", selfId);
+            }
+            ring = new ConsistentHashRing(nodes, virtualNodes);
+            loadedModified = modified;
+            logger.info("Loaded shard membership of {} nodes: {}", nodes.size(),
+                    nodes.stream().map(ShardNode::id).toList());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Cannot read shard membership file {}: {}", membershipPath, e.getMessage());
+            return false;
+        }
+    }
+
+    static List<ShardNode> readMembership(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        List<ShardNode> nodes = new ArrayList<>();
+        for (String id : new TreeSet<>(properties.stringPropertyNames())) {
+            String url = properties.getProperty(id).trim();
+            if (!url.isEmpty()) {
+                nodes.add(new ShardNode(id.trim(), url.endsWith("/") ? url.substring(0, url.length() - 1) : url));
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,192 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.event.MovieTitleSyncedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user cache of upcoming confirmed tickets.
+ *
+ * Each entry holds up to {@code max-limit} tickets loaded with one covering-index
+ * query. Entries are invalidated synchronously whenever one of the user's
+ * bookings is written, and expire after a short TTL so tickets whose screening
+ * has started drop out. Entries holding a movie whose title was rewritten in bulk
+ * are dropped on {@link MovieTitleSyncedEvent}. A load that overlaps an eviction
+ * of the same user, or of any movie, is returned to its caller but not cached,
+ * since it may predate the write.
+ */
+@Component
+public class UpcomingTicketCache {
+
+    static final String CONFIRMED_STATUS = "CONFIRMED";
+
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final int maxLimit;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Eviction count per stripe of user ids, compared before and after each load
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+    // Movie evictions, which can concern any user
+    private final AtomicLong movieEvictions = new AtomicLong();
+    private final CacheStats stats;
+
+    public UpcomingTicketCache(BookingRepository bookingRepository,
+                               @Value("${booking.upcoming.max-limit:50}") int maxLimit,
+                               @Value("${booking.upcoming.cache-ttl-seconds:60}") long ttlSeconds,
+                               @Value("${booking.upcoming.cache-max-entries:100000}") int maxEntries,
+                               MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.maxLimit = maxLimit;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.stats = new CacheStats("upcoming_tickets", meterRegistry);
+    }
+
+    /**
+     * Returns the user's next confirmed tickets ordered by screening time.
+     *
+     * @param userId the user identifier
+     * @param limit  the maximum number of tickets, capped at {@code max-limit}
+     * @return the upcoming tickets
+     */
+    public List<UpcomingTicketDTO> getUpcomingTickets(Long userId, int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, maxLimit));
+        LocalDateTime now = LocalDateTime.now();
+
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.isExpired() || !entry.canServe(effectiveLimit, now)) {
+            stats.miss();
+            entry = load(userId, now);
+        } else {
+            stats.hit();
+        }
+
+        return entry.tickets.stream()
+                .filter(ticket -> !ticket.getScreeningTime().isBefore(now))
+                .limit(effectiveLimit)
+                .collect(Collectors.toList());
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            evictions.incrementAndGet(stripe(userId));
+            entries.remove(userId);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads the user's tickets unless a fresh entry is already cached, without counting a lookup.
+     */
+    public void preload(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.isExpired()) {
+            load(userId, LocalDateTime.now());
+        }
+    }
+
+    double hitRatio() {
+        return stats.hitRatio();
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        evictOwner(event.getPrevious());
+        evictOwner(event.getCurrent());
+    }
+
+    @EventListener
+    public void onMovieTitleSynced(MovieTitleSyncedEvent event) {
+        movieEvictions.incrementAndGet();
+        Long movieId = event.getMovieId();
+        entries.values().removeIf(entry -> entry.tickets.stream()
+                .anyMatch(ticket -> movieId.equals(ticket.getMovieId())));
+    }
+
+    private void evictOwner(BookingResponseDTO booking) {
+        if (booking != null) {
+            evict(booking.getUserId());
+        }
+    }
+
+    private Entry load(Long userId, LocalDateTime now) {
+        int stripe = stripe(userId);
+        long stamp = evictions.get(stripe);
+        long movieStamp = movieEvictions.get();
+        List<UpcomingTicketDTO> tickets = bookingRepository.findUpcomingTickets(
+                userId, CONFIRMED_STATUS, now, PageRequest.of(0, maxLimit));
+        Entry entry = new Entry(List.copyOf(tickets), tickets.size() >= maxLimit);
+        if (entries.size() >= maxEntries) {
+            trim();
+        }
+        // evictions bump their counter before removing, so checking under the key's lock
+        // either sees the bump or installs an entry that the removal then drops
+        entries.compute(userId, (key, current) ->
+                evictions.get(stripe) == stamp && movieEvictions.get() == movieStamp ? entry : current);
+        return entry;
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), EVICTION_STRIPES);
+    }
+
+    private void trim() {
+        entries.values().removeIf(Entry::isExpired);
+        Iterator<Long> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private final class Entry {
+        private final List<UpcomingTicketDTO> tickets;
+        private final boolean truncated;
+        private final long loadedAtNanos = System.nanoTime();
+
+        private Entry(List<UpcomingTicketDTO> tickets, boolean truncated) {
+            this.tickets = tickets;
+            this.truncated = truncated;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - loadedAtNanos > ttlNanos;
+        }
+
+        /**
+         * A truncated entry can only answer while enough of its tickets are still in the future.
+         */
+        private boolean canServe(int limit, LocalDateTime now) {
+            if (!truncated) {
+                return true;
+            }
+            long remaining = tickets.stream()
+                    .filter(ticket -> !ticket.getScreeningTime().isBefore(now))
+                    .count();
+            return remaining >= limit;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.CommitLatencyReportDTO;
+import com.cinema.bookings.dto.WaitingRoomTicketDTO;
+import com.cinema.bookings.exception.AdmissionDeniedException;
+import com.cinema.bookings.repository.WaitingRoomAdmissionRepository;
+import com.cinema.bookings.sharding.ShardNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room in front of booking creation for on-sale events.
+ *
+ * Clients join the queue and poll their ticket; both operations are served
+ * from memory. Tickets are admitted in FIFO order at a rate that adapts to the
+ * measured booking commit latency (additive increase, multiplicative decrease),
+ * so the database is kept near its peak throughput instead of being flooded.
+ * Tickets whose client stopped polling are passed over without using up an
+ * admission. Only timeouts and connection or lock failures count as overload;
+ * a booking rejected for a business or integrity reason is a normal sample.
+ * An admitted ticket receives an HMAC-signed token that is consumed exactly once
+ * by {@code POST /api/bookings/create-with-validation}.
+ *
+ * The queue lives on one node: with sharding on, {@code ShardRoutingFilter}
+ * sends every waiting room request to the coordinator (the first member of the
+ * shard membership). Tokens can be redeemed on any node, since they are verified
+ * by signature and recorded as consumed in {@code waiting_room_admissions}.
+ * Bookings are committed on the node owning the screening, so the other nodes
+ * count their commit latency samples and report them to the coordinator every
+ * {@code booking.waiting-room.report-interval-ms}, where the rate is controlled.
+ * Every node must therefore share the same {@code booking.waiting-room.secret},
+ * which signs both tokens and reports, has no default and must be set when the
+ * waiting room is enabled.
+ */
+@Service
+public class WaitingRoomService {
+
+    public static final String ADMISSION_HEADER = "X-Admission-Token";
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitingRoomService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String REPORT_PATH = "/api/bookings/waiting-room/commit-latency";
+    private static final long REPORT_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    // Tickets not admitted yet, in queue order
+    private final NavigableMap<Long, Ticket> waiting = new ConcurrentSkipListMap<>();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final WaitingRoomAdmissionRepository admissionRepository;
+    private final ShardRoutingService shardRoutingService;
+    private final RestTemplate restTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final byte[] secret;
+    private final long tokenTtlMillis;
+    private final long abandonAfterMillis;
+    private final double minRate;
+    private final double maxRate;
+    private final double rateIncrease;
+    private final double rateDecreaseFactor;
+    private final long targetLatencyNanos;
+
+    // Admission state, guarded by this
+    private long admittedThrough;
+    private double admissionRate;
+    private double permits;
+    private long lastRefillNanos;
+    private long lastDecreaseNanos;
+    // Samples not yet reported to the coordinator, guarded by this
+    private long unreportedFast;
+    private long unreportedCongested;
+
+    @Autowired
+    public WaitingRoomService(
+            WaitingRoomAdmissionRepository admissionRepository,
+            ShardRoutingService shardRoutingService,
+            RestTemplate restTemplate,
+            @Value("${booking.waiting-room.enabled:false}") boolean enabled,
+            @Value("${booking.waiting-room.secret:}") String secret,
+            @Value("${booking.waiting-room.token-ttl-seconds:120}") long tokenTtlSeconds,
+            @Value("${booking.waiting-room.abandon-after-seconds:60}") long abandonAfterSeconds,
+            @Value("${booking.waiting-room.initial-rate:50}") double initialRate,
+            @Value("${booking.waiting-room.min-rate:5}") double minRate,
+            @Value("${booking.waiting-room.max-rate:500}") double maxRate,
+            @Value("${booking.waiting-room.rate-increase:5}") double rateIncrease,
+            @Value("${booking.waiting-room.rate-decrease-factor:0.7}") double rateDecreaseFactor,
+            @Value("${booking.waiting-room.target-latency-ms:250}") long targetLatencyMillis,
+            MeterRegistry meterRegistry) {
+        this(admissionRepository, shardRoutingService, restTemplate, Clock.systemDefaultZone(), enabled, secret, tokenTtlSeconds, abandonAfterSeconds,
+                initialRate, minRate, maxRate, rateIncrease, rateDecreaseFactor, targetLatencyMillis, meterRegistry);
+    }
+
+    WaitingRoomService(
+            WaitingRoomAdmissionRepository admissionRepository,
+            ShardRoutingService shardRoutingService,
+            RestTemplate restTemplate,
+            Clock clock,
+            boolean enabled,
+            String secret,
+            long tokenTtlSeconds,
+            long abandonAfterSeconds,
+            double initialRate,
+            double minRate,
+            double maxRate,
+            double rateIncrease,
+            double rateDecreaseFactor,
+            long targetLatencyMillis,
+            MeterRegistry meterRegistry) {
+        if (enabled && (secret == null || secret.isBlank() || secret.startsWith("change-me"))) {
+            throw new IllegalStateException(
+                    "booking.waiting-room.secret must be set to a shared secret when the waiting room is enabled");
+        }
+        this.admissionRepository = admissionRepository;
+        this.shardRoutingService = shardRoutingService;
+        this.restTemplate = restTemplate;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.tokenTtlMillis = TimeUnit.SECONDS.toMillis(tokenTtlSeconds);
+        this.abandonAfterMillis = TimeUnit.SECONDS.toMillis(abandonAfterSeconds);
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.rateIncrease = rateIncrease;
+        this.rateDecreaseFactor = rateDecreaseFactor;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.admissionRate = Math.max(minRate, Math.min(maxRate, initialRate));
+        this.lastRefillNanos = nanoTime();
+        this.lastDecreaseNanos = lastRefillNanos - TimeUnit.SECONDS.toNanos(1);
+
+        Gauge.builder("bookings.waiting_room.queue_depth", this, WaitingRoomService::getQueueDepth)
+                .description("Tickets waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("bookings.waiting_room.admission_rate", this, WaitingRoomService::getAdmissionRate)
+                .description("Current admissions per second")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Places a new client at the end of the queue.
+     *
+     * @return the ticket with its initial position
+     */
+    public WaitingRoomTicketDTO join() {
+        String ticketId = UUID.randomUUID().toString();
+        Ticket ticket;
+        // Under the admission lock, so the frontier never passes a sequence whose ticket is not queued yet
+        synchronized (this) {
+            ticket = new Ticket(ticketId, tail.incrementAndGet(), clock.millis());
+            tickets.put(ticketId, ticket);
+            waiting.put(ticket.sequence, ticket);
+        }
+        return describe(ticketId, ticket);
+    }
+
+    /**
+     * Returns the current state of a ticket, issuing the admission token once
+     * the ticket's turn has come.
+     *
+     * @param ticketId the ticket identifier returned by {@link #join()}
+     * @return the ticket state
+     * @throws AdmissionDeniedException if the ticket is unknown or has expired
+     */
+    public WaitingRoomTicketDTO poll(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new AdmissionDeniedException("Unknown or expired waiting room ticket: " + ticketId);
+        }
+        ticket.lastSeenMillis = clock.millis();
+        return describe(ticketId, ticket);
+    }
+
+    /**
+     * Verifies and consumes an admission token. A no-op while the waiting room is disabled.
+     *
+     * @param token the value of the {@value #ADMISSION_HEADER} header
+     * @throws AdmissionDeniedException if the token is missing, forged, expired or already used
+     */
+    public void consumeAdmission(String token) {
+        if (!enabled) {
+            return;
+        }
+        if (token == null || token.isBlank()) {
+            throw new AdmissionDeniedException("An admission token is required to create a booking");
+        }
+
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new AdmissionDeniedException("Malformed admission token");
+        }
+
+        String ticketId = parts[0];
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new AdmissionDeniedException("Malformed admission token");
+        }
+
+        byte[] expected = sign(ticketId + "." + expiresAt).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            throw new AdmissionDeniedException("Invalid admission token signature");
+        }
+        if (clock.millis() > expiresAt) {
+            throw new AdmissionDeniedException("Admission token has expired");
+        }
+        tickets.remove(ticketId);
+        if (admissionRepository.claim(ticketId, toDateTime(expiresAt)) == 0) {
+            throw new AdmissionDeniedException("Admission token has already been used");
+        }
+    }
+
+    /**
+     * Feeds the outcome of a booking creation into the admission controller.
+     * Latency above the target, or a failure caused by overload, shrinks the
+     * admission rate multiplicatively (at most once per second); latency below
+     * it grows the rate by roughly {@code rate-increase} admissions per second.
+     * On a node other than the coordinator the sample is kept for the next report.
+     *
+     * @param latencyNanos the measured booking creation latency
+     * @param overloaded   true if the creation failed because of congestion, see {@link #isCongestion}
+     */
+    public void recordCommitLatency(long latencyNanos, boolean overloaded) {
+        boolean congested = overloaded || latencyNanos > targetLatencyNanos;
+        if (enabled && shardRoutingService.remoteCoordinator() != null) {
+            synchronized (this) {
+                if (congested) {
+                    unreportedCongested++;
+                } else {
+                    unreportedFast++;
+                }
+            }
+            return;
+        }
+        applySamples(congested ? 0 : 1, congested ? 1 : 0);
+    }
+
+    /**
+     * Applies the samples another node reported, once its signature and age are verified.
+     *
+     * @throws AdmissionDeniedException if the report is not signed with the shared secret or is too old
+     */
+    public void applyReport(CommitLatencyReportDTO report) {
+        byte[] expected = sign(reportPayload(report)).getBytes(StandardCharsets.US_ASCII);
+        String signature = report.getSignature() != null ? report.getSignature() : "";
+        if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new AdmissionDeniedException("Invalid commit latency report signature");
+        }
+        if (Math.abs(clock.millis() - report.getSentAtMillis()) > REPORT_MAX_AGE_MILLIS
+                || report.getFastSamples() < 0 || report.getCongestedSamples() < 0) {
+            throw new AdmissionDeniedException("Stale or malformed commit latency report");
+        }
+        applySamples(report.getFastSamples(), report.getCongestedSamples());
+    }
+
+    /**
+     * Sends the samples collected since the last report to the coordinator. Samples
+     * that cannot be delivered are dropped, since they describe load that has passed.
+     */
+    @Scheduled(fixedDelayString = "${booking.waiting-room.report-interval-ms:1000}")
+    public void reportCommitLatency() {
+        if (!enabled) {
+            return;
+        }
+        long fast;
+        long congested;
+        synchronized (this) {
+            fast = unreportedFast;
+            congested = unreportedCongested;
+            unreportedFast = 0;
+            unreportedCongested = 0;
+        }
+        if (fast + congested == 0) {
+            return;
+        }
+        ShardNode coordinator = shardRoutingService.remoteCoordinator();
+        if (coordinator == null) {
+            // This node became the coordinator since the samples were taken
+            applySamples(fast, congested);
+            return;
+        }
+        CommitLatencyReportDTO report = new CommitLatencyReportDTO(fast, congested, clock.millis(), null);
+        report.setSignature(sign(reportPayload(report)));
+        try {
+            restTemplate.postForEntity(coordinator.url() + REPORT_PATH, report, Void.class);
+        } catch (RestClientException e) {
+            logger.warn("Could not report commit latency to coordinator {}: {}", coordinator.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the failure means the database or a downstream service is saturated:
+     *         a timeout, a connection failure or a lock that could not be acquired
+     */
+    public static boolean isCongestion(Throwable failure) {
+        return failure instanceof QueryTimeoutException
+                || failure instanceof PessimisticLockingFailureException
+                || failure instanceof TransientDataAccessResourceException
+                || failure instanceof DataAccessResourceFailureException
+                || failure instanceof CannotCreateTransactionException
+                || failure instanceof ResourceAccessException;
+    }
+
+    public synchronized double getAdmissionRate() {
+        return admissionRate;
+    }
+
+    public long getQueueDepth() {
+        return waiting.size();
+    }
+
+    /**
+     * Drops tickets whose admission token has expired or whose client stopped polling,
+     * and the consumed admissions of expired tokens.
+     */
+    @Scheduled(fixedDelayString = "${booking.waiting-room.purge-interval-ms:10000}")
+    public void purgeExpiredTickets() {
+        long now = clock.millis();
+        int purged = 0;
+        for (Iterator<Ticket> iterator = tickets.values().iterator(); iterator.hasNext(); ) {
+            Ticket ticket = iterator.next();
+            if (isStale(ticket, now)) {
+                iterator.remove();
+                waiting.remove(ticket.sequence);
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            logger.debug("Purged {} stale waiting room tickets", purged);
+        }
+        if (enabled) {
+            admissionRepository.deleteExpiredBefore(toDateTime(now));
+        }
+    }
+
+    private boolean isStale(Ticket ticket, long now) {
+        if (ticket.admittedAtMillis > 0) {
+            return now > ticket.admittedAtMillis + tokenTtlMillis;
+        }
+        return now > ticket.lastSeenMillis + abandonAfterMillis;
+    }
+
+    private WaitingRoomTicketDTO describe(String ticketId, Ticket ticket) {
+        long admitted = advanceAdmissions();
+        if (ticket.sequence > admitted) {
+            long ahead = ticket.sequence - admitted;
+            double rate = getAdmissionRate();
+            long retryAfter = Math.max(250L, Math.min(5000L, (long) (ahead / rate * 1000)));
+            return new WaitingRoomTicketDTO(ticketId, ahead, false, null, retryAfter);
+        }
+
+        if (ticket.admittedAtMillis == 0) {
+            ticket.admittedAtMillis = clock.millis();
+        }
+        long expiresAt = ticket.admittedAtMillis + tokenTtlMillis;
+        String payload = ticketId + "." + expiresAt;
+        return new WaitingRoomTicketDTO(ticketId, 0, true, payload + "." + sign(payload), 0);
+    }
+
+    /**
+     * Refills the admission token bucket for the elapsed time and moves the
+     * admission frontier forward, one permit per admitted ticket. Abandoned
+     * tickets on the way are dropped without using a permit; purged ones are
+     * no longer queued.
+     */
+    private synchronized long advanceAdmissions() {
+        long now = nanoTime();
+        double elapsedSeconds = Math.max(0, now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        permits = Math.min(admissionRate, permits + elapsedSeconds * admissionRate);
+
+        long nowMillis = clock.millis();
+        for (Iterator<Ticket> iterator = waiting.values().iterator(); iterator.hasNext(); ) {
+            Ticket ticket = iterator.next();
+            if (isStale(ticket, nowMillis)) {
+                iterator.remove();
+                tickets.remove(ticket.id);
+            } else if (permits >= 1) {
+                iterator.remove();
+                permits -= 1;
+            } else {
+                break;
+            }
+            admittedThrough = ticket.sequence;
+        }
+        return admittedThrough;
+    }
+
+    private synchronized void applySamples(long fast, long congested) {
+        if (congested > 0) {
+            long now = nanoTime();
+            if (now - lastDecreaseNanos >= TimeUnit.SECONDS.toNanos(1)) {
+                admissionRate = Math.max(minRate, admissionRate * rateDecreaseFactor);
+                lastDecreaseNanos = now;
+            }
+        }
+        for (long i = 0; i < fast && admissionRate < maxRate; i++) {
+            admissionRate = Math.min(maxRate, admissionRate + rateIncrease / Math.max(1.0, admissionRate));
+        }
+    }
+
+    private static String reportPayload(CommitLatencyReportDTO report) {
+        return "latency." + report.getFastSamples() + "." + report.getCongestedSamples() + "."
+                + report.getSentAtMillis();
+    }
+
+    private long nanoTime() {
+        Instant now = clock.instant();
+        return TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign admission token", e);
+        }
+    }
+
+    private static final class Ticket {
+        private final String id;
+        private final long sequence;
+        private volatile long lastSeenMillis;
+        private volatile long admittedAtMillis;
+
+        private Ticket(String id, long sequence, long joinedAtMillis) {
+            this.id = id;
+            this.sequence = sequence;
+            this.lastSeenMillis = joinedAtMillis;
+        }
+    }
+}
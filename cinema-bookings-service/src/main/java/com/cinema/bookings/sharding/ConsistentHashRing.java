@@ -0,0 +1,87 @@
+package com.cinema.bookings.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring assigning screenings to nodes.
+ *
+ * Every node is placed on a 64-bit ring at {@code virtualNodes} pseudo-random
+ * points derived from its id; a screening belongs to the first point at or
+ * after the hash of its {@code (movieId, screeningTime)}. Adding or removing a
+ * node therefore moves only the screenings in the ranges next to that node's
+ * points, about {@code 1/n} of all screenings, and every node computes the same
+ * owner from the same membership.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, ShardNode> points = new TreeMap<>();
+    private final List<ShardNode> nodes;
+
+    public ConsistentHashRing(Collection<ShardNode> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (ShardNode node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(node.id() + "#" + i), node);
+            }
+        }
+    }
+
+    public List<ShardNode> getNodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * @return the owning node, or null if the ring has no nodes
+     */
+    public ShardNode ownerOf(Long movieId, LocalDateTime screeningTime) {
+        return ownerOf(keyOf(movieId, screeningTime));
+    }
+
+    ShardNode ownerOf(long key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, ShardNode> point = points.ceilingEntry(key);
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    static long keyOf(Long movieId, LocalDateTime screeningTime) {
+        return mix(movieId * 0x9E3779B97F4A7C15L ^ screeningTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with a mixing step so that
+     * similar ids such as {@code node-1#1} and {@code node-1#2} spread evenly.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
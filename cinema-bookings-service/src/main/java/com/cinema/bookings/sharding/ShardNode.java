@@ -0,0 +1,10 @@
+package com.cinema.bookings.sharding;
+
+/**
+ * A bookings-service instance taking part in sharding.
+ *
+ * @param id  stable node name from the membership file
+ * @param url base URL other nodes use to reach it, e.g. {@code http://bookings-2:8083}
+ */
+public record ShardNode(String id, String url) {
+}
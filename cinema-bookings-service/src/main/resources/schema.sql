@@ -0,0 +1,91 @@
+-- Indexes that JPA annotations cannot express. Runs after Hibernate has
+-- created/updated the tables (spring.jpa.defer-datasource-initialization=true),
+-- so every statement must be idempotent.
+--
+-- Every index on bookings is paid for by each insert and by each update that
+-- changes an indexed column (such an update is never HOT), so each one below
+-- names the queries that need it. updated_at is deliberately not indexed: it
+-- changes on every entity update.
+
+-- Superseded: idx_bookings_movie_id was a prefix of idx_bookings_movie_screening, and
+-- idx_bookings_updated_at kept every update from being HOT
+DROP INDEX IF EXISTS idx_bookings_movie_id;
+DROP INDEX IF EXISTS idx_bookings_updated_at;
+
+-- Upcoming tickets: index-only scan for GET /api/bookings/user/{userId}/upcoming.
+-- Also serves the per-user overlap check (user_id, status IN, screening_time >=),
+-- bookings by user, and the chunked user email sync (user_id prefix).
+CREATE INDEX IF NOT EXISTS idx_bookings_user_status_screening
+    ON bookings (user_id, status, screening_time)
+    INCLUDE (id, movie_id, movie_title, seat_row, seat_number);
+
+-- One screening's bookings: screening cancellation keyset pages in id order, seat
+-- allocation and check-in loads, the seat check of reservations, and (movie_id prefix)
+-- the chunked movie title sync
+CREATE INDEX IF NOT EXISTS idx_bookings_movie_screening
+    ON bookings (movie_id, screening_time, id);
+
+-- Seat claims: at most one active booking per seat and screening, across all instances.
+-- Created only if no seat is already held by two active bookings, so existing duplicates
+-- cannot fail startup; SeatReservationService then logs them, and the index is created on
+-- the first startup after they have been cancelled. Single-quoted body as for the trigger below.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_indexes WHERE tablename = ''bookings'' AND indexname = ''uq_bookings_active_seat'') THEN
+        RETURN;
+    END IF;
+    IF EXISTS (SELECT 1 FROM bookings
+               WHERE status <> ''CANCELLED'' AND seat_row IS NOT NULL AND seat_number IS NOT NULL
+               GROUP BY movie_id, screening_time, seat_row, seat_number
+               HAVING count(*) > 1) THEN
+        RAISE WARNING ''uq_bookings_active_seat not created: some seats are held by several active bookings'';
+        RETURN;
+    END IF;
+    CREATE UNIQUE INDEX uq_bookings_active_seat
+        ON bookings (movie_id, screening_time, seat_row, seat_number)
+        WHERE status <> ''CANCELLED'' AND seat_row IS NOT NULL AND seat_number IS NOT NULL;
+END';
+
+-- Booking search: keyset order (screening_time, id). Also bounds the screening time
+-- ranges of seat map snapshot replay, title reconcile, warm-up and the archive
+CREATE INDEX IF NOT EXISTS idx_bookings_screening_id
+    ON bookings (screening_time, id);
+
+-- Booking search narrowed by status, and the check-in preload of one status in a
+-- screening time window
+CREATE INDEX IF NOT EXISTS idx_bookings_status_screening
+    ON bookings (status, screening_time, id);
+
+-- Booking search: case-insensitive email prefix, lower(user_email) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_bookings_user_email_prefix
+    ON bookings (lower(user_email) text_pattern_ops);
+
+-- Lifecycle processor: claims past bookings that are still active, oldest screening first.
+-- Partial, so it only holds bookings not yet closed as COMPLETED or NO_SHOW.
+CREATE INDEX IF NOT EXISTS idx_bookings_active_screening
+    ON bookings (screening_time, id)
+    WHERE status IN ('PENDING', 'CONFIRMED');
+
+-- Change feed: every insert, update and delete of a booking is recorded in booking_changes
+-- in the same transaction, whichever code path wrote it. change_seq is assigned after commit
+-- by BookingChangeFeedService. The function body is a single-quoted literal rather than
+-- dollar-quoted so that the script splitter keeps it in one statement.
+CREATE OR REPLACE FUNCTION bookings_record_change() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    INSERT INTO booking_changes (booking_id, operation, changed_at)
+    VALUES (CASE WHEN TG_OP = ''DELETE'' THEN OLD.id ELSE NEW.id END, TG_OP, clock_timestamp());
+    RETURN NULL;
+END';
+
+CREATE OR REPLACE TRIGGER bookings_record_change
+    AFTER INSERT OR UPDATE OR DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION bookings_record_change();
+
+-- Change feed: reads after a cursor, and at most one change per number
+CREATE UNIQUE INDEX IF NOT EXISTS uq_booking_changes_seq
+    ON booking_changes (change_seq);
+
+-- Change feed: the sequencer's queue of committed changes not yet numbered
+CREATE INDEX IF NOT EXISTS idx_booking_changes_pending
+    ON booking_changes (id)
+    WHERE change_seq IS NULL;
@@ -0,0 +1,125 @@
+package com.cinema.bookings.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingColumnStoreTest {
+
+    private static final List<Byte> ACTIVE = List.of(BookingColumnStore.PENDING, BookingColumnStore.CONFIRMED);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final BookingColumnStore store = new BookingColumnStore();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testAggregate_GroupsByHourOfDay() {
+        store.upsert(1, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED);
+        store.upsert(2, 10, epoch(2030, 5, 2, 18), 60.0, BookingColumnStore.PENDING);
+        store.upsert(3, 11, epoch(2030, 5, 1, 21), 40.0, BookingColumnStore.CONFIRMED);
+        store.upsert(4, 11, epoch(2030, 5, 1, 21), 40.0, BookingColumnStore.CANCELLED);
+
+        Map<Long, GroupTotals.Group> groups = groups(store.aggregate(all(null), GroupBy.HOUR_OF_DAY, pool));
+
+        assertThat(groups).containsOnlyKeys(18L, 21L);
+        assertThat(groups.get(18L).bookings()).isEqualTo(2);
+        assertThat(groups.get(18L).revenue()).isEqualTo(110.0);
+        assertThat(groups.get(21L).bookings()).isEqualTo(1);
+    }
+
+    @Test
+    void testAggregate_FiltersByMovieAndTimeRange() {
+        store.upsert(1, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED);
+        store.upsert(2, 11, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED);
+        store.upsert(3, 10, epoch(2030, 6, 1, 18), 50.0, BookingColumnStore.CONFIRMED);
+
+        ScanFilter filter = ScanFilter.of(epoch(2030, 5, 1, 0), epoch(2030, 6, 1, 0), ACTIVE, List.of(10L));
+        GroupTotals totals = store.aggregate(filter, GroupBy.MOVIE, pool);
+
+        assertThat(totals.getRowsMatched()).isEqualTo(1);
+        assertThat(groups(totals)).containsOnlyKeys(10L);
+    }
+
+    @Test
+    void testAggregate_DayOfWeekStartsOnMonday() {
+        // 2030-05-06 is a Monday
+        store.upsert(1, 10, epoch(2030, 5, 6, 20), 10.0, BookingColumnStore.CONFIRMED);
+
+        Map<Long, GroupTotals.Group> groups = groups(store.aggregate(all(null), GroupBy.DAY_OF_WEEK, pool));
+
+        assertThat(groups).containsOnlyKeys(0L);
+        assertThat(GroupBy.DAY_OF_WEEK.label(0)).isEqualTo("MONDAY");
+    }
+
+    @Test
+    void testUpsertAndDelete_ChangeExistingRows() {
+        store.upsert(1, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.PENDING);
+        store.upsert(1, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CANCELLED);
+        store.upsert(2, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED);
+        store.delete(2);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.aggregate(all(null), GroupBy.STATUS, pool).getRowsMatched()).isZero();
+    }
+
+    @Test
+    void testInsertIfAbsent_KeepsNewerRow() {
+        store.upsert(1, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CANCELLED);
+        store.delete(2);
+
+        assertThat(store.insertIfAbsent(1, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED)).isFalse();
+        assertThat(store.insertIfAbsent(2, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED)).isFalse();
+        assertThat(store.insertIfAbsent(3, 10, epoch(2030, 5, 1, 18), 50.0, BookingColumnStore.CONFIRMED)).isTrue();
+        assertThat(store.aggregate(all(null), GroupBy.STATUS, pool).getRowsMatched()).isEqualTo(1);
+    }
+
+    @Test
+    void testAggregate_ParallelScanAcrossSegmentsMatchesSequentialCount() {
+        int rows = BookingColumnStore.SEGMENT_SIZE * 3 + 123;
+        long expectedEvening = 0;
+        double expectedRevenue = 0;
+        for (int id = 1; id <= rows; id++) {
+            int hour = id % 24;
+            byte status = id % 5 == 0 ? BookingColumnStore.CANCELLED : BookingColumnStore.CONFIRMED;
+            double price = id % 7;
+            store.insertIfAbsent(id, id % 100, epoch(2030, 5, 1, hour), price, status);
+            if (hour == 20 && status == BookingColumnStore.CONFIRMED) {
+                expectedEvening++;
+                expectedRevenue += price;
+            }
+        }
+
+        Map<Long, GroupTotals.Group> groups = groups(store.aggregate(all(null), GroupBy.HOUR_OF_DAY, pool));
+
+        assertThat(groups).hasSize(24);
+        assertThat(groups.get(20L).bookings()).isEqualTo(expectedEvening);
+        assertThat(groups.get(20L).revenue()).isEqualTo(expectedRevenue);
+        assertThat(store.offHeapBytes()).isEqualTo(4L * BookingColumnStore.SEGMENT_SIZE * 25);
+    }
+
+    private static ScanFilter all(List<Long> movieIds) {
+        return ScanFilter.of(Long.MIN_VALUE, Long.MAX_VALUE, ACTIVE, movieIds);
+    }
+
+    private static Map<Long, GroupTotals.Group> groups(GroupTotals totals) {
+        Map<Long, GroupTotals.Group> groups = new HashMap<>();
+        totals.forEach(group -> groups.put(group.key(), group));
+        return groups;
+    }
+
+    private static long epoch(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+}
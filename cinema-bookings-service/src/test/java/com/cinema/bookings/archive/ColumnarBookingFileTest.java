@@ -0,0 +1,96 @@
+package com.cinema.bookings.archive;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarBookingFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BookingResponseDTO booking(long id, long userId, long movieId, LocalDateTime screening, String status) {
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setId(id);
+        booking.setUserId(userId);
+        booking.setMovieId(movieId);
+        booking.setMovieTitle("Movie " + movieId);
+        booking.setUserEmail("user" + userId + "@example.com");
+        booking.setScreeningTime(screening);
+        booking.setSeatNumber(id % 2 == 0 ? null : (int) id);
+        booking.setSeatRow("A");
+        booking.setPrice(id % 2 == 0 ? null : 12.5);
+        booking.setStatus(status);
+        booking.setCreatedAt(screening.minusDays(3));
+        return booking;
+    }
+
+    private List<BookingResponseDTO> sampleRows() {
+        LocalDateTime base = LocalDateTime.of(2023, 3, 1, 20, 0, 0, 123_456_000);
+        return Arrays.asList(
+                booking(3, 10, 100, base.plusDays(2), "CONFIRMED"),
+                booking(1, 10, 100, base, "CONFIRMED"),
+                booking(2, 11, 200, base.plusDays(1), "CANCELLED"),
+                booking(4, 12, 100, base.plusDays(5), "PENDING"));
+    }
+
+    @Test
+    void testWriteAndReadAll_RoundTrip() throws IOException {
+        Path file = tempDir.resolve("bookings-2023-03.cba");
+        List<BookingResponseDTO> rows = sampleRows();
+
+        ColumnarBookingFile.write(file, rows);
+        List<BookingResponseDTO> result = ColumnarBookingFile.readAll(file);
+
+        assertThat(result).extracting(BookingResponseDTO::getId).containsExactly(1L, 2L, 3L, 4L);
+        BookingResponseDTO first = result.get(0);
+        assertThat(first).isEqualTo(rows.get(1));
+        assertThat(result.get(1).getSeatNumber()).isNull();
+        assertThat(result.get(1).getPrice()).isNull();
+        assertThat(result.get(1).getUpdatedAt()).isNull();
+    }
+
+    @Test
+    void testScan_PushesDownPredicates() throws IOException {
+        Path file = tempDir.resolve("bookings-2023-03.cba");
+        ColumnarBookingFile.write(file, sampleRows());
+
+        List<BookingResponseDTO> byMovieAndStatus = ColumnarBookingFile.scan(file,
+                new ArchiveQuery(null, null, 100L, null, "CONFIRMED"));
+        List<BookingResponseDTO> byTime = ColumnarBookingFile.scan(file,
+                new ArchiveQuery(LocalDateTime.of(2023, 3, 2, 0, 0), LocalDateTime.of(2023, 3, 4, 0, 0),
+                        null, null, null));
+
+        assertThat(byMovieAndStatus).extracting(BookingResponseDTO::getId).containsExactly(1L, 3L);
+        assertThat(byTime).extracting(BookingResponseDTO::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void testScan_SkipsFileOutsideZoneMapOrDictionary() throws IOException {
+        Path file = tempDir.resolve("bookings-2023-03.cba");
+        ColumnarBookingFile.write(file, sampleRows());
+
+        assertThat(ColumnarBookingFile.scan(file, new ArchiveQuery(null, null, 999L, null, null))).isEmpty();
+        assertThat(ColumnarBookingFile.scan(file, new ArchiveQuery(null, null, null, null, "REFUNDED"))).isEmpty();
+        assertThat(ColumnarBookingFile.scan(file,
+                new ArchiveQuery(LocalDateTime.of(2024, 1, 1, 0, 0), null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void testScan_RejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("garbage.cba");
+        Files.write(file, new byte[512]);
+
+        assertThatThrownBy(() -> ColumnarBookingFile.readAll(file)).isInstanceOf(IOException.class);
+    }
+}
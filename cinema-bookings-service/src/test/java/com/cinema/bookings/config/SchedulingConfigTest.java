@@ -0,0 +1,51 @@
+package com.cinema.bookings.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withUserConfiguration(SchedulingConfig.class)
+            .withBean(Jobs.class)
+            .withPropertyValues("spring.task.scheduling.pool.size=3",
+                    "spring.task.scheduling.thread-name-prefix=shared-");
+
+    @Test
+    void testLongJobsRunOnDedicatedThreadsAndShortJobsOnSharedPool() {
+        contextRunner.run(context -> {
+            Jobs jobs = context.getBean(Jobs.class);
+
+            assertThat(jobs.shortJob.get(5, TimeUnit.SECONDS)).startsWith("shared-");
+            assertThat(jobs.archiveJob.get(5, TimeUnit.SECONDS)).startsWith("booking-archive-");
+            assertThat(context.getBean("taskScheduler", ThreadPoolTaskScheduler.class)
+                    .getScheduledThreadPoolExecutor().getCorePoolSize()).isEqualTo(3);
+        });
+    }
+
+    static class Jobs {
+
+        private final CompletableFuture<String> shortJob = new CompletableFuture<>();
+        private final CompletableFuture<String> archiveJob = new CompletableFuture<>();
+
+        @Scheduled(fixedDelay = 60000)
+        public void shortJob() {
+            shortJob.complete(Thread.currentThread().getName());
+        }
+
+        @Scheduled(fixedDelay = 60000, scheduler = SchedulingConfig.ARCHIVE_SCHEDULER)
+        public void archiveJob() {
+            archiveJob.complete(Thread.currentThread().getName());
+        }
+    }
+}
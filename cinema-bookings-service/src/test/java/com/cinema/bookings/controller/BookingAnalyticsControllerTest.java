@@ -0,0 +1,63 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.analytics.GroupBy;
+import com.cinema.bookings.dto.OccupancyBucketDTO;
+import com.cinema.bookings.dto.OccupancyReportDTO;
+import com.cinema.bookings.service.BookingAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingAnalyticsController.class)
+class BookingAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingAnalyticsService bookingAnalyticsService;
+
+    @Test
+    void testOccupancy() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(bookingAnalyticsService.occupancy(eq(GroupBy.DAY_OF_WEEK), eq(from), isNull(), isNull(),
+                eq("Drama"), eq(List.of("CONFIRMED"))))
+                .thenReturn(new OccupancyReportDTO("DAY_OF_WEEK", 1000, 10, 0.4, true,
+                        List.of(new OccupancyBucketDTO("FRIDAY", 10, 500.0))));
+
+        mockMvc.perform(get("/api/bookings/analytics/occupancy")
+                        .param("groupBy", "day_of_week")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("genre", "Drama")
+                        .param("status", "CONFIRMED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsMatched").value(10))
+                .andExpect(jsonPath("$.buckets[0].key").value("FRIDAY"))
+                .andExpect(jsonPath("$.buckets[0].bookings").value(10));
+    }
+
+    @Test
+    void testOccupancy_UnknownGroupByIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/bookings/analytics/occupancy")
+                        .param("groupBy", "weekday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(bookingAnalyticsService, never()).occupancy(any(), any(), any(), any(), any(), any());
+    }
+}
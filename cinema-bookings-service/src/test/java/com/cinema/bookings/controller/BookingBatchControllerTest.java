@@ -0,0 +1,85 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingBatchResultDTO;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.exception.BatchLimitExceededException;
+import com.cinema.bookings.service.BookingBatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingBatchController.class)
+class BookingBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingBatchService bookingBatchService;
+
+    @Test
+    void testGetBookings() throws Exception {
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setId(3L);
+        when(bookingBatchService.getBookings(List.of(3L, 9L)))
+                .thenReturn(new BookingBatchResultDTO(List.of(booking), List.of(9L)));
+
+        mockMvc.perform(get("/api/bookings/batch").param("ids", "3,9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].id").value(3))
+                .andExpect(jsonPath("$.missingIds[0]").value(9));
+    }
+
+    @Test
+    void testPostBookings() throws Exception {
+        when(bookingBatchService.getBookings(List.of(1L, 2L)))
+                .thenReturn(new BookingBatchResultDTO(List.of(), List.of(1L, 2L)));
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missingIds.length()").value(2));
+    }
+
+    @Test
+    void testStreamBookings() throws Exception {
+        when(bookingBatchService.streamBookings(List.of(5L)))
+                .thenReturn(out -> out.write("{\"id\":5,\"booking\":null}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/api/bookings/batch").param("ids", "5").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":5,\"booking\":null}\n"));
+    }
+
+    @Test
+    void testGetBookings_OverCap() throws Exception {
+        when(bookingBatchService.getBookings(List.of(1L, 2L)))
+                .thenThrow(new BatchLimitExceededException(2, 1));
+
+        mockMvc.perform(get("/api/bookings/batch").param("ids", "1,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+}
@@ -0,0 +1,89 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingChangeDTO;
+import com.cinema.bookings.dto.BookingChangeFeedDTO;
+import com.cinema.bookings.exception.ChangeFeedExpiredException;
+import com.cinema.bookings.service.BookingChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingChangeFeedController.class)
+class BookingChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingChangeFeedService bookingChangeFeedService;
+
+    @Test
+    void testGetChanges() throws Exception {
+        BookingChangeDTO tombstone = new BookingChangeDTO(42L, 7L, "DELETED", LocalDateTime.of(2030, 1, 1, 10, 0), null);
+        when(bookingChangeFeedService.getChanges(41L, 50, 20000L))
+                .thenReturn(CompletableFuture.completedFuture(new BookingChangeFeedDTO(List.of(tombstone), 42L, false)));
+
+        MvcResult result = mockMvc.perform(get("/api/bookings/changes")
+                        .param("since", "41")
+                        .param("limit", "50")
+                        .param("waitMs", "20000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].seq").value(42))
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[0].booking").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(42))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testGetChanges_AnswersWhenChangesArrive() throws Exception {
+        CompletableFuture<BookingChangeFeedDTO> feed = new CompletableFuture<>();
+        when(bookingChangeFeedService.getChanges(41L, 100, 20000L)).thenReturn(feed);
+
+        MvcResult result = mockMvc.perform(get("/api/bookings/changes")
+                        .param("since", "41")
+                        .param("waitMs", "20000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        feed.complete(new BookingChangeFeedDTO(List.of(), 41L, false));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value(41));
+    }
+
+    @Test
+    void testGetChanges_ExpiredCursor() throws Exception {
+        when(bookingChangeFeedService.getChanges(3L, 100, 0L)).thenThrow(new ChangeFeedExpiredException(3L, 500L));
+
+        mockMvc.perform(get("/api/bookings/changes").param("since", "3"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void testGetHead() throws Exception {
+        when(bookingChangeFeedService.getHead()).thenReturn(new BookingChangeFeedDTO(List.of(), 900L, false));
+
+        mockMvc.perform(get("/api/bookings/changes/head"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value(900));
+    }
+}
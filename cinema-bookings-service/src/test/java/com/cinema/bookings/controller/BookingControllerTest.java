@@ -2,14 +2,21 @@ package com.cinema.bookings.controller;
 
 import com.cinema.bookings.dto.BookingRequestDTO;
 import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
+import com.cinema.bookings.exception.AdmissionDeniedException;
 import com.cinema.bookings.exception.BookingNotFoundException;
+import com.cinema.bookings.exception.BookingThrottledException;
 import com.cinema.bookings.service.BookingService;
+import com.cinema.bookings.service.ScalperDetectionService;
+import com.cinema.bookings.service.WaitingRoomService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -20,7 +27,10 @@ import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +48,12 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private WaitingRoomService waitingRoomService;
+
+    @MockBean
+    private ScalperDetectionService scalperDetectionService;
+
     private BookingRequestDTO requestDTO;
     private BookingResponseDTO responseDTO;
 
@@ -145,6 +161,17 @@ class BookingControllerTest {
         verify(bookingService).getAllBookings();
     }
 
+    @Test
+    void testGetBookingCountsByMovie_Success() throws Exception {
+        when(bookingService.getBookingCountsByMovie()).thenReturn(Map.of(1L, 3L));
+
+        mockMvc.perform(get("/api/bookings/counts-by-movie"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['1']").value(3));
+
+        verify(bookingService, never()).getAllBookings();
+    }
+
     @Test
     void testGetBookingsByUserId_Success() throws Exception {
         List<BookingResponseDTO> bookings = Arrays.asList(responseDTO);
@@ -157,6 +184,21 @@ class BookingControllerTest {
         verify(bookingService).getBookingsByUserId(1L);
     }
 
+    @Test
+    void testGetUpcomingTickets_Success() throws Exception {
+        UpcomingTicketDTO ticket = new UpcomingTicketDTO(1L, 1L, "Test Movie",
+                LocalDateTime.now().plusDays(1), "A", 5);
+        when(bookingService.getUpcomingTickets(1L, 3)).thenReturn(List.of(ticket));
+
+        mockMvc.perform(get("/api/bookings/user/1/upcoming").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].bookingId").value(1L))
+                .andExpect(jsonPath("$[0].seatRow").value("A"));
+
+        verify(bookingService).getUpcomingTickets(1L, 3);
+    }
+
     @Test
     void testFilterBookingsByStatus_Success() throws Exception {
         List<BookingResponseDTO> bookings = Arrays.asList(responseDTO);
@@ -197,6 +239,60 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.userEmail").value("test@example.com"));
 
         verify(bookingService).createBookingWithValidation(any(BookingRequestDTO.class));
+        verify(waitingRoomService).recordCommitLatency(anyLong(), eq(false));
+    }
+
+    @Test
+    void testCreateBookingWithValidation_DatabaseFailureCountsAsOverload() throws Exception {
+        when(bookingService.createBookingWithValidation(any(BookingRequestDTO.class)))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        mockMvc.perform(post("/api/bookings/create-with-validation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isInternalServerError());
+
+        verify(waitingRoomService).recordCommitLatency(anyLong(), eq(true));
+    }
+
+    @Test
+    void testCreateBookingWithValidation_IntegrityFailureIsNotOverload() throws Exception {
+        when(bookingService.createBookingWithValidation(any(BookingRequestDTO.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        mockMvc.perform(post("/api/bookings/create-with-validation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)));
+
+        verify(waitingRoomService).recordCommitLatency(anyLong(), eq(false));
+    }
+
+    @Test
+    void testCreateBookingWithValidation_AdmissionDenied() throws Exception {
+        doThrow(new AdmissionDeniedException("An admission token is required to create a booking"))
+                .when(waitingRoomService).consumeAdmission(null);
+
+        mockMvc.perform(post("/api/bookings/create-with-validation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isForbidden());
+
+        verify(bookingService, never()).createBookingWithValidation(any(BookingRequestDTO.class));
+    }
+
+    @Test
+    void testCreateBookingWithValidation_Throttled() throws Exception {
+        doThrow(new BookingThrottledException("Too many booking attempts, please try again later"))
+                .when(scalperDetectionService).recordAttempt(any(BookingRequestDTO.class));
+
+        mockMvc.perform(post("/api/bookings/create-with-validation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.status").value(429));
+
+        verify(waitingRoomService, never()).consumeAdmission(any());
+        verify(bookingService, never()).createBookingWithValidation(any(BookingRequestDTO.class));
     }
 
     @Test
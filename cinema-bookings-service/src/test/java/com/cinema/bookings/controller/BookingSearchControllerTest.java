@@ -0,0 +1,64 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.BookingSearchCriteria;
+import com.cinema.bookings.dto.BookingSearchResultDTO;
+import com.cinema.bookings.exception.InvalidCursorException;
+import com.cinema.bookings.service.BookingSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingSearchController.class)
+class BookingSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingSearchService bookingSearchService;
+
+    @Test
+    void testSearch() throws Exception {
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setId(7L);
+        when(bookingSearchService.search(argThat((BookingSearchCriteria criteria) ->
+                        "jo".equals(criteria.getUserEmailPrefix())
+                                && LocalDateTime.of(2030, 1, 1, 0, 0).equals(criteria.getFrom())
+                                && "CONFIRMED".equals(criteria.getStatus())),
+                isNull(), eq(10)))
+                .thenReturn(new BookingSearchResultDTO(List.of(booking), "abc", 120));
+
+        mockMvc.perform(get("/api/bookings/search")
+                        .param("email", "jo")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("status", "CONFIRMED")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                .andExpect(jsonPath("$.estimatedTotal").value(120));
+    }
+
+    @Test
+    void testSearch_InvalidCursor() throws Exception {
+        when(bookingSearchService.search(argThat(criteria -> true), eq("bad"), eq(20)))
+                .thenThrow(new InvalidCursorException("bad"));
+
+        mockMvc.perform(get("/api/bookings/search").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,117 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.CheckInRequestDTO;
+import com.cinema.bookings.dto.CheckInResultDTO;
+import com.cinema.bookings.exception.CheckInUnavailableException;
+import com.cinema.bookings.service.CheckInService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CheckInController.class)
+class CheckInControllerTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CheckInService checkInService;
+
+    @Test
+    void testCheckIn_Admitted() throws Exception {
+        when(checkInService.checkIn(any(CheckInRequestDTO.class)))
+                .thenReturn(new CheckInResultDTO(1L, CheckInResultDTO.ADMITTED, SCREENING.minusMinutes(5)));
+
+        mockMvc.perform(post("/api/bookings/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CheckInRequestDTO(1L, 1L, SCREENING, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("ADMITTED"));
+    }
+
+    @Test
+    void testCheckIn_Duplicate() throws Exception {
+        when(checkInService.checkIn(any(CheckInRequestDTO.class)))
+                .thenReturn(new CheckInResultDTO(1L, CheckInResultDTO.DUPLICATE, SCREENING.minusMinutes(5)));
+
+        mockMvc.perform(post("/api/bookings/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CheckInRequestDTO(1L, 1L, SCREENING, null))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testCheckIn_Invalid() throws Exception {
+        when(checkInService.checkIn(any(CheckInRequestDTO.class)))
+                .thenReturn(new CheckInResultDTO(1L, CheckInResultDTO.INVALID, null));
+
+        mockMvc.perform(post("/api/bookings/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CheckInRequestDTO(1L, 1L, SCREENING, null))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCheckIn_WriteFailureIsServiceUnavailable() throws Exception {
+        when(checkInService.checkIn(any(CheckInRequestDTO.class))).thenThrow(new CheckInUnavailableException());
+
+        mockMvc.perform(post("/api/bookings/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CheckInRequestDTO(1L, 1L, SCREENING, null))))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testCheckIn_MissingScreeningRejected() throws Exception {
+        mockMvc.perform(post("/api/bookings/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingId\": 1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCheckInBatch() throws Exception {
+        when(checkInService.checkInAll(anyList())).thenReturn(List.of(
+                new CheckInResultDTO(1L, CheckInResultDTO.ADMITTED, SCREENING.minusMinutes(5)),
+                new CheckInResultDTO(2L, CheckInResultDTO.INVALID, null)));
+
+        mockMvc.perform(post("/api/bookings/check-in/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new CheckInRequestDTO(1L, 1L, SCREENING, SCREENING.minusMinutes(5)),
+                                new CheckInRequestDTO(2L, 1L, SCREENING, SCREENING.minusMinutes(4))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].result").value("INVALID"));
+    }
+
+    @Test
+    void testCheckInBatch_NullEntryIsPassedOnAsInvalidScan() throws Exception {
+        when(checkInService.checkInAll(anyList())).thenReturn(List.of(
+                new CheckInResultDTO(null, CheckInResultDTO.INVALID, null)));
+
+        mockMvc.perform(post("/api/bookings/check-in/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result").value("INVALID"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.DenormalizedFieldChangeDTO;
+import com.cinema.bookings.service.DenormalizationSyncService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DenormalizationSyncController.class)
+class DenormalizationSyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DenormalizationSyncService denormalizationSyncService;
+
+    @Test
+    void testMovieTitleChanged_Accepted() throws Exception {
+        DenormalizedFieldChangeDTO change = new DenormalizedFieldChangeDTO("New Title", LocalDateTime.now());
+
+        mockMvc.perform(post("/api/bookings/sync/movies/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isAccepted());
+
+        verify(denormalizationSyncService).enqueueMovieTitleChange(eq(1L), any(DenormalizedFieldChangeDTO.class));
+    }
+
+    @Test
+    void testUserEmailChanged_Accepted() throws Exception {
+        DenormalizedFieldChangeDTO change = new DenormalizedFieldChangeDTO("new@example.com", null);
+
+        mockMvc.perform(post("/api/bookings/sync/users/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isAccepted());
+
+        verify(denormalizationSyncService).enqueueUserEmailChange(eq(2L), any(DenormalizedFieldChangeDTO.class));
+    }
+
+    @Test
+    void testChange_MissingValueRejected() throws Exception {
+        mockMvc.perform(post("/api/bookings/sync/movies/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(denormalizationSyncService, never()).enqueueMovieTitleChange(any(), any());
+    }
+}
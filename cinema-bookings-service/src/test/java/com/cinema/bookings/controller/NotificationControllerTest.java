@@ -0,0 +1,49 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.DeadLetterDTO;
+import com.cinema.bookings.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(NotificationController.class)
+class NotificationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Test
+    void testGetDeadLetters() throws Exception {
+        when(notificationService.getDeadLetters()).thenReturn(List.of(new DeadLetterDTO(
+                1L, "user@example.com", "Booking confirmed", "body", 5, "421 service not available",
+                LocalDateTime.of(2030, 5, 1, 19, 0))));
+
+        mockMvc.perform(get("/api/bookings/notifications/dead-letters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(1))
+                .andExpect(jsonPath("$[0].attempts").value(5));
+    }
+
+    @Test
+    void testRequeueDeadLetters() throws Exception {
+        when(notificationService.requeueDeadLetters()).thenReturn(3);
+
+        mockMvc.perform(post("/api/bookings/notifications/dead-letters/requeue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requeued").value(3));
+    }
+}
@@ -0,0 +1,49 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.FlaggedAccountDTO;
+import com.cinema.bookings.service.ScalperDetectionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ScalperDetectionController.class)
+class ScalperDetectionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ScalperDetectionService scalperDetectionService;
+
+    @Test
+    void testGetFlaggedAccounts() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2030, 5, 1, 19, 0);
+        when(scalperDetectionService.getFlaggedAccounts()).thenReturn(List.of(
+                new FlaggedAccountDTO(7L, "More than 8 booking attempts for one screening", 12, now, now)));
+
+        mockMvc.perform(get("/api/bookings/scalpers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value(7))
+                .andExpect(jsonPath("$[0].estimatedAttempts").value(12));
+    }
+
+    @Test
+    void testClearFlag() throws Exception {
+        mockMvc.perform(delete("/api/bookings/scalpers/7"))
+                .andExpect(status().isNoContent());
+
+        verify(scalperDetectionService).clearFlag(7L);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.ScreeningCancellationJobDTO;
+import com.cinema.bookings.exception.CancellationJobNotFoundException;
+import com.cinema.bookings.service.ScreeningCancellationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ScreeningCancellationController.class)
+class ScreeningCancellationControllerTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ScreeningCancellationService screeningCancellationService;
+
+    @Test
+    void testCancelScreening_Accepted() throws Exception {
+        ScreeningCancellationJobDTO job = new ScreeningCancellationJobDTO(10L, 1L, SCREENING, "RUNNING",
+                120, 0, 0, 0.0, LocalDateTime.now(), null, null);
+        when(screeningCancellationService.cancelScreening(1L, SCREENING)).thenReturn(job);
+
+        mockMvc.perform(post("/api/bookings/screenings/1/2030-05-01T20:00:00/cancel"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value(10))
+                .andExpect(jsonPath("$.totalBookings").value(120));
+    }
+
+    @Test
+    void testGetCancellationJob_NotFound() throws Exception {
+        when(screeningCancellationService.getJob(99L)).thenThrow(new CancellationJobNotFoundException(99L));
+
+        mockMvc.perform(get("/api/bookings/screenings/cancellations/99"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,93 @@
+package com.cinema.bookings.controller;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.GroupBookingRequestDTO;
+import com.cinema.bookings.dto.SeatBlockDTO;
+import com.cinema.bookings.exception.NoContiguousSeatsException;
+import com.cinema.bookings.service.SeatAllocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SeatAllocationController.class)
+class SeatAllocationControllerTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SeatAllocationService seatAllocationService;
+
+    @Test
+    void testFindBestAvailable_Success() throws Exception {
+        when(seatAllocationService.findBestAvailable(1L, SCREENING, 3)).thenReturn(new SeatBlockDTO("F", 11, 13));
+
+        mockMvc.perform(get("/api/bookings/seats/best-available")
+                        .param("movieId", "1")
+                        .param("screeningTime", "2030-05-01T20:00:00")
+                        .param("seats", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatRow").value("F"))
+                .andExpect(jsonPath("$.lastSeat").value(13));
+    }
+
+    @Test
+    void testBookBestAvailable_Created() throws Exception {
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setSeatRow("F");
+        booking.setSeatNumber(11);
+        when(seatAllocationService.bookBestAvailable(any(GroupBookingRequestDTO.class))).thenReturn(List.of(booking));
+
+        mockMvc.perform(post("/api/bookings/seats/best-available")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(1))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].seatNumber").value(11));
+    }
+
+    @Test
+    void testBookBestAvailable_NoSeats() throws Exception {
+        when(seatAllocationService.bookBestAvailable(any(GroupBookingRequestDTO.class)))
+                .thenThrow(new NoContiguousSeatsException(4));
+
+        mockMvc.perform(post("/api/bookings/seats/best-available")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(4))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testBookBestAvailable_GroupTooLarge() throws Exception {
+        mockMvc.perform(post("/api/bookings/seats/best-available")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(11))))
+                .andExpect(status().isBadRequest());
+
+        verify(seatAllocationService, never()).bookBestAvailable(any());
+    }
+
+    private GroupBookingRequestDTO request(int seats) {
+        return new GroupBookingRequestDTO(7L, 1L, "Inception", "group@example.com", SCREENING, seats, 30.0);
+    }
+}
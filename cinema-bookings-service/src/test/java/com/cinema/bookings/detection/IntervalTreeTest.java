@@ -0,0 +1,82 @@
+package com.cinema.bookings.detection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTest {
+
+    @Test
+    void testOverlapping_FindsOnlyIntersectingIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(new IntervalTree.Interval(1, 10, 100, 200));
+        tree.add(new IntervalTree.Interval(2, 11, 200, 300));
+        tree.add(new IntervalTree.Interval(3, 12, 50, 120));
+
+        assertThat(tree.overlapping(150, 210)).extracting(IntervalTree.Interval::id).containsExactly(1L, 2L);
+        assertThat(tree.overlapping(120, 200)).extracting(IntervalTree.Interval::id).containsExactly(1L);
+        assertThat(tree.overlapping(300, 400)).isEmpty();
+        assertThat(tree.overlapping(0, 50)).isEmpty();
+    }
+
+    @Test
+    void testAdd_ReplacesIntervalWithSameId() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(new IntervalTree.Interval(1, 10, 100, 200));
+        tree.add(new IntervalTree.Interval(1, 10, 500, 600));
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlapping(100, 200)).isEmpty();
+        assertThat(tree.overlapping(550, 560)).hasSize(1);
+    }
+
+    @Test
+    void testRemove() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(new IntervalTree.Interval(1, 10, 100, 200));
+
+        assertThat(tree.remove(1)).isTrue();
+        assertThat(tree.remove(1)).isFalse();
+        assertThat(tree.overlapping(0, 1000)).isEmpty();
+    }
+
+    @Test
+    void testAdd_RejectsEmptyInterval() {
+        assertThatThrownBy(() -> new IntervalTree().add(new IntervalTree.Interval(1, 10, 100, 100)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRandomOperations_MatchLinearScanAndStayBalanced() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<IntervalTree.Interval> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                IntervalTree.Interval removed = expected.remove(random.nextInt(expected.size()));
+                tree.remove(removed.id());
+            } else {
+                long start = random.nextInt(100_000);
+                IntervalTree.Interval interval = new IntervalTree.Interval(i, 1, start, start + 1 + random.nextInt(500));
+                tree.add(interval);
+                expected.add(interval);
+            }
+
+            long from = random.nextInt(100_000);
+            long to = from + 1 + random.nextInt(1000);
+            List<Long> linear = expected.stream()
+                    .filter(interval -> interval.overlaps(from, to))
+                    .map(IntervalTree.Interval::id)
+                    .toList();
+            assertThat(tree.overlapping(from, to)).extracting(IntervalTree.Interval::id)
+                    .containsExactlyInAnyOrderElementsOf(linear);
+        }
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(tree.height()).isLessThanOrEqualTo((int) (1.45 * (Math.log(expected.size() + 2) / Math.log(2))));
+    }
+}
@@ -0,0 +1,87 @@
+package com.cinema.bookings.detection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowSketchTest {
+
+    @Test
+    void testIncrementAndEstimate_CountsPerKey() {
+        AtomicLong clock = new AtomicLong(0);
+        SlidingWindowSketch sketch = new SlidingWindowSketch(1000, 10, 4, 1024, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.incrementAndEstimate(42L);
+        }
+        sketch.incrementAndEstimate(7L);
+
+        assertThat(sketch.estimate(42L)).isEqualTo(5);
+        assertThat(sketch.estimate(7L)).isEqualTo(1);
+        assertThat(sketch.estimate(99L)).isZero();
+    }
+
+    @Test
+    void testEstimate_ForgetsEventsOutsideWindow() {
+        AtomicLong clock = new AtomicLong(0);
+        SlidingWindowSketch sketch = new SlidingWindowSketch(1000, 10, 4, 1024, clock::get);
+
+        sketch.incrementAndEstimate(1L);
+        clock.set(500);
+        sketch.incrementAndEstimate(1L);
+        assertThat(sketch.estimate(1L)).isEqualTo(2);
+
+        clock.set(1050);
+        assertThat(sketch.estimate(1L)).isEqualTo(1);
+
+        clock.set(1600);
+        assertThat(sketch.estimate(1L)).isZero();
+    }
+
+    @Test
+    void testIncrementAndEstimate_ReusedSliceStartsEmpty() {
+        AtomicLong clock = new AtomicLong(0);
+        SlidingWindowSketch sketch = new SlidingWindowSketch(1000, 10, 4, 1024, clock::get);
+
+        sketch.incrementAndEstimate(1L);
+        sketch.incrementAndEstimate(1L);
+        clock.set(2000);
+
+        assertThat(sketch.incrementAndEstimate(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void testIncrement_LaggingClockCountsInNewerSlice() {
+        AtomicLong clock = new AtomicLong(2000);
+        SlidingWindowSketch sketch = new SlidingWindowSketch(1000, 10, 4, 1024, clock::get);
+        sketch.increment(1L);
+
+        // a reader whose clock is a whole window behind maps to the same slice position
+        clock.set(1000);
+        sketch.increment(1L);
+
+        clock.set(2000);
+        assertThat(sketch.estimate(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void testEstimate_NeverUndercountsUnderCollisions() {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(60_000, 6, 2, 16, () -> 0L);
+
+        for (long key = 0; key < 200; key++) {
+            sketch.incrementAndEstimate(key);
+        }
+        sketch.incrementAndEstimate(3L);
+
+        assertThat(sketch.estimate(3L)).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void testConstructor_RejectsWidthThatIsNotPowerOfTwo() {
+        assertThatThrownBy(() -> new SlidingWindowSketch(1000, 10, 4, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,6 +3,8 @@ package com.cinema.bookings.exception;
 import com.cinema.bookings.controller.BookingController;
 import com.cinema.bookings.dto.BookingRequestDTO;
 import com.cinema.bookings.service.BookingService;
+import com.cinema.bookings.service.ScalperDetectionService;
+import com.cinema.bookings.service.WaitingRoomService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +32,12 @@ class GlobalExceptionHandlerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private WaitingRoomService waitingRoomService;
+
+    @MockBean
+    private ScalperDetectionService scalperDetectionService;
+
     private BookingRequestDTO requestDTO;
 
     @BeforeEach
@@ -74,6 +82,19 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value(404));
     }
 
+    @Test
+    void testHandleOverlappingBookingException() throws Exception {
+        when(bookingService.createBooking(any(BookingRequestDTO.class)))
+                .thenThrow(new OverlappingBookingException(1L, java.util.List.of(7L)));
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("User 1 already has bookings [7] for screenings overlapping this one"));
+    }
+
     @Test
     void testHandleValidationException_MissingUserId() throws Exception {
         requestDTO.setUserId(null);
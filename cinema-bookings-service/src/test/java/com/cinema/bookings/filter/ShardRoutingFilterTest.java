@@ -0,0 +1,307 @@
+package com.cinema.bookings.filter;
+
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.service.ShardRoutingService;
+import com.cinema.bookings.sharding.ShardNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardRoutingFilterTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 3, 1, 20, 0);
+    private static final ShardNode OTHER = new ShardNode("node-b", "http://b:8083");
+
+    @Mock
+    private ShardRoutingService shardRoutingService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private ShardRoutingFilter filter;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ShardRoutingFilter(shardRoutingService, bookingRepository, restTemplate, new ObjectMapper(),
+                "test-secret", new SimpleMeterRegistry());
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testLocallyOwnedScreeningIsHandledHere() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(null);
+        MockHttpServletRequest request = get("/api/bookings/seats");
+        request.setParameter("movieId", "1");
+        request.setParameter("screeningTime", SCREENING.toString());
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testRedirectModeAnswersWithTemporaryRedirect() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(true);
+        MockHttpServletRequest request = get("/api/bookings/seats");
+        request.setQueryString("movieId=1&screeningTime=" + SCREENING);
+        request.setParameter("movieId", "1");
+        request.setParameter("screeningTime", SCREENING.toString());
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(307);
+        assertThat(response.getHeader("Location"))
+                .isEqualTo("http://b:8083/api/bookings/seats?movieId=1&screeningTime=" + SCREENING);
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testForwardModeProxiesToOwnerWithForwardedHeader() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(false);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class), eq(byte[].class)))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body("{\"id\":7}".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletRequest request = jsonPost("{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}");
+
+        filter.doFilter(request, response, filterChain);
+
+        ArgumentCaptor<HttpEntity<byte[]>> entity = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(URI.create("http://b:8083/api/bookings")), eq(HttpMethod.POST),
+                entity.capture(), eq(byte[].class));
+        assertThat(entity.getValue().getHeaders().getFirst(ShardRoutingFilter.FORWARDED_HEADER)).startsWith("node-b;");
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testBodyReadForRoutingIsReplayedToController() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(null);
+        String body = "{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}";
+        StringBuilder replayed = new StringBuilder();
+        doAnswer(invocation -> {
+            ServletRequest forwarded = invocation.getArgument(0);
+            replayed.append(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(jsonPost(body), response, filterChain);
+
+        assertThat(replayed.toString()).isEqualTo(body);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUnreachableOwnerAnswersBadGateway() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(false);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class), eq(byte[].class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        filter.doFilter(jsonPost("{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}"), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(502);
+        assertThat(response.getContentAsString()).contains("node-b");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWaitingRoomRequestsGoToCoordinator() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteCoordinator()).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(false);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(byte[].class)))
+                .thenReturn(ResponseEntity.ok("{\"admitted\":false}".getBytes(StandardCharsets.UTF_8)));
+
+        filter.doFilter(get("/api/bookings/waiting-room/ticket-1"), response, filterChain);
+
+        verify(restTemplate).exchange(eq(URI.create("http://b:8083/api/bookings/waiting-room/ticket-1")),
+                eq(HttpMethod.GET), any(HttpEntity.class), eq(byte[].class));
+        assertThat(response.getStatus()).isEqualTo(200);
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testForwardedRequestsAreNeverForwardedAgain() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        MockHttpServletRequest request = jsonPost("{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}");
+        request.addHeader(ShardRoutingFilter.FORWARDED_HEADER,
+                filter.forwardedHeader("node-a", System.currentTimeMillis() / 1000, "POST", "/api/bookings"));
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testUnsignedOrStaleForwardedHeaderIsIgnored() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(true);
+        String stale = filter.forwardedHeader("node-a",
+                System.currentTimeMillis() / 1000 - ShardRoutingFilter.FORWARD_MAX_AGE_SECONDS - 60,
+                "POST", "/api/bookings");
+        String body = "{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}";
+
+        for (String header : new String[]{"node-a", stale}) {
+            MockHttpServletRequest request = jsonPost(body);
+            request.addHeader(ShardRoutingFilter.FORWARDED_HEADER, header);
+            MockHttpServletResponse redirected = new MockHttpServletResponse();
+
+            filter.doFilter(request, redirected, filterChain);
+
+            assertThat(redirected.getStatus()).isEqualTo(307);
+        }
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testWritesByIdAreRoutedByTheBookingsScreening() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(true);
+        Booking booking = new Booking();
+        booking.setId(42L);
+        booking.setMovieId(1L);
+        booking.setScreeningTime(SCREENING);
+        when(bookingRepository.findById(42L)).thenReturn(Optional.of(booking));
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+                new MockHttpServletRequest("PUT", "/api/bookings/42/confirm"),
+                new MockHttpServletRequest("DELETE", "/api/bookings/42")}) {
+            MockHttpServletResponse redirected = new MockHttpServletResponse();
+
+            filter.doFilter(request, redirected, filterChain);
+
+            assertThat(redirected.getHeader("Location")).isEqualTo("http://b:8083" + request.getRequestURI());
+        }
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testCheckInBatchForOneScreeningIsRouted() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(OTHER);
+        when(shardRoutingService.isRedirectMode()).thenReturn(true);
+        String scan = "{\"bookingId\":%d,\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}";
+        MockHttpServletRequest request = jsonPost("[" + scan.formatted(1) + "," + scan.formatted(2) + "]");
+        request.setRequestURI("/api/bookings/check-in/batch");
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(307);
+    }
+
+    @Test
+    void testMixedCheckInBatchIsHandledHere() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        MockHttpServletRequest request = jsonPost("[{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"},"
+                + "{\"movieId\":2,\"screeningTime\":\"" + SCREENING + "\"}]");
+        request.setRequestURI("/api/bookings/check-in/batch");
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(any(), eq(response));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testReplayedBodySupportsReadListener() throws Exception {
+        when(shardRoutingService.isEnabled()).thenReturn(true);
+        when(shardRoutingService.remoteOwner(1L, SCREENING)).thenReturn(null);
+        StringBuilder events = new StringBuilder();
+        doAnswer(invocation -> {
+            ServletInputStream input = invocation.<ServletRequest>getArgument(0).getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.append("data:").append(input.readAllBytes().length).append(' ');
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.append("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.append("error");
+                }
+            });
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        String body = "{\"movieId\":1,\"screeningTime\":\"" + SCREENING + "\"}";
+        filter.doFilter(jsonPost(body), response, filterChain);
+
+        assertThat(events.toString()).isEqualTo("data:" + body.length() + " done");
+    }
+
+    @Test
+    void testConstructorRequiresSecret() {
+        assertThatThrownBy(() -> new ShardRoutingFilter(shardRoutingService, bookingRepository, restTemplate,
+                new ObjectMapper(), " ", new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static MockHttpServletRequest jsonPost(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
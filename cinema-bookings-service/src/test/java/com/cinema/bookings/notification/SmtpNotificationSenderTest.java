@@ -0,0 +1,87 @@
+package com.cinema.bookings.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpNotificationSenderTest {
+
+    private FakeSmtpServer server;
+    private SmtpNotificationSender sender;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeSmtpServer();
+        sender = sender(server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sender.closeConnections();
+        server.close();
+    }
+
+    @Test
+    void testSend_DeliversBatchOverOneConnection() {
+        List<Notification> failed = sender.send(List.of(
+                notification(1L, "a@example.com"),
+                notification(2L, "b@example.com"),
+                notification(3L, "c@example.com")));
+
+        assertThat(failed).isEmpty();
+        assertThat(server.getMessages()).hasSize(3);
+        assertThat(server.getMessages().get(0)).contains("Subject: Booking confirmed").contains("Booking 1");
+        assertThat(server.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testSend_ReusesPooledConnectionAcrossBatches() {
+        sender.send(List.of(notification(1L, "a@example.com")));
+        sender.send(List.of(notification(2L, "b@example.com")));
+
+        assertThat(server.getMessages()).hasSize(2);
+        assertThat(server.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testSend_ReturnsRejectedRecipientsAndDeliversTheRest() {
+        Notification rejected = notification(2L, "reject@example.com");
+
+        List<Notification> failed = sender.send(List.of(
+                notification(1L, "a@example.com"), rejected, notification(3L, "c@example.com")));
+
+        assertThat(failed).containsExactly(rejected);
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getLastError()).isNotBlank();
+        assertThat(server.getMessages()).hasSize(2);
+    }
+
+    @Test
+    void testSend_FailsWholeBatchWhenServerUnreachable() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        SmtpNotificationSender unreachable = sender(closedPort);
+        List<Notification> batch = List.of(notification(1L, "a@example.com"), notification(2L, "b@example.com"));
+
+        List<Notification> failed = unreachable.send(batch);
+
+        assertThat(failed).hasSize(2);
+        assertThat(batch).allSatisfy(notification -> assertThat(notification.getAttempts()).isEqualTo(1));
+    }
+
+    private static SmtpNotificationSender sender(int port) {
+        return new SmtpNotificationSender("localhost", port, "", "", false, 2000, 2, "tickets@cinema.local");
+    }
+
+    private static Notification notification(Long bookingId, String recipient) {
+        return new Notification(bookingId, recipient, "Booking confirmed", "Booking " + bookingId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.cinema.bookings.seating;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-available search on a 500-seat hall at different occupancy levels.
+ * Not part of the unit test run; see the README for how to launch it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatMapBenchmark {
+
+    @Param({"0.3", "0.7", "0.95"})
+    public double occupancy;
+
+    @Param({"2", "4", "8"})
+    public int groupSize;
+
+    private SeatMap seatMap;
+
+    @Setup
+    public void setUp() {
+        seatMap = new SeatMap(20, 25);
+        Random random = new Random(42);
+        for (int row = 0; row < seatMap.getRows(); row++) {
+            for (int seat = 1; seat <= seatMap.getSeatsPerRow(); seat++) {
+                if (random.nextDouble() < occupancy) {
+                    seatMap.occupy(row, seat);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public SeatBlock findBestBlock() {
+        return seatMap.findBestBlock(groupSize, 12, 1.5);
+    }
+}
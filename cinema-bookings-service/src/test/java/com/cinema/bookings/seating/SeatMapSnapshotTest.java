@@ -0,0 +1,95 @@
+package com.cinema.bookings.seating;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeatMapSnapshotTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndRead_RoundTripsSeatMaps() throws IOException {
+        Path path = directory.resolve("seat-maps.bin");
+        SeatMap first = new SeatMap(4, 70);
+        first.occupy(0, 1);
+        first.occupy(3, 70);
+        SeatMap second = new SeatMap(4, 70);
+        second.occupy(2, 65);
+
+        SeatMapSnapshot.write(path, 4, 70, 42L, SCREENING.minusDays(1), List.of(
+                new SeatMapSnapshot.Entry(1L, SCREENING, first),
+                new SeatMapSnapshot.Entry(2L, SCREENING.plusHours(3), second)));
+        SeatMapSnapshot snapshot = SeatMapSnapshot.read(path, 4, 70);
+
+        assertThat(snapshot.getHighWaterMark()).isEqualTo(42L);
+        assertThat(snapshot.getTakenAt()).isEqualTo(SCREENING.minusDays(1));
+        assertThat(snapshot.getEntries()).hasSize(2);
+        SeatMapSnapshot.Entry restored = snapshot.getEntries().get(0);
+        assertThat(restored.movieId()).isEqualTo(1L);
+        assertThat(restored.screeningTime()).isEqualTo(SCREENING);
+        assertThat(restored.seatMap().isFree(0, 1)).isFalse();
+        assertThat(restored.seatMap().isFree(3, 70)).isFalse();
+        assertThat(restored.seatMap().countOccupied()).isEqualTo(2);
+        assertThat(snapshot.getEntries().get(1).seatMap().isFree(2, 65)).isFalse();
+    }
+
+    @Test
+    void testRead_MissingFileReturnsNull() throws IOException {
+        assertThat(SeatMapSnapshot.read(directory.resolve("missing.bin"), 4, 70)).isNull();
+    }
+
+    @Test
+    void testRead_RejectsCorruptedFile() throws IOException {
+        Path path = directory.resolve("seat-maps.bin");
+        SeatMap seatMap = new SeatMap(2, 10);
+        seatMap.occupy(1, 5);
+        SeatMapSnapshot.write(path, 2, 10, 1L, SCREENING, List.of(new SeatMapSnapshot.Entry(1L, SCREENING, seatMap)));
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(path, bytes);
+
+        assertThatThrownBy(() -> SeatMapSnapshot.read(path, 2, 10))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 24})
+    void testRead_RejectsCorruptedHeader(int offset) throws IOException {
+        Path path = directory.resolve("seat-maps.bin");
+        SeatMapSnapshot.write(path, 2, 10, 1L, SCREENING, List.of(new SeatMapSnapshot.Entry(1L, SCREENING,
+                new SeatMap(2, 10))));
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[offset] ^= 0x01;
+        Files.write(path, bytes);
+
+        assertThatThrownBy(() -> SeatMapSnapshot.read(path, 2, 10))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void testRead_RejectsOtherHallLayout() throws IOException {
+        Path path = directory.resolve("seat-maps.bin");
+        SeatMapSnapshot.write(path, 2, 10, 1L, SCREENING, List.of());
+
+        assertThatThrownBy(() -> SeatMapSnapshot.read(path, 3, 10))
+                .isInstanceOf(IOException.class);
+    }
+}
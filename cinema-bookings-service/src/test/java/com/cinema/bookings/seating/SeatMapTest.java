@@ -0,0 +1,98 @@
+package com.cinema.bookings.seating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeatMapTest {
+
+    @Test
+    void testFindBestBlock_EmptyHallPicksCentreOfPreferredRow() {
+        SeatMap seatMap = new SeatMap(10, 20);
+
+        SeatBlock block = seatMap.findBestBlock(4, 6, 1.5);
+
+        assertThat(block).isEqualTo(new SeatBlock(6, 9, 4));
+    }
+
+    @Test
+    void testFindBestBlock_SkipsOccupiedSeats() {
+        SeatMap seatMap = new SeatMap(1, 10);
+        seatMap.occupy(0, 5);
+        seatMap.occupy(0, 6);
+
+        SeatBlock block = seatMap.findBestBlock(3, 0, 1.0);
+
+        assertThat(block).isEqualTo(new SeatBlock(0, 2, 3));
+        assertThat(seatMap.findBestBlock(5, 0, 1.0)).isNull();
+    }
+
+    @Test
+    void testFindBestBlock_PrefersNearbyRowOverFullPreferredRow() {
+        SeatMap seatMap = new SeatMap(5, 8);
+        for (int seat = 1; seat <= 8; seat++) {
+            seatMap.occupy(2, seat);
+        }
+
+        SeatBlock block = seatMap.findBestBlock(2, 2, 1.5);
+
+        assertThat(block.getRow()).isEqualTo(1);
+        assertThat(block.getFirstSeat()).isEqualTo(4);
+    }
+
+    @Test
+    void testFindBestBlock_BlockSpanningWordBoundary() {
+        SeatMap seatMap = new SeatMap(1, 130);
+        for (int seat = 1; seat <= 130; seat++) {
+            if (seat < 60 || seat > 70) {
+                seatMap.occupy(0, seat);
+            }
+        }
+
+        assertThat(seatMap.findBestBlock(11, 0, 1.0)).isEqualTo(new SeatBlock(0, 60, 11));
+        assertThat(seatMap.findBestBlock(12, 0, 1.0)).isNull();
+    }
+
+    @Test
+    void testFindBestBlock_IgnoresBitsBeyondLastSeat() {
+        SeatMap seatMap = new SeatMap(1, 10);
+        for (int seat = 1; seat <= 8; seat++) {
+            seatMap.occupy(0, seat);
+        }
+
+        assertThat(seatMap.findBestBlock(2, 0, 1.0)).isEqualTo(new SeatBlock(0, 9, 2));
+        assertThat(seatMap.findBestBlock(3, 0, 1.0)).isNull();
+        assertThat(seatMap.findBestBlock(11, 0, 1.0)).isNull();
+    }
+
+    @Test
+    void testOccupyAndRelease() {
+        SeatMap seatMap = new SeatMap(2, 3);
+        seatMap.occupy(1, 3);
+
+        assertThat(seatMap.isFree(1, 3)).isFalse();
+        assertThat(seatMap.countOccupied()).isEqualTo(1);
+
+        seatMap.release(1, 3);
+        assertThat(seatMap.isFree(1, 3)).isTrue();
+        assertThat(seatMap.contains(2, 1)).isFalse();
+        assertThat(seatMap.contains(1, 4)).isFalse();
+    }
+
+    @Test
+    void testRowLabels() {
+        assertThat(SeatMap.rowLabel(0)).isEqualTo("A");
+        assertThat(SeatMap.rowLabel(25)).isEqualTo("Z");
+        assertThat(SeatMap.rowLabel(26)).isEqualTo("AA");
+        assertThat(SeatMap.rowIndex("aa")).isEqualTo(26);
+        assertThat(SeatMap.rowIndex("C")).isEqualTo(2);
+        assertThat(SeatMap.rowIndex("7")).isEqualTo(-1);
+        assertThat(SeatMap.rowIndex(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void testConstructor_RejectsEmptyHall() {
+        assertThatThrownBy(() -> new SeatMap(0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,202 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.analytics.GroupBy;
+import com.cinema.bookings.dto.BookingFactDTO;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.dto.OccupancyBucketDTO;
+import com.cinema.bookings.dto.OccupancyReportDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAnalyticsServiceTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingAnalyticsService(bookingRepository, restTemplate, "http://movies", true, 2, 2, 60,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testLoad_ReadsAllPagesInIdOrder() {
+        when(bookingRepository.findFactsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new BookingFactDTO(1L, 10L, EVENING, 50.0, "CONFIRMED"),
+                new BookingFactDTO(2L, 10L, EVENING, 50.0, "PENDING")));
+        when(bookingRepository.findFactsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new BookingFactDTO(3L, 11L, EVENING.plusHours(1), 40.0, "CONFIRMED")));
+
+        service.load();
+
+        assertThat(service.isLoaded()).isTrue();
+        assertThat(service.storedRows()).isEqualTo(3);
+        OccupancyReportDTO report = service.occupancy(GroupBy.HOUR_OF_DAY, null, null, null, null, null);
+        assertThat(report.isComplete()).isTrue();
+        assertThat(report.getRowsMatched()).isEqualTo(3);
+        assertThat(report.getBuckets()).containsExactly(
+                new OccupancyBucketDTO("20", 2, 100.0),
+                new OccupancyBucketDTO("21", 1, 40.0));
+    }
+
+    @Test
+    void testLoad_DoesNotOverwriteRowsChangedByEvents() {
+        service.onBookingChanged(BookingChangedEvent.updated(booking(1L, "CONFIRMED"), booking(1L, "CANCELLED")));
+        when(bookingRepository.findFactsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new BookingFactDTO(1L, 10L, EVENING, 50.0, "CONFIRMED")));
+
+        service.load();
+
+        assertThat(service.occupancy(GroupBy.STATUS, null, null, null, null, List.of("CANCELLED")).getBuckets())
+                .containsExactly(new OccupancyBucketDTO("CANCELLED", 1, 50.0));
+    }
+
+    @Test
+    void testCatchUp_ReadsNewAndModifiedRowsFromOtherInstances() {
+        when(bookingRepository.findFactsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new BookingFactDTO(1L, 10L, EVENING, 50.0, "CONFIRMED")));
+        service.load();
+        when(bookingRepository.findFactsAfter(eq(1L), any(Pageable.class))).thenReturn(List.of(
+                new BookingFactDTO(2L, 10L, EVENING, 50.0, "PENDING")));
+        when(bookingRepository.findFactsUpdatedSince(any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new BookingFactDTO(1L, 10L, EVENING, 50.0, "CANCELLED")));
+
+        service.catchUp();
+
+        assertThat(service.storedRows()).isEqualTo(2);
+        assertThat(service.occupancy(GroupBy.STATUS, null, null, null, null, List.of("CANCELLED", "PENDING"))
+                .getBuckets()).containsExactly(new OccupancyBucketDTO("PENDING", 1, 50.0),
+                new OccupancyBucketDTO("CANCELLED", 1, 50.0));
+    }
+
+    @Test
+    void testCatchUp_WaitsForInitialLoad() {
+        service.catchUp();
+
+        verify(bookingRepository, never()).findFactsAfter(any(), any(Pageable.class));
+    }
+
+    @Test
+    void testOnBookingChanged_TracksCreatesAndDeletes() {
+        service.onBookingChanged(BookingChangedEvent.created(booking(1L, "PENDING")));
+        service.onBookingChanged(BookingChangedEvent.created(booking(2L, "CONFIRMED")));
+        service.onBookingChanged(BookingChangedEvent.deleted(booking(2L, "CONFIRMED")));
+
+        OccupancyReportDTO report = service.occupancy(GroupBy.MOVIE, null, null, null, null, null);
+
+        assertThat(report.isComplete()).isFalse();
+        assertThat(report.getBuckets()).containsExactly(new OccupancyBucketDTO("10", 1, 50.0));
+    }
+
+    @Test
+    void testOccupancy_ResolvesGenreThroughMoviesService() {
+        service.onBookingChanged(BookingChangedEvent.created(booking(1L, "CONFIRMED")));
+        BookingResponseDTO other = booking(2L, "CONFIRMED");
+        other.setMovieId(11L);
+        service.onBookingChanged(BookingChangedEvent.created(other));
+        MovieResponseDTO drama = new MovieResponseDTO();
+        drama.setId(11L);
+        when(restTemplate.getForObject(anyString(), eq(MovieResponseDTO[].class), eq("Drama")))
+                .thenReturn(new MovieResponseDTO[]{drama});
+
+        OccupancyReportDTO report = service.occupancy(GroupBy.MOVIE, null, null, null, "Drama", null);
+
+        assertThat(report.getBuckets()).containsExactly(new OccupancyBucketDTO("11", 1, 50.0));
+    }
+
+    @Test
+    void testOccupancy_CountsBookingsClosedByLifecycleJob() {
+        Booking attended = entity(1L, LocalDateTime.of(2030, 5, 1, 20, 5));
+        Booking missed = entity(2L, null);
+        service.onBookingChanged(BookingChangedEvent.created(booking(1L, "CONFIRMED")));
+        service.onBookingChanged(BookingChangedEvent.created(booking(2L, "CONFIRMED")));
+        when(bookingRepository.claimPastBookings(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(attended, missed));
+        ApplicationEventPublisher publisher = event -> service.onBookingChanged((BookingChangedEvent) event);
+        BookingLifecycleService lifecycle = new BookingLifecycleService(bookingRepository, new BookingMapper(),
+                publisher, transactionManager, true, 240, 10, 1, new SimpleMeterRegistry());
+
+        assertThat(lifecycle.run()).isEqualTo(2);
+
+        assertThat(service.occupancy(GroupBy.MOVIE, null, null, null, null, null).getBuckets())
+                .containsExactly(new OccupancyBucketDTO("10", 2, 100.0));
+        assertThat(service.occupancy(GroupBy.STATUS, null, null, null, null, null).getBuckets())
+                .containsExactly(new OccupancyBucketDTO("COMPLETED", 1, 50.0),
+                        new OccupancyBucketDTO("NO_SHOW", 1, 50.0));
+    }
+
+    @Test
+    void testOccupancy_AppliesTimeRange() {
+        service.onBookingChanged(BookingChangedEvent.created(booking(1L, "CONFIRMED")));
+
+        OccupancyReportDTO report = service.occupancy(GroupBy.HOUR_OF_DAY, EVENING.plusMinutes(1), null,
+                null, null, null);
+
+        assertThat(report.getRowsScanned()).isEqualTo(1);
+        assertThat(report.getBuckets()).isEmpty();
+    }
+
+    private static Booking entity(Long id, LocalDateTime checkedInAt) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(10L);
+        booking.setScreeningTime(EVENING);
+        booking.setPrice(50.0);
+        booking.setStatus("CONFIRMED");
+        booking.setCheckedInAt(checkedInAt);
+        return booking;
+    }
+
+    private static BookingResponseDTO booking(Long id, String status) {
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setId(id);
+        booking.setMovieId(10L);
+        booking.setScreeningTime(EVENING);
+        booking.setPrice(50.0);
+        booking.setStatus(status);
+        return booking;
+    }
+}
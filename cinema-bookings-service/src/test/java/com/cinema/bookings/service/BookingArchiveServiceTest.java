@@ -0,0 +1,148 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.archive.ArchiveQuery;
+import com.cinema.bookings.archive.ColumnarBookingFile;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiveServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path tempDir;
+
+    private BookingArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new BookingArchiveService(bookingRepository, new BookingMapper(), eventPublisher,
+                tempDir.toString(), true, 365, 2);
+    }
+
+    private Booking booking(long id, LocalDateTime screening) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(1L);
+        booking.setMovieId(7L);
+        booking.setMovieTitle("Old Movie");
+        booking.setScreeningTime(screening);
+        booking.setStatus("CONFIRMED");
+        booking.setCreatedAt(screening.minusDays(1));
+        return booking;
+    }
+
+    @Test
+    void testArchiveOldBookings_WritesPartitionAndDeletesRows() {
+        LocalDateTime screening = LocalDateTime.of(2020, 5, 10, 19, 30);
+        List<Booking> may = Arrays.asList(booking(1L, screening), booking(2L, screening.plusDays(3)));
+        when(bookingRepository.findFirstByScreeningTimeBeforeOrderByScreeningTimeAsc(any(LocalDateTime.class)))
+                .thenReturn(Optional.of(may.get(0)));
+        when(bookingRepository.findArchiveChunk(any(LocalDateTime.class), eq(screening), eq(0L), any(Pageable.class)))
+                .thenReturn(may);
+        when(bookingRepository.findArchiveChunk(any(LocalDateTime.class), eq(screening.plusDays(3)), eq(2L),
+                any(Pageable.class))).thenReturn(List.of());
+
+        int archived = archiveService.archiveOldBookings();
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(Files.exists(tempDir.resolve("bookings-2020-05-1.cba"))).isTrue();
+        verify(bookingRepository).deleteAllByIdInBatch(Arrays.asList(1L, 2L));
+        verify(eventPublisher, times(2)).publishEvent(argThat((Object event) ->
+                event instanceof BookingChangedEvent changed && changed.getCurrent() == null));
+
+        List<BookingResponseDTO> result = archiveService.queryArchive(
+                new ArchiveQuery(LocalDateTime.of(2020, 5, 1, 0, 0), null, 7L, null, "CONFIRMED"));
+        assertThat(result).extracting(BookingResponseDTO::getId).containsExactly(1L, 2L);
+        assertThat(archiveService.queryArchive(
+                new ArchiveQuery(LocalDateTime.of(2021, 1, 1, 0, 0), null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void testArchiveOldBookings_SplitsChunkAcrossMonthsAndPagesByKeyset() {
+        LocalDateTime may = LocalDateTime.of(2020, 5, 31, 22, 0);
+        LocalDateTime june = LocalDateTime.of(2020, 6, 1, 10, 0);
+        when(bookingRepository.findFirstByScreeningTimeBeforeOrderByScreeningTimeAsc(any(LocalDateTime.class)))
+                .thenReturn(Optional.of(booking(4L, may)));
+        when(bookingRepository.findArchiveChunk(any(LocalDateTime.class), eq(may), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(booking(4L, may), booking(3L, june)));
+        when(bookingRepository.findArchiveChunk(any(LocalDateTime.class), eq(june), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(booking(9L, june)));
+        when(bookingRepository.findArchiveChunk(any(LocalDateTime.class), eq(june), eq(9L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThat(archiveService.archiveOldBookings()).isEqualTo(3);
+
+        assertThat(tempDir.resolve("bookings-2020-05-4.cba")).exists();
+        assertThat(tempDir.resolve("bookings-2020-06-3.cba")).exists();
+        assertThat(tempDir.resolve("bookings-2020-06-9.cba")).exists();
+        verify(bookingRepository).deleteAllByIdInBatch(List.of(4L, 3L));
+        verify(bookingRepository).deleteAllByIdInBatch(List.of(9L));
+        assertThat(archiveService.queryArchive(new ArchiveQuery(june, null, null, null, null)))
+                .extracting(BookingResponseDTO::getId).containsExactlyInAnyOrder(3L, 9L);
+    }
+
+    @Test
+    void testQueryArchive_ReadsMonthlyFilesAndDeduplicatesRerunChunks() throws Exception {
+        LocalDateTime screening = LocalDateTime.of(2020, 5, 10, 19, 30);
+        BookingMapper mapper = new BookingMapper();
+        ColumnarBookingFile.write(tempDir.resolve("bookings-2020-05.cba"),
+                List.of(mapper.toResponseDTO(booking(1L, screening))));
+        ColumnarBookingFile.write(tempDir.resolve("bookings-2020-05-1.cba"),
+                List.of(mapper.toResponseDTO(booking(1L, screening)), mapper.toResponseDTO(booking(2L, screening))));
+        Files.createFile(tempDir.resolve("bookings-2020-05-x.cba"));
+
+        assertThat(archiveService.queryArchive(new ArchiveQuery()))
+                .extracting(BookingResponseDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testArchiveOldBookings_NothingToArchive() {
+        when(bookingRepository.findFirstByScreeningTimeBeforeOrderByScreeningTimeAsc(any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThat(archiveService.archiveOldBookings()).isZero();
+        verify(bookingRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void testQueryArchive_MissingDirectory() {
+        BookingArchiveService service = new BookingArchiveService(bookingRepository, new BookingMapper(),
+                eventPublisher, tempDir.resolve("missing").toString(), true, 365, 2);
+
+        assertThat(service.queryArchive(new ArchiveQuery())).isEmpty();
+    }
+}
@@ -0,0 +1,96 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingBatchResultDTO;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.BatchLimitExceededException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingBatchServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void testGetBookings_PreservesRequestOrderAndReportsMissing() {
+        when(bookingRepository.findByIdArray(new Long[]{3L, 1L, 2L}))
+                .thenReturn(List.of(booking(1L), booking(3L)));
+
+        BookingBatchResultDTO result = service(10, 2).getBookings(Arrays.asList(3L, 1L, 3L, null, 2L));
+
+        assertThat(result.getBookings()).extracting("id").containsExactly(3L, 1L);
+        assertThat(result.getMissingIds()).containsExactly(2L);
+    }
+
+    @Test
+    void testGetBookings_RejectsMoreIdsThanTheCap() {
+        assertThatThrownBy(() -> service(2, 2).getBookings(List.of(1L, 2L, 3L)))
+                .isInstanceOf(BatchLimitExceededException.class)
+                .hasMessageContaining("at most 2");
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testGetBookings_EmptyRequestSkipsQuery() {
+        BookingBatchResultDTO result = service(10, 2).getBookings(List.of());
+
+        assertThat(result.getBookings()).isEmpty();
+        assertThat(result.getMissingIds()).isEmpty();
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testStreamBookings_WritesOneLinePerIdInChunks() throws Exception {
+        when(bookingRepository.findByIdArray(argThat(ids -> ids != null && ids.length > 0)))
+                .thenAnswer(invocation -> Arrays.stream((Long[]) invocation.getArgument(0))
+                        .filter(id -> id != 2L)
+                        .map(BookingBatchServiceTest::booking)
+                        .toList());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service(10, 2).streamBookings(List.of(4L, 2L, 1L)).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).get("booking").get("id").asLong()).isEqualTo(4L);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+        assertThat(objectMapper.readTree(lines[1]).get("booking").isNull()).isTrue();
+        assertThat(objectMapper.readTree(lines[2]).get("booking").get("id").asLong()).isEqualTo(1L);
+        verify(bookingRepository, times(2)).findByIdArray(argThat(ids -> ids != null && ids.length > 0));
+    }
+
+    private BookingBatchService service(int maxIds, int chunkSize) {
+        return new BookingBatchService(bookingRepository, new BookingMapper(), objectMapper, maxIds, 100, chunkSize);
+    }
+
+    private static Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(1L);
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
@@ -0,0 +1,201 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingChangeDTO;
+import com.cinema.bookings.dto.BookingChangeFeedDTO;
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.entity.BookingChange;
+import com.cinema.bookings.exception.ChangeFeedExpiredException;
+import com.cinema.bookings.exception.InvalidCursorException;
+import com.cinema.bookings.repository.BookingChangeRepository;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingChangeFeedServiceTest {
+
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Mock
+    private BookingChangeRepository bookingChangeRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingChangeFeedService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BookingChangeFeedService(bookingChangeRepository, bookingRepository, new BookingMapper(),
+                transactionManager, 2, 1000, 20, 200, 100, 24, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testGetChanges_ReturnsChangesWithCurrentStateAndTombstones() {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(1L);
+        when(bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(10L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(change(11, 5L, BookingChange.UPDATE), change(12, 6L, BookingChange.DELETE)));
+        when(bookingRepository.findByIdArray(new Long[]{5L})).thenReturn(List.of(booking(5L)));
+
+        BookingChangeFeedDTO feed = service.getChanges(10L, 100, 0).join();
+
+        assertThat(feed.getChanges()).extracting(BookingChangeDTO::getSeq).containsExactly(11L, 12L);
+        assertThat(feed.getChanges()).extracting(BookingChangeDTO::getType).containsExactly("UPDATED", "DELETED");
+        assertThat(feed.getChanges().get(0).getBooking().getStatus()).isEqualTo("CONFIRMED");
+        assertThat(feed.getChanges().get(1).getBooking()).isNull();
+        assertThat(feed.getNextCursor()).isEqualTo(12L);
+        assertThat(feed.isHasMore()).isFalse();
+    }
+
+    @Test
+    void testGetChanges_CapsLimitAndReportsMore() {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(1L);
+        when(bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(change(1, 1L, BookingChange.DELETE), change(2, 2L, BookingChange.DELETE),
+                        change(3, 3L, BookingChange.DELETE)));
+
+        BookingChangeFeedDTO feed = service.getChanges(0L, 100, 0).join();
+
+        assertThat(feed.getChanges()).hasSize(2);
+        assertThat(feed.getNextCursor()).isEqualTo(2L);
+        assertThat(feed.isHasMore()).isTrue();
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testGetChanges_WithoutCursorStartsAtOldestRetained() {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(500L);
+        when(bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(499L, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+
+        assertThat(service.getChanges(null, 100, 0).join().getNextCursor()).isEqualTo(499L);
+    }
+
+    @Test
+    void testGetChanges_CursorOlderThanRetainedChangesIsExpired() {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(500L);
+
+        assertThatThrownBy(() -> service.getChanges(3L, 100, 0)).isInstanceOf(ChangeFeedExpiredException.class);
+        assertThatThrownBy(() -> service.getChanges(-1L, 100, 0)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void testGetChanges_LongPollReturnsChangesOnceSequenced() throws Exception {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(1L);
+        when(bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(eq(7L), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(change(8, 9L, BookingChange.DELETE)));
+        when(bookingChangeRepository.tryLockSequencer(anyLong())).thenReturn(true);
+        when(bookingChangeRepository.assignChangeSeq(anyInt())).thenReturn(1);
+
+        CompletableFuture<BookingChangeFeedDTO> feed = service.getChanges(7L, 100, 5000);
+        assertThat(feed).isNotDone();
+        assertThat(meterRegistry.get("bookings.changes.waiting").gauge().value()).isEqualTo(1.0);
+
+        service.sequencePending();
+
+        assertThat(feed.get(1, TimeUnit.SECONDS).getNextCursor()).isEqualTo(8L);
+        verify(bookingChangeRepository, times(2)).findByChangeSeqGreaterThanOrderByChangeSeqAsc(eq(7L), any());
+    }
+
+    @Test
+    void testCheckWaiters_AnswersChangesSequencedElsewhereAndSkipsCancelledWaits() {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(1L);
+        when(bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(eq(7L), any()))
+                .thenReturn(List.of(), List.of())
+                .thenReturn(List.of(change(8, 9L, BookingChange.DELETE)));
+        CompletableFuture<BookingChangeFeedDTO> gone = service.getChanges(7L, 100, 5000);
+        CompletableFuture<BookingChangeFeedDTO> feed = service.getChanges(7L, 100, 5000);
+        gone.cancel(false);
+
+        service.checkWaiters();
+
+        assertThat(feed.join().getNextCursor()).isEqualTo(8L);
+        assertThat(meterRegistry.get("bookings.changes.waiting").gauge().value()).isZero();
+        verify(bookingChangeRepository, times(3)).findByChangeSeqGreaterThanOrderByChangeSeqAsc(eq(7L), any());
+    }
+
+    @Test
+    void testGetChanges_LongPollGivesUpAfterWait() {
+        when(bookingChangeRepository.findMinChangeSeq()).thenReturn(null);
+        when(bookingChangeRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(eq(0L), any())).thenReturn(List.of());
+
+        long started = System.nanoTime();
+        BookingChangeFeedDTO feed = service.getChanges(0L, 100, 100).join();
+
+        assertThat(feed.getChanges()).isEmpty();
+        assertThat(feed.getNextCursor()).isZero();
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(100_000_000L);
+    }
+
+    @Test
+    void testSequencePending_SkipsWhileAnotherInstanceSequences() {
+        when(bookingChangeRepository.tryLockSequencer(anyLong())).thenReturn(false);
+
+        assertThat(service.sequencePending()).isZero();
+        verify(bookingChangeRepository, never()).assignChangeSeq(anyInt());
+    }
+
+    @Test
+    void testGetHead() {
+        when(bookingChangeRepository.findMaxChangeSeq()).thenReturn(null).thenReturn(77L);
+
+        assertThat(service.getHead().getNextCursor()).isZero();
+        assertThat(service.getHead().getNextCursor()).isEqualTo(77L);
+    }
+
+    private static BookingChange change(long seq, Long bookingId, String operation) {
+        BookingChange change = new BookingChange();
+        change.setId(seq + 1000);
+        change.setChangeSeq(seq);
+        change.setBookingId(bookingId);
+        change.setOperation(operation);
+        change.setChangedAt(CHANGED_AT);
+        return change;
+    }
+
+    private static Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(1L);
+        booking.setMovieId(2L);
+        booking.setScreeningTime(CHANGED_AT.plusDays(1));
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLifecycleServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.now().minusDays(1).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testRun_ClosesClaimedBookingsAndPublishesChanges() {
+        Booking attended = booking(1L, SCREENING.plusMinutes(10));
+        Booking missed = booking(2L, null);
+        when(bookingRepository.claimPastBookings(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(attended, missed));
+        when(bookingRepository.findOldestActiveScreeningBefore(any(LocalDateTime.class))).thenReturn(null);
+
+        BookingLifecycleService service = service(true, 10);
+        assertThat(service.run()).isEqualTo(2);
+
+        verify(bookingRepository).closeByIds(List.of(1L, 2L));
+        ArgumentCaptor<BookingChangedEvent> events = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(event -> event.getCurrent().getStatus())
+                .containsExactly("COMPLETED", "NO_SHOW");
+        assertThat(events.getAllValues()).extracting(event -> event.getPrevious().getStatus())
+                .containsOnly("CONFIRMED");
+        assertThat(attended.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(service.lagSeconds()).isZero();
+    }
+
+    @Test
+    void testRun_KeepsClaimingWhileBatchesAreFull() {
+        when(bookingRepository.claimPastBookings(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(booking(1L, null)))
+                .thenReturn(List.of());
+        when(bookingRepository.findOldestActiveScreeningBefore(any(LocalDateTime.class))).thenReturn(null);
+
+        assertThat(service(true, 1).run()).isEqualTo(1);
+
+        verify(bookingRepository, times(2)).claimPastBookings(any(LocalDateTime.class), anyInt());
+        verify(bookingRepository, times(1)).closeByIds(any());
+    }
+
+    @Test
+    void testRun_ReportsLagOfOldestUnclosedScreening() {
+        when(bookingRepository.claimPastBookings(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+        when(bookingRepository.findOldestActiveScreeningBefore(any(LocalDateTime.class)))
+                .thenReturn(LocalDateTime.now().minusMinutes(240).minusHours(2));
+
+        BookingLifecycleService service = service(true, 10);
+        service.run();
+
+        verify(bookingRepository, never()).closeByIds(any());
+        assertThat(service.lagSeconds()).isBetween(7190L, 7210L);
+    }
+
+    @Test
+    void testRun_DisabledDoesNothing() {
+        assertThat(service(false, 10).run()).isZero();
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private BookingLifecycleService service(boolean enabled, int batchSize) {
+        return new BookingLifecycleService(bookingRepository, new BookingMapper(), eventPublisher, transactionManager,
+                enabled, 240, batchSize, 5, new SimpleMeterRegistry());
+    }
+
+    private static Booking booking(Long id, LocalDateTime checkedInAt) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(1L);
+        booking.setScreeningTime(SCREENING);
+        booking.setStatus("CONFIRMED");
+        booking.setCheckedInAt(checkedInAt);
+        return booking;
+    }
+}
@@ -0,0 +1,120 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingSearchCriteria;
+import com.cinema.bookings.dto.BookingSearchResultDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.InvalidCursorException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.repository.BookingSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSearchServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 19, 30);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearch_ReturnsCursorWhenMoreRowsExist() {
+        when(bookingRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(booking(1L), booking(2L), booking(3L)));
+        when(entityManager.createNativeQuery(contains("movie_id = :movieId"))).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of("Seq Scan on bookings  (cost=0.00..35.50 rows=42 width=4)"));
+
+        BookingSearchCriteria criteria = new BookingSearchCriteria();
+        criteria.setMovieId(1L);
+        BookingSearchResultDTO result = service(2).search(criteria, null, 20);
+
+        assertThat(result.getItems()).extracting("id").containsExactly(1L, 2L);
+        assertThat(result.getEstimatedTotal()).isEqualTo(42);
+        BookingSearchService.Position next = BookingSearchService.decodeCursor(result.getNextCursor());
+        assertThat(next.screeningTime()).isEqualTo(SCREENING);
+        assertThat(next.id()).isEqualTo(2L);
+        verify(query).setParameter("movieId", 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearch_LastPageHasNoCursor() {
+        when(bookingRepository.findBy(any(Specification.class), any())).thenReturn(List.of(booking(3L)));
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        String cursor = BookingSearchService.encodeCursor(booking(2L));
+        BookingSearchResultDTO result = service(100).search(new BookingSearchCriteria(), cursor, 20);
+
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.getEstimatedTotal()).isEqualTo(-1);
+    }
+
+    @Test
+    void testSearch_RejectsMalformedCursor() {
+        assertThatThrownBy(() -> service(100).search(new BookingSearchCriteria(), "not-a-cursor", 20))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void testWhereClause_RendersEveryFilter() {
+        BookingSearchCriteria criteria = new BookingSearchCriteria(1L, "Jo", SCREENING, SCREENING.plusDays(1),
+                "confirmed", "b", 5.0, 20.0);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String where = BookingSpecifications.whereClause(criteria, parameters);
+
+        assertThat(where).isEqualTo("TRUE AND movie_id = :movieId AND lower(user_email) LIKE :email ESCAPE '\\' "
+                + "AND screening_time >= :from AND screening_time < :to AND status = :status "
+                + "AND seat_row = :seatRow AND price >= :minPrice AND price <= :maxPrice");
+        assertThat(parameters).containsEntry("email", "jo%").containsEntry("status", "CONFIRMED")
+                .containsEntry("seatRow", "B").containsEntry("to", SCREENING.plusDays(1)).hasSize(8);
+    }
+
+    @Test
+    void testLikePrefix_EscapesWildcards() {
+        assertThat(BookingSpecifications.likePrefix(" Jo_hn%\\ ")).isEqualTo("jo\\_hn\\%\\\\%");
+    }
+
+    private BookingSearchService service(int maxPageSize) {
+        return new BookingSearchService(bookingRepository, new BookingMapper(), entityManager, maxPageSize);
+    }
+
+    private static Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(1L);
+        booking.setUserEmail("user@example.com");
+        booking.setScreeningTime(SCREENING);
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
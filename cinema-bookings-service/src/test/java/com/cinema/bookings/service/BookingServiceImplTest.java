@@ -2,7 +2,9 @@ package com.cinema.bookings.service;
 
 import com.cinema.bookings.dto.*;
 import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
 import com.cinema.bookings.exception.BookingNotFoundException;
+import com.cinema.bookings.exception.OverlappingBookingException;
 import com.cinema.bookings.repository.BookingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
@@ -22,6 +25,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +41,21 @@ class BookingServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UpcomingTicketCache upcomingTicketCache;
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private ScreeningOverlapService screeningOverlapService;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -84,18 +103,54 @@ class BookingServiceImplTest {
     @Test
     void testCreateBooking_Success() {
         when(bookingMapper.toEntity(requestDTO)).thenReturn(booking);
-        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(seatReservationService.reserve(booking)).thenReturn(booking);
         when(bookingMapper.toResponseDTO(booking)).thenReturn(responseDTO);
 
         BookingResponseDTO result = bookingService.createBooking(requestDTO);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(bookingRepository).save(booking);
+        verify(seatReservationService).reserve(booking);
         verify(bookingMapper).toEntity(requestDTO);
         verify(bookingMapper).toResponseDTO(booking);
     }
 
+    @Test
+    void testCreateBooking_PublishesCreatedEvent() {
+        when(bookingMapper.toEntity(requestDTO)).thenReturn(booking);
+        when(seatReservationService.reserve(booking)).thenReturn(booking);
+        when(bookingMapper.toResponseDTO(booking)).thenReturn(responseDTO);
+
+        bookingService.createBooking(requestDTO);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BookingChangedEvent
+                && ((BookingChangedEvent) event).getType() == BookingChangedEvent.ChangeType.CREATED
+                && ((BookingChangedEvent) event).getCurrent() == responseDTO));
+    }
+
+    @Test
+    void testCreateBooking_RejectedOverlapIsNotReserved() {
+        when(bookingMapper.toEntity(requestDTO)).thenReturn(booking);
+        when(screeningOverlapService.check(booking)).thenThrow(new OverlappingBookingException(1L, List.of(7L)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(requestDTO))
+                .isInstanceOf(OverlappingBookingException.class);
+
+        verify(seatReservationService, never()).reserve(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testGetUpcomingTickets_DelegatesToCache() {
+        UpcomingTicketDTO ticket = new UpcomingTicketDTO(1L, 1L, "Test Movie",
+                LocalDateTime.now().plusDays(1), "A", 5);
+        when(upcomingTicketCache.getUpcomingTickets(1L, 5)).thenReturn(List.of(ticket));
+
+        List<UpcomingTicketDTO> result = bookingService.getUpcomingTickets(1L, 5);
+
+        assertThat(result).containsExactly(ticket);
+    }
+
     @Test
     void testGetBookingById_Found() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
@@ -119,14 +174,14 @@ class BookingServiceImplTest {
     @Test
     void testUpdateBooking_Success() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(seatReservationService.reserve(booking)).thenReturn(booking);
         when(bookingMapper.toResponseDTO(booking)).thenReturn(responseDTO);
 
         BookingResponseDTO result = bookingService.updateBooking(1L, requestDTO);
 
         assertThat(result).isNotNull();
         verify(bookingMapper).updateEntityFromDTO(requestDTO, booking);
-        verify(bookingRepository).save(booking);
+        verify(seatReservationService).reserve(booking);
     }
 
     @Test
@@ -190,6 +245,17 @@ class BookingServiceImplTest {
         verify(bookingRepository).findByStatus("PENDING");
     }
 
+    @Test
+    void testGetBookingCountsByMovie() {
+        when(bookingRepository.countActiveByMovie())
+                .thenReturn(List.of(new Object[]{1L, 3L}, new Object[]{2L, 1L}));
+
+        Map<Long, Long> result = bookingService.getBookingCountsByMovie();
+
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 3L, 2L, 1L));
+        verify(bookingRepository, never()).findAll();
+    }
+
     @Test
     void testSortBookings_ByScreeningTime() {
         List<Booking> bookings = Arrays.asList(booking);
@@ -209,7 +275,7 @@ class BookingServiceImplTest {
         when(restTemplate.getForObject(eq("http://localhost:8082/api/users/1"), eq(UserResponseDTO.class)))
                 .thenReturn(userResponseDTO);
         when(bookingMapper.toEntity(requestDTO)).thenReturn(booking);
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(seatReservationService.reserve(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toResponseDTO(booking)).thenReturn(responseDTO);
 
         BookingResponseDTO result = bookingService.createBookingWithValidation(requestDTO);
@@ -217,7 +283,7 @@ class BookingServiceImplTest {
         assertThat(result).isNotNull();
         verify(restTemplate).getForObject(eq("http://localhost:8081/api/movies/1"), eq(MovieResponseDTO.class));
         verify(restTemplate).getForObject(eq("http://localhost:8082/api/users/1"), eq(UserResponseDTO.class));
-        verify(bookingRepository).save(any(Booking.class));
+        verify(seatReservationService).reserve(any(Booking.class));
     }
 
     @Test
@@ -247,13 +313,13 @@ class BookingServiceImplTest {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         when(restTemplate.getForObject(eq("http://localhost:8082/api/users/1"), eq(UserResponseDTO.class)))
                 .thenReturn(userResponseDTO);
-        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(seatReservationService.reserve(booking)).thenReturn(booking);
         when(bookingMapper.toResponseDTO(booking)).thenReturn(responseDTO);
 
         BookingResponseDTO result = bookingService.confirmBooking(1L);
 
         assertThat(result).isNotNull();
-        verify(bookingRepository).save(booking);
+        verify(seatReservationService).reserve(booking);
         verify(restTemplate).getForObject(eq("http://localhost:8082/api/users/1"), eq(UserResponseDTO.class));
     }
 
@@ -268,18 +334,17 @@ class BookingServiceImplTest {
     @Test
     void testGetEnrichedBooking_Success() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(restTemplate.getForObject(eq("http://localhost:8081/api/movies/1"), eq(MovieResponseDTO.class)))
-                .thenReturn(movieResponseDTO);
-        when(restTemplate.getForObject(eq("http://localhost:8082/api/users/1"), eq(UserResponseDTO.class)))
-                .thenReturn(userResponseDTO);
+        when(referenceDataCache.getMovie(1L)).thenReturn(movieResponseDTO);
+        when(referenceDataCache.getUser(1L)).thenReturn(userResponseDTO);
         when(bookingMapper.toResponseDTO(booking)).thenReturn(responseDTO);
 
         Map<String, Object> result = bookingService.getEnrichedBooking(1L);
 
         assertThat(result).isNotNull();
         assertThat(result).containsKeys("booking", "movie", "user");
-        verify(restTemplate).getForObject(eq("http://localhost:8081/api/movies/1"), eq(MovieResponseDTO.class));
-        verify(restTemplate).getForObject(eq("http://localhost:8082/api/users/1"), eq(UserResponseDTO.class));
+        assertThat(result.get("movie")).isSameAs(movieResponseDTO);
+        assertThat(result.get("user")).isSameAs(userResponseDTO);
+        verifyNoInteractions(restTemplate);
     }
 
     @Test
@@ -0,0 +1,104 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UpcomingTicketCache upcomingTicketCache;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Test
+    void testWarmUp_PreloadsEachBookedUserAndMovieOnce() {
+        stubBookings(booking(1L, 10L), booking(1L, 10L), booking(2L, 10L), booking(2L, 20L));
+
+        CacheWarmupService service = service(true, 30000);
+        assertThat(service.warmUp()).isEqualTo(4);
+
+        verify(referenceDataCache).preloadMovie(10L);
+        verify(referenceDataCache).preloadMovie(20L);
+        verify(referenceDataCache).preloadUser(1L);
+        verify(referenceDataCache).preloadUser(2L);
+        verify(upcomingTicketCache, times(2)).preload(any());
+        assertThat(service.isCompleted()).isTrue();
+    }
+
+    @Test
+    void testWarmUp_FailedLookupsStayCold() {
+        stubBookings(booking(1L, 10L));
+        doThrow(new ResourceAccessException("movies-service down")).when(referenceDataCache).preloadMovie(10L);
+
+        CacheWarmupService service = service(true, 30000);
+        assertThat(service.warmUp()).isEqualTo(1);
+        assertThat(service.isCompleted()).isTrue();
+    }
+
+    @Test
+    void testWarmUp_GivesUpWhenBudgetRunsOut() {
+        stubBookings(booking(1L, 10L));
+        doAnswer(invocation -> {
+            Thread.sleep(5000);
+            return null;
+        }).when(referenceDataCache).preloadMovie(10L);
+
+        CacheWarmupService service = service(true, 100);
+        long started = System.nanoTime();
+        service.warmUp();
+
+        assertThat(System.nanoTime() - started).isLessThan(2_000_000_000L);
+        assertThat(service.isCompleted()).isFalse();
+    }
+
+    @Test
+    void testOnApplicationReady_DisabledDoesNothing() {
+        service(false, 30000).onApplicationReady();
+
+        verifyNoInteractions(bookingRepository, upcomingTicketCache, referenceDataCache);
+    }
+
+    private void stubBookings(Booking... bookings) {
+        when(bookingRepository.findByStatusInAndScreeningTimeGreaterThanEqualAndScreeningTimeLessThan(
+                anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookings));
+    }
+
+    private CacheWarmupService service(boolean enabled, long budgetMs) {
+        return new CacheWarmupService(bookingRepository, upcomingTicketCache, referenceDataCache,
+                enabled, 6, budgetMs, 4, new SimpleMeterRegistry());
+    }
+
+    private static Booking booking(Long userId, Long movieId) {
+        Booking booking = new Booking();
+        booking.setUserId(userId);
+        booking.setMovieId(movieId);
+        booking.setScreeningTime(LocalDateTime.now().plusHours(2));
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
@@ -0,0 +1,300 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.CheckInRequestDTO;
+import com.cinema.bookings.dto.CheckInResultDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.event.ShardRingChangedEvent;
+import com.cinema.bookings.exception.CheckInUnavailableException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.sharding.ConsistentHashRing;
+import com.cinema.bookings.sharding.ShardNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CheckInServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.now().plusMinutes(30).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CheckInService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CheckInService(bookingRepository, 60, 180, 2, meterRegistry);
+    }
+
+    @Test
+    void testPreload_ThenCheckInWithoutDatabaseLookups() {
+        when(bookingRepository.findByStatusAndScreeningTimeGreaterThanEqualAndScreeningTimeLessThan(
+                eq("CONFIRMED"), any(), any())).thenReturn(List.of(booking(1L), booking(2L)));
+
+        service.preloadUpcomingScreenings();
+        CheckInResultDTO result = service.checkIn(scan(1L, null));
+
+        assertThat(result.getResult()).isEqualTo(CheckInResultDTO.ADMITTED);
+        assertThat(result.getCheckedInAt()).isNotNull();
+        assertThat(service.loadedScreenings()).isEqualTo(1);
+        verify(bookingRepository, never()).findByMovieIdAndScreeningTimeAndStatus(any(), any(), any());
+        verify(bookingRepository, never()).findById(any());
+    }
+
+    @Test
+    void testCheckIn_LoadsScreeningOnFirstScanAndRejectsUnknownTicket() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+
+        assertThat(service.checkIn(scan(99L, null)).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+        assertThat(service.checkIn(scan(1L, null)).getResult()).isEqualTo(CheckInResultDTO.ADMITTED);
+        verify(bookingRepository, times(1)).findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED");
+        assertThat(meterRegistry.get("bookings.check_in.scans").tag("result", "invalid").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testCheckIn_SecondScanIsDuplicateWithFirstScanTime() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+        LocalDateTime firstScan = SCREENING.minusMinutes(10);
+
+        service.checkIn(scan(1L, firstScan));
+        CheckInResultDTO second = service.checkIn(scan(1L, null));
+
+        assertThat(second.getResult()).isEqualTo(CheckInResultDTO.DUPLICATE);
+        assertThat(second.getCheckedInAt()).isEqualTo(firstScan);
+    }
+
+    @Test
+    void testCheckIn_AlreadyCheckedInBeforeRestart() {
+        Booking checkedIn = booking(1L);
+        checkedIn.setCheckedInAt(SCREENING.minusMinutes(5));
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(checkedIn));
+
+        assertThat(service.checkIn(scan(1L, null)).getResult()).isEqualTo(CheckInResultDTO.DUPLICATE);
+    }
+
+    @Test
+    void testCheckIn_ConcurrentScansAdmitOnce() throws Exception {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CheckInResultDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return service.checkIn(scan(1L, null));
+            }));
+        }
+        start.countDown();
+
+        int admitted = 0;
+        for (Future<CheckInResultDTO> result : results) {
+            if (CheckInResultDTO.ADMITTED.equals(result.get().getResult())) {
+                admitted++;
+            }
+        }
+        pool.shutdown();
+
+        assertThat(admitted).isEqualTo(1);
+        verify(bookingRepository, times(1)).markCheckedIn(eq(List.of(1L)), any());
+        assertThat(service.pendingWrites()).isZero();
+    }
+
+    @Test
+    void testCheckIn_ConcurrentScansOfDifferentTicketsAreAllWrittenBeforeReturning() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 1; id <= 32; id++) {
+            bookings.add(booking(id));
+        }
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(bookings);
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        when(bookingRepository.markCheckedIn(anyList(), any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            written.addAll(ids);
+            return ids.size();
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long id = 1; id <= 32; id++) {
+            long bookingId = id;
+            results.add(pool.submit(() -> {
+                start.await();
+                service.checkIn(scan(bookingId, SCREENING.minusMinutes(10)));
+                return written.contains(bookingId);
+            }));
+        }
+        start.countDown();
+
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        pool.shutdown();
+
+        assertThat(written).hasSize(32).doesNotHaveDuplicates();
+        assertThat(service.pendingWrites()).isZero();
+    }
+
+    @Test
+    void testCheckInAll_WritesOneStatementPerSecondInBatchesBeforeReturning() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L), booking(2L), booking(3L)));
+        LocalDateTime first = SCREENING.minusMinutes(10);
+        LocalDateTime second = SCREENING.minusMinutes(9);
+
+        service.checkInAll(List.of(scan(1L, first), scan(2L, first), scan(3L, second)));
+
+        verify(bookingRepository).markCheckedIn(List.of(1L, 2L), first);
+        verify(bookingRepository).markCheckedIn(List.of(3L), second);
+        assertThat(service.pendingWrites()).isZero();
+    }
+
+    @Test
+    void testCheckIn_WriteFailureIsNotAcknowledged() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+        when(bookingRepository.markCheckedIn(anyList(), any()))
+                .thenThrow(new RuntimeException("database down"))
+                .thenReturn(1);
+
+        assertThrows(CheckInUnavailableException.class, () -> service.checkIn(scan(1L, null)));
+
+        assertThat(service.checkIn(scan(1L, null)).getResult()).isEqualTo(CheckInResultDTO.ADMITTED);
+        assertThat(service.pendingWrites()).isZero();
+    }
+
+    @Test
+    void testCheckIn_TicketMissingFromGateIsLookedUp() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+        when(bookingRepository.findById(5L)).thenReturn(Optional.of(booking(5L)));
+        Booking otherScreening = booking(6L);
+        otherScreening.setScreeningTime(SCREENING.plusHours(3));
+        when(bookingRepository.findById(6L)).thenReturn(Optional.of(otherScreening));
+
+        assertThat(service.checkIn(scan(5L, null)).getResult()).isEqualTo(CheckInResultDTO.ADMITTED);
+        assertThat(service.checkIn(scan(5L, null)).getResult()).isEqualTo(CheckInResultDTO.DUPLICATE);
+        assertThat(service.checkIn(scan(6L, null)).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+        verify(bookingRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void testOnShardRingChanged_DropsScreeningsOwnedElsewhere() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+        service.checkIn(scan(1L, null));
+
+        service.onShardRingChanged(new ShardRingChangedEvent(
+                new ConsistentHashRing(List.of(new ShardNode("node-a", "http://a:8083")), 16), "node-a"));
+        assertThat(service.loadedScreenings()).isEqualTo(1);
+
+        service.onShardRingChanged(new ShardRingChangedEvent(
+                new ConsistentHashRing(List.of(new ShardNode("node-b", "http://b:8083")), 16), "node-a"));
+        assertThat(service.loadedScreenings()).isZero();
+    }
+
+    @Test
+    void testOnBookingChanged_CancellationRevokesTicket() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of(booking(1L)));
+        assertThat(service.checkIn(scan(5L, null)).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+
+        BookingMapper mapper = new BookingMapper();
+        BookingResponseDTO confirmed = mapper.toResponseDTO(booking(5L));
+        service.onBookingChanged(BookingChangedEvent.created(confirmed));
+        BookingResponseDTO cancelled = mapper.toResponseDTO(booking(5L));
+        cancelled.setStatus("CANCELLED");
+        service.onBookingChanged(BookingChangedEvent.updated(confirmed, cancelled));
+
+        assertThat(service.checkIn(scan(5L, null)).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+
+        service.onBookingChanged(BookingChangedEvent.updated(cancelled, confirmed));
+        assertThat(service.checkIn(scan(5L, null)).getResult()).isEqualTo(CheckInResultDTO.ADMITTED);
+    }
+
+    @Test
+    void testCheckInAll_IncompleteScanIsInvalid() {
+        List<CheckInResultDTO> results = service.checkInAll(List.of(new CheckInRequestDTO(1L, null, null, null)));
+
+        assertThat(results).extracting(CheckInResultDTO::getResult).containsExactly(CheckInResultDTO.INVALID);
+    }
+
+    @Test
+    void testCheckInAll_NullScanIsInvalid() {
+        List<CheckInResultDTO> results = service.checkInAll(Arrays.asList(null, new CheckInRequestDTO(1L, null, null, null)));
+
+        assertThat(results).extracting(CheckInResultDTO::getResult)
+                .containsExactly(CheckInResultDTO.INVALID, CheckInResultDTO.INVALID);
+    }
+
+    @Test
+    void testCheckIn_ScreeningOutsideWindowIsNeitherQueriedNorHeld() {
+        CheckInRequestDTO future = new CheckInRequestDTO(1L, 1L, LocalDateTime.now().plusDays(30), null);
+        CheckInRequestDTO past = new CheckInRequestDTO(1L, 1L, LocalDateTime.now().minusDays(1), null);
+
+        assertThat(service.checkIn(future).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+        assertThat(service.checkIn(past).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+
+        verify(bookingRepository, never()).findByMovieIdAndScreeningTimeAndStatus(any(), any(), any());
+        assertThat(service.loadedScreenings()).isZero();
+    }
+
+    @Test
+    void testCheckIn_ScreeningWithoutConfirmedBookingsIsNotHeld() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatus(1L, SCREENING, "CONFIRMED"))
+                .thenReturn(List.of());
+
+        assertThat(service.checkIn(scan(1L, null)).getResult()).isEqualTo(CheckInResultDTO.INVALID);
+
+        assertThat(service.loadedScreenings()).isZero();
+    }
+
+    private CheckInRequestDTO scan(Long bookingId, LocalDateTime scannedAt) {
+        return new CheckInRequestDTO(bookingId, 1L, SCREENING, scannedAt);
+    }
+
+    private Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(7L);
+        booking.setMovieId(1L);
+        booking.setScreeningTime(SCREENING);
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
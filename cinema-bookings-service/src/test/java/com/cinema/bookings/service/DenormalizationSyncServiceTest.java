@@ -0,0 +1,145 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.DenormalizedFieldChangeDTO;
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.event.MovieTitleSyncedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DenormalizationSyncServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DenormalizationSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        syncService = new DenormalizationSyncService(bookingRepository, restTemplate, eventPublisher, "http://movies", 30, 2, 0,
+                meterRegistry);
+    }
+
+    @Test
+    void testDrain_AppliesMovieTitleInChunksUntilInSync() {
+        when(bookingRepository.updateMovieTitleChunk(1L, "New Title", 2)).thenReturn(2, 2, 1);
+        syncService.enqueueMovieTitleChange(1L, new DenormalizedFieldChangeDTO("New Title", LocalDateTime.now()));
+
+        syncService.drain();
+
+        verify(bookingRepository, times(3)).updateMovieTitleChunk(1L, "New Title", 2);
+        verify(eventPublisher, times(3)).publishEvent(any(MovieTitleSyncedEvent.class));
+        assertThat(syncService.getPendingCount()).isZero();
+        assertThat(meterRegistry.get("bookings.denormalization.rows_updated").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void testEnqueue_CoalescesToNewestChange() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.updateUserEmailChunk(7L, "newest@example.com", 2)).thenReturn(0);
+        syncService.enqueueUserEmailChange(7L, new DenormalizedFieldChangeDTO("newest@example.com", now));
+        syncService.enqueueUserEmailChange(7L, new DenormalizedFieldChangeDTO("older@example.com", now.minusMinutes(1)));
+
+        assertThat(syncService.getPendingCount()).isEqualTo(1);
+        syncService.drain();
+
+        verify(bookingRepository).updateUserEmailChunk(7L, "newest@example.com", 2);
+        verify(bookingRepository, never()).updateUserEmailChunk(7L, "older@example.com", 2);
+    }
+
+    @Test
+    void testGetLagSeconds_ReportsOldestPendingChange() {
+        assertThat(syncService.getLagSeconds()).isZero();
+
+        syncService.enqueueMovieTitleChange(1L, new DenormalizedFieldChangeDTO("Title", LocalDateTime.now().minusSeconds(30)));
+
+        assertThat(syncService.getLagSeconds()).isGreaterThanOrEqualTo(30.0);
+        assertThat(meterRegistry.get("bookings.denormalization.lag.seconds").gauge().value()).isGreaterThanOrEqualTo(30.0);
+    }
+
+    @Test
+    void testDrain_KeepsChangeQueuedWhenUpdateFails() {
+        when(bookingRepository.updateMovieTitleChunk(anyLong(), anyString(), anyInt()))
+                .thenThrow(new RuntimeException("database unavailable"));
+        syncService.enqueueMovieTitleChange(1L, new DenormalizedFieldChangeDTO("Title", null));
+
+        syncService.drain();
+
+        assertThat(syncService.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testReconcileMovieTitles_QueuesMoviesWhoseTitleDrifted() {
+        when(bookingRepository.findMovieTitlesScreenedSince(any(LocalDateTime.class))).thenReturn(List.of(
+                new Object[]{1L, "Old Title"},
+                new Object[]{2L, "Same Title"},
+                new Object[]{3L, "Half Renamed"},
+                new Object[]{3L, "Renamed"}));
+        when(restTemplate.getForObject("http://movies/api/movies/1", MovieResponseDTO.class)).thenReturn(movie("New Title"));
+        when(restTemplate.getForObject("http://movies/api/movies/2", MovieResponseDTO.class)).thenReturn(movie("Same Title"));
+        when(restTemplate.getForObject("http://movies/api/movies/3", MovieResponseDTO.class)).thenReturn(movie("Renamed"));
+        when(bookingRepository.updateMovieTitleChunk(anyLong(), anyString(), anyInt())).thenReturn(0);
+
+        syncService.reconcileMovieTitles();
+        assertThat(syncService.getPendingCount()).isEqualTo(2);
+        syncService.drain();
+
+        verify(bookingRepository).updateMovieTitleChunk(1L, "New Title", 2);
+        verify(bookingRepository).updateMovieTitleChunk(3L, "Renamed", 2);
+        verify(bookingRepository, never()).updateMovieTitleChunk(2L, "Same Title", 2);
+    }
+
+    @Test
+    void testReconcileMovieTitles_SkipsUnreachableMovieAndKeepsNewerNotification() {
+        when(bookingRepository.findMovieTitlesScreenedSince(any(LocalDateTime.class))).thenReturn(List.of(
+                new Object[]{1L, "Old Title"},
+                new Object[]{2L, "Old Title"}));
+        when(restTemplate.getForObject("http://movies/api/movies/1", MovieResponseDTO.class))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        when(restTemplate.getForObject("http://movies/api/movies/2", MovieResponseDTO.class)).thenReturn(movie("Stale"));
+        syncService.enqueueMovieTitleChange(2L, new DenormalizedFieldChangeDTO("Newest", LocalDateTime.now().plusMinutes(1)));
+        when(bookingRepository.updateMovieTitleChunk(anyLong(), anyString(), anyInt())).thenReturn(0);
+
+        syncService.reconcileMovieTitles();
+        syncService.drain();
+
+        verify(bookingRepository).updateMovieTitleChunk(2L, "Newest", 2);
+        verify(bookingRepository, never()).updateMovieTitleChunk(1L, "Old Title", 2);
+        assertThat(syncService.getPendingCount()).isZero();
+    }
+
+    private static MovieResponseDTO movie(String title) {
+        MovieResponseDTO movie = new MovieResponseDTO();
+        movie.setTitle(title);
+        return movie;
+    }
+}
@@ -0,0 +1,170 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.DeadLetterDTO;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.notification.Notification;
+import com.cinema.bookings.notification.NotificationSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationSender sender;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = service(10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void testOnBookingChanged_QueuesConfirmationOnce() {
+        BookingResponseDTO pending = booking(1L, "PENDING");
+        BookingResponseDTO confirmed = booking(1L, "CONFIRMED");
+
+        service.onBookingChanged(BookingChangedEvent.updated(pending, confirmed));
+        service.onBookingChanged(BookingChangedEvent.updated(confirmed, confirmed));
+        service.onBookingChanged(BookingChangedEvent.created(booking(2L, "PENDING")));
+
+        assertThat(service.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void testOnBookingChanged_SkipsBookingWithoutEmail() {
+        BookingResponseDTO confirmed = booking(1L, "CONFIRMED");
+        confirmed.setUserEmail(null);
+
+        service.onBookingChanged(BookingChangedEvent.updated(booking(1L, "PENDING"), confirmed));
+
+        assertThat(service.queueDepth()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDispatchBatch_SendsQueuedNotificationsTogether() throws InterruptedException {
+        when(sender.send(anyList())).thenReturn(List.of());
+        service.onBookingChanged(BookingChangedEvent.updated(booking(1L, "PENDING"), booking(1L, "CONFIRMED")));
+        service.onBookingChanged(BookingChangedEvent.updated(booking(2L, "PENDING"), booking(2L, "CONFIRMED")));
+
+        int attempted = service.dispatchBatch(0);
+
+        ArgumentCaptor<List<Notification>> batch = ArgumentCaptor.forClass(List.class);
+        verify(sender).send(batch.capture());
+        assertThat(attempted).isEqualTo(2);
+        assertThat(batch.getValue()).extracting(Notification::getRecipient)
+                .containsExactly("user@example.com", "user@example.com");
+        assertThat(batch.getValue().get(0).getBody()).contains("Test Movie").contains("row C, seat 7");
+        assertThat(meterRegistry.get("bookings.notifications.sent").counter().count()).isEqualTo(2.0);
+        assertThat(service.queueDepth()).isZero();
+    }
+
+    @Test
+    void testDispatchBatch_RetriesThenDeadLetters() throws InterruptedException {
+        when(sender.send(anyList())).thenAnswer(invocation -> {
+            List<Notification> batch = invocation.getArgument(0);
+            batch.forEach(notification -> notification.recordFailure("421 service not available"));
+            return batch;
+        });
+        service.enqueue(new Notification(1L, "user@example.com", "Booking confirmed", "body"));
+
+        service.dispatchBatch(0);
+        assertThat(service.retryDepth()).isEqualTo(1);
+        service.dispatchBatch(0);
+        service.dispatchBatch(0);
+
+        List<DeadLetterDTO> deadLetters = service.getDeadLetters();
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(3);
+        assertThat(deadLetters.get(0).getLastError()).isEqualTo("421 service not available");
+        assertThat(service.retryDepth()).isZero();
+        assertThat(meterRegistry.get("bookings.notifications.failed").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("bookings.notifications.dead_lettered").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testDispatchBatch_SenderExceptionCountsAsFailure() throws InterruptedException {
+        when(sender.send(anyList())).thenThrow(new IllegalStateException("boom"));
+        service.enqueue(new Notification(1L, "user@example.com", "Booking confirmed", "body"));
+
+        service.dispatchBatch(0);
+
+        assertThat(service.retryDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void testDispatchBatch_NothingQueued() throws InterruptedException {
+        assertThat(service.dispatchBatch(0)).isZero();
+        verify(sender, never()).send(anyList());
+    }
+
+    @Test
+    void testEnqueue_FullQueueDeadLettersWithoutBlocking() throws InterruptedException {
+        service.shutdown();
+        service = service(1);
+
+        assertThat(service.enqueue(new Notification(1L, "a@example.com", "s", "b"))).isTrue();
+        assertThat(service.enqueue(new Notification(2L, "b@example.com", "s", "b"))).isFalse();
+
+        assertThat(service.getDeadLetters()).extracting(DeadLetterDTO::getBookingId).containsExactly(2L);
+    }
+
+    @Test
+    void testRequeueDeadLetters() throws InterruptedException {
+        service.shutdown();
+        service = service(1);
+        service.enqueue(new Notification(1L, "a@example.com", "s", "b"));
+        service.enqueue(new Notification(2L, "b@example.com", "s", "b"));
+        when(sender.send(anyList())).thenReturn(List.of());
+        service.dispatchBatch(0);
+
+        int requeued = service.requeueDeadLetters();
+
+        assertThat(requeued).isEqualTo(1);
+        assertThat(service.getDeadLetters()).isEmpty();
+        assertThat(service.queueDepth()).isEqualTo(1);
+    }
+
+    private NotificationService service(int queueCapacity) {
+        return new NotificationService(sender, true, queueCapacity, 50, 0, 3, 0, 100, meterRegistry);
+    }
+
+    private static BookingResponseDTO booking(Long id, String status) {
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setId(id);
+        booking.setUserId(1L);
+        booking.setMovieId(1L);
+        booking.setMovieTitle("Test Movie");
+        booking.setUserEmail("user@example.com");
+        booking.setScreeningTime(LocalDateTime.of(2030, 5, 1, 20, 0));
+        booking.setSeatRow("C");
+        booking.setSeatNumber(7);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,68 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.dto.UserResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReferenceDataCache(restTemplate, "http://movies", "http://users", 60, 100,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testGetMovie_FetchesOnceAndCountsHits() {
+        MovieResponseDTO movie = new MovieResponseDTO();
+        movie.setTitle("Inception");
+        when(restTemplate.getForObject("http://movies/api/movies/1", MovieResponseDTO.class)).thenReturn(movie);
+
+        assertThat(cache.getMovie(1L)).isSameAs(movie);
+        assertThat(cache.getMovie(1L)).isSameAs(movie);
+
+        verify(restTemplate, times(1)).getForObject("http://movies/api/movies/1", MovieResponseDTO.class);
+        assertThat(cache.movieHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testPreloadUser_ServesLaterLookupsFromMemory() {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setEmail("ana@example.com");
+        when(restTemplate.getForObject("http://users/users/7", UserResponseDTO.class)).thenReturn(user);
+
+        cache.preloadUser(7L);
+        cache.preloadUser(7L);
+
+        assertThat(cache.getUser(7L)).isSameAs(user);
+        verify(restTemplate, times(1)).getForObject("http://users/users/7", UserResponseDTO.class);
+    }
+
+    @Test
+    void testGetMovie_UnknownMovieIsNotCached() {
+        when(restTemplate.getForObject("http://movies/api/movies/9", MovieResponseDTO.class)).thenReturn(null);
+
+        assertThat(cache.getMovie(9L)).isNull();
+        assertThat(cache.getMovie(9L)).isNull();
+
+        verify(restTemplate, times(2)).getForObject("http://movies/api/movies/9", MovieResponseDTO.class);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,180 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingRequestDTO;
+import com.cinema.bookings.dto.FlaggedAccountDTO;
+import com.cinema.bookings.exception.BookingThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScalperDetectionServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRecordAttempt_FlagsUserOverScreeningLimit() {
+        ScalperDetectionService service = service("flag");
+
+        for (int i = 0; i < 4; i++) {
+            service.recordAttempt(request(1L, 10L));
+        }
+
+        List<FlaggedAccountDTO> flagged = service.getFlaggedAccounts();
+        assertThat(flagged).hasSize(1);
+        assertThat(flagged.get(0).getUserId()).isEqualTo(1L);
+        assertThat(flagged.get(0).getEstimatedAttempts()).isGreaterThanOrEqualTo(4);
+        assertThat(meterRegistry.get("bookings.scalper.flagged").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecordAttempt_FlagsUserOverTotalLimitAcrossScreenings() {
+        ScalperDetectionService service = service("flag");
+
+        for (long movieId = 1; movieId <= 6; movieId++) {
+            service.recordAttempt(request(2L, movieId));
+        }
+
+        assertThat(service.getFlaggedAccounts())
+                .extracting(FlaggedAccountDTO::getUserId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void testRecordAttempt_LeavesOrdinaryUsersAlone() {
+        ScalperDetectionService service = service("flag");
+
+        for (long userId = 1; userId <= 50; userId++) {
+            service.recordAttempt(request(userId, 10L));
+            service.recordAttempt(request(userId, 10L));
+        }
+
+        assertThat(service.getFlaggedAccounts()).isEmpty();
+        assertThat(meterRegistry.get("bookings.scalper.hot_screening").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecordAttempt_ThrottleModeRejectsOverLimit() {
+        ScalperDetectionService service = service("throttle");
+
+        for (int i = 0; i < 3; i++) {
+            service.recordAttempt(request(1L, 10L));
+        }
+
+        assertThatThrownBy(() -> service.recordAttempt(request(1L, 10L)))
+                .isInstanceOf(BookingThrottledException.class);
+        assertThatCode(() -> service.recordAttempt(request(2L, 10L))).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("bookings.scalper.throttled").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecordAttempt_ThrottledRetriesAreNotCounted() {
+        ScalperDetectionService service = service("throttle");
+        for (int i = 0; i < 3; i++) {
+            service.recordAttempt(request(1L, 10L));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> service.recordAttempt(request(1L, 10L)))
+                    .isInstanceOf(BookingThrottledException.class);
+        }
+
+        assertThat(service.getFlaggedAccounts()).singleElement()
+                .extracting(FlaggedAccountDTO::getEstimatedAttempts).isEqualTo(4);
+        assertThat(meterRegistry.get("bookings.scalper.throttled").counter().count()).isEqualTo(10.0);
+    }
+
+    @Test
+    void testRecordAttempt_ConcurrentFlagsStayWithinCapacity() throws Exception {
+        ScalperDetectionService service = new ScalperDetectionService(true, "flag", 600, 0, 0, 100_000, 1024, 5,
+                meterRegistry);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (long userId = 1; userId <= 200; userId++) {
+            long id = userId;
+            results.add(pool.submit(() -> {
+                start.await();
+                service.recordAttempt(request(id, 10L));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+
+        assertThat(service.getFlaggedAccounts()).hasSize(5);
+        service.clearFlag(service.getFlaggedAccounts().get(0).getUserId());
+        service.recordAttempt(request(1000L, 10L));
+        assertThat(service.getFlaggedAccounts()).hasSize(5);
+    }
+
+    @Test
+    void testRecordAttempt_DisabledDoesNothing() {
+        ScalperDetectionService service = new ScalperDetectionService(false, "throttle", 600, 1, 1, 1, 1024, 100,
+                meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            service.recordAttempt(request(1L, 10L));
+        }
+
+        assertThat(service.getFlaggedAccounts()).isEmpty();
+    }
+
+    @Test
+    void testClearFlag() {
+        ScalperDetectionService service = service("flag");
+        for (int i = 0; i < 4; i++) {
+            service.recordAttempt(request(1L, 10L));
+        }
+
+        service.clearFlag(1L);
+
+        assertThat(service.getFlaggedAccounts()).isEmpty();
+    }
+
+    @Test
+    void testRecordAttempt_StopsTrackingNewAccountsAtCapacity() {
+        ScalperDetectionService service = new ScalperDetectionService(true, "flag", 600, 0, 0, 1000, 1024, 2,
+                meterRegistry);
+
+        for (long userId = 1; userId <= 5; userId++) {
+            service.recordAttempt(request(userId, 10L));
+        }
+
+        assertThat(service.getFlaggedAccounts()).hasSize(2);
+    }
+
+    private ScalperDetectionService service(String mode) {
+        return new ScalperDetectionService(true, mode, 600, 5, 3, 60, 1024, 100, meterRegistry);
+    }
+
+    private static BookingRequestDTO request(Long userId, Long movieId) {
+        BookingRequestDTO request = new BookingRequestDTO();
+        request.setUserId(userId);
+        request.setMovieId(movieId);
+        request.setScreeningTime(SCREENING);
+        request.setPrice(100.0);
+        return request;
+    }
+}
@@ -0,0 +1,239 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.ScreeningCancellationJobDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.entity.ScreeningCancellationJob;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.exception.CancellationJobNotFoundException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.repository.ScreeningCancellationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScreeningCancellationServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ScreeningCancellationJobRepository jobRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScreeningCancellationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ScreeningCancellationService(bookingRepository, jobRepository, new BookingMapper(),
+                eventPublisher, 2, 2, 1, 60, meterRegistry);
+        lenient().when(jobRepository.save(any(ScreeningCancellationJob.class))).thenAnswer(invocation -> {
+            ScreeningCancellationJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(10L);
+            }
+            return job;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testRunJob_CancelsPagesInChunksAndCheckpoints() {
+        ScreeningCancellationJob job = job();
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(0L), any()))
+                .thenReturn(bookings(1, 4));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(4L), any()))
+                .thenReturn(bookings(5, 5));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(5L), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.cancelByIds(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.runJob(10L);
+
+        verify(bookingRepository, times(3)).cancelByIds(anyList());
+        verify(eventPublisher, times(5)).publishEvent(argThat((Object event) ->
+                event instanceof BookingChangedEvent changed
+                        && "CONFIRMED".equals(changed.getPrevious().getStatus())
+                        && "CANCELLED".equals(changed.getCurrent().getStatus())));
+        assertThat(job.getStatus()).isEqualTo(ScreeningCancellationJob.COMPLETED);
+        assertThat(job.getCancelledBookings()).isEqualTo(5);
+        assertThat(job.getLastProcessedId()).isEqualTo(5);
+        assertThat(meterRegistry.get("bookings.screening_cancel.cancelled").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void testRunJob_PublishesOnlyForRowsItCancelled() {
+        ScreeningCancellationJob job = job();
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(0L), any()))
+                .thenReturn(bookings(1, 2));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(2L), any()))
+                .thenReturn(Collections.emptyList());
+        // booking 1 was cancelled by its owner between the page read and the update
+        when(bookingRepository.cancelByIds(List.of(1L, 2L))).thenReturn(List.of(2L));
+
+        service.runJob(10L);
+
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                event instanceof BookingChangedEvent changed && changed.getCurrent().getId().equals(2L)));
+        verify(eventPublisher, never()).publishEvent(argThat((Object event) ->
+                event instanceof BookingChangedEvent changed && changed.getCurrent().getId().equals(1L)));
+        assertThat(job.getCancelledBookings()).isEqualTo(1);
+    }
+
+    @Test
+    void testResumeInterruptedJobs_OnlyResumesJobsItClaims() {
+        ScreeningCancellationJob held = job();
+        ScreeningCancellationJob orphaned = job();
+        orphaned.setId(11L);
+        when(jobRepository.findByStatus(ScreeningCancellationJob.RUNNING)).thenReturn(List.of(held, orphaned));
+        when(jobRepository.claimStale(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        when(jobRepository.claimStale(eq(11L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepository.findById(11L)).thenReturn(Optional.of(orphaned));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(0L), any()))
+                .thenReturn(Collections.emptyList());
+
+        service.resumeInterruptedJobs();
+
+        verify(jobRepository, timeout(2000)).save(argThat(saved ->
+                saved.getId().equals(11L) && ScreeningCancellationJob.COMPLETED.equals(saved.getStatus())));
+        verify(jobRepository, never()).findById(10L);
+    }
+
+    @Test
+    void testCancelScreening_LeavesJobRunningElsewhere() {
+        ScreeningCancellationJob running = job();
+        running.setUpdatedAt(LocalDateTime.now());
+        when(jobRepository.findFirstByMovieIdAndScreeningTimeAndStatusNotOrderByIdDesc(
+                1L, SCREENING, ScreeningCancellationJob.COMPLETED)).thenReturn(Optional.of(running));
+        when(jobRepository.claimForRestart(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        ScreeningCancellationJobDTO result = service.cancelScreening(1L, SCREENING);
+
+        assertThat(result.getStatus()).isEqualTo(ScreeningCancellationJob.RUNNING);
+        verify(jobRepository, never()).save(any(ScreeningCancellationJob.class));
+        verify(jobRepository, never()).findById(any());
+    }
+
+    @Test
+    void testRunJob_FailureKeepsCheckpoint() {
+        ScreeningCancellationJob job = job();
+        job.setLastProcessedId(4L);
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(4L), any()))
+                .thenReturn(bookings(5, 6));
+        when(bookingRepository.cancelByIds(anyList())).thenThrow(new RuntimeException("connection lost"));
+
+        service.runJob(10L);
+
+        assertThat(job.getStatus()).isEqualTo(ScreeningCancellationJob.FAILED);
+        assertThat(job.getLastProcessedId()).isEqualTo(4L);
+        assertThat(job.getErrorMessage()).contains("connection lost");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testCancelScreening_CreatesAndRunsJob() {
+        when(jobRepository.findFirstByMovieIdAndScreeningTimeAndStatusNotOrderByIdDesc(
+                1L, SCREENING, ScreeningCancellationJob.COMPLETED)).thenReturn(Optional.empty());
+        when(bookingRepository.countByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(0L);
+        when(jobRepository.findById(10L)).thenAnswer(invocation -> Optional.of(job()));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(0L), any()))
+                .thenReturn(Collections.emptyList());
+
+        ScreeningCancellationJobDTO result = service.cancelScreening(1L, SCREENING);
+
+        assertThat(result.getJobId()).isEqualTo(10L);
+        assertThat(result.getStatus()).isEqualTo(ScreeningCancellationJob.RUNNING);
+        verify(jobRepository, timeout(2000)).save(argThat(saved ->
+                ScreeningCancellationJob.COMPLETED.equals(saved.getStatus())));
+    }
+
+    @Test
+    void testCancelScreening_ResumesFailedJob() {
+        ScreeningCancellationJob failed = job();
+        failed.setStatus(ScreeningCancellationJob.FAILED);
+        failed.setLastProcessedId(40L);
+        failed.setErrorMessage("connection lost");
+        when(jobRepository.findFirstByMovieIdAndScreeningTimeAndStatusNotOrderByIdDesc(
+                1L, SCREENING, ScreeningCancellationJob.COMPLETED)).thenReturn(Optional.of(failed));
+        when(jobRepository.claimForRestart(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(failed));
+        when(bookingRepository.findCancellationCandidates(eq(1L), eq(SCREENING), eq(40L), any()))
+                .thenReturn(Collections.emptyList());
+
+        ScreeningCancellationJobDTO result = service.cancelScreening(1L, SCREENING);
+
+        assertThat(result.getCheckpointId()).isEqualTo(40L);
+        assertThat(result.getErrorMessage()).isNull();
+        verify(bookingRepository, never()).countByMovieIdAndScreeningTimeAndStatusNot(any(), any(), any());
+        verify(bookingRepository, timeout(2000)).findCancellationCandidates(eq(1L), eq(SCREENING), eq(40L), any());
+    }
+
+    @Test
+    void testGetJob_NotFound() {
+        when(jobRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getJob(99L)).isInstanceOf(CancellationJobNotFoundException.class);
+    }
+
+    private ScreeningCancellationJob job() {
+        ScreeningCancellationJob job = new ScreeningCancellationJob();
+        job.setId(10L);
+        job.setMovieId(1L);
+        job.setScreeningTime(SCREENING);
+        job.setStartedAt(LocalDateTime.now());
+        return job;
+    }
+
+    private List<Booking> bookings(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            Booking booking = new Booking();
+            booking.setId(id);
+            booking.setUserId(100L + id);
+            booking.setMovieId(1L);
+            booking.setScreeningTime(SCREENING);
+            booking.setStatus("CONFIRMED");
+            return booking;
+        }).toList();
+    }
+}
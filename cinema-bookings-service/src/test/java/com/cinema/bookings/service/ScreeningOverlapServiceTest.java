@@ -0,0 +1,219 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.MovieResponseDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.exception.OverlappingBookingException;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScreeningOverlapServiceTest {
+
+    private static final String MOVIES_URL = "http://movies";
+    private static final LocalDateTime EVENING = LocalDateTime.now().plusDays(2).withHour(19).withMinute(0).withSecond(0).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private final BookingMapper bookingMapper = new BookingMapper();
+
+    @Test
+    void testCheck_WarnsAboutOverlapWithoutRejecting() {
+        stubDuration(1L, 120);
+        stubDuration(2L, 90);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of(booking(5L, 1L, EVENING)));
+
+        List<Long> overlapping = service("warn").check(booking(null, 2L, EVENING.plusMinutes(90)));
+
+        assertThat(overlapping).containsExactly(5L);
+    }
+
+    @Test
+    void testCheck_RejectsOverlapInRejectMode() {
+        stubDuration(1L, 120);
+        stubDuration(2L, 90);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of(booking(5L, 1L, EVENING)));
+
+        when(bookingRepository.findAllById(List.of(5L))).thenReturn(List.of(booking(5L, 1L, EVENING)));
+
+        assertThatThrownBy(() -> service("reject").check(booking(null, 2L, EVENING.minusMinutes(30))))
+                .isInstanceOf(OverlappingBookingException.class)
+                .hasMessageContaining("[5]");
+    }
+
+    @Test
+    void testCheck_DoesNotRejectOverlapCancelledElsewhere() {
+        stubDuration(1L, 120);
+        stubDuration(2L, 90);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of(booking(5L, 1L, EVENING)));
+        Booking cancelled = booking(5L, 1L, EVENING);
+        cancelled.setStatus("CANCELLED");
+        when(bookingRepository.findAllById(List.of(5L))).thenReturn(List.of(cancelled));
+
+        assertThat(service("reject").check(booking(null, 2L, EVENING.minusMinutes(30)))).containsExactly(5L);
+    }
+
+    @Test
+    void testCheckLocked_LocksUserThenRejectsOverlapFoundInDatabase() {
+        stubDuration(1L, 120);
+        stubDuration(2L, 90);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(
+                eq(9L), any(), eq(EVENING.minusMinutes(30).minusHours(24))))
+                .thenReturn(List.of(booking(5L, 1L, EVENING)));
+        Booking booking = booking(null, 2L, EVENING.minusMinutes(30));
+
+        assertThatThrownBy(() -> service("reject").checkLocked(List.of(booking)))
+                .isInstanceOf(OverlappingBookingException.class)
+                .hasMessageContaining("[5]");
+
+        InOrder order = inOrder(bookingRepository);
+        order.verify(bookingRepository).lockUser(Long.hashCode(9L));
+        order.verify(bookingRepository).findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any());
+    }
+
+    @Test
+    void testCheckLocked_WarnModeAllowsOverlapAndSkipsInactiveBookings() {
+        stubDuration(1L, 120);
+        stubDuration(2L, 90);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of(booking(5L, 1L, EVENING)));
+        Booking cancelled = booking(null, 2L, EVENING.minusMinutes(30));
+        cancelled.setStatus("CANCELLED");
+
+        service("warn").checkLocked(List.of(booking(null, 2L, EVENING.minusMinutes(30)), cancelled));
+
+        verify(bookingRepository, times(1)).lockUser(Long.hashCode(9L));
+        verify(bookingRepository, times(1))
+                .findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any());
+    }
+
+    @Test
+    void testCheck_AllowsBackToBackAndSameScreening() {
+        stubDuration(1L, 120);
+        stubDuration(2L, 90);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of(booking(5L, 1L, EVENING)));
+        ScreeningOverlapService service = service("reject");
+
+        assertThat(service.check(booking(null, 2L, EVENING.plusMinutes(120)))).isEmpty();
+        assertThat(service.check(booking(null, 1L, EVENING))).isEmpty();
+        assertThat(service.check(booking(5L, 2L, EVENING.plusMinutes(30)))).isEmpty();
+        verify(bookingRepository, times(1))
+                .findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any());
+    }
+
+    @Test
+    void testOnBookingChanged_KeepsLoadedIntervalsCurrent() {
+        stubDuration(1L, 120);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of());
+        ScreeningOverlapService service = service("warn");
+        assertThat(service.check(booking(null, 1L, EVENING))).isEmpty();
+
+        Booking created = booking(6L, 1L, EVENING);
+        service.onBookingChanged(BookingChangedEvent.created(bookingMapper.toResponseDTO(created)));
+        assertThat(service.check(booking(null, 1L, EVENING.plusMinutes(60)))).containsExactly(6L);
+
+        Booking cancelled = booking(6L, 1L, EVENING);
+        cancelled.setStatus("CANCELLED");
+        service.onBookingChanged(BookingChangedEvent.updated(
+                bookingMapper.toResponseDTO(created), bookingMapper.toResponseDTO(cancelled)));
+        assertThat(service.check(booking(null, 1L, EVENING.plusMinutes(60)))).isEmpty();
+    }
+
+    @Test
+    void testCheck_FallsBackToDefaultDurationAndEvictsIdleUsers() {
+        when(restTemplate.getForObject(MOVIES_URL + "/api/movies/3", MovieResponseDTO.class))
+                .thenThrow(new ResourceAccessException("down"));
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of(booking(5L, 3L, EVENING)));
+        ScreeningOverlapService service = new ScreeningOverlapService(bookingRepository, restTemplate, MOVIES_URL,
+                true, "warn", 150, 0, 60, new SimpleMeterRegistry());
+
+        assertThat(service.check(booking(null, 3L, EVENING.plusMinutes(149)))).containsExactly(5L);
+        assertThat(service.cachedUsers()).isEqualTo(1);
+        verify(restTemplate, times(1)).getForObject(MOVIES_URL + "/api/movies/3", MovieResponseDTO.class);
+
+        service.evictIdleUsers();
+        assertThat(service.cachedUsers()).isZero();
+    }
+
+    @Test
+    void testCheck_RetriesFailedDurationFetchAfterRetryInterval() {
+        when(restTemplate.getForObject(MOVIES_URL + "/api/movies/3", MovieResponseDTO.class))
+                .thenThrow(new ResourceAccessException("down"));
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenReturn(List.of());
+        ScreeningOverlapService service = new ScreeningOverlapService(bookingRepository, restTemplate, MOVIES_URL,
+                true, "warn", 150, 30, 0, new SimpleMeterRegistry());
+
+        service.check(booking(null, 3L, EVENING));
+        service.check(booking(null, 3L, EVENING));
+
+        verify(restTemplate, times(2)).getForObject(MOVIES_URL + "/api/movies/3", MovieResponseDTO.class);
+    }
+
+    @Test
+    void testCheck_KeepsBookingCommittedWhileLoading() {
+        stubDuration(1L, 120);
+        ScreeningOverlapService service = service("warn");
+        Booking committed = booking(6L, 1L, EVENING);
+        when(bookingRepository.findByUserIdAndStatusInAndScreeningTimeGreaterThanEqual(eq(9L), any(), any()))
+                .thenAnswer(invocation -> {
+                    service.onBookingChanged(BookingChangedEvent.created(bookingMapper.toResponseDTO(committed)));
+                    return List.of();
+                });
+
+        assertThat(service.check(booking(null, 1L, EVENING.plusMinutes(60)))).containsExactly(6L);
+    }
+
+    private ScreeningOverlapService service(String mode) {
+        return new ScreeningOverlapService(bookingRepository, restTemplate, MOVIES_URL, true, mode, 150, 30, 60,
+                new SimpleMeterRegistry());
+    }
+
+    private void stubDuration(Long movieId, int minutes) {
+        MovieResponseDTO movie = new MovieResponseDTO();
+        movie.setId(movieId);
+        movie.setDuration(minutes);
+        when(restTemplate.getForObject(MOVIES_URL + "/api/movies/" + movieId, MovieResponseDTO.class))
+                .thenReturn(movie);
+    }
+
+    private static Booking booking(Long id, Long movieId, LocalDateTime screeningTime) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(movieId);
+        booking.setScreeningTime(screeningTime);
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
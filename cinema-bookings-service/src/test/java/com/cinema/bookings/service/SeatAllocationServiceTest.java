@@ -0,0 +1,189 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.GroupBookingRequestDTO;
+import com.cinema.bookings.dto.SeatBlockDTO;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.event.ShardRingChangedEvent;
+import com.cinema.bookings.exception.NoContiguousSeatsException;
+import com.cinema.bookings.exception.SeatAlreadyBookedException;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.sharding.ConsistentHashRing;
+import com.cinema.bookings.sharding.ShardNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatAllocationServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SeatAllocationService service;
+
+    @BeforeEach
+    void setUp() {
+        // 3 rows of 6 seats, preferred row B
+        service = new SeatAllocationService(bookingRepository, new BookingMapper(), seatReservationService, eventPublisher,
+                3, 6, 0.5, 1.5, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testFindBestAvailable_LoadsOccupancyOnce() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of(booking(1L, "B", 3), booking(2L, "B", 4)));
+
+        SeatBlockDTO first = service.findBestAvailable(1L, SCREENING, 2);
+        SeatBlockDTO second = service.findBestAvailable(1L, SCREENING, 2);
+
+        assertThat(first).isEqualTo(new SeatBlockDTO("A", 3, 4));
+        assertThat(second).isEqualTo(first);
+        verify(bookingRepository, times(1)).findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED");
+    }
+
+    @Test
+    void testBookBestAvailable_SavesAllSeatsAndReservesThem() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of());
+        when(seatReservationService.reserveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = new ArrayList<>(invocation.getArgument(0));
+            long id = 100;
+            for (Booking booking : bookings) {
+                booking.setId(id++);
+            }
+            return bookings;
+        });
+
+        List<BookingResponseDTO> result = service.bookBestAvailable(request(4));
+
+        assertThat(result).extracting(BookingResponseDTO::getSeatRow).containsOnly("B");
+        assertThat(result).extracting(BookingResponseDTO::getSeatNumber).containsExactly(2, 3, 4, 5);
+        assertThat(result).extracting(BookingResponseDTO::getStatus).containsOnly("PENDING");
+        verify(seatReservationService, times(1)).reserveAll(anyList());
+        verify(eventPublisher, times(4)).publishEvent(any(BookingChangedEvent.class));
+
+        // The middle of row B is taken now
+        assertThat(service.findBestAvailable(1L, SCREENING, 4)).isEqualTo(new SeatBlockDTO("A", 2, 5));
+    }
+
+    @Test
+    void testBookBestAvailable_ReleasesSeatsWhenSaveFails() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of());
+        when(seatReservationService.reserveAll(anyList())).thenThrow(new RuntimeException("duplicate seat"));
+
+        assertThatThrownBy(() -> service.bookBestAvailable(request(6))).hasMessage("duplicate seat");
+
+        assertThat(service.findBestAvailable(1L, SCREENING, 6)).isEqualTo(new SeatBlockDTO("B", 1, 6));
+    }
+
+    @Test
+    void testBookBestAvailable_SeatTakenElsewhereReloadsOccupancy() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of())
+                .thenReturn(List.of(booking(1L, "B", 1)));
+        when(seatReservationService.reserveAll(anyList())).thenThrow(new SeatAlreadyBookedException("B", 1));
+
+        assertThatThrownBy(() -> service.bookBestAvailable(request(6)))
+                .isInstanceOf(SeatAlreadyBookedException.class);
+
+        assertThat(service.findBestAvailable(1L, SCREENING, 6)).isEqualTo(new SeatBlockDTO("A", 1, 6));
+        verify(bookingRepository, times(2)).findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED");
+    }
+
+    @Test
+    void testBookBestAvailable_NoBlockLargeEnough() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of(booking(1L, "A", 4), booking(2L, "B", 4), booking(3L, "C", 4)));
+
+        assertThatThrownBy(() -> service.bookBestAvailable(request(4)))
+                .isInstanceOf(NoContiguousSeatsException.class);
+    }
+
+    @Test
+    void testOnBookingChanged_TracksSeatChanges() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of());
+        service.findBestAvailable(1L, SCREENING, 1);
+
+        BookingMapper mapper = new BookingMapper();
+        BookingResponseDTO middle = mapper.toResponseDTO(booking(5L, "B", 3));
+        service.onBookingChanged(BookingChangedEvent.created(middle));
+        assertThat(service.findBestAvailable(1L, SCREENING, 6)).isEqualTo(new SeatBlockDTO("A", 1, 6));
+
+        BookingResponseDTO cancelled = mapper.toResponseDTO(booking(5L, "B", 3));
+        cancelled.setStatus("CANCELLED");
+        service.onBookingChanged(BookingChangedEvent.updated(middle, cancelled));
+        assertThat(service.findBestAvailable(1L, SCREENING, 6)).isEqualTo(new SeatBlockDTO("B", 1, 6));
+    }
+
+    @Test
+    void testEvictPastScreenings() {
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(any(), any(), any())).thenReturn(List.of());
+        service.findBestAvailable(1L, past, 1);
+        service.findBestAvailable(1L, SCREENING, 1);
+
+        service.evictPastScreenings();
+
+        assertThat(service.cachedScreenings()).isEqualTo(1);
+    }
+
+    @Test
+    void testOnShardRingChanged_DropsScreeningsOwnedElsewhere() {
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(any(), any(), any())).thenReturn(List.of());
+        service.findBestAvailable(1L, SCREENING, 1);
+        service.findBestAvailable(2L, SCREENING, 1);
+
+        service.onShardRingChanged(new ShardRingChangedEvent(
+                new ConsistentHashRing(List.of(new ShardNode("node-a", "http://a:8083")), 16), "node-a"));
+        assertThat(service.cachedScreenings()).isEqualTo(2);
+
+        service.onShardRingChanged(new ShardRingChangedEvent(
+                new ConsistentHashRing(List.of(new ShardNode("node-b", "http://b:8083")), 16), "node-a"));
+        assertThat(service.cachedScreenings()).isZero();
+    }
+
+    private GroupBookingRequestDTO request(int seats) {
+        return new GroupBookingRequestDTO(7L, 1L, "Inception", "group@example.com", SCREENING, seats, 30.0);
+    }
+
+    private Booking booking(Long id, String row, int seat) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(1L);
+        booking.setScreeningTime(SCREENING);
+        booking.setSeatRow(row);
+        booking.setSeatNumber(seat);
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
@@ -0,0 +1,212 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingMapper;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.repository.BookingChangeRepository;
+import com.cinema.bookings.repository.BookingRepository;
+import com.cinema.bookings.seating.SeatMap;
+import com.cinema.bookings.seating.SeatMapSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatMapSnapshotServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingChangeRepository bookingChangeRepository;
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ShardRoutingService shardRoutingService;
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("seat-maps.bin");
+        lenient().when(shardRoutingService.owns(any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void testRestore_RestoresCheckpointAndReplaysNewBookings() {
+        SeatAllocationService before = seatAllocationService();
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of(booking(1L, "B", 3), booking(2L, "B", 4)));
+        before.findBestAvailable(1L, SCREENING, 2);
+        when(bookingRepository.findMaxId()).thenReturn(2L);
+        snapshotService(before).checkpoint();
+
+        SeatAllocationService after = seatAllocationService();
+        when(bookingRepository.findChangedSince(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(3L, "A", 1)));
+        int restored = snapshotService(after).restore();
+
+        assertThat(restored).isEqualTo(1);
+        SeatMap seatMap = after.copySeatMaps().get(0).seatMap();
+        assertThat(seatMap.isFree(1, 3)).isFalse();
+        assertThat(seatMap.isFree(1, 4)).isFalse();
+        assertThat(seatMap.isFree(0, 1)).isFalse();
+        assertThat(seatMap.countOccupied()).isEqualTo(3);
+        verify(bookingRepository, times(1)).findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED");
+    }
+
+    @Test
+    void testRestore_ReloadsScreeningWithModifiedOlderBooking() throws IOException {
+        SeatMap seatMap = new SeatMap(3, 6);
+        seatMap.occupy(1, 3);
+        SeatMapSnapshot.write(path, 3, 6, 5L, LocalDateTime.now().minusMinutes(5),
+                List.of(new SeatMapSnapshot.Entry(1L, SCREENING, seatMap)));
+        Booking cancelled = booking(4L, "B", 3);
+        cancelled.setStatus("CANCELLED");
+        when(bookingRepository.findChangedSince(eq(5L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(cancelled));
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of());
+
+        SeatAllocationService service = seatAllocationService();
+        snapshotService(service).restore();
+
+        assertThat(service.copySeatMaps().get(0).seatMap().countOccupied()).isZero();
+    }
+
+    @Test
+    void testRestore_ReloadsScreeningWithBookingDeletedAfterSnapshot() throws IOException {
+        SeatMap seatMap = new SeatMap(3, 6);
+        seatMap.occupy(1, 3);
+        seatMap.occupy(1, 4);
+        LocalDateTime takenAt = LocalDateTime.now().minusMinutes(5);
+        SeatMapSnapshot.write(path, 3, 6, 5L, takenAt, List.of(new SeatMapSnapshot.Entry(1L, SCREENING, seatMap)));
+        when(bookingRepository.findChangedSince(eq(5L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(bookingChangeRepository.findOldestChangedAt()).thenReturn(takenAt.minusDays(1));
+        when(bookingChangeRepository.countDeletesSince(any(LocalDateTime.class))).thenReturn(1L);
+        when(bookingRepository.countSeatedByScreeningFrom(any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, SCREENING, 1L}));
+        when(bookingRepository.findByMovieIdAndScreeningTimeAndStatusNot(1L, SCREENING, "CANCELLED"))
+                .thenReturn(List.of(booking(1L, "B", 3)));
+
+        SeatAllocationService service = seatAllocationService();
+        snapshotService(service).restore();
+
+        SeatMap restored = service.copySeatMaps().get(0).seatMap();
+        assertThat(restored.isFree(1, 3)).isFalse();
+        assertThat(restored.isFree(1, 4)).isTrue();
+    }
+
+    @Test
+    void testRestore_SkipsCountsWhenFeedHoldsNoDeletes() throws IOException {
+        LocalDateTime takenAt = LocalDateTime.now().minusMinutes(5);
+        SeatMapSnapshot.write(path, 3, 6, 5L, takenAt,
+                List.of(new SeatMapSnapshot.Entry(1L, SCREENING, new SeatMap(3, 6))));
+        when(bookingRepository.findChangedSince(eq(5L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(bookingChangeRepository.findOldestChangedAt()).thenReturn(takenAt.minusDays(1));
+        when(bookingChangeRepository.countDeletesSince(any(LocalDateTime.class))).thenReturn(0L);
+
+        snapshotService(seatAllocationService()).restore();
+
+        verify(bookingRepository, never()).countSeatedByScreeningFrom(any());
+    }
+
+    @Test
+    void testRestore_SkipsPastScreenings() throws IOException {
+        SeatMapSnapshot.write(path, 3, 6, 5L, LocalDateTime.now().minusDays(2), List.of(
+                new SeatMapSnapshot.Entry(1L, LocalDateTime.now().minusDays(1).withNano(0), new SeatMap(3, 6)),
+                new SeatMapSnapshot.Entry(2L, SCREENING, new SeatMap(3, 6))));
+        when(bookingRepository.findChangedSince(eq(5L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        SeatAllocationService service = seatAllocationService();
+
+        assertThat(snapshotService(service).restore()).isEqualTo(1);
+        assertThat(service.cachedScreenings()).isEqualTo(1);
+    }
+
+    @Test
+    void testRestore_SkipsScreeningsOwnedByOtherNodes() throws IOException {
+        SeatMapSnapshot.write(path, 3, 6, 5L, LocalDateTime.now().minusMinutes(1), List.of(
+                new SeatMapSnapshot.Entry(1L, SCREENING, new SeatMap(3, 6)),
+                new SeatMapSnapshot.Entry(2L, SCREENING, new SeatMap(3, 6))));
+        when(shardRoutingService.owns(2L, SCREENING)).thenReturn(false);
+        when(bookingRepository.findChangedSince(eq(5L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        SeatAllocationService service = seatAllocationService();
+
+        assertThat(snapshotService(service).restore()).isEqualTo(1);
+        assertThat(service.copySeatMaps()).extracting(SeatMapSnapshot.Entry::movieId).containsExactly(1L);
+    }
+
+    @Test
+    void testRestore_IgnoresCorruptSnapshot() throws IOException {
+        Files.write(path, new byte[]{1, 2, 3});
+        SeatAllocationService service = seatAllocationService();
+
+        assertThat(snapshotService(service).restore()).isZero();
+
+        assertThat(service.cachedScreenings()).isZero();
+        verify(bookingRepository, never()).findChangedSince(any(), any(), any());
+    }
+
+    @Test
+    void testRestore_WithoutSnapshot() {
+        assertThat(snapshotService(seatAllocationService()).restore()).isZero();
+    }
+
+    private SeatAllocationService seatAllocationService() {
+        return new SeatAllocationService(bookingRepository, new BookingMapper(), seatReservationService, eventPublisher,
+                3, 6, 0.5, 1.5, new SimpleMeterRegistry());
+    }
+
+    private SeatMapSnapshotService snapshotService(SeatAllocationService seatAllocationService) {
+        return new SeatMapSnapshotService(seatAllocationService, bookingRepository, bookingChangeRepository,
+                new BookingMapper(), shardRoutingService, true,
+                path.toString(), 60, new SimpleMeterRegistry());
+    }
+
+    private static Booking booking(Long id, String row, int seat) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(9L);
+        booking.setMovieId(1L);
+        booking.setScreeningTime(SCREENING);
+        booking.setSeatRow(row);
+        booking.setSeatNumber(seat);
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+}
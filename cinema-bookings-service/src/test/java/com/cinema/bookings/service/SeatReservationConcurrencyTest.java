@@ -0,0 +1,159 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.CinemaBookingsApplication;
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.SeatAlreadyBookedException;
+import com.cinema.bookings.repository.BookingRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two independent application contexts, i.e. two service instances with
+ * their own connection pools, against one local PostgreSQL and races seat
+ * claims between them. Skipped unless {@code BOOKINGS_IT_DB_URL} is set, e.g.
+ * {@code BOOKINGS_IT_DB_URL=jdbc:postgresql://localhost:5432/cinema_db mvn test}.
+ */
+@EnabledIfEnvironmentVariable(named = "BOOKINGS_IT_DB_URL", matches = ".+")
+class SeatReservationConcurrencyTest {
+
+    private static final int ATTEMPTS = 40;
+
+    private static ConfigurableApplicationContext firstInstance;
+    private static ConfigurableApplicationContext secondInstance;
+
+    private final long movieId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE / 2);
+    private final LocalDateTime screeningTime = LocalDateTime.now().plusYears(5).withNano(0);
+
+    @BeforeAll
+    static void startInstances() {
+        firstInstance = startInstance("bookings-it-1");
+        secondInstance = startInstance("bookings-it-2");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (firstInstance != null) {
+            firstInstance.close();
+        }
+        if (secondInstance != null) {
+            secondInstance.close();
+        }
+    }
+
+    @AfterEach
+    void removeTestBookings() {
+        BookingRepository repository = firstInstance.getBean(BookingRepository.class);
+        repository.deleteAll(repository.findByMovieIdAndScreeningTimeAndStatusNot(movieId, screeningTime, "NONE"));
+    }
+
+    @Test
+    void testSameSeatFromTwoInstances_ExactlyOneClaimWins() throws Exception {
+        AtomicInteger won = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        race(attempt -> {
+            try {
+                instance(attempt).reserve(booking("D", 9));
+                won.incrementAndGet();
+            } catch (SeatAlreadyBookedException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(won.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - 1);
+        assertThat(activeBookings()).hasSize(1);
+    }
+
+    @Test
+    void testDifferentSeatsFromTwoInstances_AllClaimsWin() throws Exception {
+        race(attempt -> instance(attempt).reserve(booking("E", attempt + 1)));
+
+        assertThat(activeBookings()).hasSize(ATTEMPTS);
+    }
+
+    private void race(AttemptTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int attempt = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(attempt);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private SeatReservationService instance(int attempt) {
+        ConfigurableApplicationContext context = attempt % 2 == 0 ? firstInstance : secondInstance;
+        return context.getBean(SeatReservationService.class);
+    }
+
+    private List<Booking> activeBookings() {
+        return firstInstance.getBean(BookingRepository.class)
+                .findByMovieIdAndScreeningTimeAndStatusNot(movieId, screeningTime, "CANCELLED");
+    }
+
+    private Booking booking(String seatRow, int seatNumber) {
+        Booking booking = new Booking();
+        booking.setUserId(1L);
+        booking.setMovieId(movieId);
+        booking.setMovieTitle("Concurrency Test");
+        booking.setScreeningTime(screeningTime);
+        booking.setSeatRow(seatRow);
+        booking.setSeatNumber(seatNumber);
+        booking.setStatus("PENDING");
+        return booking;
+    }
+
+    private static ConfigurableApplicationContext startInstance(String name) {
+        return new SpringApplicationBuilder(CinemaBookingsApplication.class)
+                .properties(
+                        "spring.application.name=" + name,
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=" + System.getenv("BOOKINGS_IT_DB_URL"),
+                        "spring.datasource.username=" + envOrDefault("BOOKINGS_IT_DB_USER", "postgres"),
+                        "spring.datasource.password=" + envOrDefault("BOOKINGS_IT_DB_PASSWORD", "postgres"),
+                        "spring.jpa.show-sql=false",
+                        "management.tracing.enabled=false")
+                .run();
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface AttemptTask {
+        void run(int attempt);
+    }
+}
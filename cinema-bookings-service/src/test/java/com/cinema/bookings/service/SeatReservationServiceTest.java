@@ -0,0 +1,180 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.entity.Booking;
+import com.cinema.bookings.exception.SeatAlreadyBookedException;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatReservationServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ScreeningOverlapService screeningOverlapService;
+
+    private SeatReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SeatReservationService(bookingRepository, screeningOverlapService, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testReserve_LocksScreeningChecksSeatAndSaves() {
+        Booking booking = booking(null, 1L, SCREENING, "C", 7);
+        when(bookingRepository.isSeatTaken(1L, SCREENING, "C", 7, 0L)).thenReturn(false);
+        when(bookingRepository.saveAllAndFlush(List.of(booking))).thenReturn(List.of(booking));
+
+        Booking result = service.reserve(booking);
+
+        assertThat(result).isSameAs(booking);
+        InOrder order = inOrder(screeningOverlapService, bookingRepository);
+        order.verify(screeningOverlapService).checkLocked(List.of(booking));
+        order.verify(bookingRepository).lockScreening(SeatReservationService.screeningLockKey(1L, SCREENING));
+        order.verify(bookingRepository).isSeatTaken(1L, SCREENING, "C", 7, 0L);
+        order.verify(bookingRepository).saveAllAndFlush(List.of(booking));
+    }
+
+    @Test
+    void testCheckActiveSeatIndex_OnlyLooksForDuplicatesWhenIndexIsMissing() {
+        when(bookingRepository.indexExists("uq_bookings_active_seat")).thenReturn(true);
+
+        service.checkActiveSeatIndex();
+
+        verify(bookingRepository, never()).findDuplicateActiveSeats();
+    }
+
+    @Test
+    void testCheckActiveSeatIndex_ReportsDuplicateSeats() {
+        when(bookingRepository.indexExists("uq_bookings_active_seat")).thenReturn(false);
+        List<Object[]> duplicates = List.<Object[]>of(new Object[]{1L, SCREENING, "C", 7, "4,9"});
+        when(bookingRepository.findDuplicateActiveSeats()).thenReturn(duplicates);
+
+        service.checkActiveSeatIndex();
+
+        verify(bookingRepository).findDuplicateActiveSeats();
+    }
+
+    @Test
+    void testReserve_SeatTaken() {
+        Booking booking = booking(5L, 1L, SCREENING, "C", 7);
+        when(bookingRepository.isSeatTaken(1L, SCREENING, "C", 7, 5L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.reserve(booking))
+                .isInstanceOf(SeatAlreadyBookedException.class)
+                .hasMessageContaining("C7");
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void testReserve_WithoutSeatSkipsLocking() {
+        Booking booking = booking(null, 1L, SCREENING, null, null);
+        when(bookingRepository.saveAllAndFlush(List.of(booking))).thenReturn(List.of(booking));
+
+        service.reserve(booking);
+
+        verify(bookingRepository, never()).lockScreening(anyLong());
+    }
+
+    @Test
+    void testReserve_CancelledBookingDoesNotClaimSeat() {
+        Booking booking = booking(5L, 1L, SCREENING, "C", 7);
+        booking.setStatus("CANCELLED");
+        when(bookingRepository.saveAllAndFlush(List.of(booking))).thenReturn(List.of(booking));
+
+        service.reserve(booking);
+
+        verify(bookingRepository, never()).lockScreening(anyLong());
+    }
+
+    @Test
+    void testReserveAll_LocksScreeningsInKeyOrderOnce() {
+        LocalDateTime later = SCREENING.plusHours(3);
+        List<Booking> bookings = List.of(
+                booking(null, 1L, SCREENING, "A", 1),
+                booking(null, 2L, later, "A", 1),
+                booking(null, 1L, SCREENING, "A", 2));
+        when(bookingRepository.saveAllAndFlush(bookings)).thenReturn(bookings);
+
+        service.reserveAll(bookings);
+
+        long first = SeatReservationService.screeningLockKey(1L, SCREENING);
+        long second = SeatReservationService.screeningLockKey(2L, later);
+        InOrder order = inOrder(bookingRepository);
+        order.verify(bookingRepository).lockScreening(Math.min(first, second));
+        order.verify(bookingRepository).lockScreening(Math.max(first, second));
+        order.verify(bookingRepository).saveAllAndFlush(bookings);
+    }
+
+    @Test
+    void testReserveAll_SameSeatTwiceInBatch() {
+        List<Booking> bookings = List.of(
+                booking(null, 1L, SCREENING, "A", 1),
+                booking(null, 1L, SCREENING, "A", 1));
+
+        assertThatThrownBy(() -> service.reserveAll(bookings)).isInstanceOf(SeatAlreadyBookedException.class);
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void testReserve_UniqueIndexViolationTranslated() {
+        Booking booking = booking(null, 1L, SCREENING, "C", 7);
+        when(bookingRepository.saveAllAndFlush(List.of(booking))).thenThrow(new DataIntegrityViolationException(
+                "insert failed", new SQLException("duplicate key value violates unique constraint \"uq_bookings_active_seat\"")));
+
+        assertThatThrownBy(() -> service.reserve(booking)).isInstanceOf(SeatAlreadyBookedException.class);
+    }
+
+    @Test
+    void testReserve_OtherIntegrityViolationPropagates() {
+        Booking booking = booking(null, 1L, SCREENING, "C", 7);
+        when(bookingRepository.saveAllAndFlush(List.of(booking))).thenThrow(new DataIntegrityViolationException(
+                "insert failed", new SQLException("null value in column \"user_id\"")));
+
+        assertThatThrownBy(() -> service.reserve(booking)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testScreeningLockKey_StablePerScreening() {
+        assertThat(SeatReservationService.screeningLockKey(1L, SCREENING))
+                .isEqualTo(SeatReservationService.screeningLockKey(1L, SCREENING))
+                .isNotEqualTo(SeatReservationService.screeningLockKey(2L, SCREENING))
+                .isNotEqualTo(SeatReservationService.screeningLockKey(1L, SCREENING.plusMinutes(30)));
+    }
+
+    private Booking booking(Long id, Long movieId, LocalDateTime screeningTime, String seatRow, Integer seatNumber) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(3L);
+        booking.setMovieId(movieId);
+        booking.setScreeningTime(screeningTime);
+        booking.setSeatRow(seatRow);
+        booking.setSeatNumber(seatNumber);
+        booking.setStatus("PENDING");
+        return booking;
+    }
+}
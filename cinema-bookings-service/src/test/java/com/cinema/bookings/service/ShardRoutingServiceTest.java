@@ -0,0 +1,112 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.event.ShardRingChangedEvent;
+import com.cinema.bookings.sharding.ShardNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ShardRoutingServiceTest {
+
+    private static final LocalDateTime SCREENING = LocalDateTime.of(2030, 3, 1, 20, 0);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReadMembership_ParsesNodesAndTrimsTrailingSlash() throws IOException {
+        Path file = write("# cluster\nnode-b=http://b:8083/\nnode-a = http://a:8083\nempty=\n");
+
+        assertThat(ShardRoutingService.readMembership(file)).containsExactly(
+                new ShardNode("node-a", "http://a:8083"), new ShardNode("node-b", "http://b:8083"));
+    }
+
+    @Test
+    void testRemoteOwner_SingleNodeOwnsEverything() throws IOException {
+        ShardRoutingService service = service("node-a", write("node-a=http://a:8083\n"));
+
+        assertThat(service.remoteOwner(1L, SCREENING)).isNull();
+        assertThat(service.owns(1L, SCREENING)).isTrue();
+    }
+
+    @Test
+    void testRemoteCoordinator_IsFirstNodeById() throws IOException {
+        Path file = write("node-b=http://b:8083\nnode-a=http://a:8083\n");
+
+        assertThat(service("node-a", file).remoteCoordinator()).isNull();
+        assertThat(service("node-b", file).remoteCoordinator()).isEqualTo(new ShardNode("node-a", "http://a:8083"));
+    }
+
+    @Test
+    void testRemoteOwner_NodeOutsideMembershipOwnsNothing() throws IOException {
+        ShardRoutingService service = service("node-z", write("node-a=http://a:8083\n"));
+
+        assertThat(service.remoteOwner(1L, SCREENING)).isEqualTo(new ShardNode("node-a", "http://a:8083"));
+    }
+
+    @Test
+    void testReloadMembership_PublishesNewRingOnChange() throws IOException {
+        Path file = write("node-a=http://a:8083\n");
+        ShardRoutingService service = service("node-a", file);
+
+        service.reloadMembership();
+        verifyNoInteractions(eventPublisher);
+
+        Files.writeString(file, "node-a=http://a:8083\nnode-b=http://b:8083\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        service.reloadMembership();
+
+        ArgumentCaptor<ShardRingChangedEvent> event = ArgumentCaptor.forClass(ShardRingChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getRing().getNodes()).hasSize(2);
+        assertThat(service.getNodes()).hasSize(2);
+    }
+
+    @Test
+    void testDisabled_OwnsEverythingWithoutReadingMembership() {
+        ShardRoutingService service = new ShardRoutingService(eventPublisher, false, "", "missing.properties",
+                "forward", 16, new SimpleMeterRegistry());
+
+        assertThat(service.isEnabled()).isFalse();
+        assertThat(service.owns(1L, SCREENING)).isTrue();
+    }
+
+    @Test
+    void testEnabled_RequiresNodeId() {
+        assertThatThrownBy(() -> new ShardRoutingService(eventPublisher, true, " ", "missing.properties",
+                "forward", 16, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ShardRoutingService service(String selfId, Path file) {
+        return new ShardRoutingService(eventPublisher, true, selfId, file.toString(), "forward", 64,
+                new SimpleMeterRegistry());
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("shards.properties");
+        Files.writeString(file, content);
+        return file;
+    }
+}
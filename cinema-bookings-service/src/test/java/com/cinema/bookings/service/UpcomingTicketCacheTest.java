@@ -0,0 +1,142 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.BookingResponseDTO;
+import com.cinema.bookings.dto.UpcomingTicketDTO;
+import com.cinema.bookings.event.BookingChangedEvent;
+import com.cinema.bookings.event.MovieTitleSyncedEvent;
+import com.cinema.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UpcomingTicketCacheTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private UpcomingTicketCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UpcomingTicketCache(bookingRepository, 3, 60, 100, new SimpleMeterRegistry());
+    }
+
+    private UpcomingTicketDTO ticket(long id, LocalDateTime screening) {
+        return new UpcomingTicketDTO(id, 10L, "Test Movie", screening, "B", (int) id);
+    }
+
+    private void stubTickets(List<UpcomingTicketDTO> tickets) {
+        when(bookingRepository.findUpcomingTickets(eq(1L), eq("CONFIRMED"), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(tickets);
+    }
+
+    @Test
+    void testGetUpcomingTickets_ServesRepeatedReadsFromCache() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        stubTickets(Arrays.asList(ticket(1L, tomorrow), ticket(2L, tomorrow.plusHours(3))));
+
+        List<UpcomingTicketDTO> first = cache.getUpcomingTickets(1L, 10);
+        List<UpcomingTicketDTO> second = cache.getUpcomingTickets(1L, 1);
+
+        assertThat(first).extracting(UpcomingTicketDTO::getBookingId).containsExactly(1L, 2L);
+        assertThat(second).extracting(UpcomingTicketDTO::getBookingId).containsExactly(1L);
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+        verify(bookingRepository, times(1)).findUpcomingTickets(eq(1L), eq("CONFIRMED"),
+                any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void testOnBookingChanged_InvalidatesOwnerEntry() {
+        stubTickets(List.of(ticket(1L, LocalDateTime.now().plusDays(1))));
+        cache.getUpcomingTickets(1L, 5);
+
+        BookingResponseDTO booking = new BookingResponseDTO();
+        booking.setUserId(1L);
+        cache.onBookingChanged(BookingChangedEvent.created(booking));
+        cache.getUpcomingTickets(1L, 5);
+
+        verify(bookingRepository, times(2)).findUpcomingTickets(eq(1L), eq("CONFIRMED"),
+                any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void testOnMovieTitleSynced_InvalidatesEntriesHoldingTheMovie() {
+        stubTickets(List.of(ticket(1L, LocalDateTime.now().plusDays(1))));
+        cache.getUpcomingTickets(1L, 5);
+
+        cache.onMovieTitleSynced(new MovieTitleSyncedEvent(99L));
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.onMovieTitleSynced(new MovieTitleSyncedEvent(10L));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testGetUpcomingTickets_LoadOverlappingMovieEvictionIsNotCached() {
+        when(bookingRepository.findUpcomingTickets(eq(1L), eq("CONFIRMED"), any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    cache.onMovieTitleSynced(new MovieTitleSyncedEvent(10L));
+                    return List.of(ticket(1L, LocalDateTime.now().plusDays(1)));
+                });
+
+        cache.getUpcomingTickets(1L, 5);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testGetUpcomingTickets_LoadOverlappingEvictionIsNotCached() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findUpcomingTickets(eq(1L), eq("CONFIRMED"), any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    // a booking of the user is written while the query runs
+                    cache.evict(1L);
+                    return List.of(ticket(1L, tomorrow));
+                });
+
+        List<UpcomingTicketDTO> result = cache.getUpcomingTickets(1L, 5);
+
+        assertThat(result).extracting(UpcomingTicketDTO::getBookingId).containsExactly(1L);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testGetUpcomingTickets_DropsStartedScreenings() {
+        LocalDateTime now = LocalDateTime.now();
+        stubTickets(Arrays.asList(ticket(1L, now.minusMinutes(5)), ticket(2L, now.plusHours(1))));
+
+        List<UpcomingTicketDTO> result = cache.getUpcomingTickets(1L, 5);
+
+        assertThat(result).extracting(UpcomingTicketDTO::getBookingId).containsExactly(2L);
+    }
+
+    @Test
+    void testGetUpcomingTickets_ReloadsTruncatedEntryThatRanShort() {
+        LocalDateTime now = LocalDateTime.now();
+        stubTickets(Arrays.asList(ticket(1L, now.minusMinutes(1)), ticket(2L, now.plusHours(1)),
+                ticket(3L, now.plusHours(2))));
+
+        cache.getUpcomingTickets(1L, 3);
+        cache.getUpcomingTickets(1L, 3);
+
+        verify(bookingRepository, times(2)).findUpcomingTickets(eq(1L), eq("CONFIRMED"),
+                any(LocalDateTime.class), any(Pageable.class));
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,283 @@
+package com.cinema.bookings.service;
+
+import com.cinema.bookings.dto.CommitLatencyReportDTO;
+import com.cinema.bookings.dto.WaitingRoomTicketDTO;
+import com.cinema.bookings.exception.AdmissionDeniedException;
+import com.cinema.bookings.repository.WaitingRoomAdmissionRepository;
+import com.cinema.bookings.sharding.ShardNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WaitingRoomServiceTest {
+
+    @Mock
+    private WaitingRoomAdmissionRepository admissionRepository;
+
+    @Mock
+    private ShardRoutingService shardRoutingService;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-06-01T10:00:00Z"));
+
+    private WaitingRoomService createService(boolean enabled, double initialRate) {
+        return new WaitingRoomService(admissionRepository, shardRoutingService, restTemplate, clock, enabled, "test-secret", 120, 60,
+                initialRate, 1, 100, 5, 0.5, 250, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testConstructor_RequiresSecretWhenEnabled() {
+        assertThatThrownBy(() -> new WaitingRoomService(admissionRepository, shardRoutingService, restTemplate, clock, true, "", 120, 60,
+                10, 1, 100, 5, 0.5, 250, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("booking.waiting-room.secret");
+        assertThatThrownBy(() -> new WaitingRoomService(admissionRepository, shardRoutingService, restTemplate, clock, true, "change-me", 120, 60,
+                10, 1, 100, 5, 0.5, 250, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatCode(() -> new WaitingRoomService(admissionRepository, shardRoutingService, restTemplate, clock, false, "", 120, 60,
+                10, 1, 100, 5, 0.5, 250, new SimpleMeterRegistry()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void testConsumeAdmission_DisabledIsNoOp() {
+        WaitingRoomService service = createService(false, 10);
+
+        assertThatCode(() -> service.consumeAdmission(null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testJoin_QueuesBeyondAdmissionRate() {
+        WaitingRoomService service = createService(true, 1);
+
+        WaitingRoomTicketDTO ticket = service.join();
+
+        assertThat(ticket.getTicketId()).isNotBlank();
+        assertThat(ticket.isAdmitted()).isFalse();
+        assertThat(ticket.getPosition()).isEqualTo(1);
+        assertThat(ticket.getAdmissionToken()).isNull();
+        assertThat(service.getQueueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void testPoll_AdmitsAndTokenIsSingleUse() {
+        WaitingRoomService service = createService(true, 100);
+        WaitingRoomTicketDTO ticket = service.join();
+        when(admissionRepository.claim(eq(ticket.getTicketId()), any(LocalDateTime.class))).thenReturn(1, 0);
+
+        clock.advance(Duration.ofMillis(50));
+        WaitingRoomTicketDTO admitted = service.poll(ticket.getTicketId());
+
+        assertThat(admitted.isAdmitted()).isTrue();
+        assertThat(admitted.getPosition()).isZero();
+        assertThat(admitted.getAdmissionToken()).startsWith(ticket.getTicketId() + ".");
+
+        service.consumeAdmission(admitted.getAdmissionToken());
+        assertThatThrownBy(() -> service.consumeAdmission(admitted.getAdmissionToken()))
+                .isInstanceOf(AdmissionDeniedException.class)
+                .hasMessageContaining("already been used");
+        verify(admissionRepository, times(2))
+                .claim(ticket.getTicketId(), LocalDateTime.of(2025, 6, 1, 10, 2, 0, 50_000_000));
+    }
+
+    @Test
+    void testConsumeAdmission_RejectsExpiredToken() {
+        WaitingRoomService service = createService(true, 100);
+        WaitingRoomTicketDTO ticket = service.join();
+        clock.advance(Duration.ofMillis(50));
+        String token = service.poll(ticket.getTicketId()).getAdmissionToken();
+
+        clock.advance(Duration.ofSeconds(121));
+
+        assertThatThrownBy(() -> service.consumeAdmission(token))
+                .isInstanceOf(AdmissionDeniedException.class)
+                .hasMessageContaining("expired");
+        verify(admissionRepository, never()).claim(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testConsumeAdmission_RejectsForgedToken() {
+        WaitingRoomService service = createService(true, 100);
+        WaitingRoomTicketDTO ticket = service.join();
+        clock.advance(Duration.ofMillis(50));
+        String token = service.poll(ticket.getTicketId()).getAdmissionToken();
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+
+        assertThatThrownBy(() -> service.consumeAdmission(forged))
+                .isInstanceOf(AdmissionDeniedException.class)
+                .hasMessageContaining("signature");
+    }
+
+    @Test
+    void testConsumeAdmission_RejectsMissingAndMalformedToken() {
+        WaitingRoomService service = createService(true, 10);
+
+        assertThatThrownBy(() -> service.consumeAdmission(null))
+                .isInstanceOf(AdmissionDeniedException.class);
+        assertThatThrownBy(() -> service.consumeAdmission("not-a-token"))
+                .isInstanceOf(AdmissionDeniedException.class)
+                .hasMessageContaining("Malformed");
+    }
+
+    @Test
+    void testPoll_UnknownTicket() {
+        WaitingRoomService service = createService(true, 10);
+
+        assertThatThrownBy(() -> service.poll("missing"))
+                .isInstanceOf(AdmissionDeniedException.class);
+    }
+
+    @Test
+    void testRecordCommitLatency_AdaptsRate() {
+        WaitingRoomService service = createService(true, 10);
+
+        service.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(1000), false);
+        assertThat(service.getAdmissionRate()).isEqualTo(5.0);
+
+        service.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertThat(service.getAdmissionRate()).isGreaterThan(5.0);
+    }
+
+    @Test
+    void testRecordCommitLatency_FailureDecreasesAtMostOncePerSecond() {
+        WaitingRoomService service = createService(true, 40);
+
+        service.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(5), true);
+        service.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(5), true);
+        assertThat(service.getAdmissionRate()).isEqualTo(20.0);
+
+        clock.advance(Duration.ofSeconds(1));
+        service.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(5), true);
+        assertThat(service.getAdmissionRate()).isEqualTo(10.0);
+    }
+
+    @Test
+    void testPoll_AbandonedTicketsDoNotUseAdmissions() {
+        WaitingRoomService service = createService(true, 1);
+        WaitingRoomTicketDTO abandoned = service.join();
+        WaitingRoomTicketDTO active = service.join();
+
+        // One permit has accrued; only the second client is still polling
+        clock.advance(Duration.ofSeconds(61));
+        WaitingRoomTicketDTO result = service.poll(active.getTicketId());
+
+        assertThat(result.isAdmitted()).isTrue();
+        assertThat(service.getQueueDepth()).isZero();
+        assertThatThrownBy(() -> service.poll(abandoned.getTicketId()))
+                .isInstanceOf(AdmissionDeniedException.class);
+    }
+
+    @Test
+    void testRecordCommitLatency_ReportedToCoordinator() {
+        WaitingRoomService coordinator = createService(true, 40);
+        WaitingRoomService node = createService(true, 40);
+        when(shardRoutingService.remoteCoordinator()).thenReturn(new ShardNode("node-1", "http://node-1:8083"));
+
+        node.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(1000), false);
+        node.recordCommitLatency(TimeUnit.MILLISECONDS.toNanos(10), false);
+        node.reportCommitLatency();
+
+        ArgumentCaptor<CommitLatencyReportDTO> report = ArgumentCaptor.forClass(CommitLatencyReportDTO.class);
+        verify(restTemplate).postForEntity(eq("http://node-1:8083/api/bookings/waiting-room/commit-latency"),
+                report.capture(), eq(Void.class));
+        assertThat(node.getAdmissionRate()).isEqualTo(40.0);
+        assertThat(report.getValue().getFastSamples()).isEqualTo(1);
+        assertThat(report.getValue().getCongestedSamples()).isEqualTo(1);
+
+        coordinator.applyReport(report.getValue());
+        assertThat(coordinator.getAdmissionRate()).isBetween(20.0, 21.0);
+
+        report.getValue().setCongestedSamples(100);
+        assertThatThrownBy(() -> coordinator.applyReport(report.getValue()))
+                .isInstanceOf(AdmissionDeniedException.class)
+                .hasMessageContaining("signature");
+    }
+
+    @Test
+    void testIsCongestion_OnlyTimeoutsConnectionAndLockFailures() {
+        assertThat(WaitingRoomService.isCongestion(new QueryTimeoutException("timeout"))).isTrue();
+        assertThat(WaitingRoomService.isCongestion(new CannotAcquireLockException("lock"))).isTrue();
+        assertThat(WaitingRoomService.isCongestion(new DataIntegrityViolationException("duplicate"))).isFalse();
+        assertThat(WaitingRoomService.isCongestion(new IllegalArgumentException("bad seat"))).isFalse();
+    }
+
+    @Test
+    void testPurgeExpiredTickets_KeepsActiveTickets() {
+        WaitingRoomService service = createService(true, 1);
+        WaitingRoomTicketDTO ticket = service.join();
+
+        service.purgeExpiredTickets();
+
+        assertThat(service.poll(ticket.getTicketId()).getTicketId()).isEqualTo(ticket.getTicketId());
+        verify(admissionRepository).deleteExpiredBefore(LocalDateTime.of(2025, 6, 1, 10, 0));
+    }
+
+    @Test
+    void testPurgeExpiredTickets_DropsAbandonedTickets() {
+        WaitingRoomService service = createService(true, 1);
+        WaitingRoomTicketDTO ticket = service.join();
+
+        clock.advance(Duration.ofSeconds(61));
+        service.purgeExpiredTickets();
+
+        assertThatThrownBy(() -> service.poll(ticket.getTicketId()))
+                .isInstanceOf(AdmissionDeniedException.class);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cinema.bookings.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Test
+    void testOwnerOf_SpreadsScreeningsEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes(4), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long movieId = 1; movieId <= 100; movieId++) {
+            for (int slot = 0; slot < 100; slot++) {
+                counts.merge(ring.ownerOf(movieId, START.plusHours(slot)).id(), 1, Integer::sum);
+            }
+        }
+
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(1800, 3200));
+    }
+
+    @Test
+    void testOwnerOf_AddingANodeOnlyMovesScreeningsToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(nodes(3), 128);
+        ConsistentHashRing after = new ConsistentHashRing(nodes(4), 128);
+
+        int moved = 0;
+        int total = 0;
+        for (long movieId = 1; movieId <= 50; movieId++) {
+            for (int slot = 0; slot < 100; slot++) {
+                ShardNode oldOwner = before.ownerOf(movieId, START.plusHours(slot));
+                ShardNode newOwner = after.ownerOf(movieId, START.plusHours(slot));
+                total++;
+                if (!oldOwner.equals(newOwner)) {
+                    moved++;
+                    assertThat(newOwner.id()).isEqualTo("node-4");
+                }
+            }
+        }
+        assertThat(moved).isBetween(total / 8, total * 3 / 8);
+    }
+
+    @Test
+    void testOwnerOf_EmptyRingHasNoOwner() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 16);
+
+        assertThat(ring.isEmpty()).isTrue();
+        assertThat(ring.ownerOf(1L, START)).isNull();
+    }
+
+    private static List<ShardNode> nodes(int count) {
+        List<ShardNode> nodes = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            nodes.add(new ShardNode("node-" + i, "http://bookings-" + i + ":8083"));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,240 @@
+package com.cinema.movies.catalog;
+
+import com.cinema.movies.entity.Movie;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable view of the whole movie catalog at one point in time, with the
+ * lists every read endpoint needs already built: all movies by id, sorted by
+ * rating in both directions, and grouped by genre.
+ *
+ * Changes never modify a snapshot; {@link #with(Movie)} and {@link #without(Long)}
+ * return a new one with the next version that shares nothing mutable with
+ * this one, so a snapshot can be read from any thread without locking. They
+ * copy the lists, which is linear in the size of the catalog and fine for a
+ * catalog that changes rarely. Missing ratings sort as 0.0, and movies with
+ * the same rating by id.
+ *
+ * Besides its local version, a snapshot has a {@link #getFingerprint() fingerprint}
+ * of the ids and update times of its movies. It changes with every create,
+ * update and delete but not with a reload of unchanged data, and is the same
+ * on every instance holding the same movies, so it can validate cached
+ * responses behind a load balancer.
+ *
+ * The movies are shared by every reader and must not be modified.
+ */
+public final class CatalogSnapshot {
+
+    private static final Comparator<Movie> BY_ID = Comparator.comparing(Movie::getId);
+    private static final Comparator<Movie> RATING_ASC = Comparator.comparingDouble(CatalogSnapshot::ratingOf)
+            .thenComparing(Movie::getId);
+    private static final Comparator<Movie> RATING_DESC = Comparator.comparingDouble(CatalogSnapshot::ratingOf)
+            .reversed()
+            .thenComparing(Movie::getId);
+
+    private final long version;
+    private final long fingerprint;
+    private final Map<Long, Movie> byId;
+    private final List<Movie> all;
+    private final List<Movie> ratingAscending;
+    private final List<Movie> ratingDescending;
+    private final Map<String, List<Movie>> byGenre;
+
+    private CatalogSnapshot(long version, long fingerprint, Map<Long, Movie> byId, List<Movie> all,
+                            List<Movie> ratingAscending, List<Movie> ratingDescending,
+                            Map<String, List<Movie>> byGenre) {
+        this.version = version;
+        this.fingerprint = fingerprint;
+        this.byId = byId;
+        this.all = all;
+        this.ratingAscending = ratingAscending;
+        this.ratingDescending = ratingDescending;
+        this.byGenre = byGenre;
+    }
+
+    /**
+     * @param movies  movies with ids; the snapshot keeps the instances, so they must not be modified afterwards
+     * @param version the version of the new snapshot
+     */
+    public static CatalogSnapshot of(Collection<Movie> movies, long version) {
+        Map<Long, Movie> byId = new HashMap<>();
+        for (Movie movie : movies) {
+            byId.put(movie.getId(), movie);
+        }
+        long fingerprint = 0;
+        for (Movie movie : byId.values()) {
+            fingerprint += fingerprintOf(movie);
+        }
+        List<Movie> all = sorted(byId.values(), BY_ID);
+
+        Map<String, List<Movie>> byGenre = new HashMap<>();
+        for (Movie movie : all) {
+            String genre = genreKey(movie.getGenre());
+            if (genre != null) {
+                byGenre.computeIfAbsent(genre, key -> new ArrayList<>()).add(movie);
+            }
+        }
+        byGenre.replaceAll((genre, list) -> Collections.unmodifiableList(list));
+
+        return new CatalogSnapshot(version, fingerprint, Collections.unmodifiableMap(byId), all,
+                sorted(all, RATING_ASC), sorted(all, RATING_DESC), Collections.unmodifiableMap(byGenre));
+    }
+
+    public static CatalogSnapshot empty() {
+        return of(List.of(), 0);
+    }
+
+    /**
+     * @return a snapshot of the next version in which the movie replaces any movie with the same id
+     */
+    public CatalogSnapshot with(Movie movie) {
+        Movie previous = byId.get(movie.getId());
+        Map<Long, Movie> ids = new HashMap<>(byId);
+        ids.put(movie.getId(), movie);
+        long replaced = previous != null ? fingerprintOf(previous) : 0;
+        return new CatalogSnapshot(version + 1, fingerprint - replaced + fingerprintOf(movie),
+                Collections.unmodifiableMap(ids),
+                replace(all, previous, movie, BY_ID),
+                replace(ratingAscending, previous, movie, RATING_ASC),
+                replace(ratingDescending, previous, movie, RATING_DESC),
+                replaceInGenres(previous, movie));
+    }
+
+    /**
+     * @return a snapshot of the next version without the movie, or this snapshot if it has no movie with the id
+     */
+    public CatalogSnapshot without(Long id) {
+        Movie previous = byId.get(id);
+        if (previous == null) {
+            return this;
+        }
+        Map<Long, Movie> ids = new HashMap<>(byId);
+        ids.remove(id);
+        return new CatalogSnapshot(version + 1, fingerprint - fingerprintOf(previous),
+                Collections.unmodifiableMap(ids),
+                replace(all, previous, null, BY_ID),
+                replace(ratingAscending, previous, null, RATING_ASC),
+                replace(ratingDescending, previous, null, RATING_DESC),
+                replaceInGenres(previous, null));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return a hash of the id and update time of every movie, independent of the order of changes
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * @return the movie, or null if the catalog has no movie with the id
+     */
+    public Movie get(Long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @return every movie, by id
+     */
+    public List<Movie> all() {
+        return all;
+    }
+
+    /**
+     * @return the movies of the genre, ignoring case, by id
+     */
+    public List<Movie> byGenre(String genre) {
+        String key = genreKey(genre);
+        return key != null ? byGenre.getOrDefault(key, List.of()) : List.of();
+    }
+
+    /**
+     * @return every movie by rating, lowest first, or highest first if {@code descending}
+     */
+    public List<Movie> byRating(boolean descending) {
+        return descending ? ratingDescending : ratingAscending;
+    }
+
+    private Map<String, List<Movie>> replaceInGenres(Movie previous, Movie movie) {
+        Map<String, List<Movie>> genres = new HashMap<>(byGenre);
+        String previousGenre = previous != null ? genreKey(previous.getGenre()) : null;
+        String genre = movie != null ? genreKey(movie.getGenre()) : null;
+        if (previousGenre != null && previousGenre.equals(genre)) {
+            genres.put(genre, replace(genres.get(genre), previous, movie, BY_ID));
+            return Collections.unmodifiableMap(genres);
+        }
+        if (previousGenre != null) {
+            List<Movie> remaining = replace(genres.get(previousGenre), previous, null, BY_ID);
+            if (remaining.isEmpty()) {
+                genres.remove(previousGenre);
+            } else {
+                genres.put(previousGenre, remaining);
+            }
+        }
+        if (genre != null) {
+            genres.put(genre, replace(genres.getOrDefault(genre, List.of()), null, movie, BY_ID));
+        }
+        return Collections.unmodifiableMap(genres);
+    }
+
+    /**
+     * @return a copy of the sorted list with {@code removed} taken out and {@code added} put in its place in the order
+     */
+    private static List<Movie> replace(List<Movie> list, Movie removed, Movie added, Comparator<Movie> order) {
+        List<Movie> copy = new ArrayList<>(list);
+        if (removed != null) {
+            int position = Collections.binarySearch(copy, removed, order);
+            if (position >= 0) {
+                copy.remove(position);
+            }
+        }
+        if (added != null) {
+            int position = Collections.binarySearch(copy, added, order);
+            copy.add(position >= 0 ? position : -position - 1, added);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<Movie> sorted(Collection<Movie> movies, Comparator<Movie> order) {
+        List<Movie> list = new ArrayList<>(movies);
+        list.sort(order);
+        return Collections.unmodifiableList(list);
+    }
+
+    private static String genreKey(String genre) {
+        return genre != null ? genre.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Update times count to the millisecond, which survives the round trip through PostgreSQL.
+     */
+    private static long fingerprintOf(Movie movie) {
+        long updatedAt = movie.getUpdatedAt() != null
+                ? movie.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : 0;
+        long hash = movie.getId() * 0x9E3779B97F4A7C15L + updatedAt;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static double ratingOf(Movie movie) {
+        return movie.getRating() != null ? movie.getRating() : 0.0;
+    }
+}
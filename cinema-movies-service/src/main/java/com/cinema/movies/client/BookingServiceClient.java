@@ -8,10 +8,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Client for communicating with the Bookings microservice.
@@ -23,14 +27,20 @@ import java.util.List;
 public class BookingServiceClient {
 
     private final WebClient webClient;
+    private final int publishRetries;
+    private final Duration publishBackoff;
     private static final Duration TIMEOUT = Duration.ofSeconds(5);
 
     public BookingServiceClient(
             WebClient.Builder webClientBuilder,
-            @Value("${service.bookings.url:http://localhost:8083}") String bookingsServiceUrl) {
+            @Value("${service.bookings.url:http://localhost:8083}") String bookingsServiceUrl,
+            @Value("${service.bookings.publish-retries:5}") int publishRetries,
+            @Value("${service.bookings.publish-backoff-ms:500}") long publishBackoffMillis) {
         this.webClient = webClientBuilder
                 .baseUrl(bookingsServiceUrl)
                 .build();
+        this.publishRetries = publishRetries;
+        this.publishBackoff = Duration.ofMillis(publishBackoffMillis);
     }
 
     /**
@@ -115,4 +125,70 @@ public class BookingServiceClient {
             return Collections.emptyList();
         }
     }
+
+    /**
+     * Retrieves the number of bookings of each movie, counted by the bookings
+     * service in one aggregate query.
+     *
+     * @return booking count by movie ID, or empty if the service is unavailable, so that
+     *         callers can tell a failure from a catalog without bookings
+     */
+    public Optional<Map<Long, Long>> getBookingCountsByMovie() {
+        try {
+            log.info("Fetching booking counts by movie");
+
+            return webClient.get()
+                    .uri("/api/bookings/counts-by-movie")
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<Map<Long, Long>>() {})
+                    .timeout(TIMEOUT)
+                    .onErrorResume(WebClientResponseException.class, ex -> {
+                        log.error("Error fetching booking counts: {} - {}",
+                                ex.getStatusCode(), ex.getMessage());
+                        return Mono.empty();
+                    })
+                    .onErrorResume(Exception.class, ex -> {
+                        log.error("Unexpected error fetching booking counts: {}", ex.getMessage());
+                        return Mono.empty();
+                    })
+                    .blockOptional();
+        } catch (Exception e) {
+            log.error("Failed to fetch booking counts: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Notifies the bookings service that a movie title changed so it can refresh
+     * the title copied onto existing bookings. Asynchronous: the movie update
+     * never waits for, or fails because of, the bookings service. Timeouts, network
+     * errors and 5xx responses are retried with exponential backoff; a notification
+     * that still fails is caught up by the bookings service's periodic title reconcile.
+     *
+     * @param movieId the ID of the movie
+     * @param title the new title
+     */
+    public void publishMovieTitleChanged(Long movieId, String title) {
+        if (movieId == null || title == null) {
+            return;
+        }
+        log.info("Publishing title change for movie ID: {}", movieId);
+
+        webClient.post()
+                .uri("/api/bookings/sync/movies/{movieId}", movieId)
+                .bodyValue(Map.of("value", title, "changedAt", LocalDateTime.now().toString()))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(TIMEOUT)
+                .retryWhen(Retry.backoff(publishRetries, publishBackoff)
+                        .filter(BookingServiceClient::isRetryable))
+                .subscribe(
+                        response -> log.debug("Bookings accepted title change for movie {}", movieId),
+                        ex -> log.error("Failed to publish title change for movie {}: {}",
+                                movieId, ex.getMessage()));
+    }
+
+    private static boolean isRetryable(Throwable ex) {
+        return !(ex instanceof WebClientResponseException response) || response.getStatusCode().is5xxServerError();
+    }
 }
@@ -0,0 +1,13 @@
+package com.cinema.movies.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled task execution for background jobs of the
+ * movies service.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,21 @@
+package com.cinema.movies.config;
+
+import com.cinema.movies.json.JsonArrayBodyHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the converter that writes pre-serialized movie lists, ahead of
+ * Jackson so that they are not serialized a second time.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new JsonArrayBodyHttpMessageConverter());
+    }
+}
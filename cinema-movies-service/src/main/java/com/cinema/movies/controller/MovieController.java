@@ -2,13 +2,23 @@ package com.cinema.movies.controller;
 
 import com.cinema.movies.dto.*;
 import com.cinema.movies.entity.Movie;
+import com.cinema.movies.enums.ContentRating;
+import com.cinema.movies.filter.ContentRatingFilter;
+import com.cinema.movies.json.JsonArrayBody;
+import com.cinema.movies.service.MovieJsonCache;
 import com.cinema.movies.service.MovieService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/movies")
@@ -16,10 +26,12 @@ public class MovieController {
 
     private final MovieService movieService;
     private final MovieMapper movieMapper;
+    private final MovieJsonCache movieJsonCache;
 
-    public MovieController(MovieService movieService, MovieMapper movieMapper) {
+    public MovieController(MovieService movieService, MovieMapper movieMapper, MovieJsonCache movieJsonCache) {
         this.movieService = movieService;
         this.movieMapper = movieMapper;
+        this.movieJsonCache = movieJsonCache;
     }
 
     @PostMapping
@@ -30,11 +42,62 @@ public class MovieController {
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
 
+    /**
+     * Pages through the movies matching the filters, with the filtering, ordering
+     * and paging done in the database. Pass either {@code page} or the
+     * {@code nextCursor} of the previous page; the cursor stays fast however deep
+     * the page, while page numbers are limited to {@code movies.browse.max-offset}.
+     *
+     * @param sort sort levels, e.g. {@code sort=rating,desc&sort=releaseDate,desc}
+     */
+    @GetMapping
+    public ResponseEntity<MoviePageDTO> findMovies(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String director,
+            @RequestParam(required = false) Integer releaseYearFrom,
+            @RequestParam(required = false) Integer releaseYearTo,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) List<String> sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        MovieQueryCriteria criteria = new MovieQueryCriteria(genre, director, releaseYearFrom, releaseYearTo, minRating);
+        MoviePageDTO result = movieService.findMovies(criteria, sort, page, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!result.getItems().isEmpty()) {
+            response.header(ContentRatingFilter.HEADER_NAME,
+                    highestContentRating(result.getItems().stream().map(MovieResponseDTO::getRating)).name());
+        }
+        return response.body(result);
+    }
+
+    /**
+     * Answers {@code 304 Not Modified} without serializing the movie when the
+     * client's {@code If-None-Match} or {@code If-Modified-Since} still matches.
+     * {@code checkNotModified} also sets the {@code ETag} and {@code Last-Modified}
+     * headers of the response.
+     *
+     * The body is the movie's cached JSON, or its cached gzip form for clients
+     * that accept it, which has an ETag of its own.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<MovieResponseDTO> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getMovieById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
         Movie movie = movieService.getMovieById(id);
-        MovieResponseDTO responseDTO = movieMapper.toResponseDTO(movie);
-        return ResponseEntity.ok(responseDTO);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (webRequest.checkNotModified(movieETag(movie, gzip), lastModified(movie))) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(ContentRatingFilter.HEADER_NAME, ContentRating.fromNumericRating(movie.getRating()).name());
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(movieJsonCache.gzip(movie));
+        }
+        return response.body(movieJsonCache.json(movie));
     }
 
     @PutMapping("/{id}")
@@ -54,25 +117,39 @@ public class MovieController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<MovieResponseDTO>> searchMoviesByTitle(@RequestParam String title) {
-        List<Movie> movies = movieService.searchMoviesByTitle(title);
-        List<MovieResponseDTO> responseDTOs = movieMapper.toResponseDTOList(movies);
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<JsonArrayBody> searchMoviesByTitle(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<Movie> movies = movieService.searchMoviesByTitle(title, limit);
+        return movieList(movies);
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<MovieSuggestionDTO>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(movieService.autocomplete(prefix, limit));
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<List<MovieResponseDTO>> filterMoviesByGenre(@RequestParam String genre) {
+    public ResponseEntity<JsonArrayBody> filterMoviesByGenre(@RequestParam String genre,
+                                                             WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogETag())) {
+            return null;
+        }
         List<Movie> movies = movieService.filterMoviesByGenre(genre);
-        List<MovieResponseDTO> responseDTOs = movieMapper.toResponseDTOList(movies);
-        return ResponseEntity.ok(responseDTOs);
+        return movieList(movies);
     }
 
     @GetMapping("/sort")
-    public ResponseEntity<List<MovieResponseDTO>> sortMoviesByRating(
-            @RequestParam(defaultValue = "desc") String order) {
+    public ResponseEntity<JsonArrayBody> sortMoviesByRating(
+            @RequestParam(defaultValue = "desc") String order,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogETag())) {
+            return null;
+        }
         List<Movie> movies = movieService.sortMoviesByRating(order);
-        List<MovieResponseDTO> responseDTOs = movieMapper.toResponseDTOList(movies);
-        return ResponseEntity.ok(responseDTOs);
+        return movieList(movies);
     }
 
     /**
@@ -100,4 +177,70 @@ public class MovieController {
         MoviePopularityResponseDTO response = movieService.markMovieAsPopular(movieId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Writes the movies' cached JSON fragments as an array, with the content rating
+     * header already set so that {@link ContentRatingFilter} need not parse the body.
+     */
+    private ResponseEntity<JsonArrayBody> movieList(List<Movie> movies) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!movies.isEmpty()) {
+            response.header(ContentRatingFilter.HEADER_NAME,
+                    highestContentRating(movies.stream().map(Movie::getRating)).name());
+        }
+        return response.body(movieJsonCache.jsonArray(movies));
+    }
+
+    /**
+     * @return the content rating of the highest rating, or UNRATED if none is rated
+     */
+    private static ContentRating highestContentRating(Stream<Double> ratings) {
+        Double highestRating = ratings
+                .filter(rating -> rating != null)
+                .max(Double::compareTo)
+                .orElse(null);
+        return ContentRating.fromNumericRating(highestRating);
+    }
+
+    /**
+     * Strong validator of a single movie, which changes with every update of the movie.
+     * The update time is taken to the millisecond, which survives the round trip through PostgreSQL.
+     * The gzip form is a different representation and so gets a different tag.
+     */
+    private static String movieETag(Movie movie, boolean gzip) {
+        long updatedAt = movie.getUpdatedAt() != null
+                ? movie.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : 0;
+        return "\"" + movie.getId() + "-" + Long.toHexString(updatedAt) + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * @return whether the {@code Accept-Encoding} header lists gzip without {@code q=0}
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static long lastModified(Movie movie) {
+        return movie.getUpdatedAt() != null
+                ? movie.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+
+    /**
+     * Validator of every list derived from the catalog. It is read before the list
+     * itself, so a response is never tagged with a newer version than its content.
+     */
+    private String catalogETag() {
+        return "\"catalog-" + Long.toHexString(movieService.getCatalogVersion()) + "\"";
+    }
 }
@@ -0,0 +1,45 @@
+package com.cinema.movies.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviePageDTO {
+
+    /**
+     * Matching movies in the requested order
+     */
+    private List<MovieResponseDTO> items;
+
+    /**
+     * Zero-based page number; null when the page was requested with a cursor
+     */
+    private Integer page;
+
+    /**
+     * Page size actually used, after capping
+     */
+    private int size;
+
+    /**
+     * The order applied, as {@code property,direction}, ending with the id tie-breaker
+     */
+    private List<String> sort;
+
+    /**
+     * Pass as {@code cursor} to get the next page; null on the last page
+     */
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * Planner estimate of the total number of matches, not an exact count; -1 if unknown
+     */
+    private long estimatedTotal;
+}
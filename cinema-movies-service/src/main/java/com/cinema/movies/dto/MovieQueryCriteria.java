@@ -0,0 +1,36 @@
+package com.cinema.movies.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters for browsing the catalog; null fields are not filtered on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieQueryCriteria {
+
+    /**
+     * Case-insensitive exact genre
+     */
+    private String genre;
+
+    /**
+     * Case-insensitive exact director
+     */
+    private String director;
+
+    /**
+     * Inclusive lower bound of the release year
+     */
+    private Integer releaseYearFrom;
+
+    /**
+     * Inclusive upper bound of the release year
+     */
+    private Integer releaseYearTo;
+
+    private Double minRating;
+}
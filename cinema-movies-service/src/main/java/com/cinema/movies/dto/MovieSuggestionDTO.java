@@ -0,0 +1,17 @@
+package com.cinema.movies.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for autocomplete suggestions, kept to what a search box displays.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSuggestionDTO {
+
+    private Long id;
+    private String title;
+}
@@ -0,0 +1,40 @@
+package com.cinema.movies.event;
+
+import com.cinema.movies.dto.MovieResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published after a movie has been written to the database.
+ * Listeners use it to keep in-memory indexes in step with the table.
+ *
+ * {@code previous} is null for created movies, {@code current} is null for deleted ones.
+ */
+@Getter
+@AllArgsConstructor
+public class MovieChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+
+    private final MovieResponseDTO previous;
+
+    private final MovieResponseDTO current;
+
+    public static MovieChangedEvent created(MovieResponseDTO current) {
+        return new MovieChangedEvent(ChangeType.CREATED, null, current);
+    }
+
+    public static MovieChangedEvent updated(MovieResponseDTO previous, MovieResponseDTO current) {
+        return new MovieChangedEvent(ChangeType.UPDATED, previous, current);
+    }
+
+    public static MovieChangedEvent deleted(MovieResponseDTO previous) {
+        return new MovieChangedEvent(ChangeType.DELETED, previous, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.cinema.movies.exception;
+
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
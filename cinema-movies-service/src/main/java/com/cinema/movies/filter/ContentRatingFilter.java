@@ -10,19 +10,25 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Component
 public class ContentRatingFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(ContentRatingFilter.class);
-    private static final String HEADER_NAME = "X-Content-Rating";
+    public static final String HEADER_NAME = "X-Content-Rating";
     private static final String MOVIES_API_PREFIX = "/api/movies";
+    // Suggestions carry no rating, and autocomplete responses must not be buffered and re-parsed
+    private static final String AUTOCOMPLETE_PATH = "/api/movies/autocomplete";
+    // GET handlers that set the header themselves: browse, by id, search, filter and sort
+    private static final Pattern SELF_RATED_PATH = Pattern.compile("/api/movies(/(\\d+|search|filter|sort))?/?");
 
     private final ObjectMapper objectMapper;
 
@@ -37,7 +43,8 @@ public class ContentRatingFilter extends OncePerRequestFilter {
 
         String requestUri = request.getRequestURI();
 
-        if (!requestUri.startsWith(MOVIES_API_PREFIX)) {
+        if (!requestUri.startsWith(MOVIES_API_PREFIX) || requestUri.startsWith(AUTOCOMPLETE_PATH)
+                || isSelfRated(request.getMethod(), requestUri)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -52,7 +59,20 @@ public class ContentRatingFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Their responses are passed through unbuffered, since the header is already
+     * set and the body, cached JSON or gzip, would only be copied.
+     */
+    private static boolean isSelfRated(String method, String requestUri) {
+        return HttpMethod.GET.matches(method) && SELF_RATED_PATH.matcher(requestUri).matches();
+    }
+
     private void addContentRatingHeader(ContentCachingResponseWrapper responseWrapper) {
+        // Set by the controller for cached bodies, which then need not be parsed
+        if (responseWrapper.containsHeader(HEADER_NAME)) {
+            return;
+        }
+
         try {
             byte[] content = responseWrapper.getContentAsByteArray();
 
@@ -0,0 +1,62 @@
+package com.cinema.movies.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Response body made of already serialized JSON values, written out as one
+ * JSON array without parsing or copying the values.
+ */
+public final class JsonArrayBody {
+
+    private final List<byte[]> elements;
+
+    /**
+     * @param elements complete JSON values in UTF-8; they are written as given and must not be modified
+     */
+    public JsonArrayBody(List<byte[]> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @return the number of bytes {@link #writeTo(OutputStream)} writes
+     */
+    public long contentLength() {
+        long length = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            length += element.length;
+        }
+        return length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(elements.get(i));
+        }
+        out.write(']');
+    }
+
+    /**
+     * @return the whole array as one byte array, mostly useful for tests
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(int) contentLength()];
+        int position = 0;
+        bytes[position++] = '[';
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                bytes[position++] = ',';
+            }
+            byte[] element = elements.get(i);
+            System.arraycopy(element, 0, bytes, position, element.length);
+            position += element.length;
+        }
+        bytes[position] = ']';
+        return bytes;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cinema.movies.json;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link JsonArrayBody} straight to the response stream as
+ * {@code application/json}, with its exact {@code Content-Length}.
+ */
+public class JsonArrayBodyHttpMessageConverter extends AbstractHttpMessageConverter<JsonArrayBody> {
+
+    public JsonArrayBodyHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonArrayBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonArrayBody readInternal(Class<? extends JsonArrayBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonArrayBody is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonArrayBody body, MediaType contentType) {
+        return body.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(JsonArrayBody body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
@@ -2,14 +2,40 @@ package com.cinema.movies.repository;
 
 import com.cinema.movies.entity.Movie;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieRepositoryCustom {
 
     List<Movie> findByTitleContainingIgnoreCase(String title);
 
     List<Movie> findByGenreIgnoreCase(String genre);
+
+    /**
+     * @return {@code [id, title]} of every movie, without loading descriptions
+     */
+    @Query("SELECT m.id, m.title FROM Movie m")
+    List<Object[]> findAllTitles();
+
+    /**
+     * @return {@code [id, title, director, rating]} of every movie, for building autocomplete suggestions
+     */
+    @Query("SELECT m.id, m.title, m.director, m.rating FROM Movie m")
+    List<Object[]> findAllSuggestionFields();
+
+    /**
+     * Substring search served by the {@code idx_movies_title_norm_trgm} GIN index, most similar title first.
+     * Requires the {@code pg_trgm} and {@code unaccent} extensions and the {@code movies_search_normalize}
+     * function created by {@code MovieSearchService}.
+     *
+     * @param pattern text normalized like {@code TrigramIndex.normalize}, with LIKE wildcards escaped
+     */
+    @Query(value = "SELECT * FROM movies WHERE movies_search_normalize(title) LIKE '%' || :pattern || '%' " +
+            "ORDER BY similarity(movies_search_normalize(title), :pattern) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<Movie> searchByTitleSimilarity(@Param("pattern") String pattern, @Param("limit") int limit);
 }
@@ -0,0 +1,17 @@
+package com.cinema.movies.repository;
+
+import com.cinema.movies.entity.Movie;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface MovieRepositoryCustom {
+
+    /**
+     * Like {@code findAll(Specification, Pageable)}, but without the count query.
+     *
+     * @return up to {@code limit} matching movies in the order, after skipping the first {@code offset}
+     */
+    List<Movie> findSlice(Specification<Movie> specification, Sort sort, int offset, int limit);
+}
@@ -0,0 +1,145 @@
+package com.cinema.movies.repository;
+
+import com.cinema.movies.dto.MovieQueryCriteria;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.exception.InvalidQueryException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Dynamic predicates for browsing the catalog. Every predicate compares a bare
+ * column (or {@code lower(genre)} and {@code lower(director)}, which have
+ * expression indexes) with a parameter, so each one can use an index; see
+ * schema.sql.
+ */
+public final class MovieSpecifications {
+
+    // Range of release years a filter accepts, well within both LocalDate and PostgreSQL's date type
+    public static final int MIN_YEAR = 1;
+    public static final int MAX_YEAR = 9999;
+
+    // Sort properties whose columns are NOT NULL, so a range on them needs no IS NULL branch
+    private static final Set<String> NOT_NULL_PROPERTIES = Set.of("title", "id");
+
+    private MovieSpecifications() {
+    }
+
+    /**
+     * @throws InvalidQueryException if a release year is outside {@link #MIN_YEAR} to {@link #MAX_YEAR}
+     */
+    public static Specification<Movie> matching(MovieQueryCriteria criteria) {
+        // Resolved here rather than in the predicate, so an invalid year fails before any query
+        LocalDate releasedFrom = criteria.getReleaseYearFrom() != null
+                ? firstDayOf(criteria.getReleaseYearFrom()) : null;
+        LocalDate releasedBefore = criteria.getReleaseYearTo() != null
+                ? firstDayOf(criteria.getReleaseYearTo()).plusYears(1) : null;
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getGenre() != null && !criteria.getGenre().isBlank()) {
+                predicates.add(cb.equal(cb.lower(root.get("genre")), lowerCase(criteria.getGenre())));
+            }
+            if (criteria.getDirector() != null && !criteria.getDirector().isBlank()) {
+                predicates.add(cb.equal(cb.lower(root.get("director")), lowerCase(criteria.getDirector())));
+            }
+            if (releasedFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("releaseDate"), releasedFrom));
+            }
+            if (releasedBefore != null) {
+                predicates.add(cb.lessThan(root.get("releaseDate"), releasedBefore));
+            }
+            if (criteria.getMinRating() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rating"), criteria.getMinRating()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Keyset predicate: rows after the given position in the order. NULLs count
+     * as larger than any value, which is where PostgreSQL sorts them by default
+     * (last ascending, first descending). The rows are also bounded by a range
+     * on the first property, so the scan can start at the position in the index
+     * instead of filtering every row before it.
+     *
+     * @param position the value of each property of the order, in order
+     */
+    public static Specification<Movie> after(Sort order, List<Object> position) {
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            Predicate bound = null;
+            int i = 0;
+            for (Sort.Order sortOrder : order) {
+                Path<Comparable<Object>> path = root.get(sortOrder.getProperty());
+                @SuppressWarnings("unchecked")
+                Comparable<Object> value = (Comparable<Object>) position.get(i);
+                Predicate beyond = beyond(cb, path, sortOrder.isAscending(), value);
+                if (beyond != null) {
+                    List<Predicate> alternative = new ArrayList<>(equalSoFar);
+                    alternative.add(beyond);
+                    alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+                }
+                if (i == 0) {
+                    bound = bound(cb, path, sortOrder.isAscending(), value,
+                            !NOT_NULL_PROPERTIES.contains(sortOrder.getProperty()));
+                }
+                equalSoFar.add(value != null ? cb.equal(path, value) : cb.isNull(path));
+                i++;
+            }
+            Predicate after = cb.or(alternatives.toArray(new Predicate[0]));
+            return bound != null ? cb.and(bound, after) : after;
+        };
+    }
+
+    /**
+     * @return the rows strictly after the value in the given direction, or null if there are none
+     */
+    private static Predicate beyond(CriteriaBuilder cb, Path<Comparable<Object>> path, boolean ascending,
+                                    Comparable<Object> value) {
+        if (value == null) {
+            return ascending ? null : cb.isNotNull(path);
+        }
+        return ascending ? cb.or(cb.greaterThan(path, value), cb.isNull(path)) : cb.lessThan(path, value);
+    }
+
+    /**
+     * @return a range on the column holding the value and every row after it, which
+     *         adds {@code OR IS NULL} for nullable columns ascending, where NULLs come last;
+     *         or null if the rows after a NULL descending are not bounded
+     */
+    private static Predicate bound(CriteriaBuilder cb, Path<Comparable<Object>> path, boolean ascending,
+                                   Comparable<Object> value, boolean nullable) {
+        if (value == null) {
+            return ascending ? cb.isNull(path) : null;
+        }
+        if (!ascending) {
+            return cb.lessThanOrEqualTo(path, value);
+        }
+        Predicate from = cb.greaterThanOrEqualTo(path, value);
+        return nullable ? cb.or(from, cb.isNull(path)) : from;
+    }
+
+    private static String lowerCase(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @throws InvalidQueryException if the year is outside {@link #MIN_YEAR} to {@link #MAX_YEAR}
+     */
+    public static LocalDate firstDayOf(int year) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new InvalidQueryException("Release year must be between " + MIN_YEAR + " and " + MAX_YEAR
+                    + ": " + year);
+        }
+        return LocalDate.of(year, 1, 1);
+    }
+}
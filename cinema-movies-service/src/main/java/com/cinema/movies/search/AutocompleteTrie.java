@@ -0,0 +1,224 @@
+package com.cinema.movies.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable prefix tree of normalized movie titles and directors, answering
+ * autocomplete queries with the best matching movies without looking at any
+ * movie that does not match.
+ *
+ * Every title and director is indexed from its start and from the start of
+ * each of its words, so "knight" finds "The Dark Knight" and "nolan" finds the
+ * films of Christopher Nolan. Chains of nodes with a single child are merged
+ * into one edge, and every node stores the ranks of its best {@code topK}
+ * movies, precomputed at build time; a lookup is therefore a walk down at most
+ * as many nodes as the prefix has characters, followed by copying a short
+ * array. Movies are ranked by weight, then title, then id.
+ *
+ * Instances are never modified; to reflect catalog changes a new trie is
+ * built and swapped in.
+ */
+public final class AutocompleteTrie {
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble(Entry::weight).reversed()
+            .thenComparing(Entry::title, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(Entry::id);
+
+    private final Node root;
+    private final long[] ids;
+    private final String[] titles;
+    private final int nodeCount;
+
+    private AutocompleteTrie(Node root, long[] ids, String[] titles, int nodeCount) {
+        this.root = root;
+        this.ids = ids;
+        this.titles = titles;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * @param entries the movies to suggest
+     * @param topK    suggestions kept per node, and therefore the largest useful {@code limit}
+     */
+    public static AutocompleteTrie build(List<Entry> entries, int topK) {
+        List<Entry> ranked = new ArrayList<>(entries);
+        ranked.sort(RANKING);
+
+        long[] ids = new long[ranked.size()];
+        String[] titles = new String[ranked.size()];
+        List<Key> keys = new ArrayList<>();
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Entry entry = ranked.get(rank);
+            ids[rank] = entry.id();
+            titles[rank] = entry.title();
+            for (String key : keysOf(entry)) {
+                keys.add(new Key(key, rank));
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::rank));
+
+        int[] nodeCount = new int[1];
+        Node root = build(keys, 0, keys.size(), 0, "", Math.max(1, topK), nodeCount);
+        return new AutocompleteTrie(root, ids, titles, nodeCount[0]);
+    }
+
+    /**
+     * @return up to {@code limit} movies with a title or director word starting with the prefix, best first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String remaining = TrigramIndex.normalize(prefix);
+        if (remaining.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        int position = 0;
+        while (position < remaining.length()) {
+            int child = Arrays.binarySearch(node.firsts, remaining.charAt(position));
+            if (child < 0) {
+                return List.of();
+            }
+            node = node.children[child];
+            int length = Math.min(node.label.length(), remaining.length() - position);
+            if (!remaining.regionMatches(position, node.label, 0, length)) {
+                return List.of();
+            }
+            position += length;
+        }
+
+        int count = Math.min(limit, node.top.length);
+        List<Suggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int rank = node.top[i];
+            suggestions.add(new Suggestion(ids[rank], titles[rank]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * @return the number of movies
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Builds the node for keys {@code [from, to)}, which share their first {@code depth} characters.
+     */
+    private static Node build(List<Key> keys, int from, int to, int depth, String label, int topK, int[] nodeCount) {
+        nodeCount[0]++;
+        int[] candidates = new int[0];
+        int size = 0;
+
+        int i = from;
+        while (i < to && keys.get(i).text().length() == depth) {
+            candidates = append(candidates, size++, keys.get(i).rank());
+            i++;
+        }
+
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char first = keys.get(i).text().charAt(depth);
+            int end = i + 1;
+            while (end < to && keys.get(end).text().charAt(depth) == first) {
+                end++;
+            }
+            String lowest = keys.get(i).text();
+            int common = commonPrefixLength(lowest, keys.get(end - 1).text());
+            Node child = build(keys, i, end, common, lowest.substring(depth, common), topK, nodeCount);
+            children.add(child);
+            for (int rank : child.top) {
+                candidates = append(candidates, size++, rank);
+            }
+            i = end;
+        }
+
+        char[] firsts = new char[children.size()];
+        for (int c = 0; c < firsts.length; c++) {
+            firsts[c] = children.get(c).label.charAt(0);
+        }
+        return new Node(label, firsts, children.toArray(new Node[0]), best(candidates, size, topK));
+    }
+
+    /**
+     * @return the {@code topK} lowest distinct ranks, in order
+     */
+    private static int[] best(int[] candidates, int size, int topK) {
+        Arrays.sort(candidates, 0, size);
+        int[] top = new int[Math.min(size, topK)];
+        int count = 0;
+        for (int i = 0; i < size && count < top.length; i++) {
+            if (i == 0 || candidates[i] != candidates[i - 1]) {
+                top[count++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(top, count);
+    }
+
+    private static int[] append(int[] values, int size, int value) {
+        int[] target = size == values.length ? Arrays.copyOf(values, Math.max(8, size * 2)) : values;
+        target[size] = value;
+        return target;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Set<String> keysOf(Entry entry) {
+        Set<String> keys = new LinkedHashSet<>();
+        addWordSuffixes(keys, TrigramIndex.normalize(entry.title()));
+        addWordSuffixes(keys, TrigramIndex.normalize(entry.director()));
+        return keys;
+    }
+
+    private static void addWordSuffixes(Set<String> keys, String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        keys.add(text);
+        for (int i = text.indexOf(' '); i >= 0; i = text.indexOf(' ', i + 1)) {
+            keys.add(text.substring(i + 1));
+        }
+    }
+
+    /**
+     * @param weight higher weights are suggested first
+     */
+    public record Entry(long id, String title, String director, double weight) {
+    }
+
+    public record Suggestion(long id, String title) {
+    }
+
+    private record Key(String text, int rank) {
+    }
+
+    private static final class Node {
+        private final String label;
+        private final char[] firsts;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(String label, char[] firsts, Node[] children, int[] top) {
+            this.label = label;
+            this.firsts = firsts;
+            this.children = children;
+            this.top = top;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.cinema.movies.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from the three-character windows of normalized titles to the
+ * ids of the titles containing them, answering substring queries without
+ * scanning every title.
+ *
+ * A query of three or more characters can only occur in titles that contain
+ * every one of its windows, so the sorted posting lists of those windows are
+ * intersected, smallest first, and the few candidates left are checked with a
+ * plain {@code contains}. Shorter queries have no complete window and fall
+ * back to a scan. Matches are ranked by the Jaccard similarity of the query's
+ * and the title's windows, padded with a space at each end so that matches at
+ * the start or end of a title and shorter titles rank higher, like
+ * {@code pg_trgm}'s {@code similarity()}.
+ *
+ * Titles are normalized to lower case without diacritics and with single
+ * spaces. Reads run concurrently; writes take an exclusive lock.
+ */
+public class TrigramIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<Long, String> titles = new HashMap<>();
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Builds an index in one pass, much faster than adding titles one by one.
+     */
+    public static TrigramIndex of(Map<Long, String> titlesById) {
+        TrigramIndex index = new TrigramIndex();
+        Long[] ids = titlesById.keySet().toArray(new Long[0]);
+        Arrays.sort(ids);
+        for (Long id : ids) {
+            String title = normalize(titlesById.get(id));
+            index.titles.put(id, title);
+            for (long trigram : trigrams(title)) {
+                index.postings.computeIfAbsent(trigram, key -> new Posting()).append(id);
+            }
+        }
+        return index;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a title, replacing any title with the same id.
+     */
+    public void put(long id, String title) {
+        String normalized = normalize(title);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            titles.put(id, normalized);
+            for (long trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, key -> new Posting()).insert(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false if no title had the id
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} titles containing the query, most similar first, then by id
+     */
+    public List<Match> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        long[] queryWindows = paddedTrigrams(normalized);
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < 3) {
+                for (Map.Entry<Long, String> entry : titles.entrySet()) {
+                    if (entry.getValue().contains(normalized)) {
+                        matches.add(new Match(entry.getKey(), similarity(queryWindows, entry.getValue())));
+                    }
+                }
+            } else {
+                for (long id : candidates(trigrams(normalized))) {
+                    String title = titles.get(id);
+                    if (title.contains(normalized)) {
+                        matches.add(new Match(id, similarity(queryWindows, title)));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Lower case, diacritics removed, whitespace collapsed to single spaces and trimmed.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private boolean removeLocked(long id) {
+        String existing = titles.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        for (long trigram : trigrams(existing)) {
+            Posting posting = postings.get(trigram);
+            if (posting != null && posting.remove(id) && posting.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        return true;
+    }
+
+    private long[] candidates(long[] trigrams) {
+        Posting[] lists = new Posting[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(posting -> posting.size));
+
+        long[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (Arrays.binarySearch(lists[i].ids, 0, lists[i].size, result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static double similarity(long[] queryWindows, String title) {
+        long[] titleWindows = paddedTrigrams(title);
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < queryWindows.length && j < titleWindows.length) {
+            int comparison = Long.compare(queryWindows[i], titleWindows[j]);
+            if (comparison == 0) {
+                shared++;
+                i++;
+                j++;
+            } else if (comparison < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = queryWindows.length + titleWindows.length - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    private static long[] paddedTrigrams(String normalized) {
+        return trigrams(" " + normalized + " ");
+    }
+
+    /**
+     * @return the distinct three-character windows of the text, each packed into a long, sorted
+     */
+    static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] windows = new long[text.length() - 2];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(windows);
+        int distinct = 0;
+        for (int i = 0; i < windows.length; i++) {
+            if (i == 0 || windows[i] != windows[i - 1]) {
+                windows[distinct++] = windows[i];
+            }
+        }
+        return Arrays.copyOf(windows, distinct);
+    }
+
+    /**
+     * @param id         the movie id
+     * @param similarity from 0 (nothing in common) to 1 (same title)
+     */
+    public record Match(long id, double similarity) {
+    }
+
+    /**
+     * Sorted, growable array of ids. New movies get increasing ids, so inserts are usually appends.
+     */
+    private static final class Posting {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void append(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private void insert(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.client.BookingServiceClient;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.dto.MovieSuggestionDTO;
+import com.cinema.movies.event.MovieChangedEvent;
+import com.cinema.movies.repository.MovieRepository;
+import com.cinema.movies.search.AutocompleteTrie;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Autocomplete suggestions for the search box, answered from an
+ * {@link AutocompleteTrie} held in memory.
+ *
+ * The trie is built once the application is ready. Changes to a title,
+ * director or rating schedule a rebuild on a background thread after
+ * {@code movies.autocomplete.rebuild-delay-ms}, so a burst of changes costs a
+ * single rebuild; the new trie replaces the old one in one step and lookups
+ * never wait for a rebuild. Change events are only published by the instance
+ * that made the change, so the trie is also rebuilt every
+ * {@code movies.autocomplete.rebuild-interval-ms} to pick up changes made by
+ * other instances. Movies are weighted by rating (0 to 10) plus
+ * {@code 2 * log10(1 + bookings)}. The booking counts are aggregated by the
+ * bookings service and refreshed every
+ * {@code movies.autocomplete.popularity.refresh-minutes}, rebuilding the trie
+ * when they changed; a failed fetch keeps the previous counts and is retried by
+ * the next rebuild or refresh.
+ */
+@Service
+@Slf4j
+public class MovieAutocompleteService {
+
+    private final MovieRepository movieRepository;
+    private final BookingServiceClient bookingServiceClient;
+    private final int topK;
+    private final long rebuildDelayMs;
+    private final boolean popularityEnabled;
+    private final Timer rebuildTimer;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile AutocompleteTrie trie = AutocompleteTrie.build(List.of(), 1);
+    // null until the first successful fetch
+    private volatile Map<Long, Long> bookingCounts;
+
+    public MovieAutocompleteService(MovieRepository movieRepository,
+                                    BookingServiceClient bookingServiceClient,
+                                    @Value("${movies.autocomplete.top-k:10}") int topK,
+                                    @Value("${movies.autocomplete.rebuild-delay-ms:500}") long rebuildDelayMs,
+                                    @Value("${movies.autocomplete.popularity.enabled:true}") boolean popularityEnabled,
+                                    MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.bookingServiceClient = bookingServiceClient;
+        this.topK = Math.max(1, topK);
+        this.rebuildDelayMs = rebuildDelayMs;
+        this.popularityEnabled = popularityEnabled;
+
+        this.rebuildTimer = Timer.builder("movies.autocomplete.rebuild")
+                .description("Time spent rebuilding the autocomplete trie")
+                .register(meterRegistry);
+        Gauge.builder("movies.autocomplete.nodes", this, service -> service.trie.nodeCount())
+                .description("Nodes in the current autocomplete trie")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * @param prefix the start of a word of the title or director, ignoring case and accents
+     * @param limit  maximum number of suggestions, capped at {@code movies.autocomplete.top-k}
+     * @return the best matching movies, highest weight first
+     */
+    public List<MovieSuggestionDTO> suggest(String prefix, int limit) {
+        List<AutocompleteTrie.Suggestion> suggestions = trie.suggest(prefix, Math.min(limit, topK));
+        List<MovieSuggestionDTO> result = new ArrayList<>(suggestions.size());
+        for (AutocompleteTrie.Suggestion suggestion : suggestions) {
+            result.add(new MovieSuggestionDTO(suggestion.id(), suggestion.title()));
+        }
+        return result;
+    }
+
+    /**
+     * Builds a new trie from the database and swaps it in.
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Map<Long, Long> counts = bookingCounts();
+        List<AutocompleteTrie.Entry> entries = new ArrayList<>();
+        for (Object[] row : movieRepository.findAllSuggestionFields()) {
+            Long id = (Long) row[0];
+            Double rating = (Double) row[3];
+            double weight = (rating != null ? rating : 0.0) + 2 * Math.log10(1 + counts.getOrDefault(id, 0L));
+            entries.add(new AutocompleteTrie.Entry(id, (String) row[1], (String) row[2], weight));
+        }
+        AutocompleteTrie rebuilt = AutocompleteTrie.build(entries, topK);
+        trie = rebuilt;
+        rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.info("Built autocomplete trie of {} movies with {} nodes in {} ms", rebuilt.size(), rebuilt.nodeCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!affectsSuggestions(event.getPrevious(), event.getCurrent())) {
+            return;
+        }
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.schedule(this::runScheduledRebuild, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${movies.autocomplete.rebuild-interval-ms:600000}",
+            initialDelayString = "${movies.autocomplete.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the autocomplete trie: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fetches the booking counts again and rebuilds the trie if they changed.
+     */
+    @Scheduled(fixedDelayString = "${movies.autocomplete.popularity.refresh-minutes:15}",
+            initialDelayString = "${movies.autocomplete.popularity.refresh-minutes:15}",
+            timeUnit = TimeUnit.MINUTES)
+    public void refreshPopularity() {
+        if (!popularityEnabled) {
+            return;
+        }
+        Map<Long, Long> previous = bookingCounts;
+        Map<Long, Long> counts = loadBookingCounts();
+        if (counts == null || counts.equals(previous)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the autocomplete trie: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runScheduledRebuild() {
+        // Cleared first, so that changes made while rebuilding schedule another rebuild
+        rebuildPending.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the autocomplete trie: {}", e.getMessage());
+        }
+    }
+
+    private Map<Long, Long> bookingCounts() {
+        if (!popularityEnabled) {
+            return Map.of();
+        }
+        Map<Long, Long> counts = bookingCounts;
+        if (counts == null) {
+            counts = loadBookingCounts();
+        }
+        return counts != null ? counts : Map.of();
+    }
+
+    /**
+     * @return the fetched counts, or null if the bookings service could not be reached,
+     *         in which case the previous counts are kept
+     */
+    private Map<Long, Long> loadBookingCounts() {
+        Optional<Map<Long, Long>> fetched = bookingServiceClient.getBookingCountsByMovie();
+        if (fetched.isEmpty()) {
+            log.warn("Could not fetch booking counts; {}", bookingCounts != null
+                    ? "keeping the previous counts" : "ranking suggestions by rating only");
+            return null;
+        }
+        bookingCounts = fetched.get();
+        return fetched.get();
+    }
+
+    private static boolean affectsSuggestions(MovieResponseDTO previous, MovieResponseDTO current) {
+        if (previous == null || current == null) {
+            return true;
+        }
+        return !Objects.equals(previous.getTitle(), current.getTitle())
+                || !Objects.equals(previous.getDirector(), current.getDirector())
+                || !Objects.equals(previous.getRating(), current.getRating());
+    }
+}
@@ -0,0 +1,135 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.catalog.CatalogSnapshot;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.repository.MovieRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the current {@link CatalogSnapshot}, so that movie reads are served
+ * from memory without touching PostgreSQL.
+ *
+ * Readers only read a volatile reference and never wait. Writers hand every
+ * saved or deleted movie to {@link #put(Movie)} or {@link #remove(Long)},
+ * which replace the snapshot with a new version one at a time. The catalog is
+ * loaded on first use and reloaded every {@code movies.catalog.refresh-interval-ms}
+ * to pick up changes made through other instances; a reload that overlaps a
+ * local write is discarded rather than allowed to undo it.
+ *
+ * Movies are copied on the way in, since JPA may hand the same instance to
+ * code that goes on modifying it.
+ */
+@Component
+@Slf4j
+public class MovieCatalog {
+
+    private final MovieRepository movieRepository;
+    private final Object writeLock = new Object();
+    private final Object loadLock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    private volatile long writes;
+
+    public MovieCatalog(MovieRepository movieRepository, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+
+        Gauge.builder("movies.catalog.size", this, catalog -> catalog.snapshot != null ? catalog.snapshot.size() : 0)
+                .description("Movies held in the in-memory catalog")
+                .register(meterRegistry);
+        Gauge.builder("movies.catalog.version", this,
+                        catalog -> catalog.snapshot != null ? catalog.snapshot.getVersion() : 0)
+                .description("Version of the in-memory catalog, increased by every change and reload")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        log.info("Loaded {} movies into the in-memory catalog", current().size());
+    }
+
+    /**
+     * @return the current snapshot, loading the catalog if this is the first use
+     */
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (loadLock) {
+            while (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Adds a saved movie, or replaces the movie with its id.
+     */
+    public void put(Movie movie) {
+        Movie copy = copyOf(movie);
+        synchronized (writeLock) {
+            writes++;
+            if (snapshot != null) {
+                snapshot = snapshot.with(copy);
+            }
+        }
+    }
+
+    public void remove(Long id) {
+        synchronized (writeLock) {
+            writes++;
+            if (snapshot != null) {
+                snapshot = snapshot.without(id);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${movies.catalog.refresh-interval-ms:60000}",
+            initialDelayString = "${movies.catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            if (!reload()) {
+                log.debug("Catalog reload skipped, the catalog changed while loading");
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not reload the movie catalog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return false if a local write happened while loading, in which case the loaded movies are dropped
+     */
+    boolean reload() {
+        long writesBefore = writes;
+        List<Movie> movies = new ArrayList<>();
+        for (Movie movie : movieRepository.findAll()) {
+            movies.add(copyOf(movie));
+        }
+        synchronized (writeLock) {
+            if (writes != writesBefore) {
+                return false;
+            }
+            CatalogSnapshot current = snapshot;
+            snapshot = CatalogSnapshot.of(movies, current != null ? current.getVersion() + 1 : 1);
+            return true;
+        }
+    }
+
+    private static Movie copyOf(Movie movie) {
+        Movie copy = new Movie(movie.getTitle(), movie.getDescription(), movie.getGenre(), movie.getDuration(),
+                movie.getDirector(), movie.getReleaseDate(), movie.getRating(), movie.getPosterUrl());
+        copy.setId(movie.getId());
+        copy.setCreatedAt(movie.getCreatedAt());
+        copy.setUpdatedAt(movie.getUpdatedAt());
+        return copy;
+    }
+}
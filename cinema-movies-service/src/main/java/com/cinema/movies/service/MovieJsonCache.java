@@ -0,0 +1,162 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieMapper;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.event.MovieChangedEvent;
+import com.cinema.movies.json.JsonArrayBody;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of the JSON form of each movie's {@link MovieResponseDTO}, as produced
+ * by the application's {@link ObjectMapper}, so repeated reads neither map nor
+ * serialize the movie again.
+ *
+ * Entries are keyed by id and {@code updatedAt}, which changes with every
+ * update and serves as the movie's version; an entry is reused only for the
+ * same version, so a stale form is never served. The gzip form is compressed
+ * on first request. Lists are returned as a {@link JsonArrayBody} of the
+ * cached forms, written out without being copied. The cached arrays are
+ * shared and must not be modified.
+ */
+@Component
+public class MovieJsonCache {
+
+    private final ObjectMapper objectMapper;
+    private final MovieMapper movieMapper;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public MovieJsonCache(ObjectMapper objectMapper,
+                          MovieMapper movieMapper,
+                          @Value("${movies.json-cache.max-entries:200000}") int maxEntries,
+                          MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.movieMapper = movieMapper;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("movies.json_cache.gets").tag("result", "hit")
+                .description("Lookups of the serialized movie cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("movies.json_cache.gets").tag("result", "miss")
+                .description("Lookups of the serialized movie cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the movie's response as UTF-8 JSON
+     */
+    public byte[] json(Movie movie) {
+        return entry(movie).json;
+    }
+
+    /**
+     * @return the movie's response as gzip-compressed UTF-8 JSON
+     */
+    public byte[] gzip(Movie movie) {
+        Entry entry = entry(movie);
+        byte[] gzip = entry.gzip;
+        if (gzip == null) {
+            gzip = compress(entry.json);
+            entry.gzip = gzip;
+        }
+        return gzip;
+    }
+
+    /**
+     * @return the movies' responses as a JSON array, in order
+     */
+    public JsonArrayBody jsonArray(List<Movie> movies) {
+        List<byte[]> elements = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            elements.add(entry(movie).json);
+        }
+        return new JsonArrayBody(elements);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getPrevious() != null && event.getPrevious().getId() != null) {
+            entries.remove(event.getPrevious().getId());
+        }
+    }
+
+    private Entry entry(Movie movie) {
+        Entry entry = entries.get(movie.getId());
+        if (entry != null && entry.isFor(movie)) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        Entry created = new Entry(movie, serialize(movie));
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(movie.getId(), created);
+        return created;
+    }
+
+    private byte[] serialize(Movie movie) {
+        try {
+            return objectMapper.writeValueAsBytes(movieMapper.toResponseDTO(movie));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize movie " + movie.getId(), e);
+        }
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class Entry {
+        private final Movie movie;
+        private final LocalDateTime updatedAt;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        private Entry(Movie movie, byte[] json) {
+            this.movie = movie;
+            this.updatedAt = movie.getUpdatedAt();
+            this.json = json;
+        }
+
+        /**
+         * Movies with the same update time match; without an update time, only the same instance does.
+         */
+        private boolean isFor(Movie other) {
+            return Objects.equals(updatedAt, other.getUpdatedAt()) && (updatedAt != null || movie == other);
+        }
+    }
+}
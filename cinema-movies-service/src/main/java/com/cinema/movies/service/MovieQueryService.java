@@ -0,0 +1,274 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieMapper;
+import com.cinema.movies.dto.MoviePageDTO;
+import com.cinema.movies.dto.MovieQueryCriteria;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.exception.InvalidQueryException;
+import com.cinema.movies.repository.MovieRepository;
+import com.cinema.movies.repository.MovieSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Paged, filtered and sorted browsing of the catalog, run in PostgreSQL.
+ *
+ * Movies can be sorted by any of the indexed properties {@code title},
+ * {@code releaseDate}, {@code rating} and {@code id}, in several levels; id is
+ * always added as the last level, so the order is total. Pages are requested
+ * either by number, which costs a scan of the skipped rows and is limited to
+ * {@code movies.browse.max-offset} rows, or with the opaque cursor returned by
+ * the previous page, which holds the last row's position so that every page is
+ * an index range scan of {@code size + 1} rows however deep the caller pages.
+ * Instead of an exact {@code count(*)}, the total is the row estimate PostgreSQL's
+ * planner makes for the same WHERE clause, which costs a plan but no scan.
+ */
+@Service
+@Slf4j
+public class MovieQueryService {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+    private static final Sort DEFAULT_ORDER = Sort.by(Sort.Order.asc("id"));
+    private static final String CURSOR_SEPARATOR = ".";
+    private static final String CURSOR_NULL = "~";
+
+    private final MovieRepository movieRepository;
+    private final MovieMapper movieMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPageSize;
+    private final int maxOffset;
+
+    public MovieQueryService(MovieRepository movieRepository,
+                             MovieMapper movieMapper,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${movies.browse.max-page-size:100}") int maxPageSize,
+                             @Value("${movies.browse.max-offset:10000}") int maxOffset) {
+        this.movieRepository = movieRepository;
+        this.movieMapper = movieMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPageSize = maxPageSize;
+        this.maxOffset = maxOffset;
+    }
+
+    /**
+     * @param criteria the filters
+     * @param sort     {@code property,direction} items, e.g. {@code rating,desc}; by id if empty
+     * @param page     zero-based page number, ignored when a cursor is given
+     * @param cursor   {@code nextCursor} of the previous page, or null
+     * @param size     page size, capped at {@code movies.browse.max-page-size}
+     * @throws InvalidQueryException if a sort property or release year is invalid, the cursor was
+     *                               not produced for the same order, or the page is beyond the maximum offset
+     */
+    public MoviePageDTO find(MovieQueryCriteria criteria, List<String> sort, Integer page, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        Sort order = parseSort(sort);
+        Specification<Movie> specification = MovieSpecifications.matching(criteria);
+
+        Integer pageNumber = null;
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(MovieSpecifications.after(order, decodeCursor(cursor, order)));
+        } else {
+            pageNumber = page != null ? Math.max(0, page) : 0;
+            long skipped = (long) pageNumber * limit;
+            if (skipped > maxOffset) {
+                throw new InvalidQueryException("Page " + pageNumber + " is too deep to fetch by number; "
+                        + "follow nextCursor instead");
+            }
+            offset = (int) skipped;
+        }
+
+        List<Movie> rows = movieRepository.findSlice(specification, order, offset, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<Movie> movies = hasNext ? rows.subList(0, limit) : rows;
+
+        List<MovieResponseDTO> items = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            items.add(movieMapper.toResponseDTO(movie));
+        }
+        String nextCursor = hasNext ? encodeCursor(order, movies.get(movies.size() - 1)) : null;
+        return new MoviePageDTO(items, pageNumber, limit, describe(order), nextCursor, hasNext,
+                estimateCount(criteria));
+    }
+
+    /**
+     * Accepts each item as {@code property} or {@code property,direction}, and also
+     * a bare direction following its property, which is how Spring splits a single
+     * {@code sort=rating,desc} parameter into a list. Levels after id are dropped,
+     * since id is unique.
+     */
+    static Sort parseSort(List<String> sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean byId = false;
+        boolean dropped = false;
+        if (sort != null) {
+            for (String item : sort) {
+                for (String token : item.split(",")) {
+                    String value = token.trim();
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    Sort.Direction direction = Sort.Direction.fromOptionalString(value).orElse(null);
+                    if (direction == null) {
+                        SortProperty property = SortProperty.of(value);
+                        dropped = byId || orders.stream().anyMatch(o -> o.getProperty().equals(property.property));
+                        if (!dropped) {
+                            orders.add(Sort.Order.asc(property.property));
+                            byId = property == SortProperty.ID;
+                        }
+                    } else if (orders.isEmpty()) {
+                        throw new InvalidQueryException("Sort direction without a property: " + value);
+                    } else if (!dropped) {
+                        orders.add(orders.remove(orders.size() - 1).with(direction));
+                    }
+                }
+            }
+        }
+        if (orders.isEmpty()) {
+            return DEFAULT_ORDER;
+        }
+        if (!byId) {
+            orders.add(new Sort.Order(orders.get(orders.size() - 1).getDirection(), SortProperty.ID.property));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Asks the planner how many rows the query would return. Mirrors the
+     * predicates of {@link MovieSpecifications#matching}.
+     *
+     * @return the estimate, or -1 if it could not be obtained
+     * @throws InvalidQueryException if a release year is out of range
+     */
+    long estimateCount(MovieQueryCriteria criteria) {
+        StringBuilder sql = new StringBuilder("EXPLAIN SELECT 1 FROM movies WHERE TRUE");
+        List<Object> parameters = new ArrayList<>();
+        if (criteria.getGenre() != null && !criteria.getGenre().isBlank()) {
+            sql.append(" AND lower(genre) = ?");
+            parameters.add(criteria.getGenre().trim().toLowerCase(Locale.ROOT));
+        }
+        if (criteria.getDirector() != null && !criteria.getDirector().isBlank()) {
+            sql.append(" AND lower(director) = ?");
+            parameters.add(criteria.getDirector().trim().toLowerCase(Locale.ROOT));
+        }
+        if (criteria.getReleaseYearFrom() != null) {
+            sql.append(" AND release_date >= ?");
+            parameters.add(MovieSpecifications.firstDayOf(criteria.getReleaseYearFrom()));
+        }
+        if (criteria.getReleaseYearTo() != null) {
+            sql.append(" AND release_date < ?");
+            parameters.add(MovieSpecifications.firstDayOf(criteria.getReleaseYearTo()).plusYears(1));
+        }
+        if (criteria.getMinRating() != null) {
+            sql.append(" AND rating >= ?");
+            parameters.add(criteria.getMinRating());
+        }
+
+        try {
+            List<String> plan = jdbcTemplate.queryForList(sql.toString(), String.class, parameters.toArray());
+            if (!plan.isEmpty()) {
+                Matcher matcher = PLAN_ROWS.matcher(plan.get(0));
+                if (matcher.find()) {
+                    return Long.parseLong(matcher.group(1));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not estimate movie query count: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * The cursor holds the order it was made for, so that it is rejected if the
+     * order changes, followed by the movie's value of each property of the order.
+     */
+    static String encodeCursor(Sort order, Movie movie) {
+        StringBuilder cursor = new StringBuilder(encode(String.join(";", describe(order))));
+        for (Sort.Order sortOrder : order) {
+            Object value = SortProperty.of(sortOrder.getProperty()).getter.apply(movie);
+            cursor.append(CURSOR_SEPARATOR).append(value != null ? encode(value.toString()) : CURSOR_NULL);
+        }
+        return cursor.toString();
+    }
+
+    static List<Object> decodeCursor(String cursor, Sort order) {
+        try {
+            String[] parts = cursor.split(Pattern.quote(CURSOR_SEPARATOR), -1);
+            if (!decode(parts[0]).equals(String.join(";", describe(order)))
+                    || parts.length != order.stream().count() + 1) {
+                throw new InvalidQueryException("Page cursor does not match the sort order: " + cursor);
+            }
+            List<Object> position = new ArrayList<>();
+            int i = 1;
+            for (Sort.Order sortOrder : order) {
+                String part = parts[i++];
+                position.add(part.equals(CURSOR_NULL)
+                        ? null
+                        : SortProperty.of(sortOrder.getProperty()).parser.apply(decode(part)));
+            }
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidQueryException("Invalid page cursor: " + cursor);
+        }
+    }
+
+    private static List<String> describe(Sort order) {
+        return order.stream()
+                .map(sortOrder -> sortOrder.getProperty() + "," + sortOrder.getDirection().name().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The properties movies can be sorted by, each of which leads an index.
+     */
+    private enum SortProperty {
+        TITLE("title", Movie::getTitle, value -> value),
+        RELEASE_DATE("releaseDate", Movie::getReleaseDate, LocalDate::parse),
+        RATING("rating", Movie::getRating, Double::valueOf),
+        ID("id", Movie::getId, Long::valueOf);
+
+        private final String property;
+        private final Function<Movie, Object> getter;
+        private final Function<String, Object> parser;
+
+        SortProperty(String property, Function<Movie, Object> getter, Function<String, Object> parser) {
+            this.property = property;
+            this.getter = getter;
+            this.parser = parser;
+        }
+
+        private static SortProperty of(String property) {
+            for (SortProperty sortProperty : values()) {
+                if (sortProperty.property.equalsIgnoreCase(property)) {
+                    return sortProperty;
+                }
+            }
+            throw new InvalidQueryException("Cannot sort movies by " + property
+                    + "; use title, releaseDate, rating or id");
+        }
+    }
+}
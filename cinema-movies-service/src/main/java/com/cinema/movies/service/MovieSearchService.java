@@ -0,0 +1,196 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.catalog.CatalogSnapshot;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.event.MovieChangedEvent;
+import com.cinema.movies.repository.MovieRepository;
+import com.cinema.movies.search.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Substring search over movie titles, ranked by similarity.
+ *
+ * In the default {@code memory} mode titles are held in a {@link TrigramIndex}
+ * built once the application is ready, rebuilt every
+ * {@code movies.search.rebuild-interval-ms} to pick up changes made by other
+ * instances, and kept current from {@link MovieChangedEvent}s; the matching
+ * movies are then taken from the {@link MovieCatalog}. Events that arrive while
+ * an index is being built are queued and applied to it before it is swapped in.
+ * Until the first index is built, searches fall back to the database.
+ *
+ * In {@code pg_trgm} mode the search runs in PostgreSQL instead, using the
+ * {@code pg_trgm} and {@code unaccent} extensions and a GIN index on
+ * {@code movies_search_normalize(title)}, which lower-cases, strips accents and
+ * collapses whitespace like {@link TrigramIndex#normalize}; they are created on
+ * startup, and if they cannot be, the memory mode is used.
+ */
+@Service
+@Slf4j
+public class MovieSearchService {
+
+    private static final String MODE_PG_TRGM = "pg_trgm";
+    /** Immutable, unlike unaccent() itself, so it can back an index. */
+    private static final String NORMALIZE_FUNCTION = "CREATE OR REPLACE FUNCTION movies_search_normalize(text) "
+            + "RETURNS text LANGUAGE sql IMMUTABLE PARALLEL SAFE AS "
+            + "$$ SELECT btrim(regexp_replace(lower(public.unaccent('public.unaccent'::regdictionary, $1)), "
+            + "'\\s+', ' ', 'g')) $$";
+
+    private final MovieRepository movieRepository;
+    private final MovieCatalog movieCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxLimit;
+    private volatile boolean database;
+    private volatile TrigramIndex index;
+    private final Object swapLock = new Object();
+    /** Events received while an index is being built; guarded by swapLock. */
+    private final List<MovieChangedEvent> pending = new ArrayList<>();
+    private boolean building;
+
+    public MovieSearchService(MovieRepository movieRepository,
+                              MovieCatalog movieCatalog,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${movies.search.mode:memory}") String mode,
+                              @Value("${movies.search.max-limit:500}") int maxLimit,
+                              MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.movieCatalog = movieCatalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.database = MODE_PG_TRGM.equalsIgnoreCase(mode);
+        this.maxLimit = maxLimit;
+
+        Gauge.builder("movies.search.indexed_titles", this, service -> service.index != null ? service.index.size() : 0)
+                .description("Titles held in the in-memory trigram index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prepares the configured search mode.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (database) {
+            try {
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+                jdbcTemplate.execute(NORMALIZE_FUNCTION);
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_movies_title_norm_trgm "
+                        + "ON movies USING gin (movies_search_normalize(title) gin_trgm_ops)");
+                jdbcTemplate.execute("DROP INDEX IF EXISTS idx_movies_title_trgm");
+                log.info("Movie title search uses the pg_trgm index");
+                return;
+            } catch (DataAccessException e) {
+                log.warn("pg_trgm is not available, using the in-memory title index: {}", e.getMessage());
+                database = false;
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the in-memory index from the database. Changes published during
+     * the load are applied to the new index before it replaces the old one.
+     */
+    public synchronized void rebuild() {
+        synchronized (swapLock) {
+            building = true;
+        }
+        TrigramIndex built = null;
+        try {
+            Map<Long, String> titles = new HashMap<>();
+            for (Object[] row : movieRepository.findAllTitles()) {
+                titles.put((Long) row[0], (String) row[1]);
+            }
+            built = TrigramIndex.of(titles);
+            log.info("Indexed {} movie titles for search", titles.size());
+        } finally {
+            synchronized (swapLock) {
+                TrigramIndex target = built != null ? built : index;
+                if (target != null) {
+                    pending.forEach(event -> apply(target, event));
+                }
+                pending.clear();
+                index = target;
+                building = false;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${movies.search.rebuild-interval-ms:600000}",
+            initialDelayString = "${movies.search.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        if (database) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the title search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param title the text to look for anywhere in the title, ignoring case and accents
+     * @param limit maximum number of movies, capped at {@code movies.search.max-limit}
+     * @return matching movies, most similar title first
+     */
+    public List<Movie> search(String title, int limit) {
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        if (database) {
+            return movieRepository.searchByTitleSimilarity(escapeLike(TrigramIndex.normalize(title)), size);
+        }
+        TrigramIndex current = index;
+        if (current == null) {
+            return movieRepository.findByTitleContainingIgnoreCase(title).stream().limit(size).toList();
+        }
+
+        CatalogSnapshot catalog = movieCatalog.current();
+        return current.search(title, size).stream()
+                .map(match -> catalog.get(match.id()))
+                .filter(movie -> movie != null)
+                .toList();
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (database) {
+            return;
+        }
+        synchronized (swapLock) {
+            if (building) {
+                pending.add(event);
+            } else if (index != null) {
+                apply(index, event);
+            }
+        }
+    }
+
+    private static void apply(TrigramIndex target, MovieChangedEvent event) {
+        MovieResponseDTO previous = event.getPrevious();
+        if (previous != null && previous.getId() != null) {
+            target.remove(previous.getId());
+        }
+        MovieResponseDTO movie = event.getCurrent();
+        if (movie != null && movie.getId() != null) {
+            target.put(movie.getId(), movie.getTitle());
+        }
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
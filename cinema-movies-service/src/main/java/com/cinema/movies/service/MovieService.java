@@ -1,7 +1,10 @@
 package com.cinema.movies.service;
 
 import com.cinema.movies.dto.BookingDTO;
+import com.cinema.movies.dto.MoviePageDTO;
 import com.cinema.movies.dto.MoviePopularityResponseDTO;
+import com.cinema.movies.dto.MovieQueryCriteria;
+import com.cinema.movies.dto.MovieSuggestionDTO;
 import com.cinema.movies.dto.MovieWithBookingsResponseDTO;
 import com.cinema.movies.entity.Movie;
 
@@ -51,6 +54,15 @@ public interface MovieService {
      */
     void deleteMovie(Long id);
 
+    /**
+     * Returns a value identifying the current content of the catalog. It changes
+     * whenever a movie is created, updated or deleted, and is the same on every
+     * instance that holds the same movies.
+     *
+     * @return the catalog version, usable as a validator for cached movie lists
+     */
+    long getCatalogVersion();
+
     /**
      * Retrieves all movies from the database.
      *
@@ -59,12 +71,39 @@ public interface MovieService {
     List<Movie> getAllMovies();
 
     /**
-     * Searches for movies by title using case-insensitive partial matching.
+     * Finds one page of the movies matching the filters, in the requested order.
+     * Unlike the other reads, this one queries the database, so that only the
+     * page itself is loaded however large the catalog is.
+     *
+     * @param criteria the filters; null fields are not filtered on
+     * @param sort     sort levels as {@code property,direction}, e.g. {@code rating,desc}; by id if empty
+     * @param page     zero-based page number, ignored when a cursor is given
+     * @param cursor   {@code nextCursor} of the previous page, or null
+     * @param size     the maximum number of movies on the page
+     * @return the movies of the page with the paging metadata
+     * @throws com.cinema.movies.exception.InvalidQueryException if the sort, cursor or page is invalid
+     */
+    MoviePageDTO findMovies(MovieQueryCriteria criteria, List<String> sort, Integer page, String cursor, int size);
+
+    /**
+     * Searches for movies by title using case-insensitive partial matching,
+     * ranked by how similar the title is to the search text.
      *
      * @param title the title or partial title to search for
-     * @return list of movies matching the search criteria, empty if no matches
+     * @param limit the maximum number of movies to return
+     * @return list of movies matching the search criteria, most similar first, empty if no matches
+     */
+    List<Movie> searchMoviesByTitle(String title, int limit);
+
+    /**
+     * Suggests movies whose title or director has a word starting with the prefix,
+     * ignoring case and accents, best rated and most booked first.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions to return
+     * @return id and title of the suggested movies, empty if none match
      */
-    List<Movie> searchMoviesByTitle(String title);
+    List<MovieSuggestionDTO> autocomplete(String prefix, int limit);
 
     /**
      * Filters movies by genre using case-insensitive exact matching.
@@ -3,16 +3,22 @@ package com.cinema.movies.service;
 import com.cinema.movies.client.BookingServiceClient;
 import com.cinema.movies.dto.BookingDTO;
 import com.cinema.movies.dto.MovieMapper;
+import com.cinema.movies.dto.MoviePageDTO;
 import com.cinema.movies.dto.MoviePopularityResponseDTO;
+import com.cinema.movies.dto.MovieQueryCriteria;
+import com.cinema.movies.dto.MovieSuggestionDTO;
 import com.cinema.movies.dto.MovieWithBookingsResponseDTO;
+import com.cinema.movies.dto.MovieResponseDTO;
 import com.cinema.movies.entity.Movie;
+import com.cinema.movies.event.MovieChangedEvent;
 import com.cinema.movies.exception.ResourceNotFoundException;
 import com.cinema.movies.repository.MovieRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * Implementation of the MovieService interface.
@@ -30,16 +36,31 @@ public class MovieServiceImpl implements MovieService {
     private final MovieRepository movieRepository;
     private final BookingServiceClient bookingServiceClient;
     private final MovieMapper movieMapper;
+    private final MovieCatalog movieCatalog;
+    private final MovieSearchService movieSearchService;
+    private final MovieAutocompleteService movieAutocompleteService;
+    private final MovieQueryService movieQueryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Threshold for marking a movie as popular
     private static final long POPULARITY_THRESHOLD = 5;
 
     public MovieServiceImpl(MovieRepository movieRepository,
                            BookingServiceClient bookingServiceClient,
-                           MovieMapper movieMapper) {
+                           MovieMapper movieMapper,
+                           MovieCatalog movieCatalog,
+                           MovieSearchService movieSearchService,
+                           MovieAutocompleteService movieAutocompleteService,
+                           MovieQueryService movieQueryService,
+                           ApplicationEventPublisher eventPublisher) {
         this.movieRepository = movieRepository;
         this.bookingServiceClient = bookingServiceClient;
         this.movieMapper = movieMapper;
+        this.movieCatalog = movieCatalog;
+        this.movieSearchService = movieSearchService;
+        this.movieAutocompleteService = movieAutocompleteService;
+        this.movieQueryService = movieQueryService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -52,18 +73,28 @@ public class MovieServiceImpl implements MovieService {
      */
     @Override
     public Movie createMovie(Movie movie) {
-        return movieRepository.save(movie);
+        Movie saved = movieRepository.save(movie);
+        movieCatalog.put(saved);
+        eventPublisher.publishEvent(MovieChangedEvent.created(movieMapper.toResponseDTO(saved)));
+        return saved;
     }
 
     /**
      * {@inheritDoc}
      *
+     * Served from the in-memory catalog. Movies it does not have yet, such as
+     * movies just created through another instance, are looked up in the database.
+     * The returned movie is shared and must not be modified.
+     *
      * @author Tudor
      */
     @Override
     public Movie getMovieById(Long id) {
-        return movieRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+        Movie movie = movieCatalog.current().get(id);
+        if (movie != null) {
+            return movie;
+        }
+        return findMovie(id);
     }
 
     /**
@@ -76,7 +107,9 @@ public class MovieServiceImpl implements MovieService {
      */
     @Override
     public Movie updateMovie(Long id, Movie movie) {
-        Movie existingMovie = getMovieById(id);
+        Movie existingMovie = findMovie(id);
+        MovieResponseDTO previous = movieMapper.toResponseDTO(existingMovie);
+        boolean titleChanged = !Objects.equals(existingMovie.getTitle(), movie.getTitle());
 
         existingMovie.setTitle(movie.getTitle());
         existingMovie.setDescription(movie.getDescription());
@@ -87,7 +120,13 @@ public class MovieServiceImpl implements MovieService {
         existingMovie.setRating(movie.getRating());
         existingMovie.setPosterUrl(movie.getPosterUrl());
 
-        return movieRepository.save(existingMovie);
+        Movie saved = movieRepository.save(existingMovie);
+        movieCatalog.put(saved);
+        eventPublisher.publishEvent(MovieChangedEvent.updated(previous, movieMapper.toResponseDTO(saved)));
+        if (titleChanged) {
+            bookingServiceClient.publishMovieTitleChanged(saved.getId(), saved.getTitle());
+        }
+        return saved;
     }
 
     /**
@@ -99,69 +138,97 @@ public class MovieServiceImpl implements MovieService {
      */
     @Override
     public void deleteMovie(Long id) {
-        Movie movie = getMovieById(id);
+        Movie movie = findMovie(id);
         movieRepository.delete(movie);
+        movieCatalog.remove(id);
+        eventPublisher.publishEvent(MovieChangedEvent.deleted(movieMapper.toResponseDTO(movie)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Taken from the fingerprint of the in-memory catalog rather than its local
+     * version, which also counts reloads and differs between instances.
+     *
+     * @author Tudor
+     */
+    @Override
+    public long getCatalogVersion() {
+        return movieCatalog.current().getFingerprint();
     }
 
     /**
      * {@inheritDoc}
      *
+     * Served from the in-memory catalog, ordered by id.
+     *
      * @author Tudor
      */
     @Override
     public List<Movie> getAllMovies() {
-        return movieRepository.findAll();
+        return movieCatalog.current().all();
     }
 
     /**
      * {@inheritDoc}
      *
-     * Uses a custom repository method with JPA query methods.
+     * Filtering, ordering and paging all run in PostgreSQL, on indexed columns.
      *
      * @author Tudor
      */
     @Override
-    public List<Movie> searchMoviesByTitle(String title) {
-        return movieRepository.findByTitleContainingIgnoreCase(title);
+    public MoviePageDTO findMovies(MovieQueryCriteria criteria, List<String> sort, Integer page, String cursor,
+                                   int size) {
+        return movieQueryService.find(criteria, sort, page, cursor, size);
     }
 
     /**
      * {@inheritDoc}
      *
-     * Uses a custom repository method with JPA query methods.
+     * Served by {@link MovieSearchService}, which avoids a full table scan per search.
+     *
+     * @author Tudor
+     */
+    @Override
+    public List<Movie> searchMoviesByTitle(String title, int limit) {
+        return movieSearchService.search(title, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Served from the in-memory trie of {@link MovieAutocompleteService}, without a database query.
+     *
+     * @author Tudor
+     */
+    @Override
+    public List<MovieSuggestionDTO> autocomplete(String prefix, int limit) {
+        return movieAutocompleteService.suggest(prefix, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Served from the genre index of the in-memory catalog, ordered by id.
      *
      * @author Tudor
      */
     @Override
     public List<Movie> filterMoviesByGenre(String genre) {
-        return movieRepository.findByGenreIgnoreCase(genre);
+        return movieCatalog.current().byGenre(genre);
     }
 
     /**
      * {@inheritDoc}
      *
-     * Sorting is performed in-memory using Java streams.
-     * For large datasets, consider implementing database-level sorting.
+     * Served from the sorted views of the in-memory catalog, which are kept
+     * in order as movies change; movies with the same rating are ordered by id.
      *
      * @author Tudor
      */
     @Override
     public List<Movie> sortMoviesByRating(String order) {
-        List<Movie> movies = movieRepository.findAll();
-
-        if ("desc".equalsIgnoreCase(order)) {
-            return movies.stream()
-                    .sorted((m1, m2) -> Double.compare(
-                            m2.getRating() != null ? m2.getRating() : 0.0,
-                            m1.getRating() != null ? m1.getRating() : 0.0))
-                    .collect(Collectors.toList());
-        } else {
-            return movies.stream()
-                    .sorted((m1, m2) -> Double.compare(
-                            m1.getRating() != null ? m1.getRating() : 0.0,
-                            m2.getRating() != null ? m2.getRating() : 0.0))
-                    .collect(Collectors.toList());
-        }
+        return movieCatalog.current().byRating("desc".equalsIgnoreCase(order));
     }
 
     /**
@@ -240,4 +307,9 @@ public class MovieServiceImpl implements MovieService {
 
         return response;
     }
+
+    private Movie findMovie(Long id) {
+        return movieRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+    }
 }
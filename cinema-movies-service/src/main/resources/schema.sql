@@ -0,0 +1,23 @@
+-- Indexes that JPA annotations cannot express. Runs after Hibernate has
+-- created/updated the tables (spring.jpa.defer-datasource-initialization=true),
+-- so every statement must be idempotent.
+
+-- Movie browsing: one index per sort property, ending with the id tie-breaker,
+-- so keyset pages are index range scans. Descending sorts scan them backwards,
+-- which also matches PostgreSQL's NULLS FIRST for descending order.
+CREATE INDEX IF NOT EXISTS idx_movies_rating_release_date
+    ON movies (rating, release_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_movies_release_date
+    ON movies (release_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_movies_title
+    ON movies (title, id);
+
+-- Movie browsing: case-insensitive genre and director filters, lower(genre) = 'drama',
+-- followed by the most common order within them
+CREATE INDEX IF NOT EXISTS idx_movies_genre_rating
+    ON movies (lower(genre), rating, id);
+
+CREATE INDEX IF NOT EXISTS idx_movies_director_release_date
+    ON movies (lower(director), release_date, id);
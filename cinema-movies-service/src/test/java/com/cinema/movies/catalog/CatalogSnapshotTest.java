@@ -0,0 +1,109 @@
+package com.cinema.movies.catalog;
+
+import com.cinema.movies.entity.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void testOf_BuildsSortedViewsAndGenreIndex() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+                movie(3L, "Drama", 7.5),
+                movie(1L, "Action", 8.5),
+                movie(2L, "action", null),
+                movie(4L, null, 7.5)), 1);
+
+        assertThat(snapshot.all()).extracting(Movie::getId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(snapshot.byRating(true)).extracting(Movie::getId).containsExactly(1L, 3L, 4L, 2L);
+        assertThat(snapshot.byRating(false)).extracting(Movie::getId).containsExactly(2L, 3L, 4L, 1L);
+        assertThat(snapshot.byGenre("ACTION")).extracting(Movie::getId).containsExactly(1L, 2L);
+        assertThat(snapshot.byGenre("Horror")).isEmpty();
+        assertThat(snapshot.byGenre(null)).isEmpty();
+        assertThat(snapshot.get(3L).getGenre()).isEqualTo("Drama");
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void testWith_ReplacesMovieInEveryViewWithoutChangingThisSnapshot() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+                movie(1L, "Action", 8.5),
+                movie(2L, "Drama", 7.0)), 1);
+
+        CatalogSnapshot updated = snapshot.with(movie(1L, "Drama", 6.0)).with(movie(3L, "Comedy", 9.0));
+
+        assertThat(updated.getVersion()).isEqualTo(3);
+        assertThat(updated.all()).extracting(Movie::getId).containsExactly(1L, 2L, 3L);
+        assertThat(updated.byRating(true)).extracting(Movie::getId).containsExactly(3L, 2L, 1L);
+        assertThat(updated.byGenre("drama")).extracting(Movie::getId).containsExactly(1L, 2L);
+        assertThat(updated.byGenre("action")).isEmpty();
+        assertThat(updated.byGenre("comedy")).extracting(Movie::getId).containsExactly(3L);
+
+        assertThat(snapshot.all()).extracting(Movie::getId).containsExactly(1L, 2L);
+        assertThat(snapshot.byGenre("action")).extracting(Movie::getId).containsExactly(1L);
+        assertThat(snapshot.get(1L).getRating()).isEqualTo(8.5);
+    }
+
+    @Test
+    void testWithout_RemovesMovieFromEveryView() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+                movie(1L, "Action", 8.5),
+                movie(2L, "Action", 7.0)), 4);
+
+        CatalogSnapshot updated = snapshot.without(1L);
+
+        assertThat(updated.getVersion()).isEqualTo(5);
+        assertThat(updated.get(1L)).isNull();
+        assertThat(updated.all()).extracting(Movie::getId).containsExactly(2L);
+        assertThat(updated.byRating(false)).extracting(Movie::getId).containsExactly(2L);
+        assertThat(updated.byGenre("action")).extracting(Movie::getId).containsExactly(2L);
+        assertThat(updated.without(1L)).isSameAs(updated);
+        assertThat(snapshot.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testFingerprint_FollowsContentNotHistory() {
+        Movie heat = movie(1L, "Action", 8.3);
+        heat.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        Movie ran = movie(2L, "Drama", 8.2);
+        ran.setUpdatedAt(LocalDateTime.of(2025, 1, 2, 12, 0));
+        Movie ranUpdated = movie(2L, "Drama", 8.4);
+        ranUpdated.setUpdatedAt(LocalDateTime.of(2025, 1, 3, 12, 0));
+
+        CatalogSnapshot loaded = CatalogSnapshot.of(List.of(heat, ran), 1);
+        CatalogSnapshot built = CatalogSnapshot.empty().with(ran).with(heat);
+        CatalogSnapshot updated = loaded.with(ranUpdated);
+
+        assertThat(built.getFingerprint()).isEqualTo(loaded.getFingerprint());
+        assertThat(built.getVersion()).isNotEqualTo(loaded.getVersion());
+        assertThat(updated.getFingerprint()).isNotEqualTo(loaded.getFingerprint());
+        assertThat(updated.with(ran).getFingerprint()).isEqualTo(loaded.getFingerprint());
+        assertThat(loaded.without(1L).getFingerprint()).isNotEqualTo(loaded.getFingerprint());
+        assertThat(CatalogSnapshot.of(List.of(heat, ran), 9).getFingerprint()).isEqualTo(loaded.getFingerprint());
+    }
+
+    @Test
+    void testViews_AreUnmodifiable() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(movie(1L, "Action", 8.5)), 1);
+
+        assertThatThrownBy(() -> snapshot.all().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.byRating(true).add(movie(2L, "Drama", 1.0)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.byGenre("action").remove(0))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static Movie movie(Long id, String genre, Double rating) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setGenre(genre);
+        movie.setRating(rating);
+        return movie;
+    }
+}
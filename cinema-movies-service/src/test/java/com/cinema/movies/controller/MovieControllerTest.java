@@ -2,23 +2,42 @@ package com.cinema.movies.controller;
 
 import com.cinema.movies.dto.*;
 import com.cinema.movies.entity.Movie;
+import com.cinema.movies.exception.InvalidQueryException;
+import com.cinema.movies.service.MovieJsonCache;
 import com.cinema.movies.service.MovieService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,8 +47,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Tests all REST endpoints using MockMvc.
  */
 @WebMvcTest(MovieController.class)
+@Import({MovieJsonCache.class, MovieControllerTest.MetricsConfig.class})
 class MovieControllerTest {
 
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -42,12 +70,17 @@ class MovieControllerTest {
     @MockBean
     private MovieMapper movieMapper;
 
+    @Autowired
+    private MovieJsonCache movieJsonCache;
+
     private Movie testMovie;
     private MovieRequestDTO testMovieRequestDTO;
     private MovieResponseDTO testMovieResponseDTO;
 
     @BeforeEach
     void setUp() {
+        movieJsonCache.clear();
+
         testMovie = new Movie();
         testMovie.setId(1L);
         testMovie.setTitle("Test Movie");
@@ -99,6 +132,47 @@ class MovieControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testFindMovies_PassesFiltersSortAndPaging() throws Exception {
+        // Arrange
+        MoviePageDTO page = new MoviePageDTO(List.of(testMovieResponseDTO), null, 10,
+                List.of("rating,desc", "releaseDate,desc", "id,desc"), "next", true, 1234);
+        when(movieService.findMovies(any(MovieQueryCriteria.class), any(), any(), any(), anyInt())).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies")
+                        .param("genre", "Drama")
+                        .param("director", "Kurosawa")
+                        .param("releaseYearFrom", "1950")
+                        .param("releaseYearTo", "1965")
+                        .param("minRating", "8")
+                        .param("sort", "rating,desc")
+                        .param("sort", "releaseDate,desc")
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Content-Rating", "EXCELLENT"))
+                .andExpect(jsonPath("$.items[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.estimatedTotal").value(1234));
+        verify(movieService).findMovies(
+                eq(new MovieQueryCriteria("Drama", "Kurosawa", 1950, 1965, 8.0)),
+                eq(List.of("rating,desc", "releaseDate,desc")), isNull(), eq("abc"), eq(10));
+    }
+
+    @Test
+    void testFindMovies_InvalidQueryIsBadRequest() throws Exception {
+        // Arrange
+        when(movieService.findMovies(any(MovieQueryCriteria.class), any(), any(), any(), anyInt()))
+                .thenThrow(new InvalidQueryException("Cannot sort movies by description"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies").param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot sort movies by description"));
+    }
+
     @Test
     void testGetMovieById_Success() throws Exception {
         // Arrange
@@ -112,6 +186,90 @@ class MovieControllerTest {
                 .andExpect(jsonPath("$.title").value("Test Movie"));
     }
 
+    @Test
+    void testGetMovieById_ServedFromCacheWithContentRating() throws Exception {
+        // Arrange
+        testMovie.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        when(movieService.getMovieById(1L)).thenReturn(testMovie);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
+
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/movies/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string("X-Content-Rating", "EXCELLENT"))
+                    .andExpect(jsonPath("$.title").value("Test Movie"));
+        }
+        verify(movieMapper, times(1)).toResponseDTO(any(Movie.class));
+    }
+
+    @Test
+    void testGetMovieById_GzipWhenAccepted() throws Exception {
+        // Arrange
+        when(movieService.getMovieById(1L)).thenReturn(testMovie);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
+
+        // Act
+        byte[] body = mockMvc.perform(get("/api/movies/1").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"1-0-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            MovieResponseDTO movie = objectMapper.readValue(
+                    new String(gzip.readAllBytes(), StandardCharsets.UTF_8), MovieResponseDTO.class);
+            assertEquals("Test Movie", movie.getTitle());
+        }
+        mockMvc.perform(get("/api/movies/1").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"1-0\""));
+    }
+
+    @Test
+    void testGetMovieById_NotModifiedWhenETagMatches() throws Exception {
+        // Arrange
+        testMovie.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        when(movieService.getMovieById(1L)).thenReturn(testMovie);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
+
+        String eTag = mockMvc.perform(get("/api/movies/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(movieMapper, times(1)).toResponseDTO(any(Movie.class));
+
+        testMovie.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 12, 0, 0, 5_000_000));
+        mockMvc.perform(get("/api/movies/1").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetMovieById_NotModifiedSinceLastUpdate() throws Exception {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        testMovie.setUpdatedAt(updatedAt);
+        when(movieService.getMovieById(1L)).thenReturn(testMovie);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(updatedAt.plusMinutes(1).atZone(ZoneId.systemDefault()).toInstant());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/1").headers(headers))
+                .andExpect(status().isNotModified());
+        verify(movieMapper, never()).toResponseDTO(any(Movie.class));
+    }
+
     @Test
     void testUpdateMovie_Success() throws Exception {
         // Arrange
@@ -138,10 +296,9 @@ class MovieControllerTest {
     void testSearchMoviesByTitle_Success() throws Exception {
         // Arrange
         List<Movie> movies = Arrays.asList(testMovie);
-        List<MovieResponseDTO> responseDTOs = Arrays.asList(testMovieResponseDTO);
 
-        when(movieService.searchMoviesByTitle("Test")).thenReturn(movies);
-        when(movieMapper.toResponseDTOList(any())).thenReturn(responseDTOs);
+        when(movieService.searchMoviesByTitle("Test", 50)).thenReturn(movies);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
 
         // Act & Assert
         mockMvc.perform(get("/api/movies/search")
@@ -151,14 +308,27 @@ class MovieControllerTest {
                 .andExpect(jsonPath("$[0].title").value("Test Movie"));
     }
 
+    @Test
+    void testAutocomplete_Success() throws Exception {
+        // Arrange
+        when(movieService.autocomplete("tes", 10)).thenReturn(List.of(new MovieSuggestionDTO(1L, "Test Movie")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/autocomplete")
+                        .param("prefix", "tes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
     @Test
     void testFilterMoviesByGenre_Success() throws Exception {
         // Arrange
         List<Movie> movies = Arrays.asList(testMovie);
-        List<MovieResponseDTO> responseDTOs = Arrays.asList(testMovieResponseDTO);
 
         when(movieService.filterMoviesByGenre("Action")).thenReturn(movies);
-        when(movieMapper.toResponseDTOList(any())).thenReturn(responseDTOs);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
 
         // Act & Assert
         mockMvc.perform(get("/api/movies/filter")
@@ -167,14 +337,65 @@ class MovieControllerTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void testFilterMoviesByGenre_HighestContentRating() throws Exception {
+        // Arrange
+        Movie unrated = new Movie();
+        unrated.setId(2L);
+        unrated.setTitle("Unrated Movie");
+        MovieResponseDTO unratedDTO = new MovieResponseDTO();
+        unratedDTO.setId(2L);
+        unratedDTO.setTitle("Unrated Movie");
+        when(movieService.filterMoviesByGenre("Action")).thenReturn(List.of(unrated, testMovie));
+        when(movieMapper.toResponseDTO(unrated)).thenReturn(unratedDTO);
+        when(movieMapper.toResponseDTO(testMovie)).thenReturn(testMovieResponseDTO);
+        when(movieService.filterMoviesByGenre("Drama")).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/filter")
+                        .param("genre", "Action"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("X-Content-Rating", "EXCELLENT"))
+                .andExpect(jsonPath("$[0].title").value("Unrated Movie"))
+                .andExpect(jsonPath("$[1].title").value("Test Movie"));
+        mockMvc.perform(get("/api/movies/filter")
+                        .param("genre", "Drama"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"))
+                .andExpect(header().doesNotExist("X-Content-Rating"));
+    }
+
+    @Test
+    void testFilterMoviesByGenre_NotModifiedWhenCatalogUnchanged() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(0x2aL);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/filter")
+                        .param("genre", "Action")
+                        .header("If-None-Match", "\"catalog-2a\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"catalog-2a\""));
+        verify(movieService, never()).filterMoviesByGenre(any());
+
+        when(movieService.getCatalogVersion()).thenReturn(0x2bL);
+        when(movieService.filterMoviesByGenre("Action")).thenReturn(List.of(testMovie));
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
+        mockMvc.perform(get("/api/movies/filter")
+                        .param("genre", "Action")
+                        .header("If-None-Match", "\"catalog-2a\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalog-2b\""));
+    }
+
     @Test
     void testSortMoviesByRating_Success() throws Exception {
         // Arrange
         List<Movie> movies = Arrays.asList(testMovie);
-        List<MovieResponseDTO> responseDTOs = Arrays.asList(testMovieResponseDTO);
 
         when(movieService.sortMoviesByRating("desc")).thenReturn(movies);
-        when(movieMapper.toResponseDTOList(any())).thenReturn(responseDTOs);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
 
         // Act & Assert
         mockMvc.perform(get("/api/movies/sort")
@@ -187,10 +408,9 @@ class MovieControllerTest {
     void testSortMoviesByRating_DefaultOrder() throws Exception {
         // Arrange
         List<Movie> movies = Arrays.asList(testMovie);
-        List<MovieResponseDTO> responseDTOs = Arrays.asList(testMovieResponseDTO);
 
         when(movieService.sortMoviesByRating("desc")).thenReturn(movies);
-        when(movieMapper.toResponseDTOList(any())).thenReturn(responseDTOs);
+        when(movieMapper.toResponseDTO(any(Movie.class))).thenReturn(testMovieResponseDTO);
 
         // Act & Assert - test default order parameter
         mockMvc.perform(get("/api/movies/sort"))
@@ -258,4 +258,67 @@ class ContentRatingFilterTest {
         // Assert - verify filter chain is called exactly once
         verify(filterChain, times(1)).doFilter(any(HttpServletRequest.class), any());
     }
+
+    @Test
+    void testFilter_AutocompleteResponseNotBuffered() throws ServletException, IOException {
+        // Arrange
+        when(request.getRequestURI()).thenReturn("/api/movies/autocomplete");
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert - the original response is passed on, without a caching wrapper
+        verify(filterChain, times(1)).doFilter(request, response);
+        assertNull(response.getHeader("X-Content-Rating"));
+    }
+
+    @Test
+    void testFilter_SelfRatedGetResponsesNotBuffered() throws ServletException, IOException {
+        when(request.getMethod()).thenReturn("GET");
+
+        for (String uri : new String[]{"/api/movies", "/api/movies/1", "/api/movies/search",
+                "/api/movies/filter", "/api/movies/sort"}) {
+            when(request.getRequestURI()).thenReturn(uri);
+
+            filter.doFilter(request, response, filterChain);
+        }
+
+        // Assert - the original response is passed on every time, without a caching wrapper
+        verify(filterChain, times(5)).doFilter(request, response);
+    }
+
+    @Test
+    void testFilter_OtherMovieResponsesStillBuffered() throws ServletException, IOException {
+        // Arrange - the movie with its bookings is not rated by the controller, nor is an update
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/movies/1/bookings");
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+        when(request.getMethod()).thenReturn("PUT");
+        when(request.getRequestURI()).thenReturn("/api/movies/1");
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        verify(filterChain, times(2)).doFilter(eq(request), any(ContentCachingResponseWrapper.class));
+    }
+
+    @Test
+    void testFilter_HeaderSetByControllerIsKept() throws ServletException, IOException {
+        // Arrange - a body that cannot be parsed, such as a gzip-encoded one
+        doAnswer(invocation -> {
+            HttpServletResponse resp = invocation.getArgument(1);
+            resp.setContentType("application/json");
+            resp.setHeader(ContentRatingFilter.HEADER_NAME, "GOOD");
+            resp.getOutputStream().write(new byte[]{0x1f, (byte) 0x8b, 0x08});
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals("GOOD", response.getHeader("X-Content-Rating"));
+        assertEquals(3, response.getContentAsByteArray().length);
+    }
 }
@@ -0,0 +1,63 @@
+package com.cinema.movies.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteTrieTest {
+
+    private final AutocompleteTrie trie = AutocompleteTrie.build(List.of(
+            new AutocompleteTrie.Entry(1L, "The Dark Knight", "Christopher Nolan", 9.0),
+            new AutocompleteTrie.Entry(2L, "Inception", "Christopher Nolan", 8.8),
+            new AutocompleteTrie.Entry(3L, "Dark City", "Alex Proyas", 7.6),
+            new AutocompleteTrie.Entry(4L, "Darkest Hour", "Joe Wright", 7.4),
+            new AutocompleteTrie.Entry(5L, "Amélie", "Jean-Pierre Jeunet", 8.3)), 3);
+
+    @Test
+    void testSuggest_MatchesTitleAndDirectorWordStarts() {
+        assertThat(trie.suggest("dark", 10)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(1L, 3L, 4L);
+        assertThat(trie.suggest("knig", 10)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(1L);
+        assertThat(trie.suggest("nolan", 10)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(1L, 2L);
+        assertThat(trie.suggest("christopher n", 10)).extracting(AutocompleteTrie.Suggestion::id)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testSuggest_IgnoresCaseAccentsAndExtraSpaces() {
+        assertThat(trie.suggest("  AME", 10)).containsExactly(new AutocompleteTrie.Suggestion(5L, "Amélie"));
+        assertThat(trie.suggest("the   dark", 10)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(1L);
+    }
+
+    @Test
+    void testSuggest_NoMatchesInsideWordsOrPastTheEnd() {
+        assertThat(trie.suggest("ark", 10)).isEmpty();
+        assertThat(trie.suggest("darker", 10)).isEmpty();
+        assertThat(trie.suggest("the dark knights", 10)).isEmpty();
+        assertThat(trie.suggest(" ", 10)).isEmpty();
+        assertThat(trie.suggest("dark", 0)).isEmpty();
+    }
+
+    @Test
+    void testSuggest_KeepsTopKPerNode() {
+        assertThat(trie.suggest("d", 10)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(1L, 3L, 4L);
+        assertThat(trie.suggest("dark", 2)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(1L, 3L);
+        assertThat(trie.size()).isEqualTo(5);
+    }
+
+    @Test
+    void testBuild_EqualWeightsRankedByTitle() {
+        List<AutocompleteTrie.Entry> entries = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            entries.add(new AutocompleteTrie.Entry(id, "Star " + id, null, id == 4242 ? 9.9 : 5.0));
+        }
+        AutocompleteTrie large = AutocompleteTrie.build(entries, 10);
+
+        assertThat(large.suggest("star", 3)).extracting(AutocompleteTrie.Suggestion::title)
+                .containsExactly("Star 4242", "Star 1", "Star 10");
+        assertThat(large.suggest("4999", 10)).extracting(AutocompleteTrie.Suggestion::id).containsExactly(4999L);
+        assertThat(large.suggest("star 12", 20)).hasSize(10);
+    }
+}
@@ -0,0 +1,77 @@
+package com.cinema.movies.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void testSearch_FindsSubstringsIgnoringCaseAndAccents() {
+        TrigramIndex index = TrigramIndex.of(Map.of(
+                1L, "The Dark Knight",
+                2L, "Amélie",
+                3L, "Knight and Day",
+                4L, "Darkest Hour"));
+
+        assertThat(index.search("KNIGHT", 10)).extracting(TrigramIndex.Match::id).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("amelie", 10)).extracting(TrigramIndex.Match::id).containsExactly(2L);
+        assertThat(index.search("dark", 10)).extracting(TrigramIndex.Match::id).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(index.search("ark k", 10)).extracting(TrigramIndex.Match::id).containsExactly(1L);
+        assertThat(index.search("knight dark", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearch_RanksCloserTitlesFirstAndLimits() {
+        TrigramIndex index = TrigramIndex.of(Map.of(
+                1L, "Alien",
+                2L, "Aliens",
+                3L, "Alien: Covenant",
+                4L, "Alien vs. Predator"));
+
+        assertThat(index.search("alien", 10)).extracting(TrigramIndex.Match::id).first().isEqualTo(1L);
+        assertThat(index.search("alien", 2)).hasSize(2);
+        assertThat(index.search("alien", 10).get(0).similarity()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testSearch_ShortQueriesScan() {
+        TrigramIndex index = TrigramIndex.of(Map.of(1L, "Up", 2L, "Jaws", 3L, "Heat"));
+
+        assertThat(index.search("up", 10)).extracting(TrigramIndex.Match::id).containsExactly(1L);
+        assertThat(index.search("a", 10)).extracting(TrigramIndex.Match::id).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void testPutAndRemove_KeepPostingsCurrent() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(5L, "Inception");
+        index.put(2L, "Interstellar");
+        index.put(5L, "Tenet");
+
+        assertThat(index.search("ince", 10)).isEmpty();
+        assertThat(index.search("tenet", 10)).extracting(TrigramIndex.Match::id).containsExactly(5L);
+        assertThat(index.remove(2L)).isTrue();
+        assertThat(index.remove(2L)).isFalse();
+        assertThat(index.search("stellar", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testSearch_ManyTitles() {
+        Map<Long, String> titles = new HashMap<>();
+        for (long id = 1; id <= 20_000; id++) {
+            titles.put(id, "Movie number " + id);
+        }
+        TrigramIndex index = TrigramIndex.of(titles);
+
+        assertThat(index.search("number 12345", 10)).extracting(TrigramIndex.Match::id).containsExactly(12345L);
+        assertThat(index.search("number 1999", 100)).extracting(TrigramIndex.Match::id)
+                .containsExactlyInAnyOrder(1999L, 19990L, 19991L, 19992L, 19993L, 19994L, 19995L, 19996L,
+                        19997L, 19998L, 19999L);
+    }
+}
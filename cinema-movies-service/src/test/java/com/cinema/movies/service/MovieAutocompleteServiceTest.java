@@ -0,0 +1,182 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.client.BookingServiceClient;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.dto.MovieSuggestionDTO;
+import com.cinema.movies.event.MovieChangedEvent;
+import com.cinema.movies.repository.MovieRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovieAutocompleteServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private BookingServiceClient bookingServiceClient;
+
+    private MovieAutocompleteService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testSuggest_RanksByRatingAndBookings() {
+        service = service(true);
+        when(movieRepository.findAllSuggestionFields()).thenReturn(List.of(
+                new Object[]{1L, "Alien", "Ridley Scott", 8.5},
+                new Object[]{2L, "Aliens", "James Cameron", 8.4},
+                new Object[]{3L, "Alien 3", "David Fincher", null}));
+        when(bookingServiceClient.getBookingCountsByMovie()).thenReturn(Optional.of(Map.of(2L, 3L)));
+        service.initialize();
+
+        List<MovieSuggestionDTO> result = service.suggest("ali", 10);
+
+        assertThat(result).extracting(MovieSuggestionDTO::getId).containsExactly(2L, 1L, 3L);
+        assertThat(result.get(0).getTitle()).isEqualTo("Aliens");
+        assertThat(service.suggest("ali", 1)).hasSize(1);
+    }
+
+    @Test
+    void testRebuild_FailedCountFetchIsRetried() {
+        service = service(true);
+        when(movieRepository.findAllSuggestionFields()).thenReturn(List.of(
+                new Object[]{1L, "Alien", "Ridley Scott", 8.5},
+                new Object[]{2L, "Aliens", "James Cameron", 8.4}));
+        when(bookingServiceClient.getBookingCountsByMovie())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(Map.of(2L, 3L)));
+        service.initialize();
+        assertThat(service.suggest("ali", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(1L, 2L);
+
+        service.rebuild();
+        service.rebuild();
+
+        assertThat(service.suggest("ali", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(2L, 1L);
+        verify(bookingServiceClient, times(2)).getBookingCountsByMovie();
+    }
+
+    @Test
+    void testScheduledRebuild_PicksUpChangesFromOtherInstances() {
+        service = service(true);
+        when(movieRepository.findAllSuggestionFields())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Alien", "Ridley Scott", 8.5}))
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(List.of(
+                        new Object[]{1L, "Alien", "Ridley Scott", 8.5},
+                        new Object[]{2L, "Aliens", "James Cameron", 8.4}));
+        when(bookingServiceClient.getBookingCountsByMovie()).thenReturn(Optional.of(Map.of()));
+        service.initialize();
+
+        service.scheduledRebuild();
+        assertThat(service.suggest("ali", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(1L);
+
+        service.scheduledRebuild();
+        assertThat(service.suggest("ali", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testRefreshPopularity_RebuildsOnlyWhenCountsChange() {
+        service = service(true);
+        when(movieRepository.findAllSuggestionFields()).thenReturn(List.of(
+                new Object[]{1L, "Alien", "Ridley Scott", 8.5},
+                new Object[]{2L, "Aliens", "James Cameron", 8.4}));
+        when(bookingServiceClient.getBookingCountsByMovie())
+                .thenReturn(Optional.of(Map.of(1L, 1L)))
+                .thenReturn(Optional.of(Map.of(1L, 1L)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(Map.of(1L, 1L, 2L, 30L)));
+        service.initialize();
+
+        service.refreshPopularity();
+        service.refreshPopularity();
+        verify(movieRepository, times(1)).findAllSuggestionFields();
+        assertThat(service.suggest("ali", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(1L, 2L);
+
+        service.refreshPopularity();
+
+        verify(movieRepository, times(2)).findAllSuggestionFields();
+        assertThat(service.suggest("ali", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testSuggest_LimitCappedAtTopK() {
+        service = new MovieAutocompleteService(movieRepository, bookingServiceClient, 2, 0, false,
+                new SimpleMeterRegistry());
+        when(movieRepository.findAllSuggestionFields()).thenReturn(List.of(
+                new Object[]{1L, "Heat", null, 8.3},
+                new Object[]{2L, "Her", null, 8.0},
+                new Object[]{3L, "Hereditary", null, 7.3}));
+        service.initialize();
+
+        assertThat(service.suggest("he", 50)).extracting(MovieSuggestionDTO::getId).containsExactly(1L, 2L);
+        verifyNoInteractions(bookingServiceClient);
+    }
+
+    @Test
+    void testOnMovieChanged_RebuildsInBackground() throws InterruptedException {
+        service = service(false);
+        when(movieRepository.findAllSuggestionFields())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Heat", "Michael Mann", 8.3}))
+                .thenReturn(List.of(new Object[]{1L, "Heat", "Michael Mann", 8.3},
+                        new Object[]{2L, "Collateral", "Michael Mann", 7.5}));
+        service.initialize();
+
+        service.onMovieChanged(MovieChangedEvent.created(dto(2L, "Collateral", 7.5)));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (service.suggest("michael", 10).size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        verify(movieRepository, timeout(2000).times(2)).findAllSuggestionFields();
+        assertThat(service.suggest("michael", 10)).extracting(MovieSuggestionDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testOnMovieChanged_IgnoresChangesThatDoNotAffectSuggestions() throws InterruptedException {
+        service = service(false);
+
+        MovieResponseDTO previous = dto(1L, "Heat", 8.3);
+        MovieResponseDTO current = dto(1L, "Heat", 8.3);
+        current.setDescription("A group of professional bank robbers");
+        service.onMovieChanged(MovieChangedEvent.updated(previous, current));
+        Thread.sleep(50);
+
+        verify(movieRepository, never()).findAllSuggestionFields();
+    }
+
+    private MovieAutocompleteService service(boolean popularity) {
+        return new MovieAutocompleteService(movieRepository, bookingServiceClient, 10, 0, popularity,
+                new SimpleMeterRegistry());
+    }
+
+    private static MovieResponseDTO dto(Long id, String title, Double rating) {
+        MovieResponseDTO dto = new MovieResponseDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setRating(rating);
+        return dto;
+    }
+}
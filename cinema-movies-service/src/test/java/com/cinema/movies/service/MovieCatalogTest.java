@@ -0,0 +1,80 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.repository.MovieRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovieCatalogTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    private MovieCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new MovieCatalog(movieRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testCurrent_LoadsOnceOnFirstUse() {
+        when(movieRepository.findAll()).thenReturn(List.of(movie(1L, "Heat"), movie(2L, "Ran")));
+
+        assertThat(catalog.current().all()).extracting(Movie::getId).containsExactly(1L, 2L);
+        assertThat(catalog.current().getVersion()).isEqualTo(1);
+        verify(movieRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testPutAndRemove_SwapInNewVersionsOfCopies() {
+        when(movieRepository.findAll()).thenReturn(List.of(movie(1L, "Heat")));
+        catalog.current();
+
+        Movie saved = movie(2L, "Ran");
+        catalog.put(saved);
+        saved.setTitle("Changed after saving");
+        catalog.remove(1L);
+
+        assertThat(catalog.current().getVersion()).isEqualTo(3);
+        assertThat(catalog.current().all()).extracting(Movie::getTitle).containsExactly("Ran");
+        assertThat(catalog.current().get(2L)).isNotSameAs(saved);
+    }
+
+    @Test
+    void testReload_DiscardedWhenWriteHappensWhileLoading() {
+        when(movieRepository.findAll())
+                .thenReturn(List.of(movie(1L, "Heat")))
+                .thenAnswer(invocation -> {
+                    catalog.put(movie(2L, "Ran"));
+                    return List.of(movie(1L, "Heat"));
+                })
+                .thenReturn(List.of(movie(1L, "Heat"), movie(2L, "Ran"), movie(3L, "Ikiru")));
+        catalog.current();
+
+        assertThat(catalog.reload()).isFalse();
+        assertThat(catalog.current().all()).extracting(Movie::getId).containsExactly(1L, 2L);
+
+        catalog.refresh();
+        assertThat(catalog.current().all()).extracting(Movie::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    private static Movie movie(Long id, String title) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        return movie;
+    }
+}
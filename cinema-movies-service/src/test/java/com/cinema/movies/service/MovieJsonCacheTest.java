@@ -0,0 +1,128 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieMapper;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.event.MovieChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MovieJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private MovieMapper movieMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private MovieJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        movieMapper = spy(new MovieMapper());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new MovieJsonCache(objectMapper, movieMapper, 100, meterRegistry);
+    }
+
+    @Test
+    void testJson_SameAsSerializingTheResponse() throws IOException {
+        Movie movie = movie(1L, "Heat", LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        byte[] json = cache.json(movie);
+
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(new MovieMapper().toResponseDTO(movie)));
+    }
+
+    @Test
+    void testJson_ReusedUntilTheMovieIsUpdated() {
+        Movie movie = movie(1L, "Heat", LocalDateTime.of(2025, 1, 1, 12, 0));
+        Movie copy = movie(1L, "Heat", LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        byte[] first = cache.json(movie);
+        assertThat(cache.json(copy)).isSameAs(first);
+        verify(movieMapper, times(1)).toResponseDTO(any(Movie.class));
+
+        Movie updated = movie(1L, "Heat (Director's Cut)", LocalDateTime.of(2025, 1, 2, 12, 0));
+        assertThat(new String(cache.json(updated))).contains("Director's Cut");
+        assertThat(meterRegistry.get("movies.json_cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("movies.json_cache.gets").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testJson_WithoutUpdateTimeOnlyTheSameInstanceMatches() {
+        Movie movie = movie(1L, "Heat", null);
+
+        byte[] first = cache.json(movie);
+
+        assertThat(cache.json(movie)).isSameAs(first);
+        assertThat(cache.json(movie(1L, "Ran", null))).isNotSameAs(first);
+    }
+
+    @Test
+    void testGzip_DecompressesToTheJson() throws IOException {
+        Movie movie = movie(1L, "Heat", LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        byte[] gzip = cache.gzip(movie);
+
+        assertThat(cache.gzip(movie)).isSameAs(gzip);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertThat(in.readAllBytes()).isEqualTo(cache.json(movie));
+        }
+    }
+
+    @Test
+    void testJsonArray_ConcatenatesTheCachedMovies() throws IOException {
+        Movie heat = movie(1L, "Heat", LocalDateTime.of(2025, 1, 1, 12, 0));
+        Movie ran = movie(2L, "Ran", LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        byte[] array = cache.jsonArray(List.of(ran, heat)).toByteArray();
+
+        MovieResponseDTO[] movies = objectMapper.readValue(array, MovieResponseDTO[].class);
+        assertThat(movies).extracting(MovieResponseDTO::getTitle).containsExactly("Ran", "Heat");
+        assertThat(new String(cache.jsonArray(List.of()).toByteArray())).isEqualTo("[]");
+    }
+
+    @Test
+    void testOnMovieChanged_EvictsThePreviousVersion() {
+        Movie movie = movie(1L, "Heat", LocalDateTime.of(2025, 1, 1, 12, 0));
+        cache.json(movie);
+
+        cache.onMovieChanged(MovieChangedEvent.deleted(new MovieMapper().toResponseDTO(movie)));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testSize_BoundedByMaxEntries() {
+        MovieJsonCache small = new MovieJsonCache(objectMapper, movieMapper, 2, meterRegistry);
+
+        for (long id = 1; id <= 5; id++) {
+            small.json(movie(id, "Movie " + id, null));
+        }
+
+        assertThat(small.size()).isLessThanOrEqualTo(2);
+    }
+
+    private static Movie movie(Long id, String title, LocalDateTime updatedAt) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setGenre("Drama");
+        movie.setReleaseDate(LocalDate.of(1995, 12, 15));
+        movie.setRating(8.3);
+        movie.setUpdatedAt(updatedAt);
+        return movie;
+    }
+}
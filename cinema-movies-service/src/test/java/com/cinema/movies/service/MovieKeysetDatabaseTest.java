@@ -0,0 +1,92 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieQueryCriteria;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.repository.MovieRepository;
+import com.cinema.movies.repository.MovieSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the keyset predicate against PostgreSQL, whose NULL ordering it relies on:
+ * following the cursor page by page must return the same rows, in the same order,
+ * as a single query. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MovieKeysetDatabaseTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.saveAll(List.of(
+                movie("Alien", 8.5, LocalDate.of(1979, 5, 25)),
+                movie("Alien", null, LocalDate.of(1979, 5, 25)),
+                movie("Aliens", 8.4, LocalDate.of(1986, 7, 18)),
+                movie("Collateral", 8.0, LocalDate.of(2004, 8, 6)),
+                movie("Heat", 8.3, null),
+                movie("Her", 8.0, LocalDate.of(2013, 12, 18)),
+                movie("Hereditary", null, null),
+                movie("Zodiac", 8.4, LocalDate.of(2007, 3, 2))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"title", "title,desc", "releaseDate", "releaseDate,desc", "rating", "rating,desc",
+            "rating,desc;releaseDate", "releaseDate;title,desc", "rating;title", "id,desc"})
+    void testCursorPagesMatchSingleQuery(String sort) {
+        Sort order = MovieQueryService.parseSort(List.of(sort.split(";")));
+        Specification<Movie> all = MovieSpecifications.matching(new MovieQueryCriteria());
+        List<Long> expected = ids(movieRepository.findSlice(all, order, 0, 100));
+
+        List<Long> paged = new ArrayList<>();
+        Specification<Movie> specification = all;
+        List<Movie> page;
+        do {
+            page = movieRepository.findSlice(specification, order, 0, 2);
+            paged.addAll(ids(page));
+            if (!page.isEmpty()) {
+                String cursor = MovieQueryService.encodeCursor(order, page.get(page.size() - 1));
+                specification = all.and(MovieSpecifications.after(order, MovieQueryService.decodeCursor(cursor, order)));
+            }
+        } while (page.size() == 2 && paged.size() <= expected.size());
+
+        assertThat(expected).hasSize(8);
+        assertThat(paged).isEqualTo(expected);
+    }
+
+    private static List<Long> ids(List<Movie> movies) {
+        return movies.stream().map(Movie::getId).toList();
+    }
+
+    private static Movie movie(String title, Double rating, LocalDate releaseDate) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setGenre("Drama");
+        movie.setRating(rating);
+        movie.setReleaseDate(releaseDate);
+        return movie;
+    }
+}
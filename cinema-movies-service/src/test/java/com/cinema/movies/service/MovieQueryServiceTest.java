@@ -0,0 +1,179 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieMapper;
+import com.cinema.movies.dto.MoviePageDTO;
+import com.cinema.movies.dto.MovieQueryCriteria;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.exception.InvalidQueryException;
+import com.cinema.movies.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovieQueryServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFind_ReturnsCursorAndEstimateWhenMoreRowsExist() {
+        when(movieRepository.findSlice(any(Specification.class), any(Sort.class), eq(0), eq(3)))
+                .thenReturn(List.of(movie(1L, 9.0), movie(2L, 8.5), movie(3L, 8.0)));
+        when(jdbcTemplate.queryForList(contains("lower(genre) = ?"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("Seq Scan on movies  (cost=0.00..35.50 rows=42 width=4)"));
+
+        MovieQueryCriteria criteria = new MovieQueryCriteria("Drama", null, null, null, null);
+        MoviePageDTO result = service(100).find(criteria, List.of("rating,desc"), null, null, 2);
+
+        assertThat(result.getItems()).extracting("id").containsExactly(1L, 2L);
+        assertThat(result.getPage()).isZero();
+        assertThat(result.getSize()).isEqualTo(2);
+        assertThat(result.getSort()).containsExactly("rating,desc", "id,desc");
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getEstimatedTotal()).isEqualTo(42);
+        Sort order = MovieQueryService.parseSort(List.of("rating,desc"));
+        assertThat(MovieQueryService.decodeCursor(result.getNextCursor(), order)).containsExactly(8.5, 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFind_PageNumberSkipsRowsAndLastPageHasNoCursor() {
+        when(movieRepository.findSlice(any(Specification.class), any(Sort.class), eq(40), eq(21)))
+                .thenReturn(List.of(movie(41L, 7.0)));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+
+        MoviePageDTO result = service(100).find(new MovieQueryCriteria(), null, 2, null, 20);
+
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getSort()).containsExactly("id,asc");
+        assertThat(result.getEstimatedTotal()).isEqualTo(-1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFind_WithCursorIgnoresPageNumber() {
+        Sort order = MovieQueryService.parseSort(List.of("releaseDate"));
+        String cursor = MovieQueryService.encodeCursor(order, movie(5L, 7.0));
+        when(movieRepository.findSlice(any(Specification.class), eq(order), eq(0), eq(21))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+
+        MoviePageDTO result = service(100).find(new MovieQueryCriteria(), List.of("releaseDate"), 3, cursor, 20);
+
+        assertThat(result.getPage()).isNull();
+        verify(movieRepository).findSlice(any(Specification.class), eq(order), eq(0), eq(21));
+    }
+
+    @Test
+    void testFind_RejectsPagesBeyondMaxOffset() {
+        assertThatThrownBy(() -> service(100).find(new MovieQueryCriteria(), null, 600, null, 20))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("nextCursor");
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void testFind_RejectsReleaseYearsOutOfRange() {
+        MovieQueryCriteria beyondMax = new MovieQueryCriteria(null, null, null, Integer.MAX_VALUE, null);
+        MovieQueryCriteria beforeMin = new MovieQueryCriteria(null, null, -5, null, null);
+
+        assertThatThrownBy(() -> service(100).find(beyondMax, null, null, null, 20))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("Release year");
+        assertThatThrownBy(() -> service(100).find(beforeMin, null, null, null, 20))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> service(100).estimateCount(beyondMax))
+                .isInstanceOf(InvalidQueryException.class);
+        verifyNoInteractions(movieRepository, jdbcTemplate);
+    }
+
+    @Test
+    void testParseSort_MultipleLevelsEndingWithId() {
+        Sort sort = MovieQueryService.parseSort(List.of("rating,desc", "releaseDate,desc"));
+
+        assertThat(sort).containsExactly(Sort.Order.desc("rating"), Sort.Order.desc("releaseDate"),
+                Sort.Order.desc("id"));
+    }
+
+    @Test
+    void testParseSort_AcceptsParametersSplitOnCommas() {
+        Sort sort = MovieQueryService.parseSort(Arrays.asList("rating", "desc", "title"));
+
+        assertThat(sort).containsExactly(Sort.Order.desc("rating"), Sort.Order.asc("title"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    void testParseSort_DropsLevelsAfterIdAndDuplicates() {
+        Sort sort = MovieQueryService.parseSort(List.of("rating", "rating,desc", "id,desc", "title"));
+
+        assertThat(sort).containsExactly(Sort.Order.asc("rating"), Sort.Order.desc("id"));
+    }
+
+    @Test
+    void testParseSort_RejectsUnknownProperty() {
+        assertThatThrownBy(() -> MovieQueryService.parseSort(List.of("description")))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("description");
+    }
+
+    @Test
+    void testCursor_RoundTripsNullsAndDates() {
+        Sort order = MovieQueryService.parseSort(List.of("rating,desc", "releaseDate,desc"));
+        Movie unrated = movie(7L, null);
+
+        String cursor = MovieQueryService.encodeCursor(order, unrated);
+
+        assertThat(MovieQueryService.decodeCursor(cursor, order))
+                .containsExactly(null, LocalDate.of(2001, 5, 7), 7L);
+    }
+
+    @Test
+    void testCursor_RejectedForAnotherOrderOrWhenMalformed() {
+        Sort byRating = MovieQueryService.parseSort(List.of("rating"));
+        Sort byTitle = MovieQueryService.parseSort(List.of("title"));
+        String cursor = MovieQueryService.encodeCursor(byRating, movie(1L, 8.0));
+
+        assertThatThrownBy(() -> MovieQueryService.decodeCursor(cursor, byTitle))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> MovieQueryService.decodeCursor("not-a-cursor!", byRating))
+                .isInstanceOf(InvalidQueryException.class);
+    }
+
+    private MovieQueryService service(int maxPageSize) {
+        return new MovieQueryService(movieRepository, new MovieMapper(), jdbcTemplate, maxPageSize, 10_000);
+    }
+
+    private static Movie movie(Long id, Double rating) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setGenre("Drama");
+        movie.setReleaseDate(LocalDate.of(2001, 5, 7));
+        movie.setRating(rating);
+        return movie;
+    }
+}
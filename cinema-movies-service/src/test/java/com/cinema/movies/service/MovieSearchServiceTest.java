@@ -0,0 +1,144 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.entity.Movie;
+import com.cinema.movies.event.MovieChangedEvent;
+import com.cinema.movies.repository.MovieRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSearchServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSearch_LoadsIndexedMatchesInRankOrder() {
+        MovieSearchService service = service("memory");
+        when(movieRepository.findAllTitles()).thenReturn(List.of(
+                new Object[]{1L, "Alien vs. Predator"},
+                new Object[]{2L, "Alien"},
+                new Object[]{3L, "Heat"}));
+        when(movieRepository.findAll()).thenReturn(List.of(movie(1L, "Alien vs. Predator"), movie(2L, "Alien"),
+                movie(3L, "Heat")));
+        service.initialize();
+
+        List<Movie> result = service.search("alien", 10);
+
+        assertThat(result).extracting(Movie::getId).containsExactly(2L, 1L);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testSearch_FallsBackToDatabaseBeforeIndexIsBuilt() {
+        MovieSearchService service = service("memory");
+        when(movieRepository.findByTitleContainingIgnoreCase("alien")).thenReturn(List.of(movie(2L, "Alien")));
+
+        assertThat(service.search("alien", 10)).extracting(Movie::getId).containsExactly(2L);
+    }
+
+    @Test
+    void testOnMovieChanged_UpdatesIndex() {
+        MovieSearchService service = service("memory");
+        when(movieRepository.findAllTitles()).thenReturn(List.<Object[]>of(new Object[]{1L, "Alien"}));
+        service.rebuild();
+
+        service.onMovieChanged(MovieChangedEvent.updated(dto(1L, "Alien"), dto(1L, "Aliens")));
+        service.onMovieChanged(MovieChangedEvent.created(dto(2L, "Heat")));
+        service.onMovieChanged(MovieChangedEvent.deleted(dto(1L, "Aliens")));
+
+        when(movieRepository.findAll()).thenReturn(List.of(movie(2L, "Heat")));
+        assertThat(service.search("alien", 10)).isEmpty();
+        assertThat(service.search("heat", 10)).extracting(Movie::getId).containsExactly(2L);
+    }
+
+    @Test
+    void testRebuild_AppliesChangesReceivedWhileLoading() {
+        MovieSearchService service = service("memory");
+        when(movieRepository.findAllTitles()).thenAnswer(invocation -> {
+            service.onMovieChanged(MovieChangedEvent.created(dto(2L, "Heat")));
+            return List.<Object[]>of(new Object[]{1L, "Alien"});
+        });
+        service.rebuild();
+
+        when(movieRepository.findAll()).thenReturn(List.of(movie(1L, "Alien"), movie(2L, "Heat")));
+        assertThat(service.search("heat", 10)).extracting(Movie::getId).containsExactly(2L);
+        assertThat(service.search("alien", 10)).extracting(Movie::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testScheduledRebuild_PicksUpTitlesChangedElsewhere() {
+        MovieSearchService service = service("memory");
+        when(movieRepository.findAllTitles())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Alien"}))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Aliens"}, new Object[]{2L, "Heat"}));
+        service.rebuild();
+
+        service.scheduledRebuild();
+
+        when(movieRepository.findAll()).thenReturn(List.of(movie(1L, "Aliens"), movie(2L, "Heat")));
+        assertThat(service.search("heat", 10)).extracting(Movie::getId).containsExactly(2L);
+    }
+
+    @Test
+    void testSearch_PgTrgmModeQueriesDatabase() {
+        MovieSearchService service = service("pg_trgm");
+        service.initialize();
+        when(movieRepository.searchByTitleSimilarity("100\\% amelie", 5)).thenReturn(List.of(movie(2L, "Amélie")));
+
+        assertThat(service.search(" 100%  Amélie", 5)).extracting(Movie::getId).containsExactly(2L);
+        verify(jdbcTemplate).execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        verify(jdbcTemplate).execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+        verify(movieRepository, never()).findAllTitles();
+    }
+
+    @Test
+    void testInitialize_PgTrgmUnavailableUsesMemoryIndex() {
+        MovieSearchService service = service("pg_trgm");
+        doThrow(new DataAccessResourceFailureException("permission denied"))
+                .when(jdbcTemplate).execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        when(movieRepository.findAllTitles()).thenReturn(List.<Object[]>of(new Object[]{2L, "Alien"}));
+        when(movieRepository.findAll()).thenReturn(List.of(movie(2L, "Alien")));
+        service.initialize();
+
+        assertThat(service.search("alien", 5)).extracting(Movie::getId).containsExactly(2L);
+    }
+
+    private MovieSearchService service(String mode) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new MovieSearchService(movieRepository, new MovieCatalog(movieRepository, meterRegistry), jdbcTemplate,
+                mode, 500, meterRegistry);
+    }
+
+    private static Movie movie(Long id, String title) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        return movie;
+    }
+
+    private static MovieResponseDTO dto(Long id, String title) {
+        MovieResponseDTO dto = new MovieResponseDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        return dto;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cinema.movies.service;
+
+import com.cinema.movies.dto.MovieMapper;
+import com.cinema.movies.dto.MovieResponseDTO;
+import com.cinema.movies.entity.Movie;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a list of movies as the list endpoints used to (mapping, serializing,
+ * then parsing the body again for the content rating header) against writing
+ * the fragments held by {@link MovieJsonCache}.
+ * Not part of the unit test run; see the README for how to launch it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int movies;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MovieMapper movieMapper = new MovieMapper();
+    private List<Movie> list;
+    private MovieJsonCache cache;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        list = new ArrayList<>(movies);
+        for (long id = 1; id <= movies; id++) {
+            Movie movie = new Movie();
+            movie.setId(id);
+            movie.setTitle("Movie " + id);
+            movie.setDescription("A film about the number " + id + ", told over two hours.");
+            movie.setGenre("Drama");
+            movie.setDuration(90 + random.nextInt(60));
+            movie.setDirector("Director " + random.nextInt(100));
+            movie.setReleaseDate(LocalDate.of(1950 + random.nextInt(75), 1 + random.nextInt(12), 1));
+            movie.setRating(Math.round(random.nextDouble() * 100) / 10.0);
+            movie.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+            movie.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusSeconds(id));
+            list.add(movie);
+        }
+        cache = new MovieJsonCache(objectMapper, movieMapper, 200_000, new SimpleMeterRegistry());
+        cache.jsonArray(list);
+    }
+
+    @Benchmark
+    public Double mapSerializeAndParse() throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(movieMapper.toResponseDTOList(list));
+        List<MovieResponseDTO> parsed = objectMapper.readValue(body, new TypeReference<List<MovieResponseDTO>>() {});
+        return parsed.stream().map(MovieResponseDTO::getRating).max(Double::compareTo).orElse(null);
+    }
+
+    @Benchmark
+    public Double writeCachedFragments() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.jsonArray(list).writeTo(out);
+        return list.stream().map(Movie::getRating).max(Double::compareTo).orElse(null);
+    }
+}
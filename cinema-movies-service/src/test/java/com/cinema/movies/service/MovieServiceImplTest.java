@@ -1,8 +1,10 @@
 package com.cinema.movies.service;
 
+import com.cinema.movies.catalog.CatalogSnapshot;
 import com.cinema.movies.client.BookingServiceClient;
 import com.cinema.movies.dto.*;
 import com.cinema.movies.entity.Movie;
+import com.cinema.movies.event.MovieChangedEvent;
 import com.cinema.movies.exception.ResourceNotFoundException;
 import com.cinema.movies.repository.MovieRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -39,6 +42,21 @@ class MovieServiceImplTest {
     @Mock
     private MovieMapper movieMapper;
 
+    @Mock
+    private MovieCatalog movieCatalog;
+
+    @Mock
+    private MovieSearchService movieSearchService;
+
+    @Mock
+    private MovieAutocompleteService movieAutocompleteService;
+
+    @Mock
+    private MovieQueryService movieQueryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MovieServiceImpl movieService;
 
@@ -62,6 +80,20 @@ class MovieServiceImplTest {
         testMovieResponseDTO.setId(1L);
         testMovieResponseDTO.setTitle("Test Movie");
         testMovieResponseDTO.setRating(8.5);
+
+        // Movies missing from the catalog are looked up in the repository
+        lenient().when(movieCatalog.current()).thenReturn(CatalogSnapshot.empty());
+    }
+
+    private void givenCatalog(Movie... movies) {
+        when(movieCatalog.current()).thenReturn(CatalogSnapshot.of(Arrays.asList(movies), 1));
+    }
+
+    private static Movie movieWithRating(Long id, Double rating) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setRating(rating);
+        return movie;
     }
 
     @Test
@@ -77,12 +109,14 @@ class MovieServiceImplTest {
         assertEquals(testMovie.getId(), result.getId());
         assertEquals(testMovie.getTitle(), result.getTitle());
         verify(movieRepository, times(1)).save(testMovie);
+        verify(movieCatalog, times(1)).put(testMovie);
+        verify(eventPublisher, times(1)).publishEvent(any(MovieChangedEvent.class));
     }
 
     @Test
     void testGetMovieById_Success() {
         // Arrange
-        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+        givenCatalog(testMovie);
 
         // Act
         Movie result = movieService.getMovieById(1L);
@@ -91,6 +125,19 @@ class MovieServiceImplTest {
         assertNotNull(result);
         assertEquals(testMovie.getId(), result.getId());
         assertEquals(testMovie.getTitle(), result.getTitle());
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void testGetMovieById_NotInCatalogLoadedFromRepository() {
+        // Arrange
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+
+        // Act
+        Movie result = movieService.getMovieById(1L);
+
+        // Assert
+        assertEquals(testMovie, result);
         verify(movieRepository, times(1)).findById(1L);
     }
 
@@ -127,6 +174,25 @@ class MovieServiceImplTest {
         assertNotNull(result);
         verify(movieRepository, times(1)).findById(1L);
         verify(movieRepository, times(1)).save(any(Movie.class));
+        verify(movieCatalog, times(1)).put(testMovie);
+        verify(bookingServiceClient, times(1)).publishMovieTitleChanged(testMovie.getId(), "Updated Movie");
+    }
+
+    @Test
+    void testUpdateMovie_TitleUnchanged_DoesNotPublish() {
+        // Arrange
+        Movie updatedMovie = new Movie();
+        updatedMovie.setTitle(testMovie.getTitle());
+        updatedMovie.setDescription("Updated Description");
+
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+        when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
+
+        // Act
+        movieService.updateMovie(1L, updatedMovie);
+
+        // Assert
+        verify(bookingServiceClient, never()).publishMovieTitleChanged(any(), any());
     }
 
     @Test
@@ -151,6 +217,7 @@ class MovieServiceImplTest {
         // Assert
         verify(movieRepository, times(1)).findById(1L);
         verify(movieRepository, times(1)).delete(testMovie);
+        verify(movieCatalog, times(1)).remove(1L);
     }
 
     @Test
@@ -162,13 +229,13 @@ class MovieServiceImplTest {
         assertThrows(ResourceNotFoundException.class, () -> movieService.deleteMovie(999L));
         verify(movieRepository, times(1)).findById(999L);
         verify(movieRepository, never()).delete(any());
+        verify(movieCatalog, never()).remove(any());
     }
 
     @Test
     void testGetAllMovies_Success() {
         // Arrange
-        List<Movie> movies = Arrays.asList(testMovie, new Movie(), new Movie());
-        when(movieRepository.findAll()).thenReturn(movies);
+        givenCatalog(movieWithRating(3L, 7.0), testMovie, movieWithRating(2L, null));
 
         // Act
         List<Movie> result = movieService.getAllMovies();
@@ -176,13 +243,29 @@ class MovieServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(3, result.size());
-        verify(movieRepository, times(1)).findAll();
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(3L, result.get(2).getId());
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetCatalogVersion_UsesCatalogFingerprint() {
+        // Arrange
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(testMovie), 7);
+        when(movieCatalog.current()).thenReturn(snapshot);
+
+        // Act
+        long result = movieService.getCatalogVersion();
+
+        // Assert
+        assertEquals(snapshot.getFingerprint(), result);
+        verifyNoInteractions(movieRepository);
     }
 
     @Test
     void testGetAllMovies_EmptyList() {
         // Arrange
-        when(movieRepository.findAll()).thenReturn(new ArrayList<>());
+        givenCatalog();
 
         // Act
         List<Movie> result = movieService.getAllMovies();
@@ -190,58 +273,88 @@ class MovieServiceImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(movieRepository, times(1)).findAll();
+        verify(movieRepository, never()).findAll();
     }
 
     @Test
     void testSearchMoviesByTitle_Success() {
         // Arrange
         List<Movie> movies = Arrays.asList(testMovie);
-        when(movieRepository.findByTitleContainingIgnoreCase("Test")).thenReturn(movies);
+        when(movieSearchService.search("Test", 20)).thenReturn(movies);
 
         // Act
-        List<Movie> result = movieService.searchMoviesByTitle("Test");
+        List<Movie> result = movieService.searchMoviesByTitle("Test", 20);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Test Movie", result.get(0).getTitle());
-        verify(movieRepository, times(1)).findByTitleContainingIgnoreCase("Test");
+        verify(movieSearchService, times(1)).search("Test", 20);
     }
 
     @Test
     void testSearchMoviesByTitle_NoResults() {
         // Arrange
-        when(movieRepository.findByTitleContainingIgnoreCase("NonExistent")).thenReturn(new ArrayList<>());
+        when(movieSearchService.search("NonExistent", 20)).thenReturn(new ArrayList<>());
 
         // Act
-        List<Movie> result = movieService.searchMoviesByTitle("NonExistent");
+        List<Movie> result = movieService.searchMoviesByTitle("NonExistent", 20);
 
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testFindMovies_DelegatesToQueryService() {
+        // Arrange
+        MovieQueryCriteria criteria = new MovieQueryCriteria("Drama", null, 1990, 1999, 7.0);
+        List<String> sort = List.of("rating,desc", "releaseDate,desc");
+        MoviePageDTO page = new MoviePageDTO(List.of(), 0, 20, List.of("rating,desc", "releaseDate,desc", "id,desc"),
+                null, false, 0);
+        when(movieQueryService.find(criteria, sort, 0, null, 20)).thenReturn(page);
+
+        // Act
+        MoviePageDTO result = movieService.findMovies(criteria, sort, 0, null, 20);
+
+        // Assert
+        assertSame(page, result);
+        verifyNoInteractions(movieCatalog);
+    }
+
+    @Test
+    void testAutocomplete_DelegatesToAutocompleteService() {
+        // Arrange
+        List<MovieSuggestionDTO> suggestions = List.of(new MovieSuggestionDTO(1L, "Test Movie"));
+        when(movieAutocompleteService.suggest("tes", 5)).thenReturn(suggestions);
+
+        // Act
+        List<MovieSuggestionDTO> result = movieService.autocomplete("tes", 5);
+
+        // Assert
+        assertEquals(suggestions, result);
+        verifyNoInteractions(movieRepository);
+    }
+
     @Test
     void testFilterMoviesByGenre_Success() {
         // Arrange
-        List<Movie> movies = Arrays.asList(testMovie);
-        when(movieRepository.findByGenreIgnoreCase("Action")).thenReturn(movies);
+        givenCatalog(testMovie, movieWithRating(2L, 7.0));
 
         // Act
-        List<Movie> result = movieService.filterMoviesByGenre("Action");
+        List<Movie> result = movieService.filterMoviesByGenre("action");
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Action", result.get(0).getGenre());
-        verify(movieRepository, times(1)).findByGenreIgnoreCase("Action");
+        verify(movieRepository, never()).findByGenreIgnoreCase(any());
     }
 
     @Test
     void testFilterMoviesByGenre_NoResults() {
         // Arrange
-        when(movieRepository.findByGenreIgnoreCase("Horror")).thenReturn(new ArrayList<>());
+        givenCatalog(testMovie);
 
         // Act
         List<Movie> result = movieService.filterMoviesByGenre("Horror");
@@ -254,15 +367,7 @@ class MovieServiceImplTest {
     @Test
     void testSortMoviesByRating_Descending() {
         // Arrange
-        Movie movie1 = new Movie();
-        movie1.setRating(7.0);
-        Movie movie2 = new Movie();
-        movie2.setRating(9.0);
-        Movie movie3 = new Movie();
-        movie3.setRating(8.0);
-
-        List<Movie> movies = Arrays.asList(movie1, movie2, movie3);
-        when(movieRepository.findAll()).thenReturn(movies);
+        givenCatalog(movieWithRating(1L, 7.0), movieWithRating(2L, 9.0), movieWithRating(3L, 8.0));
 
         // Act
         List<Movie> result = movieService.sortMoviesByRating("desc");
@@ -278,15 +383,7 @@ class MovieServiceImplTest {
     @Test
     void testSortMoviesByRating_Ascending() {
         // Arrange
-        Movie movie1 = new Movie();
-        movie1.setRating(7.0);
-        Movie movie2 = new Movie();
-        movie2.setRating(9.0);
-        Movie movie3 = new Movie();
-        movie3.setRating(8.0);
-
-        List<Movie> movies = Arrays.asList(movie1, movie2, movie3);
-        when(movieRepository.findAll()).thenReturn(movies);
+        givenCatalog(movieWithRating(1L, 7.0), movieWithRating(2L, 9.0), movieWithRating(3L, 8.0));
 
         // Act
         List<Movie> result = movieService.sortMoviesByRating("asc");
@@ -302,15 +399,7 @@ class MovieServiceImplTest {
     @Test
     void testSortMoviesByRating_WithNullRatings() {
         // Arrange
-        Movie movie1 = new Movie();
-        movie1.setRating(null);
-        Movie movie2 = new Movie();
-        movie2.setRating(9.0);
-        Movie movie3 = new Movie();
-        movie3.setRating(null);
-
-        List<Movie> movies = Arrays.asList(movie1, movie2, movie3);
-        when(movieRepository.findAll()).thenReturn(movies);
+        givenCatalog(movieWithRating(1L, null), movieWithRating(2L, 9.0), movieWithRating(3L, null));
 
         // Act
         List<Movie> result = movieService.sortMoviesByRating("desc");
@@ -320,6 +409,8 @@ class MovieServiceImplTest {
         assertEquals(3, result.size());
         assertEquals(9.0, result.get(0).getRating());
         // Null ratings should be treated as 0.0 and come last
+        assertNull(result.get(1).getRating());
+        assertNull(result.get(2).getRating());
     }
 
     @Test